@@ -34,6 +34,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.TransactionManagerImpl;
@@ -44,6 +45,7 @@ import org.sirix.api.TransactionManager;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.cache.BufferManager;
 import org.sirix.cache.BufferManagerImpl;
+import org.sirix.cache.OffHeapPageCache;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixUsageException;
@@ -83,6 +85,9 @@ public final class LocalDatabase implements Database {
   /** Buffers / page cache for each resource. */
   private final ConcurrentMap<Path, BufferManager> mBufferManagers;
 
+  /** Off-heap buffer of decompressed pages, shared by all resources ({@code null} if disabled). */
+  private final OffHeapPageCache mOffHeapPageCache;
+
   /** Central repository of all resource-ID/resource-name tuples. */
   private final BiMap<Long, String> mResources;
 
@@ -105,6 +110,9 @@ public final class LocalDatabase implements Database {
     mDBConfig = checkNotNull(dbConfig);
     mResources = Maps.synchronizedBiMap(HashBiMap.create());
     mBufferManagers = new ConcurrentHashMap<>();
+    mOffHeapPageCache = dbConfig.getMaxOffHeapBufferSize() > 0
+        ? new OffHeapPageCache(dbConfig.getMaxOffHeapBufferSize())
+        : null;
     mResourceStore = new ResourceStore();
     mTransactionManager = new TransactionManagerImpl();
   }
@@ -282,7 +290,7 @@ public final class LocalDatabase implements Database {
         resourceConfig.getID(), resourceConfig.getResource().getFileName().toString());
 
     if (!mBufferManagers.containsKey(resourceFile))
-      mBufferManagers.put(resourceFile, new BufferManagerImpl());
+      mBufferManagers.put(resourceFile, new BufferManagerImpl(resourceConfig.maxBufferSize));
 
     final ResourceManager resourceManager = mResourceStore.openResource(
         this, resourceConfig, mBufferManagers.get(resourceFile), resourceFile);
@@ -363,6 +371,23 @@ public final class LocalDatabase implements Database {
     return mBufferManagers.get(resourceFile);
   }
 
+  /**
+   * Replace the buffer of a resource, once the offsets of its pages have changed.
+   *
+   * @param resourceConfig the configuration of the resource
+   * @return the new buffer
+   */
+  public BufferManager resetPageCache(final ResourceConfiguration resourceConfig) {
+    final BufferManager bufferManager = new BufferManagerImpl(resourceConfig.maxBufferSize);
+    mBufferManagers.put(resourceConfig.resourcePath, bufferManager);
+    return bufferManager;
+  }
+
+  @Nullable
+  OffHeapPageCache getOffHeapPageCache() {
+    return mOffHeapPageCache;
+  }
+
   @Override
   public Transaction beginTransaction() {
     return null;
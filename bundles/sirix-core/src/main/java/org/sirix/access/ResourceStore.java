@@ -10,6 +10,9 @@ import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.XdmResourceManager;
 import org.sirix.api.ResourceManager;
 import org.sirix.cache.BufferManager;
+import org.sirix.cache.OffHeapPageCache;
+import org.sirix.io.FileBackedStorage;
+import org.sirix.io.OffHeapCachingStorage;
 import org.sirix.io.Reader;
 import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
@@ -74,9 +77,17 @@ public final class ResourceStore implements AutoCloseable {
       final Semaphore writeSem =
           Databases.computeWriteSempahoreIfAbsent(resourceConfig.getResource(), 1);
 
+      // Only pages of file-backed storages are serialized, thus only they are cached off-heap.
+      final OffHeapPageCache offHeapPageCache = database.getOffHeapPageCache();
+      final Storage resourceStorage =
+          offHeapPageCache == null || !(storage instanceof FileBackedStorage)
+              ? storage
+              : new OffHeapCachingStorage((FileBackedStorage) storage, offHeapPageCache,
+                  resourceConfig.getID());
+
       // Create the resource manager instance.
       final ResourceManager resourceManager = new XdmResourceManager(database, this, resourceConfig,
-          bufferManager, StorageType.getStorage(resourceConfig), uberPage, readSem, writeSem);
+          bufferManager, resourceStorage, uberPage, readSem, writeSem);
 
       // Put it in the databases cache.
       Databases.putResourceManager(resourceFile, resourceManager);
@@ -125,6 +125,12 @@ public final class DatabaseConfiguration {
   /** Maximum of open resource write transactions. */
   public static final int MAX_RESOURCE_WTX = 1;
 
+  /** Default maximum size of the buffer of each resource in bytes. */
+  public static final long DEFAULT_MAX_BUFFER_SIZE = 256L << 20;
+
+  /** Default maximum size of the off-heap buffer of the database in bytes (disabled). */
+  public static final long DEFAULT_MAX_OFF_HEAP_BUFFER_SIZE = 0;
+
   /** Binary version of storage. */
   private final String mBinaryVersion;
 
@@ -137,6 +143,12 @@ public final class DatabaseConfiguration {
   /** Maximum of open resource read transactions. */
   private int mMaxResourceReadTrx;
 
+  /** Maximum size of the buffer of each resource in bytes. */
+  private long mMaxBufferSize;
+
+  /** Maximum size of the off-heap buffer, which is shared by all resources, in bytes. */
+  private long mMaxOffHeapBufferSize;
+
   /**
    * Constructor with the path to be set.
    *
@@ -146,6 +158,8 @@ public final class DatabaseConfiguration {
     mBinaryVersion = BINARY;
     mFile = file;
     mMaxResourceReadTrx = 512;
+    mMaxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+    mMaxOffHeapBufferSize = DEFAULT_MAX_OFF_HEAP_BUFFER_SIZE;
   }
 
   /**
@@ -169,6 +183,50 @@ public final class DatabaseConfiguration {
     return mMaxResourceReadTrx;
   }
 
+  /**
+   * Set the maximum size of the buffer, which caches the pages of a resource and which is shared by
+   * all transactions on the resource. The size of a page is estimated by the size of its records.
+   *
+   * @param maxSize maximum size of the buffer of each resource in bytes
+   * @return this {@link DatabaseConfiguration} instance
+   */
+  public DatabaseConfiguration setMaxBufferSize(final long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must be >= 0!");
+    mMaxBufferSize = maxSize;
+    return this;
+  }
+
+  /**
+   * Get the maximum size of the buffer of each resource.
+   *
+   * @return the maximum size of the buffer of each resource in bytes
+   */
+  public long getMaxBufferSize() {
+    return mMaxBufferSize;
+  }
+
+  /**
+   * Set the maximum size of the off-heap buffer, which caches the decompressed pages of all
+   * resources of the database outside of the Java heap. A size of {@code 0} disables the buffer.
+   *
+   * @param maxSize maximum size of the off-heap buffer in bytes
+   * @return this {@link DatabaseConfiguration} instance
+   */
+  public DatabaseConfiguration setMaxOffHeapBufferSize(final long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must be >= 0!");
+    mMaxOffHeapBufferSize = maxSize;
+    return this;
+  }
+
+  /**
+   * Get the maximum size of the off-heap buffer of the database.
+   *
+   * @return the maximum size of the off-heap buffer in bytes, {@code 0} if it is disabled
+   */
+  public long getMaxOffHeapBufferSize() {
+    return mMaxOffHeapBufferSize;
+  }
+
   /**
    * Set unique maximum resource ID.
    *
@@ -244,6 +302,8 @@ public final class DatabaseConfiguration {
       jsonWriter.name("file").value(filePath);
       jsonWriter.name("ID").value(config.mMaxResourceID);
       jsonWriter.name("max-resource-read-trx").value(config.mMaxResourceReadTrx);
+      jsonWriter.name("max-buffer-size").value(config.mMaxBufferSize);
+      jsonWriter.name("max-off-heap-buffer-size").value(config.mMaxOffHeapBufferSize);
       jsonWriter.endObject();
     } catch (final IOException e) {
       throw new SirixIOException(e);
@@ -272,9 +332,24 @@ public final class DatabaseConfiguration {
       final String maxResourceRtxName = jsonReader.nextName();
       assert maxResourceRtxName.equals("max-resource-read-trx");
       final int maxResourceRtx = jsonReader.nextInt();
+      // Configurations of older databases don't store the buffer size.
+      long maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+      if (jsonReader.hasNext()) {
+        final String maxBufferSizeName = jsonReader.nextName();
+        assert maxBufferSizeName.equals("max-buffer-size");
+        maxBufferSize = jsonReader.nextLong();
+      }
+      long maxOffHeapBufferSize = DEFAULT_MAX_OFF_HEAP_BUFFER_SIZE;
+      if (jsonReader.hasNext()) {
+        final String maxOffHeapBufferSizeName = jsonReader.nextName();
+        assert maxOffHeapBufferSizeName.equals("max-off-heap-buffer-size");
+        maxOffHeapBufferSize = jsonReader.nextLong();
+      }
       jsonReader.endObject();
       return new DatabaseConfiguration(dbFile).setMaximumResourceID(ID)
-                                              .setMaxResourceReadTrx(maxResourceRtx);
+                                              .setMaxResourceReadTrx(maxResourceRtx)
+                                              .setMaxBufferSize(maxBufferSize)
+                                              .setMaxOffHeapBufferSize(maxOffHeapBufferSize);
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
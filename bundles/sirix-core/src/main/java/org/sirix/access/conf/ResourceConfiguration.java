@@ -36,12 +36,15 @@ import java.util.Objects;
 import javax.annotation.Nonnegative;
 import org.sirix.access.trx.node.HashType;
 import org.sirix.access.trx.node.XdmResourceManager;
+import org.sirix.cache.TransactionIntentLog;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.StorageType;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.io.bytepipe.ByteHandlerKind;
-import org.sirix.io.bytepipe.SnappyCompressor;
+import org.sirix.io.bytepipe.SnappyBlockCompressor;
 import org.sirix.node.NodePersistenterImpl;
 import org.sirix.node.interfaces.RecordPersister;
 import org.sirix.settings.VersioningType;
@@ -154,6 +157,36 @@ public final class ResourceConfiguration {
   /** Persistenter for records. */
   private static final RecordPersister PERSISTENTER = new NodePersistenterImpl();
 
+  /** Standard durability mode. */
+  private static final DurabilityMode DURABILITY = DurabilityMode.NONE;
+
+  /** Standard group commit window in milliseconds. */
+  private static final long GROUP_COMMIT_WINDOW = 10;
+
+  /** Standard verification of page checksums. */
+  private static final ChecksumVerification CHECKSUM_VERIFICATION = ChecksumVerification.SAMPLING;
+
+  /** Standard threshold of adaptive full dumps (disabled). */
+  private static final long FULL_DUMP_THRESHOLD = 0;
+
+  /** Standard number of revisions, which are warmed up (disabled). */
+  private static final int WARM_UP_REVISIONS = 0;
+
+  /** Standard number of levels of the indirect page trees, which are warmed up. */
+  private static final int WARM_UP_LEVELS = 2;
+
+  /** Standard warm up mode. */
+  private static final boolean WARM_UP_IN_BACKGROUND = true;
+
+  /** Standard memory budget of the transaction intent log in bytes. */
+  private static final long INTENT_LOG_MEMORY_BUDGET = TransactionIntentLog.MEMORY_BUDGET;
+
+  /** Determines if hash updates are deferred by default. */
+  private static final boolean DEFER_HASH_UPDATES = false;
+
+  /** Marks that the maximum buffer size of the database configuration is used. */
+  private static final long DATABASE_BUFFER_SIZE = -1;
+
   // END FIXED STANDARD FIELDS
 
   // MEMBERS FOR FIXED FIELDS
@@ -193,6 +226,53 @@ public final class ResourceConfiguration {
   /** Determines if dewey IDs are generated and stored or not. */
   public final boolean areDeweyIDsStored;
 
+  /** Determines when committed pages are forced to the storage device. */
+  public final DurabilityMode durabilityMode;
+
+  /** Group commit window in milliseconds (used in {@link DurabilityMode#GROUP} mode). */
+  public final long groupCommitWindow;
+
+  /** Determines which pages are verified against their checksum on read. */
+  public final ChecksumVerification checksumVerification;
+
+  /**
+   * Reconstruction costs of a record page, that is the number of previous fragments read to
+   * reconstruct it, after which a full page is written instead of another fragment ({@code 0}
+   * disables adaptive full dumps).
+   */
+  public final long fullDumpThreshold;
+
+  /**
+   * Number of most recent revisions, the revision root pages and top-level indirect pages of which
+   * are pinned in the buffer, once the resource is opened or a revision is committed ({@code 0}
+   * disables the warm up).
+   */
+  public final int warmUpRevisions;
+
+  /** Number of levels of the indirect page trees, which are pinned during the warm up. */
+  public final int warmUpLevels;
+
+  /** Determines if the warm up runs in the background or blocks opening the resource. */
+  public final boolean warmUpInBackground;
+
+  /**
+   * Memory budget of the dirty pages of a write transaction in bytes, after which record pages are
+   * spilled to the transaction intent log file.
+   */
+  public final long intentLogMemoryBudget;
+
+  /**
+   * Determines if the rolling hashes and descendant counts of the ancestors of modified nodes are
+   * adapted once per ancestor on commit or on demand instead of for every modification.
+   */
+  public final boolean deferHashUpdates;
+
+  /**
+   * Maximum size of the buffer, which caches the pages of the resource, in bytes. Defaults to the
+   * maximum buffer size of the {@link DatabaseConfiguration}.
+   */
+  public final long maxBufferSize;
+
   // END MEMBERS FOR FIXED FIELDS
 
   /**
@@ -226,6 +306,18 @@ public final class ResourceConfiguration {
                                  .resolve(DatabaseConfiguration.DatabasePaths.DATA.getFile())
                                  .resolve(builder.mResource);
     recordPersister = builder.mPersistenter;
+    durabilityMode = builder.mDurabilityMode;
+    groupCommitWindow = builder.mGroupCommitWindow;
+    checksumVerification = builder.mChecksumVerification;
+    fullDumpThreshold = builder.mFullDumpThreshold;
+    warmUpRevisions = builder.mWarmUpRevisions;
+    warmUpLevels = builder.mWarmUpLevels;
+    warmUpInBackground = builder.mWarmUpInBackground;
+    intentLogMemoryBudget = builder.mIntentLogMemoryBudget;
+    deferHashUpdates = builder.mDeferHashUpdates;
+    maxBufferSize = builder.mMaxBufferSize == DATABASE_BUFFER_SIZE
+        ? databaseConfig.getMaxBufferSize()
+        : builder.mMaxBufferSize;
   }
 
   /**
@@ -300,7 +392,10 @@ public final class ResourceConfiguration {
    */
   private static final String[] JSONNAMES = {"revisioning", "revisioningClass",
       "numbersOfRevisiontoRestore", "byteHandlerClasses", "storageKind", "hashKind", "compression",
-      "pathSummary", "resourceID", "deweyIDsStored", "persistenter"};
+      "pathSummary", "resourceID", "deweyIDsStored", "persistenter", "durabilityMode",
+      "groupCommitWindow", "checksumVerification", "fullDumpThreshold", "warmUpRevisions",
+      "warmUpLevels", "warmUpInBackground", "intentLogMemoryBudget", "deferHashUpdates",
+      "maxBufferSize"};
 
   /**
    * Serialize the configuration.
@@ -341,6 +436,23 @@ public final class ResourceConfiguration {
       jsonWriter.name(JSONNAMES[9]).value(config.areDeweyIDsStored);
       // Persistenter.
       jsonWriter.name(JSONNAMES[10]).value(config.recordPersister.getClass().getName());
+      // Durability.
+      jsonWriter.name(JSONNAMES[11]).value(config.durabilityMode.name());
+      jsonWriter.name(JSONNAMES[12]).value(config.groupCommitWindow);
+      // Checksum verification.
+      jsonWriter.name(JSONNAMES[13]).value(config.checksumVerification.name());
+      // Adaptive full dumps.
+      jsonWriter.name(JSONNAMES[14]).value(config.fullDumpThreshold);
+      // Warm up.
+      jsonWriter.name(JSONNAMES[15]).value(config.warmUpRevisions);
+      jsonWriter.name(JSONNAMES[16]).value(config.warmUpLevels);
+      jsonWriter.name(JSONNAMES[17]).value(config.warmUpInBackground);
+      // Transaction intent log.
+      jsonWriter.name(JSONNAMES[18]).value(config.intentLogMemoryBudget);
+      // Deferred hash updates.
+      jsonWriter.name(JSONNAMES[19]).value(config.deferHashUpdates);
+      // Buffer.
+      jsonWriter.name(JSONNAMES[20]).value(config.maxBufferSize);
       jsonWriter.endObject();
     } catch (final IOException e) {
       throw new SirixIOException(e);
@@ -418,6 +530,61 @@ public final class ResourceConfiguration {
       final Class<?> persistenterClazz = Class.forName(jsonReader.nextString());
       final Constructor<?> persistenterConstr = persistenterClazz.getConstructors()[0];
       final RecordPersister persistenter = (RecordPersister) persistenterConstr.newInstance();
+      // Configurations of older resources don't store the durability mode.
+      DurabilityMode durability = DURABILITY;
+      long groupCommitWindow = GROUP_COMMIT_WINDOW;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[11]);
+        durability = DurabilityMode.valueOf(jsonReader.nextString());
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[12]);
+        groupCommitWindow = jsonReader.nextLong();
+      }
+      ChecksumVerification checksumVerification = CHECKSUM_VERIFICATION;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[13]);
+        checksumVerification = ChecksumVerification.valueOf(jsonReader.nextString());
+      }
+      long fullDumpThreshold = FULL_DUMP_THRESHOLD;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[14]);
+        fullDumpThreshold = jsonReader.nextLong();
+      }
+      int warmUpRevisions = WARM_UP_REVISIONS;
+      int warmUpLevels = WARM_UP_LEVELS;
+      boolean warmUpInBackground = WARM_UP_IN_BACKGROUND;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[15]);
+        warmUpRevisions = jsonReader.nextInt();
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[16]);
+        warmUpLevels = jsonReader.nextInt();
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[17]);
+        warmUpInBackground = jsonReader.nextBoolean();
+      }
+      long intentLogMemoryBudget = INTENT_LOG_MEMORY_BUDGET;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[18]);
+        intentLogMemoryBudget = jsonReader.nextLong();
+      }
+      boolean deferHashUpdates = DEFER_HASH_UPDATES;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[19]);
+        deferHashUpdates = jsonReader.nextBoolean();
+      }
+      long maxBufferSize = DATABASE_BUFFER_SIZE;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[20]);
+        maxBufferSize = jsonReader.nextLong();
+      }
       jsonReader.endObject();
       jsonReader.close();
       fileReader.close();
@@ -437,7 +604,17 @@ public final class ResourceConfiguration {
              .persistenter(persistenter)
              .useTextCompression(compression)
              .buildPathSummary(pathSummary)
-             .useDeweyIDs(deweyIDsStored);
+             .useDeweyIDs(deweyIDsStored)
+             .durabilityMode(durability)
+             .groupCommitWindow(groupCommitWindow)
+             .checksumVerification(checksumVerification)
+             .fullDumpThreshold(fullDumpThreshold)
+             .warmUp(warmUpRevisions, warmUpLevels, warmUpInBackground)
+             .intentLogMemoryBudget(intentLogMemoryBudget)
+             .deferHashUpdates(deferHashUpdates);
+      if (maxBufferSize != DATABASE_BUFFER_SIZE) {
+        builder.maxBufferSize(maxBufferSize);
+      }
 
       // Deserialized instance.
       final ResourceConfiguration config = new ResourceConfiguration(builder);
@@ -486,6 +663,36 @@ public final class ResourceConfiguration {
     /** Determines if a path summary should be build or not. */
     private boolean mPathSummary;
 
+    /** Determines when committed pages are forced to the storage device. */
+    private DurabilityMode mDurabilityMode = DURABILITY;
+
+    /** Group commit window in milliseconds. */
+    private long mGroupCommitWindow = GROUP_COMMIT_WINDOW;
+
+    /** Determines which pages are verified against their checksum on read. */
+    private ChecksumVerification mChecksumVerification = CHECKSUM_VERIFICATION;
+
+    /** Reconstruction costs of a record page, after which a full page is written. */
+    private long mFullDumpThreshold = FULL_DUMP_THRESHOLD;
+
+    /** Number of most recent revisions, which are warmed up. */
+    private int mWarmUpRevisions = WARM_UP_REVISIONS;
+
+    /** Number of levels of the indirect page trees, which are warmed up. */
+    private int mWarmUpLevels = WARM_UP_LEVELS;
+
+    /** Determines if the warm up runs in the background. */
+    private boolean mWarmUpInBackground = WARM_UP_IN_BACKGROUND;
+
+    /** Memory budget of the transaction intent log in bytes. */
+    private long mIntentLogMemoryBudget = INTENT_LOG_MEMORY_BUDGET;
+
+    /** Determines if hash updates are deferred. */
+    private boolean mDeferHashUpdates = DEFER_HASH_UPDATES;
+
+    /** Maximum size of the buffer in bytes. */
+    private long mMaxBufferSize = DATABASE_BUFFER_SIZE;
+
     /**
      * Constructor, setting the mandatory fields.
      *
@@ -502,7 +709,7 @@ public final class ResourceConfiguration {
           mDBConfig.getFile().resolve(DatabaseConfiguration.DatabasePaths.DATA.getFile()).resolve(
               mResource);
 
-      mByteHandler = new ByteHandlePipeline(new SnappyCompressor());// new Encryptor(path));
+      mByteHandler = new ByteHandlePipeline(new SnappyBlockCompressor());// new Encryptor(path));
     }
 
     /**
@@ -597,6 +804,125 @@ public final class ResourceConfiguration {
       return this;
     }
 
+    /**
+     * Set the durability mode, which determines when committed pages are forced to the storage
+     * device.
+     *
+     * @param durabilityMode the durability mode
+     * @return reference to the builder object
+     */
+    public Builder durabilityMode(final DurabilityMode durabilityMode) {
+      mDurabilityMode = checkNotNull(durabilityMode);
+      return this;
+    }
+
+    /**
+     * Set the group commit window, that is the maximum time in milliseconds, after which commits
+     * are forced to the storage device in {@link DurabilityMode#GROUP} mode.
+     *
+     * @param groupCommitWindow the group commit window in milliseconds
+     * @return reference to the builder object
+     */
+    public Builder groupCommitWindow(final @Nonnegative long groupCommitWindow) {
+      checkArgument(groupCommitWindow >= 0, "groupCommitWindow must be >= 0!");
+      mGroupCommitWindow = groupCommitWindow;
+      return this;
+    }
+
+    /**
+     * Set which pages are verified against their checksum, once they are read.
+     *
+     * @param checksumVerification the verification policy
+     * @return reference to the builder object
+     */
+    public Builder checksumVerification(final ChecksumVerification checksumVerification) {
+      mChecksumVerification = checkNotNull(checksumVerification);
+      return this;
+    }
+
+    /**
+     * Enable adaptive full dumps for {@link VersioningType#INCREMENTAL} and
+     * {@link VersioningType#SLIDING_SNAPSHOT} versioning. Once a record page has been reconstructed
+     * from its fragments so often, that the number of previous fragments read reaches the
+     * threshold, the next modification of the page writes a full page instead of another fragment.
+     * Hot pages are thus reconstructed from a single fragment, whereas cold pages keep the storage
+     * savings of the versioning approach.
+     *
+     * @param fullDumpThreshold the number of previous fragments read, after which a full page is
+     *        written ({@code 0} disables adaptive full dumps)
+     * @return reference to the builder object
+     */
+    public Builder fullDumpThreshold(final @Nonnegative long fullDumpThreshold) {
+      checkArgument(fullDumpThreshold >= 0, "fullDumpThreshold must be >= 0!");
+      mFullDumpThreshold = fullDumpThreshold;
+      return this;
+    }
+
+    /**
+     * Warm up the buffer, once the resource is opened. The revision root pages of the most recent
+     * revisions, their name and path summary pages and the top levels of their indirect page trees
+     * are read and pinned in the buffer, such that they are never evicted. The first transactions
+     * thus don't have to read them one at a time. Committed revisions are pinned as well, whereas
+     * the revisions, which fall out of the window, are unpinned.
+     *
+     * @param revisions the number of most recent revisions to warm up ({@code 0} disables the warm
+     *        up)
+     * @param levels the number of levels of the indirect page trees to warm up
+     * @param inBackground {@code true}, if opening the resource shouldn't wait for the warm up,
+     *        {@code false} otherwise
+     * @return reference to the builder object
+     */
+    public Builder warmUp(final @Nonnegative int revisions, final @Nonnegative int levels,
+        final boolean inBackground) {
+      checkArgument(revisions >= 0, "revisions must be >= 0!");
+      checkArgument(levels >= 0, "levels must be >= 0!");
+      mWarmUpRevisions = revisions;
+      mWarmUpLevels = levels;
+      mWarmUpInBackground = inBackground;
+      return this;
+    }
+
+    /**
+     * Set the memory budget of the dirty pages of a write transaction. Once their estimated size
+     * exceeds the budget, the least recently inserted record pages are spilled to the transaction
+     * intent log file in their serialized form.
+     *
+     * @param bytes the memory budget in bytes
+     * @return reference to the builder object
+     */
+    public Builder intentLogMemoryBudget(final @Nonnegative long bytes) {
+      checkArgument(bytes > 0, "bytes must be > 0!");
+      mIntentLogMemoryBudget = bytes;
+      return this;
+    }
+
+    /**
+     * Determines if the rolling hashes and descendant counts of the ancestors of modified nodes are
+     * adapted for every modification (default) or once per ancestor, when the transaction commits
+     * or they are read through the write transaction. Only applies to {@link HashType#ROLLING}.
+     *
+     * @param defer {@code true}, if hash updates should be deferred, {@code false} otherwise
+     * @return reference to the builder object
+     */
+    public Builder deferHashUpdates(final boolean defer) {
+      mDeferHashUpdates = defer;
+      return this;
+    }
+
+    /**
+     * Set the maximum size of the buffer, which caches the pages of the resource and which is
+     * shared by all transactions on the resource. Overrides the maximum buffer size of the
+     * {@link DatabaseConfiguration} for this resource.
+     *
+     * @param bytes the maximum size of the buffer in bytes
+     * @return reference to the builder object
+     */
+    public Builder maxBufferSize(final @Nonnegative long bytes) {
+      checkArgument(bytes >= 0, "bytes must be >= 0!");
+      mMaxBufferSize = bytes;
+      return this;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(this)
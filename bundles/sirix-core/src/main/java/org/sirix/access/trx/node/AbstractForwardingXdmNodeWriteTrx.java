@@ -1,5 +1,6 @@
 package org.sirix.access.trx.node;
 
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnull;
 import javax.xml.stream.XMLEventReader;
 import org.brackit.xquery.atomic.QNm;
@@ -37,6 +38,11 @@ public abstract class AbstractForwardingXdmNodeWriteTrx extends AbstractForwardi
     return delegate().commit();
   }
 
+  @Override
+  public CompletableFuture<Integer> commitAsync(String commitMessage) {
+    return delegate().commitAsync(commitMessage);
+  }
+
   @Override
   public XdmNodeWriteTrx moveSubtreeToLeftSibling(long fromKey) throws SirixException {
     return delegate().moveSubtreeToLeftSibling(fromKey);
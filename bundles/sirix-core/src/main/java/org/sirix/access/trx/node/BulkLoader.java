@@ -0,0 +1,622 @@
+package org.sirix.access.trx.node;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.ProcessingInstruction;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.index.path.summary.PathSummaryWriter;
+import org.sirix.node.AttributeNode;
+import org.sirix.node.ElementNode;
+import org.sirix.node.Kind;
+import org.sirix.node.NamespaceNode;
+import org.sirix.node.interfaces.Node;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.StructNode;
+import org.sirix.node.interfaces.immutable.ImmutableNode;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Constants;
+import org.sirix.settings.Fixed;
+import com.google.common.hash.HashFunction;
+
+/**
+ * Loads a document into an empty resource bottom-up. Node keys are assigned sequentially in
+ * document order, that is in the order, in which the StAX events arrive, such that the record
+ * pages are filled one after the other. The pointers of a node are known once it is followed by a
+ * sibling or once its parent is closed, thus every record is created once and modified once
+ * afterwards, instead of adapting the parent, the siblings and all ancestors (hashes and
+ * descendant counts) for every inserted node. Hashes and descendant counts are computed in a
+ * single post-order pass with a stack of open elements and are equal to the ones computed by a
+ * bulk insert of the same subtree through the
+ * {@link org.sirix.service.xml.shredder.XMLShredder}. Subtrees of another revision or resource are
+ * copied the same way by traversing the source records directly instead of serializing and
+ * shredding them, whereas their hashes are equal to the ones computed by inserting the nodes one
+ * by one, as a copy always did.
+ *
+ * @author agent
+ *
+ */
+final class BulkLoader {
+
+  /** Read-transaction, which is used to position the path summary. */
+  private final XdmNodeReadTrxImpl mNodeReadTrx;
+
+  /** {@link PageWriteTrx} implementation. */
+  private final PageWriteTrx<Long, Record, UnorderedKeyValuePage> mPageWriteTrx;
+
+  /** {@link NodeFactoryImpl} to be able to create nodes. */
+  private final NodeFactoryImpl mNodeFactory;
+
+  /** {@link PathSummaryWriter} instance or {@code null}, if no path summary is built. */
+  private final @Nullable PathSummaryWriter mPathSummaryWriter;
+
+  /** Hash function or {@code null}, if neither hashes nor descendant counts are maintained. */
+  private final @Nullable HashFunction mHash;
+
+  /** Determines if text values should be compressed or not. */
+  private final boolean mCompression;
+
+  /** Determines if comments should be included. */
+  private final boolean mIncludeComments;
+
+  /** Determines if processing instructions should be included. */
+  private final boolean mIncludePIs;
+
+  /**
+   * Determines if the hashes are computed as by single inserts (a copy) instead of a bulk insert
+   * (a load).
+   */
+  private boolean mSingleInsertHashes;
+
+  /** The open elements, the document node at the bottom. */
+  private final Deque<Frame> mFrames = new ArrayDeque<>();
+
+  /** Collects adjacent text events of the innermost open element. */
+  private final StringBuilder mText = new StringBuilder();
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReadTrx the read-transaction of the node write-transaction
+   * @param pageWriteTrx {@link PageWriteTrx} implementation
+   * @param nodeFactory {@link NodeFactoryImpl} to be able to create nodes
+   * @param pathSummaryWriter {@link PathSummaryWriter} instance or {@code null}, if no path summary
+   *        is built
+   * @param hash hash function for rolling hashes or {@code null}, if no hashes are maintained
+   * @param compression determines if text values should be compressed or not
+   * @param includeComments determines if comments should be included
+   * @param includePIs determines if processing instructions should be included
+   */
+  BulkLoader(final XdmNodeReadTrxImpl nodeReadTrx,
+      final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
+      final NodeFactoryImpl nodeFactory, final @Nullable PathSummaryWriter pathSummaryWriter,
+      final @Nullable HashFunction hash, final boolean compression, final boolean includeComments,
+      final boolean includePIs) {
+    mNodeReadTrx = checkNotNull(nodeReadTrx);
+    mPageWriteTrx = checkNotNull(pageWriteTrx);
+    mNodeFactory = checkNotNull(nodeFactory);
+    mPathSummaryWriter = pathSummaryWriter;
+    mHash = hash;
+    mCompression = compression;
+    mIncludeComments = includeComments;
+    mIncludePIs = includePIs;
+  }
+
+  /**
+   * Load the document (up to the end of its root element) as the children of the document node.
+   *
+   * @param reader the StAX reader
+   * @param document the document node, which must not have any children
+   * @return the node key of the first inserted node or the key of the document node, if nothing
+   *         has been inserted
+   * @throws SirixIOException if the document can not be parsed or an I/O error occurs
+   */
+  long load(final XMLEventReader reader, final ImmutableNode document) {
+    checkNotNull(reader);
+    checkNotNull(document);
+    final Frame documentFrame = new Frame(document.getNodeKey(), document);
+    mFrames.push(documentFrame);
+
+    try {
+      int level = 0;
+      boolean endElemReached = false;
+      while (reader.hasNext() && !endElemReached) {
+        final XMLEvent event = reader.nextEvent();
+
+        switch (event.getEventType()) {
+          case XMLStreamConstants.START_ELEMENT:
+            level++;
+            flushText();
+            startElement(event.asStartElement());
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            level--;
+            flushText();
+            endElement();
+            endElemReached = level == 0;
+            break;
+          case XMLStreamConstants.CHARACTERS:
+            mText.append(event.asCharacters().getData().trim());
+            break;
+          case XMLStreamConstants.COMMENT:
+            final String comment = ((Comment) event).getText();
+            if (mIncludeComments && !comment.isEmpty()) {
+              flushText();
+              final Frame parent = mFrames.peek();
+              append(parent, new Frame(mNodeFactory.createCommentNode(
+                  parent.mNodeKey, leftSiblingKey(parent),
+                  Fixed.NULL_NODE_KEY.getStandardProperty(), getBytes(comment), mCompression,
+                  Optional.empty())));
+            }
+            break;
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            final ProcessingInstruction pi = (ProcessingInstruction) event;
+            if (mIncludePIs && !pi.getTarget().isEmpty()) {
+              flushText();
+              final Frame parent = mFrames.peek();
+              final QNm target = new QNm(pi.getTarget());
+              final long pathNodeKey = pathNodeKey(parent, target, Kind.PROCESSING_INSTRUCTION);
+              append(parent, new Frame(mNodeFactory.createPINode(
+                  parent.mNodeKey, leftSiblingKey(parent),
+                  Fixed.NULL_NODE_KEY.getStandardProperty(), target, getBytes(pi.getData()),
+                  mCompression, pathNodeKey, Optional.empty())));
+            }
+            break;
+          default:
+            // Node kind not known.
+        }
+      }
+    } catch (final XMLStreamException e) {
+      throw new SirixIOException(e);
+    }
+
+    flushText();
+    while (mFrames.size() > 1) {
+      endElement();
+    }
+    mFrames.pop();
+    completeLastChild(documentFrame);
+
+    // Link the document node.
+    if (documentFrame.mFirstChildKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
+      return documentFrame.mNodeKey;
+    }
+    final StructNode documentNode = (StructNode) mPageWriteTrx.prepareEntryForModification(
+        documentFrame.mNodeKey, PageKind.RECORDPAGE, -1);
+    documentNode.setFirstChildKey(documentFrame.mFirstChildKey);
+    for (long i = 0; i < documentFrame.mChildCount; i++) {
+      documentNode.incrementChildCount();
+    }
+    if (mHash != null) {
+      documentNode.setDescendantCount(
+          documentNode.getDescendantCount() + documentFrame.mDescendantCount);
+      documentNode.setHash(documentNode.getHash() + documentFrame.mHash);
+    }
+    return documentFrame.mFirstChildKey;
+  }
+
+  /**
+   * Copy the subtree rooted at the current node of a read-transaction, which is linked to the
+   * given parent and siblings by the caller afterwards. Neither the parent nor the siblings are
+   * modified, the hash and descendant count of the copied subtree root have to be added to its
+   * ancestors by the caller. The hashes are equal to the ones of inserting the nodes one by one in
+   * document order.
+   *
+   * @param rtx the read-transaction, which is located at a structural node
+   * @param parent the parent of the copy
+   * @param leftSiblingKey the key of the left sibling of the copy
+   * @param rightSiblingKey the key of the right sibling of the copy
+   * @return the node key of the copied subtree root
+   */
+  long copy(final XdmNodeReadTrx rtx, final ImmutableNode parent, final long leftSiblingKey,
+      final long rightSiblingKey) {
+    checkNotNull(rtx);
+    checkNotNull(parent);
+    mSingleInsertHashes = true;
+    final Frame parentFrame = new Frame(parent.getNodeKey(), parent);
+    final Frame root = copyNode(rtx, parentFrame, leftSiblingKey, rightSiblingKey);
+
+    if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
+      final long rootKey = rtx.getNodeKey();
+      mFrames.push(root);
+      rtx.moveToFirstChild();
+      boolean rootReached = false;
+      while (!rootReached) {
+        final Frame frame = mFrames.peek();
+        final Frame child = copyNode(rtx, frame, leftSiblingKey(frame),
+            Fixed.NULL_NODE_KEY.getStandardProperty());
+        append(frame, child);
+
+        if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
+          mFrames.push(child);
+          rtx.moveToFirstChild();
+        } else {
+          // Close the elements, whose last child has been copied.
+          while (!rootReached && !rtx.hasRightSibling()) {
+            rtx.moveToParent();
+            endElement();
+            rootReached = rtx.getNodeKey() == rootKey;
+          }
+          if (!rootReached) {
+            rtx.moveToRightSibling();
+          }
+        }
+      }
+    }
+
+    complete(parentFrame, root, rightSiblingKey);
+    return root.mNodeKey;
+  }
+
+  /**
+   * Copy the current node of a read-transaction including its namespaces and attributes.
+   *
+   * @param rtx the read-transaction, which is located at a structural node
+   * @param parent the parent frame
+   * @param leftSiblingKey the key of the left sibling of the copy
+   * @param rightSiblingKey the key of the right sibling of the copy
+   * @return the frame of the copy
+   */
+  private Frame copyNode(final XdmNodeReadTrx rtx, final Frame parent, final long leftSiblingKey,
+      final long rightSiblingKey) {
+    switch (rtx.getKind()) {
+      case ELEMENT:
+        final Frame frame = createElement(parent, rtx.getName(), leftSiblingKey, rightSiblingKey);
+        final List<Long> namespaceKeys = new ArrayList<>(rtx.getNamespaceCount());
+        for (int i = 0, nspCount = rtx.getNamespaceCount(); i < nspCount; i++) {
+          rtx.moveToNamespace(i);
+          namespaceKeys.add(createNamespace(frame, rtx.getName()).getNodeKey());
+          rtx.moveToParent();
+        }
+        final List<AttributeNode> attributes = new ArrayList<>(rtx.getAttributeCount());
+        for (int i = 0, attCount = rtx.getAttributeCount(); i < attCount; i++) {
+          rtx.moveToAttribute(i);
+          attributes.add(createAttribute(frame, rtx.getName(), rtx.getRawValue()));
+          rtx.moveToParent();
+        }
+        insertNonStructural(frame, namespaceKeys, attributes);
+        return frame;
+      case TEXT:
+        return new Frame(mNodeFactory.createTextNode(parent.mNodeKey, leftSiblingKey,
+            rightSiblingKey, rtx.getRawValue(), mCompression, Optional.empty()));
+      case COMMENT:
+        return new Frame(mNodeFactory.createCommentNode(parent.mNodeKey, leftSiblingKey,
+            rightSiblingKey, rtx.getRawValue(), mCompression, Optional.empty()));
+      case PROCESSING_INSTRUCTION:
+        final QNm target = new QNm(rtx.getName().getLocalName());
+        final long pathNodeKey = pathNodeKey(parent, target, Kind.PROCESSING_INSTRUCTION);
+        return new Frame(mNodeFactory.createPINode(parent.mNodeKey, leftSiblingKey,
+            rightSiblingKey, target, rtx.getRawValue(), mCompression, pathNodeKey,
+            Optional.empty()));
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException("Node kind not supported: " + rtx.getKind());
+    }
+  }
+
+  /**
+   * Add an element node including its namespaces and attributes and open it.
+   *
+   * @param event the start tag
+   */
+  private void startElement(final StartElement event) {
+    final Frame parent = mFrames.peek();
+    final QName qName = event.getName();
+    final Frame frame = createElement(parent,
+        new QNm(qName.getNamespaceURI(), qName.getPrefix(), qName.getLocalPart()),
+        leftSiblingKey(parent), Fixed.NULL_NODE_KEY.getStandardProperty());
+    append(parent, frame);
+    mFrames.push(frame);
+
+    final List<Long> namespaceKeys = new ArrayList<>();
+    for (final Iterator<?> it = event.getNamespaces(); it.hasNext();) {
+      final Namespace namespace = (Namespace) it.next();
+      namespaceKeys.add(createNamespace(
+          frame, new QNm(namespace.getNamespaceURI(), namespace.getPrefix(), "")).getNodeKey());
+    }
+
+    final List<AttributeNode> attributes = new ArrayList<>();
+    for (final Iterator<?> it = event.getAttributes(); it.hasNext();) {
+      final Attribute attribute = (Attribute) it.next();
+      final QName attName = attribute.getName();
+      attributes.add(createAttribute(frame,
+          new QNm(attName.getNamespaceURI(), attName.getPrefix(), attName.getLocalPart()),
+          getBytes(attribute.getValue())));
+    }
+
+    insertNonStructural(frame, namespaceKeys, attributes);
+  }
+
+  /**
+   * Create an element node.
+   *
+   * @param parent the parent frame
+   * @param name the name of the element
+   * @param leftSiblingKey the key of the left sibling
+   * @param rightSiblingKey the key of the right sibling
+   * @return the frame of the element
+   */
+  private Frame createElement(final Frame parent, final QNm name, final long leftSiblingKey,
+      final long rightSiblingKey) {
+    final long pathNodeKey = pathNodeKey(parent, name, Kind.ELEMENT);
+    return new Frame(mNodeFactory.createElementNode(
+        parent.mNodeKey, leftSiblingKey, rightSiblingKey, 0, name, pathNodeKey, Optional.empty()));
+  }
+
+  /**
+   * Create a namespace node of an element and add its hash to the element.
+   *
+   * @param element the frame of the element
+   * @param name the name of the namespace
+   * @return the namespace node
+   */
+  private NamespaceNode createNamespace(final Frame element, final QNm name) {
+    final NamespaceNode node = mNodeFactory.createNamespaceNode(
+        element.mNodeKey, name, pathNodeKey(element, name, Kind.NAMESPACE), Optional.empty());
+    addHash(element, node);
+    return node;
+  }
+
+  /**
+   * Create an attribute node of an element and add its hash to the element.
+   *
+   * @param element the frame of the element
+   * @param name the name of the attribute
+   * @param value the value of the attribute
+   * @return the attribute node
+   */
+  private AttributeNode createAttribute(final Frame element, final QNm name, final byte[] value) {
+    final AttributeNode node = mNodeFactory.createAttributeNode(
+        element.mNodeKey, name, value, pathNodeKey(element, name, Kind.ATTRIBUTE),
+        Optional.empty());
+    addHash(element, node);
+    return node;
+  }
+
+  /**
+   * Add the namespaces and attributes to an element. The record page of the element might have
+   * been spilled in-between, thus the element is modified once all of them are created.
+   *
+   * @param element the frame of the element
+   * @param namespaceKeys the keys of the namespace nodes
+   * @param attributes the attribute nodes
+   */
+  private void insertNonStructural(final Frame element, final List<Long> namespaceKeys,
+      final List<AttributeNode> attributes) {
+    if (!namespaceKeys.isEmpty() || !attributes.isEmpty()) {
+      final ElementNode modified = (ElementNode) mPageWriteTrx.prepareEntryForModification(
+          element.mNodeKey, PageKind.RECORDPAGE, -1);
+      for (final long namespaceKey : namespaceKeys) {
+        modified.insertNamespace(namespaceKey);
+      }
+      for (final AttributeNode attribute : attributes) {
+        modified.insertAttribute(
+            attribute.getNodeKey(), attribute.getPrefixKey() + attribute.getLocalNameKey());
+      }
+    }
+  }
+
+  /** Close the innermost open element. Its own pointers are set once its right sibling is known. */
+  private void endElement() {
+    completeLastChild(mFrames.pop());
+  }
+
+  /** Add the collected text of the innermost open element as a text node. */
+  private void flushText() {
+    if (mText.length() > 0) {
+      final Frame parent = mFrames.peek();
+      append(parent, new Frame(mNodeFactory.createTextNode(
+          parent.mNodeKey, leftSiblingKey(parent), Fixed.NULL_NODE_KEY.getStandardProperty(),
+          getBytes(mText.toString()), mCompression, Optional.empty())));
+      mText.setLength(0);
+    }
+  }
+
+  /**
+   * Append a new structural node as the last child of the parent, which completes the former last
+   * child of the parent.
+   *
+   * @param parent the parent
+   * @param child the frame of the new node
+   */
+  private void append(final Frame parent, final Frame child) {
+    if (parent.mLastChild == null) {
+      parent.mFirstChildKey = child.mNodeKey;
+    } else {
+      complete(parent, parent.mLastChild, child.mNodeKey);
+    }
+    parent.mLastChild = child;
+    parent.mChildCount++;
+  }
+
+  /**
+   * Complete the last child of a frame, which doesn't have a right sibling.
+   *
+   * @param parent the parent frame
+   */
+  private void completeLastChild(final Frame parent) {
+    if (parent.mLastChild != null) {
+      complete(parent, parent.mLastChild, Fixed.NULL_NODE_KEY.getStandardProperty());
+      parent.mLastChild = null;
+    }
+  }
+
+  /**
+   * Write the pointers, the descendant count and the hash of a node, whose subtree is complete,
+   * and add its hash and descendant count to the parent.
+   *
+   * @param parent the parent frame
+   * @param child the frame of the node to complete
+   * @param rightSiblingKey the key of the right sibling
+   */
+  private void complete(final Frame parent, final Frame child, final long rightSiblingKey) {
+    final StructNode node = (StructNode) mPageWriteTrx.prepareEntryForModification(
+        child.mNodeKey, PageKind.RECORDPAGE, -1);
+    node.setRightSiblingKey(rightSiblingKey);
+    if (child.mFirstChildKey != Fixed.NULL_NODE_KEY.getStandardProperty()) {
+      node.setFirstChildKey(child.mFirstChildKey);
+      for (long i = 0; i < child.mChildCount; i++) {
+        node.incrementChildCount();
+      }
+    }
+    if (mHash != null) {
+      node.setDescendantCount(child.mDescendantCount);
+      addHash(parent, node, child.mHash);
+      parent.mDescendantCount += child.mDescendantCount + 1;
+    }
+  }
+
+  /**
+   * Set the hash of a node without children, attributes and namespaces and add it to the hash of
+   * the parent.
+   *
+   * @param parent the parent frame
+   * @param node the node
+   */
+  private void addHash(final Frame parent, final Node node) {
+    addHash(parent, node, 0);
+  }
+
+  /**
+   * Set the hash of a node, whose subtree is complete, and add it to the hash of the parent.
+   *
+   * <p>
+   * A load mirrors the postorder traversal of the shredding bulk insert, which differs from the
+   * rolling hashes maintained by single inserts: The hashes of the children are not added to the
+   * hash of the node. Instead, the node temporarily stores their sum as its hash, such that it is
+   * covered by {@link Object#hashCode()}, and the hash of the node is replaced by the hash of its
+   * hash code. Only the hash of the node the subtree is loaded into is the sum of its previous
+   * hash and the hashes of its new children.
+   * </p>
+   *
+   * <p>
+   * A copy mirrors single inserts instead: The hash of a node is the hash of its hash code as
+   * inserted, that is without a hash, plus the hashes of its children.
+   * </p>
+   *
+   * @param parent the parent frame
+   * @param node the node
+   * @param childHashes the sum of the hashes of the children, attributes and namespaces
+   */
+  private void addHash(final Frame parent, final Node node, final long childHashes) {
+    if (mHash != null) {
+      final long hash;
+      if (mSingleInsertHashes) {
+        node.setHash(0);
+        hash = mHash.hashLong(node.hashCode()).asLong() + childHashes;
+      } else {
+        node.setHash(childHashes);
+        hash = mHash.hashLong(node.hashCode()).asLong();
+      }
+      node.setHash(hash);
+      parent.mHash += hash * XdmNodeWriteTrxImpl.PRIME;
+    }
+  }
+
+  /**
+   * Get the path node key of a new child.
+   *
+   * @param parent the parent frame
+   * @param name the name of the new node
+   * @param kind the kind of the new node
+   * @return the path node key or {@code 0}, if no path summary is built
+   */
+  private long pathNodeKey(final Frame parent, final QNm name, final Kind kind) {
+    if (mPathSummaryWriter == null) {
+      return 0;
+    }
+    mNodeReadTrx.setCurrentNode(parent.mNode);
+    return mPathSummaryWriter.getPathNodeKey(name, kind);
+  }
+
+  /**
+   * Get the key of the left sibling of a new child.
+   *
+   * @param parent the parent frame
+   * @return the key of the current last child of the parent
+   */
+  private static long leftSiblingKey(final Frame parent) {
+    return parent.mLastChild == null
+        ? Fixed.NULL_NODE_KEY.getStandardProperty()
+        : parent.mLastChild.mNodeKey;
+  }
+
+  /**
+   * Get a byte-array from a value.
+   *
+   * @param value the value
+   * @return byte-array representation of {@code value}
+   */
+  private static byte[] getBytes(final String value) {
+    return value.getBytes(Constants.DEFAULT_ENCODING);
+  }
+
+  /**
+   * A node, whose pointers are not complete yet, that is either an open element or the last child
+   * of an open element.
+   */
+  private static final class Frame {
+    /** The node key. */
+    private final long mNodeKey;
+
+    /** The node as created, which is only used to position the path summary. */
+    private final ImmutableNode mNode;
+
+    /** The key of the first child. */
+    private long mFirstChildKey = Fixed.NULL_NODE_KEY.getStandardProperty();
+
+    /** The last child, which has been added so far. */
+    private @Nullable Frame mLastChild;
+
+    /** Number of children. */
+    private long mChildCount;
+
+    /** Number of descendants. */
+    private long mDescendantCount;
+
+    /**
+     * Sum of the hashes of the children, attributes and namespaces (see
+     * {@link BulkLoader#addHash(Frame, Node, long)}).
+     */
+    private long mHash;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeKey the node key
+     * @param node the node
+     */
+    Frame(final @Nonnegative long nodeKey, final ImmutableNode node) {
+      mNodeKey = nodeKey;
+      mNode = node;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param node the node
+     */
+    Frame(final ImmutableNode node) {
+      this(node.getNodeKey(), node);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package org.sirix.access.trx.node;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.Nullable;
+import org.sirix.api.Axis;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.index.path.summary.PathSummaryWriter;
+import org.sirix.node.ElementNode;
+import org.sirix.node.Kind;
+import org.sirix.node.interfaces.NameNode;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.StructNode;
+import org.sirix.node.interfaces.immutable.ImmutableNode;
+import org.sirix.page.NamePage;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+
+/**
+ * Removes all descendants of a node at once. The subtree is traversed a single time to collect the
+ * keys of the records to remove as well as the names and path nodes, which are referenced by the
+ * records. Afterwards the records are removed in the order of their keys, such that every record
+ * page is prepared for modification only once, and the name counters and the reference counters
+ * of the path summary are decremented once per name and per path node instead of once per node.
+ * Hashes and descendant counts of the ancestors are adapted by the caller, once for the whole
+ * subtree.
+ *
+ * @author agent
+ *
+ */
+final class BulkRemover {
+
+  /** Read-transaction, which is used to traverse the subtree. */
+  private final XdmNodeReadTrxImpl mNodeReadTrx;
+
+  /** {@link PageWriteTrx} implementation. */
+  private final PageWriteTrx<Long, Record, UnorderedKeyValuePage> mPageWriteTrx;
+
+  /** {@link PathSummaryWriter} instance or {@code null}, if no path summary is built. */
+  private final @Nullable PathSummaryWriter mPathSummaryWriter;
+
+  /** The keys of the records to remove. */
+  private final List<Long> mRecordKeys;
+
+  /** The number of removed occurences per name key and node kind. */
+  private final Map<Kind, Map<Integer, Integer>> mNames;
+
+  /** The number of removed references per path node key. */
+  private final Map<Long, Integer> mPathNodeReferences;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReadTrx the read-transaction, which is located at the root of the subtree
+   * @param pageWriteTrx the page transaction
+   * @param pathSummaryWriter the path summary writer or {@code null}, if no path summary is built
+   */
+  BulkRemover(final XdmNodeReadTrxImpl nodeReadTrx,
+      final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
+      final @Nullable PathSummaryWriter pathSummaryWriter) {
+    mNodeReadTrx = checkNotNull(nodeReadTrx);
+    mPageWriteTrx = checkNotNull(pageWriteTrx);
+    mPathSummaryWriter = pathSummaryWriter;
+    final long descendantCount = mNodeReadTrx.getStructuralNode().getDescendantCount();
+    mRecordKeys = new ArrayList<>((int) Math.min(descendantCount, Integer.MAX_VALUE - 8));
+    mNames = new EnumMap<>(Kind.class);
+    mPathNodeReferences = new HashMap<>();
+  }
+
+  /**
+   * Remove all descendants of the current node including their attributes and namespaces. The
+   * current node itself and its pointers are not modified.
+   */
+  void removeDescendants() {
+    final StructNode root = mNodeReadTrx.getStructuralNode();
+    for (final Axis axis = new DescendantAxis(mNodeReadTrx); axis.hasNext();) {
+      axis.next();
+      final ImmutableNode node = mNodeReadTrx.getCurrentNode();
+      collect(node);
+
+      if (node.getKind() == Kind.ELEMENT) {
+        final ElementNode element = (ElementNode) node;
+        for (final long attributeKey : element.getAttributeKeys()) {
+          collect(getNode(attributeKey));
+        }
+        for (final long namespaceKey : element.getNamespaceKeys()) {
+          collect(getNode(namespaceKey));
+        }
+      }
+    }
+    mNodeReadTrx.setCurrentNode(root);
+
+    mPageWriteTrx.removeEntries(mRecordKeys, PageKind.RECORDPAGE, -1);
+
+    // The path summary reads the names of removed path nodes, thus it is adapted first.
+    if (mPathSummaryWriter != null && !mPathNodeReferences.isEmpty()) {
+      mPathSummaryWriter.remove(mPathNodeReferences);
+    }
+
+    final NamePage page = (NamePage) mPageWriteTrx.getActualRevisionRootPage()
+                                                  .getNamePageReference()
+                                                  .getPage();
+    for (final Entry<Kind, Map<Integer, Integer>> names : mNames.entrySet()) {
+      for (final Entry<Integer, Integer> name : names.getValue().entrySet()) {
+        page.removeName(name.getKey(), names.getKey(), name.getValue());
+      }
+    }
+  }
+
+  /**
+   * Get a node, which has to be present.
+   *
+   * @param recordKey the record key
+   * @return the node
+   */
+  private ImmutableNode getNode(final long recordKey) {
+    return (ImmutableNode) mPageWriteTrx.getRecord(recordKey, PageKind.RECORDPAGE, -1)
+                                        .orElseThrow(
+                                            () -> new IllegalStateException("Node not found!"));
+  }
+
+  /**
+   * Collect the key of a node to remove and the names and the path node it references.
+   *
+   * @param node the node to remove
+   */
+  private void collect(final ImmutableNode node) {
+    mRecordKeys.add(node.getNodeKey());
+    if (node instanceof NameNode) {
+      final NameNode nameNode = (NameNode) node;
+      final Kind kind = nameNode.getKind();
+      addName(nameNode.getPrefixKey(), kind);
+      addName(nameNode.getLocalNameKey(), kind);
+      addName(nameNode.getURIKey(), Kind.NAMESPACE);
+      if (mPathSummaryWriter != null) {
+        mPathNodeReferences.merge(nameNode.getPathNodeKey(), 1, Integer::sum);
+      }
+    }
+  }
+
+  /**
+   * Count a removed occurence of a name.
+   *
+   * @param nameKey the name key
+   * @param kind the node kind
+   */
+  private void addName(final int nameKey, final Kind kind) {
+    if (nameKey != -1) {
+      mNames.computeIfAbsent(kind, k -> new HashMap<>()).merge(nameKey, 1, Integer::sum);
+    }
+  }
+}
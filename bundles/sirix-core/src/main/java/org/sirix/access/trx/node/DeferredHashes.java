@@ -0,0 +1,180 @@
+package org.sirix.access.trx.node;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.node.interfaces.Node;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.StructNode;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+
+/**
+ * Collects the changes of rolling hashes and descendant counts, which have to be propagated to the
+ * ancestors of modified nodes, instead of walking the ancestor axis for every modification. The
+ * changes are applied deepest nodes first, such that every ancestor, which is shared by the paths
+ * of several modified nodes, is modified only once. The result is equal to propagating every
+ * change immediately, because rolling hashes and descendant counts are sums.
+ *
+ * @author agent
+ *
+ */
+final class DeferredHashes {
+
+  /** The pending changes, keyed by the node key of the node to change. */
+  private final Map<Long, Delta> mDeltas = new HashMap<>();
+
+  /**
+   * Add changes of a node, which are propagated to all of its ancestors.
+   *
+   * @param nodeKey the key of the node to change
+   * @param hash change of the hash of the node, which changes the hash of the parent by
+   *        {@code hash * PRIME} and so on
+   * @param ancestorHash change of the hash of the node and of all of its ancestors
+   * @param descendantCount change of the descendant count of the node and of all of its ancestors
+   */
+  void add(final long nodeKey, final long hash, final long ancestorHash,
+      final long descendantCount) {
+    final Delta delta = mDeltas.computeIfAbsent(nodeKey, Delta::new);
+    delta.mHash += hash;
+    delta.mAncestorHash += ancestorHash;
+    delta.mDescendantCount += descendantCount;
+  }
+
+  /**
+   * Determines if changes are pending.
+   *
+   * @return {@code true}, if no changes are pending, {@code false} otherwise
+   */
+  boolean isEmpty() {
+    return mDeltas.isEmpty();
+  }
+
+  /** Discard the pending changes. */
+  void clear() {
+    mDeltas.clear();
+  }
+
+  /**
+   * Apply the pending changes.
+   *
+   * @param pageWriteTrx the page transaction, which is used to modify the nodes
+   */
+  void apply(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx) {
+    checkNotNull(pageWriteTrx);
+    if (mDeltas.isEmpty()) {
+      return;
+    }
+
+    final Map<Long, Integer> depths = new HashMap<>();
+    final PriorityQueue<Delta> deltas =
+        new PriorityQueue<>(mDeltas.size(), (first, second) -> second.mDepth - first.mDepth);
+    for (final Delta delta : mDeltas.values()) {
+      delta.mDepth = depth(delta.mNodeKey, depths, pageWriteTrx);
+
+      // Changes of removed nodes have been discarded together with the nodes.
+      if (delta.mDepth >= 0) {
+        deltas.add(delta);
+      }
+    }
+
+    while (!deltas.isEmpty()) {
+      final Delta delta = deltas.poll();
+      final Node node = (Node) pageWriteTrx.prepareEntryForModification(
+          delta.mNodeKey, PageKind.RECORDPAGE, -1);
+      node.setHash(node.getHash() + delta.mHash + delta.mAncestorHash);
+      if (node instanceof StructNode) {
+        final StructNode structNode = (StructNode) node;
+        structNode.setDescendantCount(structNode.getDescendantCount() + delta.mDescendantCount);
+      }
+
+      if (node.hasParent()) {
+        Delta parent = mDeltas.get(node.getParentKey());
+        if (parent == null) {
+          parent = new Delta(node.getParentKey());
+          parent.mDepth = delta.mDepth - 1;
+          mDeltas.put(parent.mNodeKey, parent);
+          deltas.add(parent);
+        }
+        parent.mHash += delta.mHash * XdmNodeWriteTrxImpl.PRIME;
+        parent.mAncestorHash += delta.mAncestorHash;
+        parent.mDescendantCount += delta.mDescendantCount;
+      }
+    }
+
+    mDeltas.clear();
+  }
+
+  /**
+   * Get the depth of a node, that is the number of its ancestors.
+   *
+   * @param nodeKey the node key
+   * @param depths the depths, which are already known
+   * @param pageWriteTrx the page transaction
+   * @return the depth of the node or {@code -1}, if the node has been removed
+   */
+  private static int depth(final long nodeKey, final Map<Long, Integer> depths,
+      final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx) {
+    // The ancestors on the path, whose depth is unknown.
+    final Deque<Long> path = new ArrayDeque<>();
+    int depth = -1;
+    long key = nodeKey;
+    while (true) {
+      final Integer knownDepth = depths.get(key);
+      if (knownDepth != null) {
+        depth = knownDepth;
+        break;
+      }
+      final Optional<? extends Record> record =
+          pageWriteTrx.getRecord(key, PageKind.RECORDPAGE, -1);
+      if (!record.isPresent()) {
+        return -1;
+      }
+      path.push(key);
+      final Node node = (Node) record.get();
+      if (!node.hasParent()) {
+        break;
+      }
+      key = node.getParentKey();
+    }
+
+    while (!path.isEmpty()) {
+      depths.put(path.pop(), ++depth);
+    }
+    return depth;
+  }
+
+  /**
+   * The pending changes of a single node.
+   */
+  private static final class Delta {
+    /** The node key. */
+    private final long mNodeKey;
+
+    /** Change of the hash, which is multiplied by the prime for every ancestor level. */
+    private long mHash;
+
+    /** Change of the hash, which is equal for the node and all of its ancestors. */
+    private long mAncestorHash;
+
+    /** Change of the descendant count. */
+    private long mDescendantCount;
+
+    /** The depth of the node, once the changes are applied. */
+    private int mDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeKey the node key
+     */
+    Delta(final long nodeKey) {
+      mNodeKey = nodeKey;
+    }
+  }
+}
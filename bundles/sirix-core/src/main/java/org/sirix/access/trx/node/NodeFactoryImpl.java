@@ -1,12 +1,12 @@
 package org.sirix.access.trx.node;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.zip.Deflater;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.brackit.xquery.atomic.QNm;
+import org.magicwerk.brownies.collections.primitive.LongGapList;
 import org.sirix.api.NodeFactory;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.exception.SirixIOException;
@@ -32,7 +32,6 @@ import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
 import org.sirix.utils.Compression;
 import org.sirix.utils.NamePageHash;
-import com.google.common.collect.HashBiMap;
 
 /**
  * Node factory to create nodes.
@@ -109,8 +108,8 @@ final class NodeFactoryImpl implements NodeFactory {
         new NameNodeDelegate(nodeDel, uriKey, prefixKey, localNameKey, pathNodeKey);
 
     return (ElementNode) mPageWriteTrx.createEntry(
-        nodeDel.getNodeKey(), new ElementNode(structDel, nameDel, new ArrayList<Long>(),
-            HashBiMap.create(), new ArrayList<Long>(), name),
+        nodeDel.getNodeKey(), new ElementNode(structDel, nameDel, new LongGapList(),
+            new LongGapList(), new LongGapList(), name),
         PageKind.RECORDPAGE, -1);
   }
 
@@ -27,6 +27,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
@@ -114,7 +115,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
   private final HashFunction mHash = Hashing.sha256();
 
   /** Prime for computing the hash. */
-  private static final int PRIME = 77081;
+  static final int PRIME = 77081;
 
   /** Maximum number of node modifications before auto commit. */
   private final int mMaxNodeCount;
@@ -125,6 +126,15 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
   /** Hash kind of Structure. */
   private final HashType mHashKind;
 
+  /**
+   * Determines if rolling hashes and descendant counts of the ancestors are adapted once per
+   * ancestor on demand instead of for every modification.
+   */
+  private final boolean mDeferHashUpdates;
+
+  /** The pending changes of rolling hashes and descendant counts. */
+  private final DeferredHashes mDeferredHashes = new DeferredHashes();
+
   /** Scheduled executor service. */
   private final ScheduledExecutorService mPool =
       Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
@@ -213,6 +223,8 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     }
 
     mHashKind = resourceManager.getResourceConfig().hashType;
+    mDeferHashUpdates =
+        mHashKind == HashType.ROLLING && resourceManager.getResourceConfig().deferHashUpdates;
 
     // Synchronize commit and other public methods if needed.
     mLock = maxTime > 0
@@ -250,6 +262,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
   public XdmNodeWriteTrx moveSubtreeToFirstChild(final @Nonnegative long fromKey) {
     acquireLock();
     try {
+      applyDeferredHashes();
       Preconditions.checkArgument(
           fromKey >= 0 && fromKey <= getMaxNodeKey(), "Argument must be a valid node key!");
 
@@ -457,6 +470,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
   public XdmNodeWriteTrx moveSubtreeToRightSibling(final @Nonnegative long fromKey) {
     acquireLock();
     try {
+      applyDeferredHashes();
       if (fromKey < 0 || fromKey > getMaxNodeKey()) {
         throw new IllegalArgumentException("Argument must be a valid node key!");
       }
@@ -782,10 +796,25 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     assert insert != null;
     acquireLock();
     try {
-      if (getCurrentNode() instanceof StructNode) {
+      if (insert == Insert.ASFIRSTCHILD && isBulkLoadable()) {
+        checkAccessAndCommit();
+        final long nodeKey = new BulkLoader(mNodeReadTrx, getPageTransaction(), mNodeFactory,
+            mBuildPathSummary
+                ? mPathSummaryWriter
+                : null,
+            mHashKind == HashType.ROLLING
+                ? mHash
+                : null,
+            mCompression, true, true).load(reader, getCurrentNode());
+        moveTo(nodeKey);
+        commit();
+      } else if (getCurrentNode() instanceof StructNode) {
         checkAccessAndCommit();
         mBulkInsert = true;
         long nodeKey = getCurrentNode().getNodeKey();
+        // Comments and processing instructions might be inserted as first children in front of
+        // the root element of the subtree.
+        final long firstChildKey = mNodeReadTrx.getStructuralNode().getFirstChildKey();
         final XMLShredder shredder = new XMLShredder.Builder(this, reader, insert).build();
         shredder.call();
         moveTo(nodeKey);
@@ -803,13 +832,19 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
             // May not happen.
         }
         nodeKey = getCurrentNode().getNodeKey();
-        postOrderTraversalHashes();
-        final ImmutableNode startNode = getCurrentNode();
-        moveToParent();
-        while (getCurrentNode().hasParent()) {
+        long insertedKey = nodeKey;
+        do {
+          moveTo(insertedKey);
+          postOrderTraversalHashes();
+          final ImmutableNode startNode = getCurrentNode();
           moveToParent();
-          addParentHash(startNode);
-        }
+          while (getCurrentNode().hasParent()) {
+            moveToParent();
+            addParentHash(startNode);
+          }
+          moveTo(insertedKey);
+          insertedKey = mNodeReadTrx.getStructuralNode().getRightSiblingKey();
+        } while (insert == Insert.ASFIRSTCHILD && insertedKey != firstChildKey);
         moveTo(nodeKey);
         commit();
         mBulkInsert = false;
@@ -820,6 +855,20 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     return this;
   }
 
+  /**
+   * Determines if a subtree can be loaded bottom-up by a {@link BulkLoader} instead of shredding
+   * it node by node, that is if it is inserted into the empty document node and no index
+   * structures, DeweyIDs or postorder hashes have to be maintained.
+   *
+   * @return {@code true}, if the subtree can be loaded bottom-up, {@code false} otherwise
+   */
+  private boolean isBulkLoadable() {
+    return getCurrentNode().getKind() == Kind.DOCUMENT
+        && !mNodeReadTrx.getStructuralNode().hasFirstChild() && !mDeweyIDsStored
+        && mHashKind != HashType.POSTORDER
+        && mIndexController.getIndexes().getIndexDefs().isEmpty();
+  }
+
   @Override
   public XdmNodeWriteTrx insertPIAsLeftSibling(final String target, final String content) {
     return pi(target, content, Insert.ASLEFTSIBLING);
@@ -1446,23 +1495,34 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
       if (getCurrentNode().getKind() == Kind.DOCUMENT) {
         throw new SirixUsageException("Document root can not be removed.");
       } else if (getCurrentNode() instanceof StructNode) {
+        if (getCurrentNode().getKind() == Kind.ELEMENT) {
+          applyDeferredHashes();
+        }
+
         final StructNode node = (StructNode) mNodeReadTrx.getCurrentNode();
 
         // Remove subtree.
-        for (final Axis axis = new PostOrderAxis(this); axis.hasNext();) {
-          axis.next();
+        if (isBulkRemovable()) {
+          new BulkRemover(mNodeReadTrx, getPageTransaction(), mBuildPathSummary
+              ? mPathSummaryWriter
+              : null).removeDescendants();
+        } else {
+          for (final Axis axis = new PostOrderAxis(this); axis.hasNext();) {
+            axis.next();
 
-          // Remove name.
-          removeName();
+            // Remove name.
+            removeName();
 
-          // Remove namespaces and attributes.
-          removeNonStructural();
+            // Remove namespaces and attributes.
+            removeNonStructural();
 
-          // Remove text value.
-          removeValue();
+            // Remove text value.
+            removeValue();
 
-          // Then remove node.
-          getPageTransaction().removeEntry(getCurrentNode().getNodeKey(), PageKind.RECORDPAGE, -1);
+            // Then remove node.
+            getPageTransaction().removeEntry(
+                getCurrentNode().getNodeKey(), PageKind.RECORDPAGE, -1);
+          }
         }
 
         // Adapt hashes and neighbour nodes as well as the name from the
@@ -1515,6 +1575,18 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     }
   }
 
+  /**
+   * Determines if the descendants of the current node can be removed at once by a
+   * {@link BulkRemover} instead of one by one, that is if the current node has descendants and no
+   * index structures have to be notified about every removed node.
+   *
+   * @return {@code true}, if the descendants can be removed at once, {@code false} otherwise
+   */
+  private boolean isBulkRemovable() {
+    return mNodeReadTrx.getStructuralNode().hasFirstChild()
+        && mIndexController.getIndexes().getIndexDefs().isEmpty();
+  }
+
   private void removeValue() throws SirixIOException {
     if (getCurrentNode() instanceof ValueNode) {
       final long nodeKey = getNodeKey();
@@ -1582,6 +1654,10 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         if (!getName().equals(name)) {
           checkAccessAndCommit();
 
+          if (getCurrentNode().getKind() == Kind.ELEMENT) {
+            applyDeferredHashes();
+          }
+
           NameNode node = (NameNode) mNodeReadTrx.getCurrentNode();
           final long oldHash = node.hashCode();
 
@@ -1711,6 +1787,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
 
       // Reset modification counter.
       mModificationCount = 0L;
+      mDeferredHashes.clear();
 
       // Move to document root.
       moveToDocumentRoot();
@@ -1760,6 +1837,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
 
       // Reset modification counter.
       mModificationCount = 0L;
+      mDeferredHashes.clear();
 
       // Close current page transaction.
       final long trxID = getId();
@@ -2131,7 +2209,11 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     if (!mBulkInsert) {
       switch (mHashKind) {
         case ROLLING:
-          rollingAdd();
+          if (mDeferHashUpdates) {
+            deferredAdd();
+          } else {
+            rollingAdd();
+          }
           break;
         case POSTORDER:
           postorderAdd();
@@ -2151,7 +2233,11 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     if (!mBulkInsert) {
       switch (mHashKind) {
         case ROLLING:
-          rollingRemove();
+          if (mDeferHashUpdates) {
+            deferredRemove();
+          } else {
+            rollingRemove();
+          }
           break;
         case POSTORDER:
           postorderRemove();
@@ -2172,7 +2258,11 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     if (!mBulkInsert) {
       switch (mHashKind) {
         case ROLLING:
-          rollingUpdate(pOldHash);
+          if (mDeferHashUpdates) {
+            deferredUpdate(pOldHash);
+          } else {
+            rollingUpdate(pOldHash);
+          }
           break;
         case POSTORDER:
           postorderAdd();
@@ -2183,6 +2273,78 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     }
   }
 
+  /**
+   * Deferred variant of {@link #rollingAdd()}, which only changes the hash of the inserted node
+   * and records the changes of its ancestors.
+   */
+  private void deferredAdd() {
+    final ImmutableNode startNode = mNodeReadTrx.getCurrentNode();
+    final long hashToAdd = startNode.getHash() == 0
+        ? mHash.hashLong(startNode.hashCode()).asLong()
+        : startNode.getHash();
+    final Node node = (Node) getPageTransaction().prepareEntryForModification(
+        startNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+    node.setHash(hashToAdd);
+    if (startNode.hasParent()) {
+      final long descendantCount = startNode instanceof StructNode
+          ? ((StructNode) startNode).getDescendantCount() + 1
+          : 0;
+      mDeferredHashes.add(startNode.getParentKey(), hashToAdd * PRIME, 0, descendantCount);
+    }
+    mNodeReadTrx.setCurrentNode(startNode);
+  }
+
+  /**
+   * Deferred variant of {@link #rollingRemove()}, which only changes the hash of the removed node
+   * and records the changes of its ancestors. The hash and descendant count of the removed node
+   * must be up-to-date.
+   */
+  private void deferredRemove() {
+    final ImmutableNode startNode = mNodeReadTrx.getCurrentNode();
+    final long hashToRemove = startNode.getHash();
+    final Node node = (Node) getPageTransaction().prepareEntryForModification(
+        startNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+    node.setHash(0);
+    if (startNode.hasParent()) {
+      final long descendantCount = startNode instanceof StructNode
+          ? ((StructNode) startNode).getDescendantCount() + 1
+          : 0;
+      mDeferredHashes.add(startNode.getParentKey(), -hashToRemove * PRIME, 0, -descendantCount);
+    }
+    mNodeReadTrx.setCurrentNode(startNode);
+  }
+
+  /**
+   * Deferred variant of {@link #rollingUpdate(long)}, which only changes the hash of the updated
+   * node and records the changes of its ancestors. The hash and descendant count of the updated
+   * node must be up-to-date.
+   *
+   * @param oldHash the old hash to be removed
+   */
+  private void deferredUpdate(final long oldHash) {
+    final ImmutableNode newNode = getCurrentNode();
+    final long newNodeHash = newNode.hashCode();
+    final Node node = (Node) getPageTransaction().prepareEntryForModification(
+        newNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+    node.setHash(node.getHash() - oldHash + newNodeHash);
+    if (newNode.hasParent()) {
+      mDeferredHashes.add(newNode.getParentKey(), 0, (newNodeHash - oldHash) * PRIME, 0);
+    }
+    mNodeReadTrx.setCurrentNode(newNode);
+  }
+
+  /**
+   * Apply the deferred changes of rolling hashes and descendant counts, such that they are
+   * up-to-date for all nodes.
+   */
+  private void applyDeferredHashes() {
+    if (!mDeferredHashes.isEmpty()) {
+      final long nodeKey = getCurrentNode().getNodeKey();
+      mDeferredHashes.apply(getPageTransaction());
+      moveTo(nodeKey);
+    }
+  }
+
   /**
    * Removal operation for postorder hash computation.
    *
@@ -2512,11 +2674,101 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         break;
       // $CASES-OMITTED$
       default:
-        new XMLShredder.Builder(this, new StAXSerializer(rtx), insert).build().call();
+        if (isBulkCopyable()) {
+          copyElement(rtx, insert);
+        } else {
+          new XMLShredder.Builder(this, new StAXSerializer(rtx), insert).build().call();
+        }
     }
     rtx.close();
   }
 
+  /**
+   * Determines if an element subtree can be copied record by record by a {@link BulkLoader}
+   * instead of serializing and shredding it, that is if no index structures, DeweyIDs or postorder
+   * hashes have to be maintained.
+   *
+   * @return {@code true}, if the subtree can be copied record by record, {@code false} otherwise
+   */
+  private boolean isBulkCopyable() {
+    return !mDeweyIDsStored && mHashKind != HashType.POSTORDER
+        && mIndexController.getIndexes().getIndexDefs().isEmpty();
+  }
+
+  /**
+   * Copy an element subtree record by record. The copy is linked to its parent and siblings and
+   * its hash and descendant count are added to the ancestors once the whole subtree is created.
+   *
+   * @param rtx the read-transaction, which is located at the element to copy
+   * @param insert the insertion strategy
+   */
+  private void copyElement(final XdmNodeReadTrx rtx, final Insert insert) {
+    final StructNode currentNode = mNodeReadTrx.getStructuralNode();
+    final long parentKey;
+    final long leftSibKey;
+    final long rightSibKey;
+    final InsertPos pos;
+
+    switch (insert) {
+      case ASFIRSTCHILD:
+        if (currentNode.getKind() != Kind.ELEMENT && currentNode.getKind() != Kind.DOCUMENT) {
+          throw new SirixUsageException(
+              "Insert is not allowed if current node is not an ElementNode!");
+        }
+        parentKey = currentNode.getNodeKey();
+        leftSibKey = Fixed.NULL_NODE_KEY.getStandardProperty();
+        rightSibKey = currentNode.getFirstChildKey();
+        pos = InsertPos.ASFIRSTCHILD;
+        break;
+      case ASRIGHTSIBLING:
+        checkSiblingCopy(currentNode);
+        parentKey = currentNode.getParentKey();
+        leftSibKey = currentNode.getNodeKey();
+        rightSibKey = currentNode.getRightSiblingKey();
+        pos = InsertPos.ASRIGHTSIBLING;
+        break;
+      case ASLEFTSIBLING:
+        checkSiblingCopy(currentNode);
+        parentKey = currentNode.getParentKey();
+        leftSibKey = currentNode.getLeftSiblingKey();
+        rightSibKey = currentNode.getNodeKey();
+        pos = InsertPos.ASLEFTSIBLING;
+        break;
+      default:
+        throw new IllegalStateException("Insert location not known!");
+    }
+
+    moveTo(parentKey);
+    final long nodeKey = new BulkLoader(mNodeReadTrx, getPageTransaction(), mNodeFactory,
+        mBuildPathSummary
+            ? mPathSummaryWriter
+            : null,
+        mHashKind == HashType.ROLLING
+            ? mHash
+            : null,
+        mCompression, true, true).copy(rtx, getCurrentNode(), leftSibKey, rightSibKey);
+
+    // Adapt local nodes and hashes.
+    moveTo(nodeKey);
+    adaptForInsert(mNodeReadTrx.getStructuralNode(), pos, PageKind.RECORDPAGE);
+    moveTo(nodeKey);
+    adaptHashesWithAdd();
+  }
+
+  /**
+   * Check, that a subtree may be copied as a sibling of a node.
+   *
+   * @param node the node
+   * @throws IllegalStateException if the node is the document root or the root-element
+   */
+  private static void checkSiblingCopy(final StructNode node) {
+    if (node.getKind() == Kind.DOCUMENT
+        || node.getParentKey() == Fixed.DOCUMENT_NODE_KEY.getStandardProperty()) {
+      throw new IllegalStateException(
+          "Subtree can not be inserted as sibling of document root or the root-element!");
+    }
+  }
+
   @Override
   public XdmNodeWriteTrx replaceNode(final XMLEventReader reader) {
     checkNotNull(reader);
@@ -2684,6 +2936,28 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     return mNodeReadTrx;
   }
 
+  @Override
+  public long getHash() {
+    acquireLock();
+    try {
+      applyDeferredHashes();
+      return mNodeReadTrx.getHash();
+    } finally {
+      unLock();
+    }
+  }
+
+  @Override
+  public long getDescendantCount() {
+    acquireLock();
+    try {
+      applyDeferredHashes();
+      return mNodeReadTrx.getDescendantCount();
+    } finally {
+      unLock();
+    }
+  }
+
   @Override
   public XdmNodeWriteTrx addPreCommitHook(final PreCommitHook hook) {
     acquireLock();
@@ -2758,6 +3032,9 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         hook.preCommit(this);
       }
 
+      // Apply deferred hashes.
+      applyDeferredHashes();
+
       // Reset modification counter.
       mModificationCount = 0L;
 
@@ -2782,4 +3059,41 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
 
     return this;
   }
+
+  @Override
+  public CompletableFuture<Integer> commitAsync(final @Nullable String commitMessage) {
+    mNodeReadTrx.assertNotClosed();
+
+    final CompletableFuture<UberPage> committedUberPage;
+
+    // Optionally lock while commiting and assigning new instances.
+    acquireLock();
+    try {
+      // Execute pre-commit hooks.
+      for (final PreCommitHook hook : mPreCommitHooks) {
+        hook.preCommit(this);
+      }
+
+      // Apply deferred hashes.
+      applyDeferredHashes();
+
+      // Reset modification counter.
+      mModificationCount = 0L;
+
+      // The resource manager remembers the uber page, once it's published.
+      committedUberPage = getPageTransaction().commitAsync(commitMessage);
+
+      // Reinstantiate everything on top of the pipelined commit.
+      reInstantiate(getId(), getRevisionNumber());
+    } finally {
+      unLock();
+    }
+
+    // Execute post-commit hooks.
+    for (final PostCommitHook hook : mPostCommitHooks) {
+      hook.postCommit(this);
+    }
+
+    return committedUberPage.thenApply(UberPage::getRevisionNumber);
+  }
 }
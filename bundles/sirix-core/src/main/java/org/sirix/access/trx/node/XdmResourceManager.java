@@ -26,8 +26,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -40,6 +44,7 @@ import org.sirix.access.LocalDatabase;
 import org.sirix.access.ResourceStore;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.trx.page.BufferWarmUp;
 import org.sirix.access.trx.page.PageReadTrxImpl;
 import org.sirix.access.trx.page.PageWriteTrxFactory;
 import org.sirix.api.Database;
@@ -54,6 +59,10 @@ import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixThreadedException;
 import org.sirix.exception.SirixUsageException;
 import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.io.FileBackedStorage;
+import org.sirix.io.Reader;
+import org.sirix.io.RetentionPolicy;
+import org.sirix.io.RevisionTimestamps;
 import org.sirix.io.Storage;
 import org.sirix.io.Writer;
 import org.sirix.node.interfaces.Node;
@@ -63,6 +72,7 @@ import org.sirix.page.UberPage;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
 import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * <h1>XdmResourceManager</h1>
@@ -73,6 +83,10 @@ import com.google.common.base.MoreObjects;
  */
 public final class XdmResourceManager implements ResourceManager {
 
+  /** Publishes the uber pages of pipelined commits in the background, shared by all resources. */
+  private static final ExecutorService COMMIT_POOL = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("sirix-commit-%d").setDaemon(true).build());
+
   /** Database for centralized closure of related Sessions. */
   private final LocalDatabase mDatabase;
 
@@ -85,6 +99,9 @@ public final class XdmResourceManager implements ResourceManager {
   /** Strong reference to uber page before the begin of a write transaction. */
   private final AtomicReference<UberPage> mLastCommittedUberPage;
 
+  /** The most recent pipelined commit, which might not be published yet. */
+  private final AtomicReference<PipelinedCommit> mPipelinedCommit;
+
   /** Remember all running node transactions (both read and write). */
   private final ConcurrentMap<Long, XdmNodeReadTrx> mNodeReaderMap;
 
@@ -118,12 +135,37 @@ public final class XdmResourceManager implements ResourceManager {
   /** Determines if session was closed. */
   private volatile boolean mClosed;
 
-  /** The cache of in-memory pages shared amongst all manager / resource transactions. */
-  private final BufferManager mBufferManager;
+  /**
+   * The cache of in-memory pages shared amongst all manager / resource transactions, which is
+   * replaced once the data file has been compacted.
+   */
+  private volatile BufferManager mBufferManager;
+
+  /** Pins the pages of the most recent revisions in the buffer or {@code null}, if disabled. */
+  private volatile BufferWarmUp mBufferWarmUp;
 
   /** The resource store with which this manager has been created. */
   private final ResourceStore mResourceStore;
 
+  /** An uber page, which has been appended by a pipelined commit. */
+  private static final class PipelinedCommit {
+    /** The appended uber page. */
+    private final UberPage mUberPage;
+
+    /** The offset of the appended uber page. */
+    private final long mUberPageKey;
+
+    /** Completes once the uber page has been published. */
+    private final CompletableFuture<UberPage> mFuture;
+
+    private PipelinedCommit(final UberPage uberPage, final long uberPageKey,
+        final CompletableFuture<UberPage> future) {
+      mUberPage = uberPage;
+      mUberPageKey = uberPageKey;
+      mFuture = future;
+    }
+  }
+
   /** Abort a write transaction. */
   enum Abort {
     /** Yes, abort. */
@@ -168,8 +210,12 @@ public final class XdmResourceManager implements ResourceManager {
     mWriteSemaphore = checkNotNull(writeSemaphore);
 
     mLastCommittedUberPage = new AtomicReference<>(uberPage);
+    mPipelinedCommit = new AtomicReference<>();
 
     mClosed = false;
+
+    completeRevisionTimestamps();
+    warmUpBuffer();
   }
 
   @Override
@@ -316,13 +362,20 @@ public final class XdmResourceManager implements ResourceManager {
     checkArgument(representRevision >= 0, "representRevision must be >= 0!");
     checkArgument(storeRevision >= 0, "storeRevision must be >= 0!");
     final Writer writer = mFac.createWriter();
-    final int lastCommitedRev = mLastCommittedUberPage.get().getRevisionNumber();
-    final UberPage lastCommitedUberPage = mLastCommittedUberPage.get();
+    // A write transaction builds on top of the uber page of a pipelined commit, which isn't
+    // published yet.
+    final PipelinedCommit pipelinedCommit = mPipelinedCommit.get();
+    final UberPage lastCommitedUberPage = pipelinedCommit == null
+        ? mLastCommittedUberPage.get()
+        : pipelinedCommit.mUberPage;
+    final int lastCommitedRev = lastCommitedUberPage.getRevisionNumber();
     return new PageWriteTrxFactory().createPageWriteTrx(
         this, abort == Abort.YES && lastCommitedUberPage.isBootstrap()
             ? new UberPage()
             : new UberPage(lastCommitedUberPage, representRevision > 0
-                ? writer.readUberPageReference().getKey()
+                ? pipelinedCommit == null
+                    ? writer.readUberPageReference().getKey()
+                    : pipelinedCommit.mUberPageKey
                 : -1),
         writer, id, representRevision, storeRevision, lastCommitedRev, mBufferManager);
   }
@@ -471,6 +524,58 @@ public final class XdmResourceManager implements ResourceManager {
    */
   public void setLastCommittedUberPage(final UberPage page) {
     mLastCommittedUberPage.set(checkNotNull(page));
+    warmUpBuffer(page);
+  }
+
+  /**
+   * Publish the uber page of a pipelined commit in the background, once the uber pages of the
+   * previous pipelined commits have been published. Read transactions see the new revision once
+   * the returned future completes, whereas write transactions build on top of it immediately. If
+   * an uber page can't be published, the uber pages of the following pipelined commits aren't
+   * published either.
+   *
+   * @param uberPage the appended uber page
+   * @param uberPageKey the offset of the appended uber page
+   * @param publish makes the uber page durable and the current uber page of the storage
+   * @return the future of the uber page, which completes once it has been published
+   */
+  public CompletableFuture<UberPage> publishAsync(final UberPage uberPage, final long uberPageKey,
+      final Runnable publish) {
+    checkNotNull(uberPage);
+    checkNotNull(publish);
+    final PipelinedCommit previousCommit = mPipelinedCommit.get();
+    final CompletableFuture<?> previousFuture = previousCommit == null
+        ? CompletableFuture.completedFuture(null)
+        : previousCommit.mFuture;
+    final CompletableFuture<UberPage> future =
+        previousFuture.thenRunAsync(publish, COMMIT_POOL).thenApply(unused -> {
+          mLastCommittedUberPage.set(uberPage);
+          warmUpBuffer(uberPage);
+          return uberPage;
+        });
+    final PipelinedCommit commit = new PipelinedCommit(uberPage, uberPageKey, future);
+    mPipelinedCommit.set(commit);
+    future.thenRun(() -> mPipelinedCommit.compareAndSet(commit, null));
+    return future;
+  }
+
+  /**
+   * Wait until the uber pages of all pipelined commits have been published.
+   *
+   * @throws SirixIOException if an uber page couldn't be published, which is reported only once
+   */
+  public void awaitPipelinedCommits() {
+    final PipelinedCommit commit = mPipelinedCommit.get();
+    if (commit != null) {
+      try {
+        commit.mFuture.join();
+      } catch (final CompletionException e) {
+        mPipelinedCommit.compareAndSet(commit, null);
+        throw e.getCause() instanceof SirixIOException
+            ? (SirixIOException) e.getCause()
+            : new SirixIOException("Pipelined commit failed!", e.getCause());
+      }
+    }
   }
 
   @Override
@@ -551,6 +656,54 @@ public final class XdmResourceManager implements ResourceManager {
     return pageWtx;
   }
 
+  @Override
+  public synchronized void compact(final RetentionPolicy retentionPolicy) {
+    assertAccess(mLastCommittedUberPage.get().getRevision());
+    checkNotNull(retentionPolicy);
+    if (!(mFac instanceof FileBackedStorage)) {
+      throw new UnsupportedOperationException(
+          "The storage of type " + mResourceConfig.storageType + " can't be compacted.");
+    }
+
+    // Pages must not be appended to the data file during the compaction.
+    try {
+      if (!mWriteSemaphore.tryAcquire(20, TimeUnit.SECONDS)) {
+        throw new SirixUsageException(
+            "No write transaction available, please close the write transaction first.");
+      }
+    } catch (final InterruptedException e) {
+      throw new SirixThreadedException(e);
+    }
+
+    try {
+      awaitPipelinedCommits();
+
+      if (mLastCommittedUberPage.get().isBootstrap()) {
+        return;
+      }
+
+      final int mostRecentRevision = getMostRecentRevisionNumber();
+      final int oldestRetainedRevision = retentionPolicy.getOldestRetainedRevision(
+          mostRecentRevision, this::getRevisionTimestamp);
+
+      try (final PageReadTrx pageReadTrx = beginPageReadTrx(mostRecentRevision)) {
+        ((FileBackedStorage) mFac).compact(oldestRetainedRevision, pageReadTrx);
+      }
+
+      // Transactions, which have been started before, keep reading the previous data file and
+      // keep using the previous buffer, which is keyed by the offsets in the previous data file.
+      mBufferManager = mDatabase.resetPageCache(mResourceConfig);
+
+      try (final Reader reader = mFac.createReader()) {
+        mLastCommittedUberPage.set((UberPage) reader.readUberPageReference().getPage());
+      }
+
+      warmUpBuffer();
+    } finally {
+      mWriteSemaphore.release();
+    }
+  }
+
   @Override
   public synchronized Database getDatabase() {
     return mDatabase;
@@ -592,59 +745,128 @@ public final class XdmResourceManager implements ResourceManager {
 
   @Override
   public XdmNodeReadTrx beginNodeReadTrx(final Instant pointInTime) {
-    checkNotNull(pointInTime);
+    return beginNodeReadTrx(getRevisionNumber(pointInTime));
+  }
 
-    final long timestamp = pointInTime.toEpochMilli();
+  private static long timeDiff(final long lhs, final long rhs) {
+    return Math.abs(lhs - rhs);
+  }
 
-    int revision = binarySearch(timestamp);
+  private int binarySearch(final long timestamp, final @Nonnegative int revisionCount) {
+    final RevisionTimestamps timestamps = mFac.getRevisionTimestamps();
 
-    if (revision < 0) {
-      revision = -revision - 1;
+    if (timestamps != null) {
+      return timestamps.binarySearch(timestamp, revisionCount);
     }
 
-    if (revision == 0)
-      return beginNodeReadTrx(0);
-    else if (revision == getMostRecentRevisionNumber() + 1)
-      return beginNodeReadTrx();
-
-    final XdmNodeReadTrx rtxRevisionMinus1 = beginNodeReadTrx(revision - 1);
-    final XdmNodeReadTrx rtxRevision = beginNodeReadTrx(revision);
+    int low = 0;
+    int high = revisionCount - 1;
 
-    if (timeDiff(timestamp, rtxRevisionMinus1.getRevisionTimestamp()) < timeDiff(
-        timestamp, rtxRevision.getRevisionTimestamp())) {
-      rtxRevision.close();
-      return rtxRevisionMinus1;
-    } else {
-      rtxRevisionMinus1.close();
-      return rtxRevision;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final long midVal = getRevisionTimestamp(mid);
+
+      if (midVal < timestamp)
+        low = mid + 1;
+      else if (midVal > timestamp)
+        high = mid - 1;
+      else
+        return mid; // key found
     }
+
+    return -(low + 1); // key not found
   }
 
-  private static long timeDiff(final long lhs, final long rhs) {
-    return Math.abs(lhs - rhs);
+  /**
+   * Get the commit timestamp of a revision, which is only read from the revision root page if the
+   * storage doesn't persist the timestamps.
+   *
+   * @param revision the revision number
+   * @return the timestamp in milliseconds since the epoch
+   */
+  private long getRevisionTimestamp(final @Nonnegative int revision) {
+    final RevisionTimestamps timestamps = mFac.getRevisionTimestamps();
+
+    if (timestamps != null) {
+      return timestamps.getTimestamp(revision);
+    }
+
+    try (final PageReadTrx trx = beginPageReadTrx(revision)) {
+      return trx.getActualRevisionRootPage().getRevisionTimestamp();
+    }
   }
 
-  private int binarySearch(final long timestamp) {
-    int low = 0;
-    int high = getMostRecentRevisionNumber();
+  /**
+   * Fill in the persisted commit timestamps of revisions, which have been committed before the
+   * timestamps have been persisted or whose timestamps have been lost.
+   */
+  private void completeRevisionTimestamps() {
+    final RevisionTimestamps timestamps = mFac.getRevisionTimestamps();
 
-    while (low <= high) {
-      final int mid = (low + high) >>> 1;
+    if (timestamps == null || mLastCommittedUberPage.get().isBootstrap()) {
+      return;
+    }
 
-      try (final PageReadTrx trx = beginPageReadTrx(mid)) {
-        final long midVal = trx.getActualRevisionRootPage().getRevisionTimestamp();
-        final int cmp = Instant.ofEpochMilli(midVal).compareTo(Instant.ofEpochMilli(timestamp));
+    final int revisionCount = getMostRecentRevisionNumber() + 1;
+    int revision = Math.min(timestamps.getRevisionCount(), revisionCount);
 
-        if (cmp < 0)
-          low = mid + 1;
-        else if (cmp > 0)
-          high = mid - 1;
-        else
-          return mid; // key found
+    // Entries at the end of the file might not have been written completely.
+    while (revision > 0 && timestamps.getTimestamp(revision - 1) == 0) {
+      revision--;
+    }
+
+    if (revision == revisionCount) {
+      return;
+    }
+
+    try (final Reader reader = mFac.createReader()) {
+      for (; revision < revisionCount; revision++) {
+        timestamps.set(
+            revision, reader.readRevisionRootPage(revision, null).getRevisionTimestamp());
       }
     }
+  }
 
-    return -(low + 1); // key not found
+  /**
+   * Pin the revision root pages and the top levels of the indirect page trees of the most recent
+   * revisions in the buffer, if configured.
+   */
+  private void warmUpBuffer() {
+    if (mResourceConfig.warmUpRevisions == 0) {
+      return;
+    }
+
+    final BufferWarmUp warmUp = new BufferWarmUp(
+        this, mBufferManager, mResourceConfig.warmUpRevisions, mResourceConfig.warmUpLevels);
+    mBufferWarmUp = warmUp;
+    if (mLastCommittedUberPage.get().isBootstrap()) {
+      return;
+    }
+
+    if (mResourceConfig.warmUpInBackground) {
+      warmUp.runAsync();
+    } else {
+      warmUp.run();
+    }
+  }
+
+  /**
+   * Pin the pages of a committed revision in the buffer and unpin the pages of the revisions,
+   * which fall out of the warm up window, if configured.
+   *
+   * @param uberPage the committed uber page
+   */
+  private void warmUpBuffer(final UberPage uberPage) {
+    final BufferWarmUp warmUp = mBufferWarmUp;
+    if (warmUp == null || uberPage.isBootstrap()) {
+      return;
+    }
+
+    if (mResourceConfig.warmUpInBackground) {
+      warmUp.advanceAsync(uberPage.getRevisionNumber());
+    } else {
+      warmUp.advance(uberPage.getRevisionNumber());
+    }
   }
 
   @Override
@@ -652,30 +874,26 @@ public final class XdmResourceManager implements ResourceManager {
     checkNotNull(pointInTime);
 
     final long timestamp = pointInTime.toEpochMilli();
+    final int mostRecentRevision = getMostRecentRevisionNumber();
 
-    int revision = binarySearch(timestamp);
+    int revision = binarySearch(timestamp, mostRecentRevision + 1);
 
-    if (revision < 0) {
-      revision = -revision - 1;
+    if (revision >= 0) {
+      return revision;
     }
 
+    revision = -revision - 1;
+
     if (revision == 0)
       return 0;
-    else if (revision == getMostRecentRevisionNumber() + 1)
-      return getMostRecentRevisionNumber();
-
-    try (final XdmNodeReadTrx rtxRevisionMinus1 = beginNodeReadTrx(revision - 1);
-        final XdmNodeReadTrx rtxRevision = beginNodeReadTrx(revision)) {
-      final int revisionNumber;
-
-      if (timeDiff(timestamp, rtxRevisionMinus1.getRevisionTimestamp()) < timeDiff(
-          timestamp, rtxRevision.getRevisionTimestamp())) {
-        revisionNumber = rtxRevisionMinus1.getRevisionNumber();
-      } else {
-        revisionNumber = rtxRevision.getRevisionNumber();
-      }
+    else if (revision == mostRecentRevision + 1)
+      return mostRecentRevision;
 
-      return revisionNumber;
+    if (timeDiff(timestamp, getRevisionTimestamp(revision - 1)) < timeDiff(
+        timestamp, getRevisionTimestamp(revision))) {
+      return revision - 1;
+    } else {
+      return revision;
     }
   }
 }
@@ -1,8 +1,10 @@
 package org.sirix.access.trx.page;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.ResourceManager;
 import org.sirix.cache.PageContainer;
@@ -54,12 +56,24 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
     return delegate().loadRevRoot(lastCommitedRev);
   }
 
+  @Override
+  public int getCurrentMaxIndirectPageTreeLevel(@Nonnull PageKind pageKind, int index,
+      @Nonnull RevisionRootPage revisionRoot) throws SirixIOException {
+    return delegate().getCurrentMaxIndirectPageTreeLevel(pageKind, index, revisionRoot);
+  }
+
   @Override
   public PageReference getPageReferenceForPage(@Nonnull PageReference startReference,
       @Nonnegative long pageKey, int index, @Nonnull PageKind pageKind) throws SirixIOException {
     return delegate().getPageReferenceForPage(startReference, pageKey, index, pageKind);
   }
 
+  @Override
+  public CompletableFuture<Void> prefetchRecordPage(@Nonnegative long pageKey, int index,
+      @Nonnull PageKind pageKind) {
+    return delegate().prefetchRecordPage(pageKey, index, pageKind);
+  }
+
   @Override
   public ResourceManager getResourceManager() {
     return delegate().getResourceManager();
@@ -107,6 +121,11 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
     return delegate().getName(nameKey, kind);
   }
 
+  @Override
+  public QNm getQName(int uriKey, int prefixKey, int localNameKey, @Nonnull Kind kind) {
+    return delegate().getQName(uriKey, prefixKey, localNameKey, kind);
+  }
+
   @Override
   public int getNameCount(int nameKey, @Nonnull Kind kind) {
     return delegate().getNameCount(nameKey, kind);
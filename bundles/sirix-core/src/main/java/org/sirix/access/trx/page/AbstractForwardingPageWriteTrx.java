@@ -1,5 +1,7 @@
 package org.sirix.access.trx.page;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.sirix.access.trx.node.Restore;
@@ -57,6 +59,12 @@ public abstract class AbstractForwardingPageWriteTrx<K extends Comparable<? supe
     delegate().removeEntry(recordKey, pageKind, index);
   }
 
+  @Override
+  public void removeEntries(List<K> recordKeys, @Nonnull PageKind pageKind, int index)
+      throws SirixIOException {
+    delegate().removeEntries(recordKeys, pageKind, index);
+  }
+
   @Override
   public int createNameKey(String name, @Nonnull Kind kind) throws SirixIOException {
     return delegate().createNameKey(name, kind);
@@ -67,6 +75,16 @@ public abstract class AbstractForwardingPageWriteTrx<K extends Comparable<? supe
     return delegate().commit();
   }
 
+  @Override
+  public CompletableFuture<UberPage> commitAsync(String commitMessage) {
+    return delegate().commitAsync(commitMessage);
+  }
+
+  @Override
+  public CommitStatistics getCommitStatistics() {
+    return delegate().getCommitStatistics();
+  }
+
   @Override
   public void commit(PageReference reference) {
     delegate().commit(reference);
@@ -0,0 +1,251 @@
+package org.sirix.access.trx.page;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import javax.annotation.Nonnegative;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.ResourceManager;
+import org.sirix.cache.BufferManager;
+import org.sirix.page.IndirectPage;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Warms up the buffer of a resource. The revision root pages of the most recent revisions, their
+ * name, path summary, CAS and path pages as well as the top levels of their record and path summary
+ * trees are read and pinned in the {@link BufferManager}, such that the first transactions don't
+ * have to read them one at a time. The pins follow the committed revisions: once a revision has
+ * been committed, it's warmed up by {@link #advance(int)} and the pages of the revisions, which
+ * fall out of the warm up window, are unpinned, unless a more recent revision shares them.
+ *
+ * @author agent
+ *
+ */
+public final class BufferWarmUp {
+
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(BufferWarmUp.class));
+
+  /** Runs the warm ups in the background, shared by all resources. */
+  private static final ExecutorService WARM_UP_POOL = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat("sirix-warm-up-%d").setDaemon(true).build());
+
+  /** The resource manager to read the pages with. */
+  private final ResourceManager mResourceManager;
+
+  /** The buffer, in which the pages are pinned. */
+  private final BufferManager mBufferManager;
+
+  /** The number of most recent revisions to warm up. */
+  private final int mRevisions;
+
+  /** The number of levels of the indirect page trees to warm up. */
+  private final int mLevels;
+
+  /** The references to the pinned pages of each warmed up revision. */
+  private final NavigableMap<Integer, Set<PageReference>> mPinnedPages;
+
+  /**
+   * Constructor.
+   *
+   * @param resourceManager the resource manager to read the pages with
+   * @param bufferManager the buffer, in which the pages are pinned
+   * @param revisions the number of most recent revisions to warm up
+   * @param levels the number of levels of the indirect page trees to warm up
+   */
+  public BufferWarmUp(final ResourceManager resourceManager, final BufferManager bufferManager,
+      final @Nonnegative int revisions, final @Nonnegative int levels) {
+    checkArgument(revisions >= 0, "revisions must be >= 0!");
+    checkArgument(levels >= 0, "levels must be >= 0!");
+    mResourceManager = checkNotNull(resourceManager);
+    mBufferManager = checkNotNull(bufferManager);
+    mRevisions = revisions;
+    mLevels = levels;
+    mPinnedPages = new TreeMap<>();
+  }
+
+  /**
+   * Warm up the buffer in the background. Failures are logged, as the warm up is only an
+   * optimization.
+   *
+   * @return the future of the number of pinned pages
+   */
+  public CompletableFuture<Integer> runAsync() {
+    return supplyAsync(this::run);
+  }
+
+  /**
+   * Warm up a committed revision and unpin the revisions, which fall out of the warm up window, in
+   * the background. Failures are logged, as the warm up is only an optimization.
+   *
+   * @param revision the committed revision
+   * @return the future of the number of pinned pages
+   */
+  public CompletableFuture<Integer> advanceAsync(final @Nonnegative int revision) {
+    return supplyAsync(() -> advance(revision));
+  }
+
+  private CompletableFuture<Integer> supplyAsync(final Supplier<Integer> warmUp) {
+    return CompletableFuture.supplyAsync(warmUp, WARM_UP_POOL).whenComplete((pages, e) -> {
+      if (e != null) {
+        LOGWRAPPER.warn("Warm up of " + mResourceManager.getResourcePath() + " failed: " + e);
+      }
+    });
+  }
+
+  /**
+   * Warm up the buffer.
+   *
+   * @return the number of pinned pages
+   */
+  public synchronized int run() {
+    final int mostRecentRevision = mResourceManager.getMostRecentRevisionNumber();
+    int pages = 0;
+
+    for (int revision = mostRecentRevision;
+        revision > mostRecentRevision - mRevisions && revision >= 0; revision--) {
+      if (!mPinnedPages.containsKey(revision)) {
+        pages += warmUp(revision);
+      }
+    }
+
+    LOGWRAPPER.debug(
+        "Warmed up " + mResourceManager.getResourcePath() + ": pinned " + pages + " pages.");
+
+    return pages;
+  }
+
+  /**
+   * Warm up a committed revision and unpin the revisions, which fall out of the warm up window.
+   *
+   * @param revision the committed revision
+   * @return the number of pinned pages
+   */
+  public synchronized int advance(final @Nonnegative int revision) {
+    checkArgument(revision >= 0, "revision must be >= 0!");
+    final int pages = mRevisions == 0 || mPinnedPages.containsKey(revision)
+        ? 0
+        : warmUp(revision);
+
+    final Map<Integer, Set<PageReference>> evicted =
+        mPinnedPages.headMap(revision - mRevisions, true);
+    if (!evicted.isEmpty()) {
+      final Set<PageReference> retained = new HashSet<>();
+      mPinnedPages.tailMap(revision - mRevisions, false).values().forEach(retained::addAll);
+      for (final Map.Entry<Integer, Set<PageReference>> entry : evicted.entrySet()) {
+        mBufferManager.unpin(entry.getKey());
+        for (final PageReference reference : entry.getValue()) {
+          // Unchanged pages are shared with the more recent revisions.
+          if (!retained.contains(reference)) {
+            mBufferManager.unpin(reference);
+          }
+        }
+      }
+      evicted.clear();
+    }
+
+    return pages;
+  }
+
+  /**
+   * Get the revisions, whose pages are currently pinned.
+   *
+   * @return the revisions in ascending order
+   */
+  public synchronized List<Integer> getWarmedUpRevisions() {
+    return new ArrayList<>(mPinnedPages.keySet());
+  }
+
+  private int warmUp(final int revision) {
+    final Set<PageReference> references = new HashSet<>();
+
+    try (final PageReadTrx pageReadTrx = mResourceManager.beginPageReadTrx(revision)) {
+      final RevisionRootPage revisionRootPage = pageReadTrx.getActualRevisionRootPage();
+      mBufferManager.pin(revision, revisionRootPage);
+
+      pin(references, revisionRootPage.getNamePageReference(),
+          pageReadTrx.getNamePage(revisionRootPage));
+      pin(references, revisionRootPage.getCASPageReference(),
+          pageReadTrx.getCASPage(revisionRootPage));
+      pin(references, revisionRootPage.getPathPageReference(),
+          pageReadTrx.getPathPage(revisionRootPage));
+      pin(references, revisionRootPage.getPathSummaryPageReference(),
+          pageReadTrx.getPathSummaryPage(revisionRootPage));
+
+      pinIndirectPages(pageReadTrx, references, revisionRootPage.getIndirectPageReference(),
+          pageReadTrx.getCurrentMaxIndirectPageTreeLevel(PageKind.RECORDPAGE, -1,
+              revisionRootPage));
+
+      final PageReference pathSummaryReference =
+          pageReadTrx.getPathSummaryPage(revisionRootPage).getIndirectPageReference(0);
+      if (pathSummaryReference.getKey() != Constants.NULL_ID_LONG) {
+        pinIndirectPages(pageReadTrx, references, pathSummaryReference,
+            pageReadTrx.getCurrentMaxIndirectPageTreeLevel(PageKind.PATHSUMMARYPAGE, 0,
+                revisionRootPage));
+      }
+    }
+
+    mPinnedPages.put(revision, references);
+    return references.size() + 1;
+  }
+
+  private void pin(final Set<PageReference> references, final PageReference reference,
+      final Page page) {
+    if (page == null || reference.getKey() == Constants.NULL_ID_LONG) {
+      return;
+    }
+    mBufferManager.pin(reference, page);
+    // The reference might be modified afterwards, whereas the pinned key must not change.
+    references.add(new PageReference(reference));
+  }
+
+  /**
+   * Pin the top levels of an indirect page tree, level by level.
+   *
+   * @param pageReadTrx the page read transaction
+   * @param pinnedReferences the references to the pinned pages of the revision
+   * @param startReference the reference to the root of the tree
+   * @param height the height of the tree, as the leaves are record pages
+   */
+  private void pinIndirectPages(final PageReadTrx pageReadTrx,
+      final Set<PageReference> pinnedReferences, final PageReference startReference,
+      final int height) {
+    List<PageReference> references = Collections.singletonList(startReference);
+
+    for (int level = 0, levels = Math.min(mLevels, height); level < levels
+        && !references.isEmpty(); level++) {
+      final List<PageReference> nextReferences = new ArrayList<>();
+      for (final PageReference reference : references) {
+        final IndirectPage page = pageReadTrx.dereferenceIndirectPageReference(reference);
+        pin(pinnedReferences, reference, page);
+        if (page != null) {
+          for (final PageReference child : page.getReferences()) {
+            if (child != null && child.getKey() != Constants.NULL_ID_LONG) {
+              nextReferences.add(child);
+            }
+          }
+        }
+      }
+      references = nextReferences;
+    }
+  }
+}
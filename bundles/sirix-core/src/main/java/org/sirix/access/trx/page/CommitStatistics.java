@@ -0,0 +1,121 @@
+package org.sirix.access.trx.page;
+
+import java.util.concurrent.TimeUnit;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable timings of the phases of a commit.
+ *
+ * @author agent
+ *
+ */
+public final class CommitStatistics {
+
+  /** Statistics, if no commit has been made so far. */
+  public static final CommitStatistics EMPTY = new CommitStatistics(0, 0, 0, 0, 0);
+
+  /** Number of written pages. */
+  private final int mPageCount;
+
+  /** Time to serialize and write the pages in nanoseconds. */
+  private final long mWritePagesTime;
+
+  /** Time to write the uber page and to force the files to disk in nanoseconds. */
+  private final long mSyncTime;
+
+  /** Time to write the index definitions in nanoseconds. */
+  private final long mIndexesTime;
+
+  /** Time to truncate the transaction intent log in nanoseconds. */
+  private final long mLogTime;
+
+  /**
+   * Constructor.
+   *
+   * @param pageCount number of written pages
+   * @param writePagesTime time to serialize and write the pages in nanoseconds
+   * @param syncTime time to write the uber page and to force the files to disk in nanoseconds
+   * @param indexesTime time to write the index definitions in nanoseconds
+   * @param logTime time to truncate the transaction intent log in nanoseconds
+   */
+  public CommitStatistics(final int pageCount, final long writePagesTime, final long syncTime,
+      final long indexesTime, final long logTime) {
+    mPageCount = pageCount;
+    mWritePagesTime = writePagesTime;
+    mSyncTime = syncTime;
+    mIndexesTime = indexesTime;
+    mLogTime = logTime;
+  }
+
+  /**
+   * Get the number of written pages.
+   *
+   * @return the number of written pages
+   */
+  public int getPageCount() {
+    return mPageCount;
+  }
+
+  /**
+   * Get the time to serialize and write the pages.
+   *
+   * @param unit the time unit
+   * @return the time in the given unit
+   */
+  public long getWritePagesTime(final TimeUnit unit) {
+    return unit.convert(mWritePagesTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get the time to write the uber page and to force the files to disk (depending on the
+   * durability mode).
+   *
+   * @param unit the time unit
+   * @return the time in the given unit
+   */
+  public long getSyncTime(final TimeUnit unit) {
+    return unit.convert(mSyncTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get the time to write the index definitions.
+   *
+   * @param unit the time unit
+   * @return the time in the given unit
+   */
+  public long getIndexesTime(final TimeUnit unit) {
+    return unit.convert(mIndexesTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get the time to truncate the transaction intent log.
+   *
+   * @param unit the time unit
+   * @return the time in the given unit
+   */
+  public long getLogTime(final TimeUnit unit) {
+    return unit.convert(mLogTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Get the time of the whole commit.
+   *
+   * @param unit the time unit
+   * @return the time in the given unit
+   */
+  public long getTotalTime(final TimeUnit unit) {
+    return unit.convert(mWritePagesTime + mSyncTime + mIndexesTime + mLogTime,
+        TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+                      .add("pageCount", mPageCount)
+                      .add("writePagesTime", mWritePagesTime)
+                      .add("syncTime", mSyncTime)
+                      .add("indexesTime", mIndexesTime)
+                      .add("logTime", mLogTime)
+                      .toString();
+  }
+}
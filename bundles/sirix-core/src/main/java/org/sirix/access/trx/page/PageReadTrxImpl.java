@@ -29,13 +29,17 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.brackit.xquery.atomic.QNm;
 import org.brackit.xquery.xdm.DocumentException;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.CommitCredentials;
@@ -45,7 +49,6 @@ import org.sirix.api.PageReadTrx;
 import org.sirix.api.ResourceManager;
 import org.sirix.cache.BufferManager;
 import org.sirix.cache.Cache;
-import org.sirix.cache.IndexLogKey;
 import org.sirix.cache.PageContainer;
 import org.sirix.cache.TransactionIntentLog;
 import org.sirix.exception.SirixException;
@@ -58,12 +61,10 @@ import org.sirix.page.CASPage;
 import org.sirix.page.IndirectPage;
 import org.sirix.page.NamePage;
 import org.sirix.page.PageKind;
-import org.sirix.page.PagePersister;
 import org.sirix.page.PageReference;
 import org.sirix.page.PathPage;
 import org.sirix.page.PathSummaryPage;
 import org.sirix.page.RevisionRootPage;
-import org.sirix.page.SerializationType;
 import org.sirix.page.UberPage;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.KeyValuePage;
@@ -71,14 +72,10 @@ import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
 import org.sirix.settings.Fixed;
 import org.sirix.settings.VersioningType;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.io.ByteArrayDataInput;
-import com.google.common.io.ByteArrayDataOutput;
-import com.google.common.io.ByteStreams;
-import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.base.Throwables;
 
 /**
  * <h1>PageReadTransaction</h1>
@@ -90,6 +87,10 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
  * </p>
  */
 public final class PageReadTrxImpl implements PageReadTrx {
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(PageReadTrxImpl.class));
+
   /** Page reader exclusively assigned to this transaction. */
   private final Reader mPageReader;
 
@@ -99,12 +100,6 @@ public final class PageReadTrxImpl implements PageReadTrx {
   /** Cached name page of this revision. */
   private final RevisionRootPage mRootPage;
 
-  /** Internal reference to node cache. */
-  private final LoadingCache<IndexLogKey, PageContainer> mNodeCache;
-
-  /** Internal reference to page cache. */
-  private final LoadingCache<PageReference, Page> mPageCache;
-
   /** {@link XdmResourceManager} reference. */
   protected final XdmResourceManager mResourceManager;
 
@@ -129,6 +124,12 @@ public final class PageReadTrxImpl implements PageReadTrx {
   /** The transaction-ID. */
   private long mTrxId;
 
+  /** Key of the record page, which has been accessed last, to detect sequential reads. */
+  private long mLastRecordPageKey = Constants.NULL_ID_LONG;
+
+  /** Prefetches, which are in flight and must be finished before the reader is closed. */
+  private final Set<CompletableFuture<Void>> mPrefetches = ConcurrentHashMap.newKeySet();
+
   /**
    * Standard constructor.
    *
@@ -179,49 +180,6 @@ public final class PageReadTrxImpl implements PageReadTrx {
     mPageReader = checkNotNull(reader);
     mUberPage = checkNotNull(uberPage);
 
-    final PageReadTrx pageReadTrx = this;
-
-    mNodeCache = CacheBuilder.newBuilder()
-                             .maximumSize(10_000)
-                             .expireAfterWrite(5_000, TimeUnit.SECONDS)
-                             .expireAfterAccess(5_000, TimeUnit.SECONDS)
-                             .build(new CacheLoader<IndexLogKey, PageContainer>() {
-                               @Override
-                               public PageContainer load(final IndexLogKey key) {
-                                 return pageReadTrx.getRecordPageContainer(
-                                     key.getRecordPageKey(), key.getIndex(), key.getIndexType());
-                               }
-                             });
-
-    final CacheBuilder<Object, Object> pageCacheBuilder = CacheBuilder.newBuilder();
-    mPageCache = pageCacheBuilder.build(new CacheLoader<PageReference, Page>() {
-      @Override
-      public Page load(final PageReference reference) {
-        Page page = reference.getPage();
-        if (page == null) {
-          if (mTrxIntentLog != null) {
-            // Try to get it from the transaction log if it's present.
-            final PageContainer cont = mTrxIntentLog.get(reference, pageReadTrx);
-            page = cont == null
-                ? null
-                : cont.getComplete();
-          }
-
-          if (page == null) {
-            page = mPageReader.read(reference, pageReadTrx);
-
-            if (page != null && mTrxIntentLog == null) {
-              // Put page into buffer manager and set page reference (just to
-              // track when the in-memory page must be removed).
-              mResourceBufferManager.getPageCache().put(reference, page);
-              reference.setPage(page);
-            }
-          }
-        }
-        return page;
-      }
-    });
-
     // Load revision root.
     mRootPage = loadRevRoot(revision);
     assert mRootPage != null : "root page must not be null!";
@@ -263,28 +221,25 @@ public final class PageReadTrxImpl implements PageReadTrx {
 
     final PageContainer cont;
 
-    try {
-      switch (pageKind) {
-        case RECORDPAGE:
-        case PATHSUMMARYPAGE:
-        case PATHPAGE:
-        case CASPAGE:
-        case NAMEPAGE:
-          cont = mNodeCache.get(new IndexLogKey(pageKind, recordPageKey, index));
-          break;
-        // $CASES-OMITTED$
-        default:
-          throw new IllegalStateException();
-      }
-    } catch (final ExecutionException | UncheckedExecutionException e) {
-      throw new SirixIOException(e.getCause());
+    switch (pageKind) {
+      case RECORDPAGE:
+      case PATHSUMMARYPAGE:
+      case PATHPAGE:
+      case CASPAGE:
+      case NAMEPAGE:
+        // Record pages are cached in the buffer manager, which is shared by all transactions.
+        cont = getRecordPageContainer(recordPageKey, index, pageKind);
+        break;
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException();
     }
 
     if (PageContainer.emptyInstance().equals(cont)) {
       return Optional.empty();
     }
 
-    final Record retVal = ((UnorderedKeyValuePage) cont.getComplete()).getValue(nodeKey);
+    final Record retVal = ((UnorderedKeyValuePage) cont.getComplete()).getValue(nodeKey, this);
     return checkItemIfDeleted(retVal);
   }
 
@@ -308,6 +263,38 @@ public final class PageReadTrxImpl implements PageReadTrx {
     return mNamePage.getName(nameKey, nodeKind);
   }
 
+  @Override
+  public QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      final Kind nodeKind) {
+    assertNotClosed();
+    final QNm name = mNamePage.getQName(uriKey, prefixKey, localNameKey, checkNotNull(nodeKind));
+    return name == null
+        ? newQName(this, uriKey, prefixKey, localNameKey, nodeKind)
+        : name;
+  }
+
+  /**
+   * Create a new qualified name, which isn't interned, from the given keys.
+   *
+   * @param pageReadTrx the transaction to look up the names with
+   * @param uriKey name key of the namespace URI
+   * @param prefixKey name key of the prefix or {@code -1}, if there's no prefix
+   * @param localNameKey name key of the local name or {@code -1}, if there's no local name
+   * @param nodeKind kind of node
+   * @return the qualified name
+   */
+  static QNm newQName(final PageReadTrx pageReadTrx, final int uriKey, final int prefixKey,
+      final int localNameKey, final Kind nodeKind) {
+    final String uri = pageReadTrx.getName(uriKey, Kind.NAMESPACE);
+    final String prefix = prefixKey == -1
+        ? ""
+        : pageReadTrx.getName(prefixKey, nodeKind);
+    final String localName = localNameKey == -1
+        ? ""
+        : pageReadTrx.getName(localNameKey, nodeKind);
+    return new QNm(uri, prefix, localName);
+  }
+
   @Override
   public final byte[] getRawName(final int pNameKey, final Kind pNodeKind) {
     assertNotClosed();
@@ -317,8 +304,6 @@ public final class PageReadTrxImpl implements PageReadTrx {
   @Override
   public void clearCaches() {
     assertNotClosed();
-    mNodeCache.invalidateAll();
-    mPageCache.invalidateAll();
   }
 
   @Override
@@ -336,10 +321,13 @@ public final class PageReadTrxImpl implements PageReadTrx {
    */
   @Override
   public RevisionRootPage loadRevRoot(final @Nonnegative int revisionKey) throws SirixIOException {
-    checkArgument(
-        revisionKey >= 0 && revisionKey <= mResourceManager.getMostRecentRevisionNumber(),
-        "%s must be >= 0 and <= last stored revision (%s)!", revisionKey,
-        mResourceManager.getMostRecentRevisionNumber());
+    // Write transactions might build on top of a revision, which isn't published yet.
+    final int lastStoredRevision = mTrxIntentLog == null
+        ? mResourceManager.getMostRecentRevisionNumber()
+        : Math.max(mResourceManager.getMostRecentRevisionNumber(),
+            mUberPage.getRevisionNumber() - 1);
+    checkArgument(revisionKey >= 0 && revisionKey <= lastStoredRevision,
+        "%s must be >= 0 and <= last stored revision (%s)!", revisionKey, lastStoredRevision);
     if (mTrxIntentLog == null) {
       final Cache<Integer, RevisionRootPage> cache =
           mResourceBufferManager.getRevisionRootPageCache();
@@ -353,28 +341,24 @@ public final class PageReadTrxImpl implements PageReadTrx {
       // The indirect page reference either fails horribly or returns a non null instance.
       final PageReference reference = getPageReferenceForPage(
           mUberPage.getIndirectPageReference(), revisionKey, -1, PageKind.UBERPAGE);
-      try {
-        RevisionRootPage page = null;
-
-        if (mTrxIntentLog != null) {
-          // Try to get it from the transaction log if it's present.
-          final PageContainer cont = mTrxIntentLog.get(reference, this);
-          page = cont == null
-              ? null
-              : (RevisionRootPage) cont.getComplete();
-        }
+      RevisionRootPage page = null;
 
-        if (page == null) {
-          assert reference.getKey() != Constants.NULL_ID_LONG
-              || reference.getLogKey() != Constants.NULL_ID_INT
-              || reference.getPersistentLogKey() != Constants.NULL_ID_LONG;
-          page = (RevisionRootPage) mPageCache.get(reference);
-        }
+      if (mTrxIntentLog != null) {
+        // Try to get it from the transaction log if it's present.
+        final PageContainer cont = mTrxIntentLog.get(reference, this);
+        page = cont == null
+            ? null
+            : (RevisionRootPage) cont.getComplete();
+      }
 
-        return page;
-      } catch (final ExecutionException | UncheckedExecutionException e) {
-        throw new SirixIOException(e.getCause());
+      if (page == null) {
+        assert reference.getKey() != Constants.NULL_ID_LONG
+            || reference.getLogKey() != Constants.NULL_ID_INT
+            || reference.getPersistentLogKey() != Constants.NULL_ID_LONG;
+        page = (RevisionRootPage) loadPage(reference);
       }
+
+      return page;
     }
   }
 
@@ -412,18 +396,57 @@ public final class PageReadTrxImpl implements PageReadTrx {
    */
   private Page getPage(final PageReference reference, final PageKind pageKind)
       throws SirixIOException {
-    try {
-      Page page = reference.getPage();
+    Page page = reference.getPage();
 
-      if (page == null) {
-        page = mPageCache.get(reference);
-        reference.setPage(page);
-      }
+    if (page == null) {
+      page = loadPage(reference);
+      reference.setPage(page);
+    }
 
+    return page;
+  }
+
+  /**
+   * Load a page, either from the transaction intent log, the buffer manager or the persistent
+   * storage. Pages read from the persistent storage are put into the buffer manager, also by write
+   * transactions, as they copy pages before modifying them.
+   *
+   * @param reference reference to the page
+   * @return the page
+   * @throws SirixIOException if an I/O error occurs
+   */
+  private Page loadPage(final PageReference reference) {
+    Page page = reference.getPage();
+    if (page != null) {
       return page;
-    } catch (final ExecutionException | UncheckedExecutionException e) {
-      throw new SirixIOException(e.getCause());
     }
+
+    if (mTrxIntentLog != null) {
+      // Try to get it from the transaction log if it's present.
+      final PageContainer cont = mTrxIntentLog.get(reference, this);
+      page = cont == null
+          ? null
+          : cont.getComplete();
+
+      if (page != null) {
+        return page;
+      }
+    }
+
+    page = mResourceBufferManager.getPageCache().get(reference);
+
+    if (page == null) {
+      page = mPageReader.read(reference, this);
+
+      if (page != null) {
+        // Put page into buffer manager and set page reference (just to
+        // track when the in-memory page must be removed).
+        mResourceBufferManager.getPageCache().put(reference, page);
+        reference.setPage(page);
+      }
+    }
+
+    return page;
   }
 
   @Override
@@ -446,6 +469,16 @@ public final class PageReadTrxImpl implements PageReadTrx {
       return PageContainer.emptyInstance();
     }
 
+    // Read ahead once record pages are accessed in sequential order, as during a scan of a
+    // document, such that the next page is read while the records of this page are processed.
+    if (pageKind == PageKind.RECORDPAGE && recordPageKey != mLastRecordPageKey) {
+      if (mLastRecordPageKey != Constants.NULL_ID_LONG
+          && recordPageKey == mLastRecordPageKey + 1) {
+        readAhead(recordPageKey + 1, index, pageKind);
+      }
+      mLastRecordPageKey = recordPageKey;
+    }
+
     // Try to get from resource buffer manager.
     final PageContainer recordPageContainerFromBuffer =
         mResourceBufferManager.getRecordPageCache().get(pageReferenceToRecordPage.get());
@@ -461,32 +494,140 @@ public final class PageReadTrxImpl implements PageReadTrx {
       return PageContainer.emptyInstance();
     }
 
+    return combineRecordPages(pageReferenceToRecordPage.get(), pages);
+  }
+
+  /**
+   * Reconstruct a record page from its fragments and put it into the record page cache if it
+   * isn't read by a write transaction. The number of previous fragments read is recorded, if
+   * adaptive full dumps are enabled.
+   *
+   * @param reference the reference to the record page
+   * @param pages the page fragments
+   * @return the container of the complete and the modified page
+   */
+  private <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> PageContainer combineRecordPages(
+      final PageReference reference, final List<T> pages) {
     final int mileStoneRevision = mResourceConfig.numberOfRevisionsToRestore;
     final VersioningType revisioning = mResourceConfig.revisioningType;
     final Page completePage = revisioning.combineRecordPages(pages, mileStoneRevision, this);
 
-    final PageContainer recordPageContainer =
-        PageContainer.getInstance(completePage, clone(completePage));
+    if (mResourceConfig.fullDumpThreshold > 0) {
+      mResourceBufferManager.getReconstructionCosts().record(reference.getKey(), pages.size() - 1);
+    }
+
+    // The modified page is only needed for write access, thus it's created by the page write
+    // transaction once a record of the page is modified.
+    final PageContainer recordPageContainer = PageContainer.getInstance(completePage);
 
-    if (mTrxIntentLog == null)
-      mResourceBufferManager.getRecordPageCache()
-                            .put(pageReferenceToRecordPage.get(), recordPageContainer);
+    if (mTrxIntentLog == null) {
+      mResourceBufferManager.getRecordPageCache().put(reference, recordPageContainer);
+    }
 
     return recordPageContainer;
   }
 
-  @SuppressWarnings("unchecked")
-  <E extends Page> E clone(final E toClone) throws SirixIOException {
-    try {
-      final ByteArrayDataOutput output = ByteStreams.newDataOutput();
-      final PagePersister pagePersister = new PagePersister();
-      pagePersister.serializePage(output, toClone, SerializationType.TRANSACTION_INTENT_LOG);
-      final ByteArrayDataInput input = ByteStreams.newDataInput(output.toByteArray());
-      return (E) pagePersister.deserializePage(
-          input, this, SerializationType.TRANSACTION_INTENT_LOG);
-    } catch (final IOException e) {
-      throw new SirixIOException(e);
+  @Override
+  public CompletableFuture<Void> prefetchRecordPage(final @Nonnegative long recordPageKey,
+      final int index, final PageKind pageKind) {
+    assertNotClosed();
+    checkArgument(recordPageKey >= 0, "recordPageKey must not be negative!");
+    checkNotNull(pageKind);
+
+    if (mTrxIntentLog != null) {
+      // Modified pages reside in the transaction intent log, which must not be accessed
+      // concurrently.
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final int height = getCurrentMaxIndirectPageTreeLevel(pageKind, index, mRootPage);
+    if (!isAddressable(recordPageKey, pageKind, height)) {
+      return CompletableFuture.completedFuture(null);
     }
+
+    final PageReference startReference = getPageReference(mRootPage, pageKind, index);
+    final CompletableFuture<Void> prefetch = getPageReferenceForPageAsync(startReference,
+        recordPageKey, 0, mUberPage.getPageCountExp(pageKind, height)).thenCompose(reference -> {
+          if (reference == null || reference.getKey() == Constants.NULL_ID_LONG
+              || mResourceBufferManager.getRecordPageCache().get(reference) != null) {
+            return CompletableFuture.completedFuture(null);
+          }
+          return this.<Long, Record, UnorderedKeyValuePage>getSnapshotPagesAsync(reference)
+                     .thenAccept(pages -> combineRecordPages(reference, pages));
+        });
+
+    // The reader must not be closed, while the prefetch is in flight.
+    mPrefetches.add(prefetch);
+    prefetch.whenComplete((unused, e) -> mPrefetches.remove(prefetch));
+    return prefetch;
+  }
+
+  /**
+   * Read the next record page ahead. A failed read ahead is logged, as the page is read again,
+   * once it's accessed.
+   *
+   * @param recordPageKey the key of the record page
+   * @param index the index number, or {@code -1} if it's a regular record page
+   * @param pageKind the kind of subtree
+   */
+  private void readAhead(final long recordPageKey, final int index, final PageKind pageKind) {
+    prefetchRecordPage(recordPageKey, index, pageKind).whenComplete((unused, e) -> {
+      if (e != null) {
+        LOGWRAPPER.error(e.getMessage(), e);
+      }
+    });
+  }
+
+  /**
+   * Find reference pointing to leaf page of an indirect tree asynchronously. Each indirect page is
+   * read as soon as its parent is available.
+   *
+   * @param reference reference pointing to the indirect page of the current level
+   * @param levelKey key to look up in the indirect page of the current level
+   * @param level the current level
+   * @param inpLevelPageCountExp the page count exponents of the levels
+   * @return the future of the reference pointing to the leaf page, or of {@code null}, if the leaf
+   *         doesn't exist
+   */
+  private CompletableFuture<PageReference> getPageReferenceForPageAsync(
+      final @Nullable PageReference reference, final long levelKey, final int level,
+      final int[] inpLevelPageCountExp) {
+    if (reference == null || level == inpLevelPageCountExp.length) {
+      return CompletableFuture.completedFuture(reference);
+    }
+
+    return dereferenceIndirectPageReferenceAsync(reference).thenCompose(page -> {
+      if (page == null) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      final int offset = (int) (levelKey >> inpLevelPageCountExp[level]);
+      return getPageReferenceForPageAsync(page.getReference(offset),
+          levelKey - ((long) offset << inpLevelPageCountExp[level]), level + 1,
+          inpLevelPageCountExp);
+    });
+  }
+
+  /**
+   * Dereference indirect page reference asynchronously. As the page references are shared with
+   * other transactions and threads, pages are only looked up in and published through the buffer
+   * manager, but never set in the references.
+   *
+   * @param reference reference to dereference
+   * @return the future of the dereferenced page
+   */
+  private CompletableFuture<IndirectPage> dereferenceIndirectPageReferenceAsync(
+      final PageReference reference) {
+    final Page page = mResourceBufferManager.getPageCache().get(reference);
+
+    if (page != null || reference.getKey() == Constants.NULL_ID_LONG) {
+      return CompletableFuture.completedFuture((IndirectPage) page);
+    }
+
+    return mPageReader.readAsync(reference, this).thenApply(readPage -> {
+      mResourceBufferManager.getPageCache().put(reference, readPage);
+      return (IndirectPage) readPage;
+    });
   }
 
   final Optional<PageReference> getLeafPageReference(final @Nonnegative long recordPageKey,
@@ -515,35 +656,112 @@ public final class PageReadTrxImpl implements PageReadTrx {
     final int[] revisionsToRead =
         config.revisioningType.getRevisionRoots(mRootPage.getRevision(), revsToRestore);
     final List<T> pages = new ArrayList<>(revisionsToRead.length);
-    boolean first = true;
-    for (int i = 0; i < revisionsToRead.length; i++) {
-      long refKeyToRecordPage = Constants.NULL_ID_LONG;
-      if (first) {
-        first = false;
-        refKeyToRecordPage = pageReference.getKey();
-      } else {
-        refKeyToRecordPage = pages.get(pages.size() - 1).getPreviousReferenceKey();
-      }
 
-      if (refKeyToRecordPage != Constants.NULL_ID_LONG) {
-        final PageReference reference = new PageReference().setKey(refKeyToRecordPage);
-        if (reference.getKey() != Constants.NULL_ID_LONG) {
-          @SuppressWarnings("unchecked")
-          final T page = (T) mPageReader.read(reference, this);
-          pages.add(page);
-          if (page.size() == Constants.NDP_NODE_COUNT) {
-            // Page is full, thus we can skip reconstructing pages with elder
-            // versions.
-            break;
-          }
-        }
-      } else {
-        break;
-      }
+    if (pageReference.getKey() == Constants.NULL_ID_LONG) {
+      return pages;
+    }
+
+    @SuppressWarnings("unchecked")
+    final T mostRecentPage =
+        (T) mPageReader.read(new PageReference().setKey(pageReference.getKey()), this);
+    pages.add(mostRecentPage);
+
+    try {
+      pages.addAll(this.<K, V, T>readPreviousFragments(mostRecentPage, revisionsToRead.length)
+                       .join());
+    } catch (final CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new SirixIOException(e.getCause());
     }
     return pages;
   }
 
+  /**
+   * Determines if a record page is written as a full page instead of another fragment, once it's
+   * modified, that is if adaptive full dumps are enabled and the page has been reconstructed from
+   * its fragments so often, that the number of previous fragments read reaches the threshold.
+   *
+   * @param reference reference to the most recent fragment of the page
+   * @param pages the fragments of the page
+   * @return {@code true}, if a full page has to be written, {@code false} otherwise
+   */
+  final <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> boolean isFullDumpDue(
+      final PageReference reference, final List<T> pages) {
+    final long threshold = mResourceConfig.fullDumpThreshold;
+    return threshold > 0 && pages.size() > 1
+        && mResourceConfig.revisioningType.supportsAdaptiveFullDumps()
+        && mResourceBufferManager.getReconstructionCosts().get(reference.getKey()) >= threshold;
+  }
+
+  /**
+   * Dereference key/value page reference and get all leaves asynchronously.
+   *
+   * @param pageReference page reference pointing to the most recent page fragment
+   * @return the future of the dereferenced pages
+   */
+  private <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> CompletableFuture<List<T>> getSnapshotPagesAsync(
+      final PageReference pageReference) {
+    final int[] revisionsToRead = mResourceConfig.revisioningType.getRevisionRoots(
+        mRootPage.getRevision(), mResourceConfig.numberOfRevisionsToRestore);
+
+    return mPageReader.readAsync(new PageReference().setKey(pageReference.getKey()), this)
+                      .thenCompose(page -> {
+                        @SuppressWarnings("unchecked")
+                        final T mostRecentPage = (T) page;
+                        return this.<K, V, T>readPreviousFragments(
+                            mostRecentPage, revisionsToRead.length).thenApply(fragments -> {
+                              final List<T> pages = new ArrayList<>(fragments.size() + 1);
+                              pages.add(mostRecentPage);
+                              pages.addAll(fragments);
+                              return pages;
+                            });
+                      });
+  }
+
+  /**
+   * Read the previous fragments of a page, which are needed to reconstruct the page, in one batch.
+   * The most recent fragment stores the keys of all elder fragments, such that they are fetched in
+   * parallel instead of following the chain of previous references one by one.
+   *
+   * @param mostRecentPage the most recent page fragment
+   * @param numberOfPagesToRead the maximum number of page fragments to read including the most
+   *        recent one
+   * @return the future of the previous fragments from the most recent to the oldest one
+   */
+  private <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> CompletableFuture<List<T>> readPreviousFragments(
+      final T mostRecentPage, final @Nonnegative int numberOfPagesToRead) {
+    if (mostRecentPage.size() == Constants.NDP_NODE_COUNT) {
+      // Page is full, thus we can skip reconstructing pages with elder versions.
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    final long[] previousFragmentKeys = mostRecentPage.getPreviousFragmentKeys();
+    final int numberOfFragments = Math.min(previousFragmentKeys.length, numberOfPagesToRead - 1);
+
+    if (numberOfFragments <= 0) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    final List<PageReference> references = new ArrayList<>(numberOfFragments);
+    for (int i = 0; i < numberOfFragments; i++) {
+      references.add(new PageReference().setKey(previousFragmentKeys[i]));
+    }
+
+    return mPageReader.readAll(references, this).thenApply(fragments -> {
+      final List<T> pages = new ArrayList<>(fragments.size());
+      for (final Page fragment : fragments) {
+        @SuppressWarnings("unchecked")
+        final T page = (T) fragment;
+        pages.add(page);
+        if (page.size() == Constants.NDP_NODE_COUNT) {
+          // Page is full, thus we can skip reconstructing pages with elder versions.
+          break;
+        }
+      }
+      return pages;
+    });
+  }
+
   /**
    * Get the page reference which points to the right subtree (nodes, path summary nodes, CAS index
    * nodes, Path index nodes or Name index nodes).
@@ -582,6 +800,56 @@ public final class PageReadTrxImpl implements PageReadTrx {
     return ref;
   }
 
+  @Override
+  public int getCurrentMaxIndirectPageTreeLevel(final PageKind pageKind, final int index,
+      final RevisionRootPage revisionRoot) {
+    assertNotClosed();
+    checkNotNull(revisionRoot);
+    final int height;
+
+    switch (checkNotNull(pageKind)) {
+      case UBERPAGE:
+        height = mUberPage.getPageCountExp(pageKind).length;
+        break;
+      case RECORDPAGE:
+        height = revisionRoot.getCurrentMaxLevelOfIndirectPages();
+        break;
+      case CASPAGE:
+        height = getCASPage(revisionRoot).getCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case PATHPAGE:
+        height = getPathPage(revisionRoot).getCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case NAMEPAGE:
+        height = getNamePage(revisionRoot).getCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case PATHSUMMARYPAGE:
+        height = getPathSummaryPage(revisionRoot).getCurrentMaxLevelOfIndirectPages(index);
+        break;
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException(
+            "Only defined for node, path summary, text value and attribute value pages!");
+    }
+
+    return height;
+  }
+
+  /**
+   * Determines if an indirect page tree with the given height is able to address the page key.
+   * Trees, which have the maximum height, address all supported page keys.
+   *
+   * @param pageKey the page key to look up
+   * @param pageKind the kind of subtree
+   * @param height the current height of the tree
+   * @return {@code true}, if the page key is addressable, {@code false} otherwise
+   */
+  final boolean isAddressable(final @Nonnegative long pageKey, final PageKind pageKind,
+      final @Nonnegative int height) {
+    return height >= mUberPage.getPageCountExp(pageKind).length
+        || pageKey < 1L << (mUberPage.getPageReferenceCountExp(pageKind) * height);
+  }
+
   /**
    * Dereference indirect page reference.
    *
@@ -593,38 +861,35 @@ public final class PageReadTrxImpl implements PageReadTrx {
    */
   @Override
   public IndirectPage dereferenceIndirectPageReference(final PageReference reference) {
-    try {
-      IndirectPage page = null;
-
-      if (mTrxIntentLog != null) {
-        // Try to get it from the transaction log if it's present.
-        final PageContainer cont = mTrxIntentLog.get(reference, this);
-        page = cont == null
-            ? null
-            : (IndirectPage) cont.getComplete();
-      }
-
-      if (page == null) {
-        // Then try to get the in-memory reference.
-        page = (IndirectPage) reference.getPage();
-      }
+    IndirectPage page = null;
+
+    if (mTrxIntentLog != null) {
+      // Try to get it from the transaction log if it's present.
+      final PageContainer cont = mTrxIntentLog.get(reference, this);
+      page = cont == null
+          ? null
+          : (IndirectPage) cont.getComplete();
+    }
 
-      if (page == null && (reference.getKey() != Constants.NULL_ID_LONG
-          || reference.getLogKey() != Constants.NULL_ID_INT
-          || reference.getPersistentLogKey() != Constants.NULL_ID_LONG)) {
-        // Then try to get it from the page cache which might read it from the persistent storage
-        // on a cache miss.
-        page = (IndirectPage) mPageCache.get(reference);
-      }
+    if (page == null) {
+      // Then try to get the in-memory reference.
+      page = (IndirectPage) reference.getPage();
+    }
 
-      return page;
-    } catch (final ExecutionException | UncheckedExecutionException e) {
-      throw new SirixIOException(e.getCause());
+    if (page == null && (reference.getKey() != Constants.NULL_ID_LONG
+        || reference.getLogKey() != Constants.NULL_ID_INT
+        || reference.getPersistentLogKey() != Constants.NULL_ID_LONG)) {
+      // Then try to get it from the buffer manager which might read it from the persistent
+      // storage on a cache miss.
+      page = (IndirectPage) loadPage(reference);
     }
+
+    return page;
   }
 
   /**
-   * Find reference pointing to leaf page of an indirect tree.
+   * Find reference pointing to leaf page of an indirect tree. The height of the tree is looked up in
+   * the revision root page of this transaction.
    *
    * @param startReference start reference pointing to the indirect tree
    * @param recordPageKey key to look up in the indirect tree
@@ -645,7 +910,17 @@ public final class PageReadTrxImpl implements PageReadTrx {
     checkNotNull(pageKind);
     int offset = 0;
     long levelKey = recordPageKey;
-    final int[] inpLevelPageCountExp = mUberPage.getPageCountExp(pageKind);
+    final int[] inpLevelPageCountExp;
+    if (pageKind == PageKind.UBERPAGE) {
+      inpLevelPageCountExp = mUberPage.getPageCountExp(pageKind);
+    } else {
+      final int height = getCurrentMaxIndirectPageTreeLevel(pageKind, index, mRootPage);
+      if (!isAddressable(recordPageKey, pageKind, height)) {
+        // The tree hasn't grown that far, thus the page doesn't exist.
+        return null;
+      }
+      inpLevelPageCountExp = mUberPage.getPageCountExp(pageKind, height);
+    }
 
     // Iterate through all levels.
     for (int level = 0, height = inpLevelPageCountExp.length; level < height; level++) {
@@ -655,7 +930,7 @@ public final class PageReadTrxImpl implements PageReadTrx {
         break;
       } else {
         offset = (int) (levelKey >> inpLevelPageCountExp[level]);
-        levelKey -= offset << inpLevelPageCountExp[level];
+        levelKey -= (long) offset << inpLevelPageCountExp[level];
 
         try {
           // assert offset >= 0 && offset < mUberPage.getPageReferenceCount(pageKind);
@@ -696,6 +971,10 @@ public final class PageReadTrxImpl implements PageReadTrx {
   @Override
   public void close() {
     if (!mClosed) {
+      // Wait for the prefetches, which read through the reader, but ignore their failures.
+      for (final CompletableFuture<Void> prefetch : mPrefetches) {
+        prefetch.handle((unused, e) -> null).join();
+      }
       closeCaches();
       mPageReader.close();
 
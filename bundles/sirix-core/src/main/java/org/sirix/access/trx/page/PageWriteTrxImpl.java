@@ -26,13 +26,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.CommitCredentials;
 import org.sirix.access.trx.node.IndexController;
@@ -103,6 +109,18 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
 
   private final TreeModifier mTreeModifier;
 
+  /** Number of pages written during the current commit. */
+  private int mCommittedPageCount;
+
+  /** Timings of the last commit. */
+  private CommitStatistics mCommitStatistics = CommitStatistics.EMPTY;
+
+  /** The record pages, which have been serialized in advance during the current commit. */
+  private Map<Page, ByteBuffer> mSerializedPages = Collections.emptyMap();
+
+  /** The uber page of the pipelined commit, which is published in the background, if any. */
+  private CompletableFuture<UberPage> mPipelinedCommit;
+
   /**
    * Constructor.
    *
@@ -213,6 +231,36 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     }
   }
 
+  @Override
+  public void removeEntries(final List<Long> recordKeys, @Nonnull final PageKind pageKind,
+      final int index) {
+    mPageRtx.assertNotClosed();
+    checkNotNull(pageKind);
+    final long[] keys = recordKeys.stream().mapToLong(Long::longValue).sorted().toArray();
+    PageContainer cont = null;
+    long currentPageKey = Constants.NULL_ID_LONG;
+    for (final long recordKey : keys) {
+      final long nodePageKey = mPageRtx.pageKey(recordKey);
+      if (cont == null || nodePageKey != currentPageKey) {
+        cont = prepareRecordPage(nodePageKey, index, pageKind);
+        currentPageKey = nodePageKey;
+      }
+      final UnorderedKeyValuePage modified = (UnorderedKeyValuePage) cont.getModified();
+      final UnorderedKeyValuePage complete = (UnorderedKeyValuePage) cont.getComplete();
+      Record record = modified.getValue(recordKey);
+      if (record == null) {
+        record = complete.getValue(recordKey);
+      }
+      if (!PageReadTrxImpl.checkItemIfDeleted(record).isPresent()) {
+        throw new IllegalStateException("Node not found!");
+      }
+      final Node delNode = new DeletedNode(
+          new NodeDelegate(recordKey, -1, -1, -1, Optional.<SirixDeweyID>empty()));
+      modified.setEntry(recordKey, delNode);
+      complete.setEntry(recordKey, delNode);
+    }
+  }
+
   @Override
   public Optional<Record> getRecord(final @Nonnegative long recordKey, final PageKind pageKind,
       final @Nonnegative int index) {
@@ -243,6 +291,20 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
         : currentNamePage.getName(nameKey, nodeKind);
   }
 
+  @Override
+  public QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      final Kind nodeKind) {
+    mPageRtx.assertNotClosed();
+    checkNotNull(nodeKind);
+    final NamePage currentNamePage = getNamePage(mNewRoot);
+    final QNm name = currentNamePage == null
+        ? null
+        : currentNamePage.getQName(uriKey, prefixKey, localNameKey, nodeKind);
+    return name == null
+        ? PageReadTrxImpl.newQName(this, uriKey, prefixKey, localNameKey, nodeKind)
+        : name;
+  }
+
   @Override
   public int createNameKey(final @Nullable String name, final Kind nodeKind) {
     mPageRtx.assertNotClosed();
@@ -261,7 +323,8 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     if (reference == null)
       return;
 
-    final PageContainer container = mLog.get(reference, mPageRtx);
+    // Spilled pages are only written, thus they aren't read back into the log.
+    final PageContainer container = mLog.peek(reference, mPageRtx);
 
     Page page = null;
 
@@ -277,7 +340,8 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
 
     // Recursively commit indirectly referenced pages and then write self.
     page.commit(this);
-    mPageWriter.write(reference);
+    mPageWriter.write(reference, mSerializedPages.remove(page));
+    mCommittedPageCount++;
 
     // Remove page reference.
     reference.setPage(null);
@@ -285,75 +349,102 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
 
   @Override
   public UberPage commit(final String commitMessage) {
+    return commit(commitMessage, false).join();
+  }
+
+  @Override
+  public CompletableFuture<UberPage> commitAsync(final @Nullable String commitMessage) {
+    return commit(commitMessage, true);
+  }
+
+  /**
+   * Commit the transaction.
+   *
+   * @param commitMessage the commit message or {@code null}
+   * @param pipelined determines if the uber page is published in the background
+   * @return the future of the committed uber page, which is completed unless the uber page is
+   *         published in the background
+   */
+  private CompletableFuture<UberPage> commit(final @Nullable String commitMessage,
+      final boolean pipelined) {
     mPageRtx.assertNotClosed();
 
     mPageRtx.mResourceManager.getCommitLock().lock();
 
-    final Path commitFile = mPageRtx.mResourceManager.commitFile();
-    commitFile.toFile().deleteOnExit();
-    // Issues with windows that it's not created in the first time?
-    while (!Files.exists(commitFile)) {
+    try {
+      // // Forcefully flush write-ahead transaction logs to persistent storage.
+      // if (mPageRtx.mResourceManager.getResourceManagerConfig().dumpLogs()) {
+      // mLog.toSecondCache();
+      // }
+
+      final PageReference uberPageReference = new PageReference();
+      final UberPage uberPage = getUberPage();
+      uberPageReference.setPage(uberPage);
+      final int revision = uberPage.getRevisionNumber();
+
+      final long startTime = System.nanoTime();
+      mCommittedPageCount = 0;
+
+      // Serialize the record pages in parallel, such that writing them only appends their bytes.
+      mSerializedPages = serializeRecordPages();
+
+      // Recursively write indirectly referenced pages.
       try {
-        Files.createFile(commitFile);
-      } catch (final IOException e) {
-        throw new SirixIOException(e);
+        if (commitMessage == null)
+          uberPage.commit(this);
+        else
+          uberPage.commit(commitMessage, this);
+      } finally {
+        mSerializedPages = Collections.emptyMap();
       }
-    }
 
-    // // Forcefully flush write-ahead transaction logs to persistent storage.
-    // if (mPageRtx.mResourceManager.getResourceManagerConfig().dumpLogs()) {
-    // mLog.toSecondCache();
-    // }
+      final long writePagesTime = System.nanoTime();
 
-    final PageReference uberPageReference = new PageReference();
-    final UberPage uberPage = getUberPage();
-    uberPageReference.setPage(uberPage);
-    final int revision = uberPage.getRevisionNumber();
-
-    // Recursively write indirectly referenced pages.
-    if (commitMessage == null)
-      uberPage.commit(this);
-    else
-      uberPage.commit(commitMessage, this);
+      // A pipelined commit only appends the uber page, it is forced and published in the
+      // background.
+      uberPageReference.setPage(uberPage);
+      if (pipelined) {
+        mPageWriter.appendUberPageReference(uberPageReference);
+      } else {
+        mPageRtx.mResourceManager.awaitPipelinedCommits();
+        mPageWriter.writeUberPageReference(uberPageReference);
+      }
+      uberPageReference.setPage(null);
 
-    uberPageReference.setPage(uberPage);
-    mPageWriter.writeUberPageReference(uberPageReference);
-    uberPageReference.setPage(null);
+      final long syncTime = System.nanoTime();
 
-    final Path indexes = mPageRtx.mResourceConfig.resourcePath.resolve(
-        ResourceConfiguration.ResourcePaths.INDEXES.getPath())
-                                                       .resolve(String.valueOf(revision) + ".xml");
+      final Path indexes = mPageRtx.mResourceConfig.resourcePath.resolve(
+          ResourceConfiguration.ResourcePaths.INDEXES.getPath())
+                                                         .resolve(String.valueOf(revision) + ".xml");
 
-    if (!Files.exists(indexes)) {
-      try {
-        Files.createFile(indexes);
+      // The file is created if it doesn't exist.
+      try (final OutputStream out = new FileOutputStream(indexes.toFile())) {
+        mIndexController.serialize(out);
       } catch (final IOException e) {
-        throw new SirixIOException(e);
+        throw new SirixIOException("Index definitions couldn't be serialized!", e);
       }
-    }
-
-    try (final OutputStream out = new FileOutputStream(indexes.toFile())) {
-      mIndexController.serialize(out);
-    } catch (final IOException e) {
-      throw new SirixIOException("Index definitions couldn't be serialized!", e);
-    }
 
-    mLog.truncate();
+      final long indexesTime = System.nanoTime();
 
-    // Delete commit file which denotes that a commit must write the log in the data file.
+      mLog.truncate();
 
-    try {
-      Files.delete(commitFile);
-    } catch (final IOException e) {
-      throw new SirixIOException("Commit file couldn't be deleted!");
-    }
+      final UberPage commitedUberPage = (UberPage) mPageWriter.read(pipelined
+          ? uberPageReference
+          : mPageWriter.readUberPageReference(), mPageRtx);
 
-    final UberPage commitedUberPage =
-        (UberPage) mPageWriter.read(mPageWriter.readUberPageReference(), mPageRtx);
+      mCommitStatistics = new CommitStatistics(mCommittedPageCount, writePagesTime - startTime,
+          syncTime - writePagesTime, indexesTime - syncTime, System.nanoTime() - indexesTime);
 
-    mPageRtx.mResourceManager.getCommitLock().unlock();
+      if (!pipelined) {
+        return CompletableFuture.completedFuture(commitedUberPage);
+      }
 
-    return commitedUberPage;
+      mPipelinedCommit = mPageRtx.mResourceManager.publishAsync(commitedUberPage,
+          uberPageReference.getKey(), () -> mPageWriter.publishUberPageReference(uberPageReference));
+      return mPipelinedCommit;
+    } finally {
+      mPageRtx.mResourceManager.getCommitLock().unlock();
+    }
   }
 
   @Override
@@ -361,12 +452,50 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     return commit((String) null);
   }
 
+  /**
+   * Serialize, compress and checksum the modified record pages in the transaction intent log on the
+   * common fork-join pool. Indirect pages, revision root pages and the other pages are serialized
+   * once they are written, as they store the offsets of their children, which are assigned in the
+   * sequential phase.
+   *
+   * @return the serialized record pages
+   */
+  private Map<Page, ByteBuffer> serializeRecordPages() {
+    final Set<UnorderedKeyValuePage> recordPages =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final PageContainer container : mLog.getMap().values()) {
+      if (container.getModified() instanceof UnorderedKeyValuePage) {
+        recordPages.add((UnorderedKeyValuePage) container.getModified());
+      }
+    }
+
+    final Map<Page, ByteBuffer> serializedPages =
+        Collections.synchronizedMap(new IdentityHashMap<>(recordPages.size()));
+    recordPages.parallelStream().forEach(page -> {
+      final ByteBuffer serializedPage = mPageWriter.serialize(page);
+      // Pages, which reference overflow pages, which are not written yet, are serialized once the
+      // offsets of the overflow pages are known.
+      if (serializedPage != null && page.referenceEntrySet().stream().allMatch(
+          entry -> entry.getValue().getPage() == null
+              && entry.getValue().getKey() != Constants.NULL_ID_LONG)) {
+        serializedPages.put(page, serializedPage);
+      }
+    });
+    return serializedPages;
+  }
+
+  @Override
+  public CommitStatistics getCommitStatistics() {
+    return mCommitStatistics;
+  }
+
   @Override
   public UberPage rollback() {
     mPageRtx.assertNotClosed();
 
     mLog.truncate();
 
+    mPageRtx.mResourceManager.awaitPipelinedCommits();
     final UberPage lastUberPage =
         (UberPage) mPageWriter.read(mPageWriter.readUberPageReference(), mPageRtx);
 
@@ -378,15 +507,24 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     if (!mIsClosed) {
       mPageRtx.assertNotClosed();
 
-      final UberPage lastUberPage =
-          (UberPage) mPageWriter.read(mPageWriter.readUberPageReference(), mPageRtx);
+      // The uber page of a pipelined commit is set by the resource manager, once it's published.
+      if (mPipelinedCommit == null) {
+        mPageRtx.mResourceManager.awaitPipelinedCommits();
+        final UberPage lastUberPage =
+            (UberPage) mPageWriter.read(mPageWriter.readUberPageReference(), mPageRtx);
 
-      mPageRtx.mResourceManager.setLastCommittedUberPage(lastUberPage);
+        mPageRtx.mResourceManager.setLastCommittedUberPage(lastUberPage);
+      }
 
       mPageRtx.clearCaches();
       mPageRtx.closeCaches();
       closeCaches();
-      mPageWriter.close();
+      if (mPipelinedCommit == null) {
+        mPageWriter.close();
+      } else {
+        // The writer publishes the uber page in the background.
+        mPipelinedCommit.whenComplete((uberPage, e) -> mPageWriter.close());
+      }
       mIsClosed = true;
     }
   }
@@ -418,9 +556,9 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     assert recordPageKey >= 0;
     assert pageKind != null;
     // Get the reference to the unordered key/value page storing the records.
-    final PageReference reference = mTreeModifier.prepareLeafOfTree(
-        mPageRtx, mLog, getUberPage().getPageCountExp(pageKind),
-        mPageRtx.getPageReference(mNewRoot, pageKind, index), recordPageKey, index, pageKind);
+    final PageReference reference = mTreeModifier.prepareLeafOfTree(mPageRtx, mLog,
+        mPageRtx.getPageReference(mNewRoot, pageKind, index), recordPageKey, index, pageKind,
+        mNewRoot);
 
     PageContainer pageContainer = mLog.get(reference, mPageRtx);
 
@@ -428,7 +566,8 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
       if (reference.getKey() == Constants.NULL_ID_LONG) {
         final UnorderedKeyValuePage completePage =
             new UnorderedKeyValuePage(recordPageKey, pageKind, Constants.NULL_ID_LONG, mPageRtx);
-        final UnorderedKeyValuePage modifyPage = mPageRtx.clone(completePage);
+        final UnorderedKeyValuePage modifyPage =
+            new UnorderedKeyValuePage(recordPageKey, pageKind, Constants.NULL_ID_LONG, mPageRtx);
         pageContainer = PageContainer.getInstance(completePage, modifyPage);
       } else {
         pageContainer = dereferenceRecordPageForModification(reference);
@@ -463,8 +602,38 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     final List<UnorderedKeyValuePage> revs = mPageRtx.getSnapshotPages(reference);
     final VersioningType revisioning = mPageRtx.mResourceManager.getResourceConfig().revisioningType;
     final int mileStoneRevision = mPageRtx.mResourceManager.getResourceConfig().numberOfRevisionsToRestore;
-    return revisioning.combineRecordPagesForModification(
+
+    // Hot pages with long fragment chains are written as a full page.
+    if (mPageRtx.isFullDumpDue(reference, revs)) {
+      return revisioning.combineRecordPagesForFullDump(revs, mileStoneRevision, mPageRtx);
+    }
+
+    final PageContainer pageContainer = revisioning.combineRecordPagesForModification(
         revs, mileStoneRevision, mPageRtx, reference);
+    if (!revs.isEmpty()) {
+      ((UnorderedKeyValuePage) pageContainer.getModified()).setPreviousFragmentKeys(
+          previousFragmentKeys(reference.getKey(), revs.get(0), mileStoneRevision));
+    }
+    return pageContainer;
+  }
+
+  /**
+   * Get the keys of the previous fragments of a new page fragment, such that all fragments needed to
+   * reconstruct the page can be fetched at once.
+   *
+   * @param previousFragmentKey the key of the most recent fragment of the page
+   * @param previousFragment the most recent fragment of the page
+   * @param revsToRestore the number of revisions to restore
+   * @return the keys of the previous fragments, starting with {@code previousFragmentKey}
+   */
+  private static long[] previousFragmentKeys(final long previousFragmentKey,
+      final UnorderedKeyValuePage previousFragment, final @Nonnegative int revsToRestore) {
+    final long[] olderFragmentKeys = previousFragment.getPreviousFragmentKeys();
+    final int size = Math.min(olderFragmentKeys.length + 1, Math.max(1, revsToRestore - 1));
+    final long[] previousFragmentKeys = new long[size];
+    previousFragmentKeys[0] = previousFragmentKey;
+    System.arraycopy(olderFragmentKeys, 0, previousFragmentKeys, 1, size - 1);
+    return previousFragmentKeys;
   }
 
   @Override
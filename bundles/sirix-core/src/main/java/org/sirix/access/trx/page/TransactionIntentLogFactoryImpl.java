@@ -28,17 +28,15 @@
 package org.sirix.access.trx.page;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import org.sirix.access.conf.ResourceConfiguration;
-import org.sirix.cache.PersistentFileCache;
+import org.sirix.cache.SpillArena;
 import org.sirix.cache.TransactionIntentLog;
-import org.sirix.io.bytepipe.ByteHandlePipeline;
-import org.sirix.io.file.FileWriter;
 import org.sirix.page.PagePersister;
-import org.sirix.page.SerializationType;
 
 /**
  * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
@@ -64,15 +62,12 @@ final class TransactionIntentLogFactoryImpl implements TransactionIntentLogFacto
         Files.createFile(logFile);
       }
 
-      final RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw");
+      final FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
 
-      final FileWriter fileWriter =
-          new FileWriter(file, null, new ByteHandlePipeline(resourceConfig.byteHandlePipeline),
-              SerializationType.TRANSACTION_INTENT_LOG, new PagePersister());
+      final SpillArena spillArena = new SpillArena(channel, new PagePersister());
 
-      final PersistentFileCache persistentFileCache = new PersistentFileCache(fileWriter);
-
-      return new TransactionIntentLog(persistentFileCache);
+      return new TransactionIntentLog(spillArena, resourceConfig.intentLogMemoryBudget);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
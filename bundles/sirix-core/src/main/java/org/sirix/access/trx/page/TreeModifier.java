@@ -75,6 +75,26 @@ public interface TreeModifier {
       final int[] inpLevelPageCountExp, final PageReference startReference,
       final @Nonnegative long key, final int index, final PageKind pageKind);
 
+  /**
+   * Prepare the leaf of a tree, the height of which is stored in the {@code revisionRootPage}
+   * or in one of its index pages. New root levels are added, until the tree is able to address
+   * the {@code key}.
+   *
+   * @param pageRtx the page reading transaction
+   * @param log the transaction intent log
+   * @param startReference start reference
+   * @param key page key to lookup
+   * @param index the index number or {@code -1} if a regular record page should be prepared
+   * @param pageKind the kind of subtree
+   * @param revisionRootPage the revision root page of the write transaction
+   * @return {@link PageReference} instance pointing to the right {@link UnorderedKeyValuePage} with
+   *         the {@code key}
+   * @throws SirixIOException if an I/O error occured
+   */
+  PageReference prepareLeafOfTree(final PageReadTrx pageRtx, final TransactionIntentLog log,
+      final PageReference startReference, final @Nonnegative long key, final int index,
+      final PageKind pageKind, final RevisionRootPage revisionRootPage);
+
   /**
    * Prepare indirect page, that is getting the referenced indirect page or a new page and put the
    * whole path into the log.
@@ -87,7 +87,7 @@ public final class TreeModifierImpl implements TreeModifier {
     // Iterate through all levels.
     for (int level = 0, height = inpLevelPageCountExp.length; level < height; level++) {
       offset = (int) (levelKey >> inpLevelPageCountExp[level]);
-      levelKey -= offset << inpLevelPageCountExp[level];
+      levelKey -= (long) offset << inpLevelPageCountExp[level];
       final IndirectPage page = prepareIndirectPage(pageRtx, log, reference);
       reference = page.getReference(offset);
     }
@@ -96,6 +96,61 @@ public final class TreeModifierImpl implements TreeModifier {
     return reference;
   }
 
+  @Override
+  public PageReference prepareLeafOfTree(final PageReadTrx pageRtx, final TransactionIntentLog log,
+      final PageReference startReference, final @Nonnegative long key, final int index,
+      final PageKind pageKind, final RevisionRootPage revisionRootPage) {
+    final UberPage uberPage = pageRtx.getUberPage();
+    final int maxHeight = uberPage.getPageCountExp(pageKind).length;
+    final int referenceCountExp = uberPage.getPageReferenceCountExp(pageKind);
+    int height = pageRtx.getCurrentMaxIndirectPageTreeLevel(pageKind, index, revisionRootPage);
+
+    // Add new root levels until the tree is able to address the key. The current root becomes the
+    // first child of the new root, as all of its page keys start with zeros in the new level.
+    while (height < maxHeight && key >= 1L << (referenceCountExp * height)) {
+      final IndirectPage currentRoot = prepareIndirectPage(pageRtx, log, startReference);
+      final IndirectPage newRoot = new IndirectPage();
+      log.put(newRoot.getReference(0), PageContainer.getInstance(currentRoot, currentRoot));
+      log.put(startReference, PageContainer.getInstance(newRoot, newRoot));
+      height = incrementCurrentMaxIndirectPageTreeLevel(pageRtx, pageKind, index, revisionRootPage);
+    }
+
+    return prepareLeafOfTree(pageRtx, log, uberPage.getPageCountExp(pageKind, height),
+        startReference, key, index, pageKind);
+  }
+
+  private static int incrementCurrentMaxIndirectPageTreeLevel(final PageReadTrx pageRtx,
+      final PageKind pageKind, final int index, final RevisionRootPage revisionRootPage) {
+    final int height;
+
+    switch (pageKind) {
+      case RECORDPAGE:
+        height = revisionRootPage.incrementAndGetCurrentMaxLevelOfIndirectPages();
+        break;
+      case CASPAGE:
+        height = pageRtx.getCASPage(revisionRootPage)
+                        .incrementAndGetCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case PATHPAGE:
+        height = pageRtx.getPathPage(revisionRootPage)
+                        .incrementAndGetCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case NAMEPAGE:
+        height = pageRtx.getNamePage(revisionRootPage)
+                        .incrementAndGetCurrentMaxLevelOfIndirectPages(index);
+        break;
+      case PATHSUMMARYPAGE:
+        height = pageRtx.getPathSummaryPage(revisionRootPage)
+                        .incrementAndGetCurrentMaxLevelOfIndirectPages(index);
+        break;
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException("The revision tree has a fixed height!");
+    }
+
+    return height;
+  }
+
   @Override
   public IndirectPage prepareIndirectPage(final PageReadTrx pageRtx, final TransactionIntentLog log,
       final PageReference reference) {
@@ -1,8 +1,10 @@
 package org.sirix.api;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.trx.node.CommitCredentials;
 import org.sirix.cache.PageContainer;
 import org.sirix.exception.SirixIOException;
@@ -85,6 +87,20 @@ public interface PageReadTrx extends AutoCloseable {
    */
   String getName(int nameKey, @Nonnull Kind recordKind);
 
+  /**
+   * Get the canonical qualified name corresponding to the given keys. The instances are shared by
+   * all transactions reading the same revision, thus callers must not rely on getting a new
+   * instance.
+   *
+   * @param uriKey name key of the namespace URI
+   * @param prefixKey name key of the prefix or {@code -1}, if there's no prefix
+   * @param localNameKey name key of the local name or {@code -1}, if there's no local name
+   * @param recordKind kind of record
+   * @return the qualified name
+   * @throws NullPointerException if {@code kind} is {@code null}
+   */
+  QNm getQName(int uriKey, int prefixKey, int localNameKey, @Nonnull Kind recordKind);
+
   /**
    * Get the number of references for a name.
    *
@@ -190,6 +206,20 @@ public interface PageReadTrx extends AutoCloseable {
    */
   PathSummaryPage getPathSummaryPage(RevisionRootPage revisionRoot) throws SirixIOException;
 
+  /**
+   * Get the current height of the indirect page tree of the given kind, that is the number of
+   * levels of indirect pages.
+   *
+   * @param pageKind the kind of subtree
+   * @param index the index number, or {@code -1} if the height of the record tree should be
+   *        retrieved
+   * @param revisionRoot {@link RevisionRootPage} which holds the indirect page tree
+   * @return the current height of the indirect page tree
+   * @throws SirixIOException if an I/O error occurs
+   */
+  int getCurrentMaxIndirectPageTreeLevel(@Nonnull PageKind pageKind, int index,
+      @Nonnull RevisionRootPage revisionRoot) throws SirixIOException;
+
   /**
    * Get the page reference pointing to the page denoted by {@code pageKey}.
    *
@@ -205,6 +235,22 @@ public interface PageReadTrx extends AutoCloseable {
   PageReference getPageReferenceForPage(PageReference startReference, @Nonnegative long pageKey,
       int index, @Nonnull PageKind pageKind) throws SirixIOException;
 
+  /**
+   * Prefetch the record page denoted by {@code pageKey} asynchronously, such that a subsequent
+   * access doesn't block. The indirect pages on the path to the leaf are read as soon as their
+   * parents are available and all fragments of the record page are read in one batch afterwards.
+   * Read-only transactions prefetch the next record page themselves, once record pages are
+   * accessed in sequential order.
+   *
+   * @param pageKey the unique key of the record page to prefetch
+   * @param index the index number, or {@code -1} if a regular record page should be prefetched
+   * @param pageKind the kind of subtree
+   * @return the future, which completes once the page is reconstructed and cached
+   * @throws IllegalArgumentException if {code pageKey} < 0
+   */
+  CompletableFuture<Void> prefetchRecordPage(@Nonnegative long pageKey, int index,
+      @Nonnull PageKind pageKind);
+
   /**
    * Get the {@link Reader} to read a page from persistent storage if needed.
    *
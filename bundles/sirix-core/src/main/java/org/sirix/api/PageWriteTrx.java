@@ -1,8 +1,12 @@
 package org.sirix.api;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.sirix.access.trx.node.Restore;
+import org.sirix.access.trx.page.CommitStatistics;
 import org.sirix.cache.PageContainer;
 import org.sirix.cache.TransactionIntentLog;
 import org.sirix.exception.SirixException;
@@ -84,6 +88,18 @@ public interface PageWriteTrx<K extends Comparable<? super K>, V extends Record,
    */
   void removeEntry(K key, @Nonnull PageKind pageKind, int index);
 
+  /**
+   * Remove several entries from the storage. The entries are removed in the order of their keys,
+   * such that every page, which stores some of them, is prepared for modification only once.
+   *
+   * @param keys entry keys from entries to be removed
+   * @param pageKind denoting the kind of page (that is the subtree root kind)
+   * @param index the index number
+   * @throws SirixIOException if the removal fails
+   * @throws NullPointerException if {@code keys} or {@code pageKind} is {@code null}
+   */
+  void removeEntries(List<K> keys, @Nonnull PageKind pageKind, int index);
+
   /**
    * Creating a namekey for a given name.
    *
@@ -111,6 +127,27 @@ public interface PageWriteTrx<K extends Comparable<? super K>, V extends Record,
    */
   UberPage commit(String commitMessage);
 
+  /**
+   * Commit the transaction without waiting for the new revision to become durable. All pages are
+   * appended to the storage, such that the next transaction is able to build on top of the new
+   * revision, whereas forcing the storage to the device and publishing the new uber page is done in
+   * the background, once the uber pages of the previous pipelined commits have been published. Read
+   * transactions only see the new revision once the returned future completes.
+   *
+   * @param commitMessage the commit message or {@code null}
+   * @return the future of the committed uber page, which completes once it is durable
+   * @throws SirixException if Sirix fails to commit
+   */
+  CompletableFuture<UberPage> commitAsync(@Nullable String commitMessage);
+
+  /**
+   * Get the number of written pages and the timings of the phases of the last commit.
+   *
+   * @return the statistics of the last commit, {@link CommitStatistics#EMPTY} if no commit has
+   *         been made so far
+   */
+  CommitStatistics getCommitStatistics();
+
   /**
    * Committing a {@link PageWriteTrx}. This method is recursively invoked by all
    * {@link PageReference}s.
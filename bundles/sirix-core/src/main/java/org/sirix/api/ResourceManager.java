@@ -33,6 +33,7 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixThreadedException;
 import org.sirix.exception.SirixUsageException;
 import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.io.RetentionPolicy;
 import org.sirix.node.interfaces.Record;
 import org.sirix.page.UnorderedKeyValuePage;
 
@@ -158,6 +159,19 @@ public interface ResourceManager extends AutoCloseable {
    */
   int getRevisionNumber(@Nonnull Instant pointInTime);
 
+  /**
+   * Compact the data file, such that it only contains the pages, which are reachable from the
+   * revisions retained by the given policy. Revisions, which are not retained, can't be opened
+   * afterwards, but revision numbers don't change. Transactions, which are open, keep reading the
+   * previous data file until they are closed.
+   *
+   * @param retentionPolicy determines which revisions are retained
+   * @throws SirixThreadedException if the thread is interrupted
+   * @throws SirixUsageException if a write transaction is running for a defined time
+   * @throws UnsupportedOperationException if the storage can't be compacted
+   */
+  void compact(RetentionPolicy retentionPolicy);
+
   /**
    * Begin exclusive read/write transaction with auto commit.
    *
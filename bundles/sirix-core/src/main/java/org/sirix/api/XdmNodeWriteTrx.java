@@ -22,8 +22,10 @@
 package org.sirix.api;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
 import org.brackit.xquery.atomic.QNm;
@@ -500,6 +502,20 @@ public interface XdmNodeWriteTrx extends XdmNodeReadTrx {
    */
   XdmNodeWriteTrx commit(String commitMessage);
 
+  /**
+   * Commit all modifications of the exclusive write transaction without waiting for the new
+   * revision to become durable. The transaction immediately continues with the next revision on
+   * top of the committed one, whereas the storage is forced to the device and the new revision is
+   * published in the background. Read transactions only see the new revision once the returned
+   * future completes.
+   *
+   * @param commitMessage message of the commit or {@code null}
+   * @return the future of the committed revision number, which completes once the revision is
+   *         durable
+   * @throws SirixException if this revision couldn't be commited
+   */
+  CompletableFuture<Integer> commitAsync(@Nullable String commitMessage);
+
   /**
    * Rollback all modifications of the exclusive write transaction.
    *
@@ -87,9 +87,7 @@ public final class WildcardFilter extends AbstractFilter {
         if (mType == EType.LOCALNAME) { // local name is given
           return localNameMatch();
         } else {
-          final String prefix = getTrx().nameForKey(getTrx().getPrefixKey());
-          final int prefixKey = getTrx().keyForName(prefix);
-          return prefixKey == mKnownPartKey;
+          return getTrx().getPrefixKey() == mKnownPartKey;
         }
         // $CASES-OMITTED$
       default:
@@ -103,7 +101,6 @@ public final class WildcardFilter extends AbstractFilter {
    * @return {@code true}, if they match, {@code false} otherwise
    */
   private boolean localNameMatch() {
-    final int localnameKey = getTrx().keyForName(getTrx().getName().getLocalName());
-    return localnameKey == mKnownPartKey;
+    return getTrx().getLocalNameKey() == mKnownPartKey;
   }
 }
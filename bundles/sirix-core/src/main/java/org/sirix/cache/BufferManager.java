@@ -10,4 +10,57 @@ public interface BufferManager {
   Cache<PageReference, Page> getPageCache();
 
   Cache<Integer, RevisionRootPage> getRevisionRootPageCache();
+
+  /**
+   * Get the hit, miss and eviction counters of the buffer.
+   *
+   * @return a snapshot of the statistics
+   */
+  CacheStatistics getStatistics();
+
+  /**
+   * Get the costs of reconstructing record pages from their fragments.
+   *
+   * @return the reconstruction costs
+   */
+  ReconstructionCosts getReconstructionCosts();
+
+  /**
+   * Put a page into the page cache and pin it, such that it's never evicted.
+   *
+   * @param reference the reference to the page
+   * @param page the page
+   */
+  void pin(PageReference reference, Page page);
+
+  /**
+   * Put a revision root page into the revision root page cache and pin it, such that it's never
+   * evicted.
+   *
+   * @param revision the revision number
+   * @param revisionRootPage the revision root page
+   */
+  void pin(int revision, RevisionRootPage revisionRootPage);
+
+  /**
+   * Unpin a page, such that it might be evicted again. The page stays in the page cache.
+   *
+   * @param reference the reference to the page
+   */
+  void unpin(PageReference reference);
+
+  /**
+   * Unpin a revision root page, such that it might be evicted again. The page stays in the
+   * revision root page cache.
+   *
+   * @param revision the revision number
+   */
+  void unpin(int revision);
+
+  /**
+   * Get the number of pinned pages.
+   *
+   * @return the number of pinned pages
+   */
+  int getPinnedPageCount();
 }
@@ -1,20 +1,78 @@
 package org.sirix.cache;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnegative;
 import org.sirix.page.PageReference;
 import org.sirix.page.RevisionRootPage;
 import org.sirix.page.interfaces.Page;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
+/**
+ * Buffer manager of a resource, which is shared by all transactions of the resource. All pages are
+ * stored in a single cache, which is bounded by the estimated memory footprint of the pages in
+ * bytes, such that record pages, indirect pages and revision root pages compete for the same
+ * memory. Pinned pages aren't taken into account and are never evicted.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
 public final class BufferManagerImpl implements BufferManager {
+
+  /** The maximum number of record pages, whose reconstruction costs are tracked. */
+  private static final long MAX_TRACKED_FRAGMENTS = 100_000;
+
+  /** The cache, which holds all buffered pages. */
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> mCache;
+
+  /** The maximum size of the buffer in bytes. */
+  private final long mMaxSize;
+
   private final PageCache mPageCache;
 
   private final RecordPageCache mRecordPageCache;
 
   private final RevisionRootPageCache mRevisionRootPageCache;
 
-  public BufferManagerImpl() {
-    mPageCache = new PageCache();
-    mRecordPageCache = new RecordPageCache();
-    mRevisionRootPageCache = new RevisionRootPageCache();
+  /** The costs of reconstructing record pages from their fragments. */
+  private final ReconstructionCosts mReconstructionCosts;
+
+  /** The keys of the pinned pages. */
+  private final Set<Object> mPinnedKeys;
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the maximum estimated size of all buffered pages in bytes
+   */
+  public BufferManagerImpl(final @Nonnegative long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must be >= 0!");
+    mMaxSize = maxSize;
+    mPinnedKeys = ConcurrentHashMap.newKeySet();
+
+    final RemovalListener<Object, Object> removalListener =
+        (Object key, Object value, RemovalCause cause) -> {
+          if (key instanceof PageReference) {
+            ((PageReference) key).setPage(null);
+          }
+        };
+
+    mCache = Caffeine.newBuilder()
+                     .maximumWeight(maxSize)
+                     .weigher(new PageWeigher(mPinnedKeys))
+                     .recordStats()
+                     .removalListener(removalListener)
+                     .build();
+
+    mPageCache = new PageCache(mCache);
+    mRecordPageCache = new RecordPageCache(mCache);
+    mRevisionRootPageCache = new RevisionRootPageCache(mCache);
+    mReconstructionCosts = new ReconstructionCosts(MAX_TRACKED_FRAGMENTS);
   }
 
   @Override
@@ -31,4 +89,56 @@ public final class BufferManagerImpl implements BufferManager {
   public Cache<Integer, RevisionRootPage> getRevisionRootPageCache() {
     return mRevisionRootPageCache;
   }
+
+  @Override
+  public CacheStatistics getStatistics() {
+    final CacheStats stats = mCache.stats();
+    final long size = mCache.policy()
+                            .eviction()
+                            .map(eviction -> eviction.weightedSize().orElse(0L))
+                            .orElse(0L);
+    return new CacheStatistics(
+        stats.hitCount(), stats.missCount(), stats.evictionCount(), size, mMaxSize);
+  }
+
+  @Override
+  public ReconstructionCosts getReconstructionCosts() {
+    return mReconstructionCosts;
+  }
+
+  @Override
+  public void pin(final PageReference reference, final Page page) {
+    // The reference might be modified afterwards, whereas the key must not change.
+    final PageReference key = new PageReference(checkNotNull(reference));
+    mPinnedKeys.add(key);
+    mCache.put(key, checkNotNull(page));
+  }
+
+  @Override
+  public void pin(final int revision, final RevisionRootPage revisionRootPage) {
+    mPinnedKeys.add(revision);
+    mCache.put(revision, checkNotNull(revisionRootPage));
+  }
+
+  @Override
+  public void unpin(final PageReference reference) {
+    unpinKey(new PageReference(checkNotNull(reference)));
+  }
+
+  @Override
+  public void unpin(final int revision) {
+    unpinKey(revision);
+  }
+
+  private void unpinKey(final Object key) {
+    if (mPinnedKeys.remove(key)) {
+      // Weigh the entry again, as it's evictable from now on.
+      mCache.asMap().computeIfPresent(key, (unused, value) -> value);
+    }
+  }
+
+  @Override
+  public int getPinnedPageCount() {
+    return mPinnedKeys.size();
+  }
 }
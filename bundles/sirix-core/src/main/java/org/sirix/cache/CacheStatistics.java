@@ -0,0 +1,113 @@
+package org.sirix.cache;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable snapshot of the statistics of a {@link BufferManager}.
+ *
+ * @author agent
+ *
+ */
+public final class CacheStatistics {
+
+  /** Number of lookups, which returned a buffered page. */
+  private final long mHitCount;
+
+  /** Number of lookups, which didn't find a buffered page. */
+  private final long mMissCount;
+
+  /** Number of pages, which have been evicted. */
+  private final long mEvictionCount;
+
+  /** Estimated size of all buffered pages in bytes. */
+  private final long mSize;
+
+  /** Maximum size of the buffer in bytes. */
+  private final long mMaxSize;
+
+  /**
+   * Constructor.
+   *
+   * @param hitCount number of lookups, which returned a buffered page
+   * @param missCount number of lookups, which didn't find a buffered page
+   * @param evictionCount number of pages, which have been evicted
+   * @param size estimated size of all buffered pages in bytes
+   * @param maxSize maximum size of the buffer in bytes
+   */
+  public CacheStatistics(final long hitCount, final long missCount, final long evictionCount,
+      final long size, final long maxSize) {
+    mHitCount = hitCount;
+    mMissCount = missCount;
+    mEvictionCount = evictionCount;
+    mSize = size;
+    mMaxSize = maxSize;
+  }
+
+  /**
+   * Get the number of lookups, which returned a buffered page.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return mHitCount;
+  }
+
+  /**
+   * Get the number of lookups, which didn't find a buffered page.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return mMissCount;
+  }
+
+  /**
+   * Get the ratio of lookups, which returned a buffered page.
+   *
+   * @return the hit rate, {@code 1.0} if no lookup has been made so far
+   */
+  public double getHitRate() {
+    final long requestCount = mHitCount + mMissCount;
+    return requestCount == 0
+        ? 1.0
+        : (double) mHitCount / requestCount;
+  }
+
+  /**
+   * Get the number of pages, which have been evicted.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return mEvictionCount;
+  }
+
+  /**
+   * Get the estimated size of all buffered pages.
+   *
+   * @return the size in bytes
+   */
+  public long getSize() {
+    return mSize;
+  }
+
+  /**
+   * Get the maximum size of the buffer.
+   *
+   * @return the maximum size in bytes
+   */
+  public long getMaxSize() {
+    return mMaxSize;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+                      .add("hitCount", mHitCount)
+                      .add("missCount", mMissCount)
+                      .add("evictionCount", mEvictionCount)
+                      .add("size", mSize)
+                      .add("maxSize", mMaxSize)
+                      .toString();
+  }
+}
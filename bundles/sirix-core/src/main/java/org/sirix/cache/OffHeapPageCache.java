@@ -0,0 +1,286 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import com.google.common.base.Objects;
+
+/**
+ * Second level cache, which stores serialized pages (already processed by the byte handler
+ * pipeline, that is decompressed and decrypted) off-heap in direct {@link ByteBuffer} slabs. As
+ * pages are never changed once they are written to the data file, the pages are identified by the
+ * ID of the resource and their offset in the data file. A single instance is shared by all
+ * resources of a database.
+ *
+ * <p>
+ * The slabs are used as a ring buffer: Pages are appended and once the buffer is full, the oldest
+ * pages are evicted and overwritten. Lookups are lock-free unless they race with an eviction.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class OffHeapPageCache {
+
+  /** Default size of a single slab. */
+  static final int SLAB_SIZE = 1 << 30;
+
+  /** The slabs, which store the pages. */
+  private final ByteBuffer[] mSlabs;
+
+  /** The size of a single slab. */
+  private final int mSlabSize;
+
+  /** The capacity of all slabs. */
+  private final long mCapacity;
+
+  /** Maximum length of a page, which is cached (the capacity of the smallest slab). */
+  private final int mMaxPageLength;
+
+  /** Maps (resource, offset) to the cached pages. */
+  private final ConcurrentMap<Key, Entry> mEntries;
+
+  /** The cached pages in the order they have been appended. */
+  private final Queue<Entry> mQueue;
+
+  /** Guards overwriting bytes of the slabs. */
+  private final StampedLock mLock;
+
+  /** Absolute position in the ring buffer, where the next page is appended. */
+  private long mHead;
+
+  /** Number of bytes of all cached pages. */
+  private volatile long mSize;
+
+  /** Number of lookups, which returned a cached page. */
+  private final LongAdder mHits;
+
+  /** Number of lookups, which didn't find a cached page. */
+  private final LongAdder mMisses;
+
+  /** Number of evicted pages. */
+  private final LongAdder mEvictions;
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the maximum number of bytes to cache
+   */
+  public OffHeapPageCache(final @Nonnegative long maxSize) {
+    this(maxSize, SLAB_SIZE);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the maximum number of bytes to cache
+   * @param slabSize the size of a single slab
+   */
+  OffHeapPageCache(final @Nonnegative long maxSize, final @Nonnegative int slabSize) {
+    checkArgument(maxSize >= 0, "maxSize must be >= 0!");
+    checkArgument(slabSize > 0, "slabSize must be > 0!");
+    final int slabs = (int) ((maxSize + slabSize - 1) / slabSize);
+    mSlabs = new ByteBuffer[slabs];
+    for (int i = 0; i < slabs; i++) {
+      final long remaining = maxSize - (long) i * slabSize;
+      mSlabs[i] = ByteBuffer.allocateDirect((int) Math.min(slabSize, remaining));
+    }
+    mSlabSize = slabSize;
+    mCapacity = maxSize;
+    mMaxPageLength = slabs == 0
+        ? 0
+        : mSlabs[slabs - 1].capacity();
+    mEntries = new ConcurrentHashMap<>();
+    mQueue = new ArrayDeque<>();
+    mLock = new StampedLock();
+    mHits = new LongAdder();
+    mMisses = new LongAdder();
+    mEvictions = new LongAdder();
+  }
+
+  /**
+   * Get the serialized page of a resource, which is stored at the given offset.
+   *
+   * @param resourceID the ID of the resource
+   * @param offset the offset of the page in the data file
+   * @return a copy of the serialized page or {@code null}, if it isn't cached
+   */
+  public @Nullable byte[] get(final long resourceID, final long offset) {
+    final Key key = new Key(resourceID, offset);
+
+    // Optimistically copy the bytes, which is only invalid if a page is evicted concurrently.
+    final long stamp = mLock.tryOptimisticRead();
+    byte[] page = copy(mEntries.get(key));
+
+    if (!mLock.validate(stamp)) {
+      final long readStamp = mLock.readLock();
+      try {
+        page = copy(mEntries.get(key));
+      } finally {
+        mLock.unlockRead(readStamp);
+      }
+    }
+
+    if (page == null) {
+      mMisses.increment();
+    } else {
+      mHits.increment();
+    }
+
+    return page;
+  }
+
+  // Copy the bytes of a cached page to the heap.
+  private byte[] copy(final @Nullable Entry entry) {
+    if (entry == null) {
+      return null;
+    }
+    final ByteBuffer slab = mSlabs[(int) ((entry.mPosition % mCapacity) / mSlabSize)].duplicate();
+    slab.position((int) ((entry.mPosition % mCapacity) % mSlabSize));
+    final byte[] page = new byte[entry.mLength];
+    slab.get(page);
+    return page;
+  }
+
+  /**
+   * Put the serialized page of a resource, which is stored at the given offset, into the cache. The
+   * oldest pages are evicted if the cache is full. Pages, which are bigger than a slab, are not
+   * cached.
+   *
+   * @param resourceID the ID of the resource
+   * @param offset the offset of the page in the data file
+   * @param page the serialized page
+   */
+  public void put(final long resourceID, final long offset, final byte[] page) {
+    final int length = page.length;
+    if (length == 0 || length > mMaxPageLength) {
+      return;
+    }
+
+    final Key key = new Key(resourceID, offset);
+    if (mEntries.containsKey(key)) {
+      return;
+    }
+
+    final long stamp = mLock.writeLock();
+    try {
+      if (mEntries.containsKey(key)) {
+        return;
+      }
+
+      // Pages must not span two slabs.
+      long position = mHead;
+      final long slabOffset = (position % mCapacity) % mSlabSize;
+      final long slabLength = mSlabs[(int) ((position % mCapacity) / mSlabSize)].capacity();
+      if (slabOffset + length > slabLength) {
+        position += slabLength - slabOffset;
+      }
+
+      final long end = position + length;
+      evict(end - mCapacity);
+
+      final ByteBuffer slab = mSlabs[(int) ((position % mCapacity) / mSlabSize)].duplicate();
+      slab.position((int) ((position % mCapacity) % mSlabSize));
+      slab.put(page);
+
+      final Entry entry = new Entry(key, position, length);
+      mQueue.add(entry);
+      mEntries.put(key, entry);
+      mHead = end;
+      mSize += length;
+    } finally {
+      mLock.unlockWrite(stamp);
+    }
+  }
+
+  // Evict all pages, which are stored before the given absolute position.
+  private void evict(final long position) {
+    while (!mQueue.isEmpty() && mQueue.peek().mPosition < position) {
+      final Entry entry = mQueue.poll();
+      mEntries.remove(entry.mKey, entry);
+      mSize -= entry.mLength;
+      mEvictions.increment();
+    }
+  }
+
+  /**
+   * Remove all pages of a resource, for instance because the resource has been truncated and thus
+   * offsets are reused.
+   *
+   * @param resourceID the ID of the resource
+   */
+  public void invalidate(final long resourceID) {
+    final long stamp = mLock.writeLock();
+    try {
+      mEntries.keySet().removeIf(key -> key.mResourceID == resourceID);
+      mQueue.removeIf(entry -> {
+        if (entry.mKey.mResourceID == resourceID) {
+          mSize -= entry.mLength;
+          return true;
+        }
+        return false;
+      });
+    } finally {
+      mLock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Get the hit, miss and eviction counters of the cache.
+   *
+   * @return a snapshot of the statistics
+   */
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(
+        mHits.sum(), mMisses.sum(), mEvictions.sum(), mSize, mCapacity);
+  }
+
+  /** Identifies a page by the resource and its offset. */
+  private static final class Key {
+    private final long mResourceID;
+
+    private final long mOffset;
+
+    Key(final long resourceID, final long offset) {
+      mResourceID = resourceID;
+      mOffset = offset;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(mResourceID, mOffset);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key other = (Key) obj;
+      return mResourceID == other.mResourceID && mOffset == other.mOffset;
+    }
+  }
+
+  /** A cached page in the ring buffer. */
+  private static final class Entry {
+    private final Key mKey;
+
+    /** Absolute position in the ring buffer. */
+    private final long mPosition;
+
+    private final int mLength;
+
+    Entry(final Key key, final long position, final int length) {
+      mKey = key;
+      mPosition = position;
+      mLength = length;
+    }
+  }
+}
@@ -1,37 +1,30 @@
 package org.sirix.cache;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.Page;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalCause;
-import com.github.benmanes.caffeine.cache.RemovalListener;
 
 public final class PageCache implements Cache<PageReference, Page> {
 
-  private final com.github.benmanes.caffeine.cache.Cache<PageReference, Page> mPageCache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> mPageCache;
 
-  public PageCache() {
-    RemovalListener<PageReference, Page> removalListener =
-        (PageReference key, Page value, RemovalCause cause) -> key.setPage(null);
-
-    mPageCache = Caffeine.newBuilder()
-                         .maximumSize(1000)
-                         .expireAfterWrite(5000, TimeUnit.SECONDS)
-                         .expireAfterAccess(5000, TimeUnit.SECONDS)
-                         .removalListener(removalListener)
-                         .build();
+  PageCache(final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+    mPageCache = cache;
   }
 
   @Override
   public void clear() {
-    mPageCache.invalidateAll();
+    mPageCache.asMap().entrySet().removeIf(
+        entry -> entry.getKey() instanceof PageReference && entry.getValue() instanceof Page);
   }
 
   @Override
   public Page get(PageReference key) {
-    return mPageCache.getIfPresent(key);
+    final Object value = mPageCache.getIfPresent(key);
+    return value instanceof Page
+        ? (Page) value
+        : null;
   }
 
   @Override
@@ -51,7 +44,14 @@ public final class PageCache implements Cache<PageReference, Page> {
 
   @Override
   public Map<PageReference, Page> getAll(Iterable<? extends PageReference> keys) {
-    return mPageCache.getAllPresent(keys);
+    final Map<PageReference, Page> pages = new HashMap<>();
+    for (final PageReference key : keys) {
+      final Page page = get(key);
+      if (page != null) {
+        pages.put(key, page);
+      }
+    }
+    return pages;
   }
 
   @Override
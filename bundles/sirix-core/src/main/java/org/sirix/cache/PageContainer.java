@@ -40,7 +40,9 @@ import com.google.common.base.Objects;
  *
  * <p>
  * Both {@link KeyValuePage}s can differ since the complete one is mainly used for read access and
- * the modifying one for write access (and therefore mostly lazy dereferenced).
+ * the modifying one for write access (and therefore mostly lazy dereferenced). Records, which
+ * haven't been modified, are shared between both pages. Containers used for read-only access don't
+ * hold a modifying page at all.
  * </p>
  *
  * @author Sebastian Graf, University of Konstanz
@@ -80,6 +82,17 @@ public final class PageContainer {
     return new PageContainer(complete, modifying);
   }
 
+  /**
+   * Get a new instance for read-only access, which doesn't hold a page for modifications.
+   *
+   * @param complete to be used as a base for this container
+   */
+  public static final PageContainer getInstance(final Page complete) {
+    // Assertions as it's not part of the public API.
+    assert complete != null;
+    return new PageContainer(complete, null);
+  }
+
   /**
    * Private constructor with both, complete and modifying page.
    *
@@ -103,8 +116,9 @@ public final class PageContainer {
   /**
    * Getting the modified page.
    *
-   * @return the modified page
+   * @return the modified page or {@code null}, if the container is used for read-only access
    */
+  @Nullable
   public Page getModified() {
     return mModified;
   }
@@ -0,0 +1,79 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.Set;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.page.interfaces.Page;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Weighs the entries of the {@link BufferManager} by the estimated memory footprint of the pages
+ * in bytes. Pinned entries weigh nothing, such that they are never evicted.
+ *
+ * @author agent
+ *
+ */
+final class PageWeigher implements Weigher<Object, Object> {
+
+  /** Estimated size of a page without its references and records in bytes. */
+  static final int PAGE_SIZE = 128;
+
+  /** Estimated size of a page reference in bytes. */
+  static final int REFERENCE_SIZE = 64;
+
+  /** The keys of the pinned entries. */
+  private final Set<Object> mPinnedKeys;
+
+  /**
+   * Constructor.
+   *
+   * @param pinnedKeys the keys of the pinned entries
+   */
+  PageWeigher(final Set<Object> pinnedKeys) {
+    mPinnedKeys = checkNotNull(pinnedKeys);
+  }
+
+  @Override
+  public int weigh(final Object key, final Object value) {
+    if (mPinnedKeys.contains(key)) {
+      return 0;
+    }
+    if (value instanceof PageContainer) {
+      return weigh((PageContainer) value);
+    }
+    if (value instanceof Page) {
+      return weigh((Page) value);
+    }
+    return PAGE_SIZE;
+  }
+
+  /**
+   * Get the estimated memory footprint of the complete and the modified page of a container.
+   *
+   * @param container the page container
+   * @return the estimated size in bytes
+   */
+  static int weigh(final PageContainer container) {
+    final Page complete = container.getComplete();
+    final Page modified = container.getModified();
+    final int completeSize = complete == null
+        ? 0
+        : weigh(complete);
+    return modified == null || modified == complete
+        ? completeSize
+        : completeSize + weigh(modified);
+  }
+
+  /**
+   * Get the estimated memory footprint of a page.
+   *
+   * @param page the page
+   * @return the estimated size in bytes
+   */
+  static int weigh(final Page page) {
+    if (page instanceof UnorderedKeyValuePage) {
+      return ((UnorderedKeyValuePage) page).getEstimatedSize();
+    }
+    return PAGE_SIZE + page.getReferences().size() * REFERENCE_SIZE;
+  }
+}
@@ -0,0 +1,58 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnegative;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Tracks the cost of reconstructing record pages from their fragments, that is the number of
+ * previous fragments, which have been read to reconstruct the most recent fragment of a page. The
+ * costs of a fragment grow with both the length of its fragment chain and the number of times it is
+ * read, such that a write transaction is able to write a full page instead of another fragment once
+ * the costs of a page exceed a threshold. The number of tracked fragments is bounded, such that cold
+ * fragments are forgotten.
+ *
+ * @author agent
+ *
+ */
+public final class ReconstructionCosts {
+
+  /** Maps the key of the most recent fragment of a page to its accumulated costs. */
+  private final com.github.benmanes.caffeine.cache.Cache<Long, LongAdder> mCosts;
+
+  /**
+   * Constructor.
+   *
+   * @param maxFragments the maximum number of tracked fragments
+   */
+  public ReconstructionCosts(final @Nonnegative long maxFragments) {
+    checkArgument(maxFragments >= 0, "maxFragments must be >= 0!");
+    mCosts = Caffeine.newBuilder().maximumSize(maxFragments).build();
+  }
+
+  /**
+   * Record the reconstruction of a page.
+   *
+   * @param fragmentKey the key of the most recent fragment of the page
+   * @param previousFragmentsRead the number of previous fragments, which have been read
+   */
+  public void record(final long fragmentKey, final @Nonnegative int previousFragmentsRead) {
+    if (previousFragmentsRead > 0) {
+      mCosts.get(fragmentKey, key -> new LongAdder()).add(previousFragmentsRead);
+    }
+  }
+
+  /**
+   * Get the accumulated reconstruction costs of a page.
+   *
+   * @param fragmentKey the key of the most recent fragment of the page
+   * @return the number of previous fragments, which have been read to reconstruct the page
+   */
+  public long get(final long fragmentKey) {
+    final LongAdder costs = mCosts.getIfPresent(fragmentKey);
+    return costs == null
+        ? 0
+        : costs.sum();
+  }
+}
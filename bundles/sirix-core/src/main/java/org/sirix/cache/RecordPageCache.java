@@ -1,38 +1,28 @@
 package org.sirix.cache;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import org.sirix.page.PageReference;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalCause;
-import com.github.benmanes.caffeine.cache.RemovalListener;
 
 public final class RecordPageCache implements Cache<PageReference, PageContainer> {
 
-  private final com.github.benmanes.caffeine.cache.Cache<PageReference, PageContainer> mPageCache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> mPageCache;
 
-  public RecordPageCache() {
-    final RemovalListener<PageReference, PageContainer> removalListener;
-
-    removalListener =
-        (PageReference key, PageContainer value, RemovalCause cause) -> key.setPage(null);
-
-    mPageCache = Caffeine.newBuilder()
-                         .maximumSize(1000)
-                         .expireAfterWrite(5000, TimeUnit.SECONDS)
-                         .expireAfterAccess(5000, TimeUnit.SECONDS)
-                         .removalListener(removalListener)
-                         .build();
+  RecordPageCache(final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+    mPageCache = cache;
   }
 
   @Override
   public void clear() {
-    mPageCache.invalidateAll();
+    mPageCache.asMap().values().removeIf(value -> value instanceof PageContainer);
   }
 
   @Override
   public PageContainer get(PageReference key) {
-    return mPageCache.getIfPresent(key);
+    final Object value = mPageCache.getIfPresent(key);
+    return value instanceof PageContainer
+        ? (PageContainer) value
+        : null;
   }
 
   @Override
@@ -52,7 +42,14 @@ public final class RecordPageCache implements Cache<PageReference, PageContainer
 
   @Override
   public Map<PageReference, PageContainer> getAll(Iterable<? extends PageReference> keys) {
-    return mPageCache.getAllPresent(keys);
+    final Map<PageReference, PageContainer> pages = new HashMap<>();
+    for (final PageReference key : keys) {
+      final PageContainer container = get(key);
+      if (container != null) {
+        pages.put(key, container);
+      }
+    }
+    return pages;
   }
 
   @Override
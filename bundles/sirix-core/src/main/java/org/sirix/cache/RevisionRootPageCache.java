@@ -27,34 +27,29 @@
  */
 package org.sirix.cache;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import org.sirix.page.RevisionRootPage;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
  *
  */
 public final class RevisionRootPageCache implements Cache<Integer, RevisionRootPage> {
-  private final com.github.benmanes.caffeine.cache.Cache<Integer, RevisionRootPage> mPageCache;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> mPageCache;
 
-  public RevisionRootPageCache() {
-    mPageCache = Caffeine.newBuilder()
-                         .maximumSize(1000)
-                         .expireAfterWrite(5000, TimeUnit.SECONDS)
-                         .expireAfterAccess(5000, TimeUnit.SECONDS)
-                         .build();
+  RevisionRootPageCache(final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+    mPageCache = cache;
   }
 
   @Override
   public void clear() {
-    mPageCache.invalidateAll();
+    mPageCache.asMap().keySet().removeIf(key -> key instanceof Integer);
   }
 
   @Override
   public RevisionRootPage get(Integer key) {
-    return mPageCache.getIfPresent(key);
+    return (RevisionRootPage) mPageCache.getIfPresent(key);
   }
 
   @Override
@@ -74,7 +69,14 @@ public final class RevisionRootPageCache implements Cache<Integer, RevisionRootP
 
   @Override
   public Map<Integer, RevisionRootPage> getAll(Iterable<? extends Integer> keys) {
-    return mPageCache.getAllPresent(keys);
+    final Map<Integer, RevisionRootPage> pages = new HashMap<>();
+    for (final Integer key : keys) {
+      final RevisionRootPage page = get(key);
+      if (page != null) {
+        pages.put(key, page);
+      }
+    }
+    return pages;
   }
 
   @Override
@@ -0,0 +1,180 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ByteBufferInputStream;
+import org.sirix.io.memorymapped.MappedRegions;
+import org.sirix.page.PagePersister;
+import org.sirix.page.SerializationType;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Spill arena of the {@link TransactionIntentLog}, which stores pages in their serialized form in a
+ * memory-mapped file. Pages are appended to the arena and addressed by their offset, which the log
+ * keeps in memory. Unlike pages in the data file, spilled pages are not processed by the byte
+ * handler pipeline and have no header, thus spilling a page is a single serialization and a copy
+ * into the mapped region, reading it back a single deserialization from the mapped region.
+ *
+ * <p>
+ * The arena is never compacted. Truncating it reuses the mapped regions from the start.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class SpillArena implements AutoCloseable {
+
+  /** Number of bytes the mapped file is grown by. */
+  private static final long GROWTH_SIZE = 1L << 26;
+
+  /** The channel of the spill file. */
+  private final FileChannel mChannel;
+
+  /** The mapped regions of the spill file. */
+  private final MappedRegions mRegions;
+
+  /** Transforms pages into byte-arrays and back. */
+  private final PagePersister mPagePersister;
+
+  /** Number of bytes used by the spilled pages. */
+  private long mSize;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the channel of the spill file, which is opened for reading and writing
+   * @param pagePersister transforms pages into byte-arrays and back
+   */
+  public SpillArena(final FileChannel channel, final PagePersister pagePersister) {
+    mChannel = checkNotNull(channel);
+    mPagePersister = checkNotNull(pagePersister);
+    mRegions = new MappedRegions(channel, FileChannel.MapMode.READ_WRITE, GROWTH_SIZE);
+  }
+
+  /**
+   * Spill the pages of a container.
+   *
+   * @param container the container to spill
+   * @return the location of the spilled pages in the arena
+   * @throws SirixIOException if an I/O error occurs
+   */
+  Entry put(final PageContainer container) {
+    final long offset = mSize;
+    final int modifiedLength = append(container.getModified());
+    final int completeLength = container.getComplete() == container.getModified()
+        ? Entry.SHARED
+        : append(container.getComplete());
+    return new Entry(offset, modifiedLength, completeLength);
+  }
+
+  /**
+   * Read the spilled pages of a container back into memory.
+   *
+   * @param entry the location of the spilled pages in the arena
+   * @param pageReadTrx the page reading transaction
+   * @return the container
+   * @throws SirixIOException if an I/O error occurs
+   */
+  PageContainer get(final Entry entry, final PageReadTrx pageReadTrx) {
+    checkNotNull(pageReadTrx);
+    final Page modifiedPage = read(entry.mOffset, entry.mModifiedLength, pageReadTrx);
+    final Page completePage = entry.mCompleteLength == Entry.SHARED
+        ? modifiedPage
+        : read(entry.mOffset + entry.mModifiedLength, entry.mCompleteLength, pageReadTrx);
+    return PageContainer.getInstance(completePage, modifiedPage);
+  }
+
+  // Serialize a page and append it to the arena.
+  private int append(final Page page) {
+    try (final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final DataOutputStream dataOutput = new DataOutputStream(output)) {
+      mPagePersister.serializePage(dataOutput, page, SerializationType.TRANSACTION_INTENT_LOG);
+      dataOutput.flush();
+      final byte[] bytes = output.toByteArray();
+      mRegions.put(mSize, ByteBuffer.wrap(bytes));
+      mSize += bytes.length;
+      return bytes.length;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  // Deserialize a page directly from the mapped region.
+  private Page read(final long offset, final int length, final PageReadTrx pageReadTrx) {
+    try {
+      final DataInputStream input =
+          new DataInputStream(new ByteBufferInputStream(mRegions.slice(offset, length)));
+      return mPagePersister.deserializePage(input, pageReadTrx,
+          SerializationType.TRANSACTION_INTENT_LOG);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Get the number of bytes used by the spilled pages.
+   *
+   * @return the number of bytes
+   */
+  public long getSize() {
+    return mSize;
+  }
+
+  /**
+   * Drop all spilled pages. The mapped regions are reused by the pages spilled afterwards.
+   *
+   * @return this arena
+   */
+  public SpillArena truncate() {
+    mSize = 0;
+    return this;
+  }
+
+  @Override
+  public void close() {
+    try {
+      mSize = 0;
+      mChannel.close();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * The location of the spilled pages of a container in the arena. The complete page is stored
+   * right after the modified page, unless both are the same page.
+   */
+  static final class Entry {
+    /** Length of the complete page, if it's the same page as the modified page. */
+    private static final int SHARED = -1;
+
+    /** Offset of the modified page. */
+    private final long mOffset;
+
+    /** Length of the modified page. */
+    private final int mModifiedLength;
+
+    /** Length of the complete page or {@link #SHARED}. */
+    private final int mCompleteLength;
+
+    /**
+     * Constructor.
+     *
+     * @param offset offset of the modified page
+     * @param modifiedLength length of the modified page
+     * @param completeLength length of the complete page or {@link #SHARED}
+     */
+    private Entry(final long offset, final int modifiedLength, final int completeLength) {
+      mOffset = offset;
+      mModifiedLength = modifiedLength;
+      mCompleteLength = completeLength;
+    }
+  }
+}
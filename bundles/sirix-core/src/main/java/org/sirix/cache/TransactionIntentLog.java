@@ -1,29 +1,42 @@
 package org.sirix.cache;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import javax.annotation.Nullable;
+import javax.annotation.Nonnegative;
 import org.sirix.api.PageReadTrx;
 import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.KeyValuePage;
 import org.sirix.settings.Constants;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 
 /**
- * The transaction intent log, used for logging everything a write transaction changes.
+ * The transaction intent log, used for logging everything a write transaction changes. The dirty
+ * pages are kept in memory, until their estimated size exceeds the memory budget. The least
+ * recently inserted record pages are then spilled to a memory-mapped {@link SpillArena} in their
+ * serialized form, whereas only the offsets of the spilled pages are kept in memory. Spilled pages
+ * are read back into memory, once they are needed again, but not during the commit, which only
+ * writes them.
  *
  * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
  *
  */
 public final class TransactionIntentLog implements AutoCloseable {
   /**
-   * Capacity of the cache. Number of stored pages.
+   * Standard memory budget of the pages, which are kept in memory, in bytes.
    */
-  private static final int CACHE_CAPACITY = 16 << 1;
+  public static final long MEMORY_BUDGET = 1L << 26;
+
+  /**
+   * Number of insertions, after which the pages in memory are weighed again, as they grow once
+   * records are added.
+   */
+  private static final int REWEIGH_INTERVAL = 64;
 
   /**
    * The collection to hold the maps.
@@ -31,14 +44,29 @@ public final class TransactionIntentLog implements AutoCloseable {
   private final Map<PageReference, PageContainer> mMap;
 
   /**
-   * Maps in-memory key to persistent key and vice versa.
+   * Maps the log keys of the spilled pages to their location in the spill arena.
    */
-  private final BiMap<Integer, Long> mMapToPersistentLogKey;
+  private final Map<Integer, SpillArena.Entry> mSpilledPages;
 
   /**
-   * The reference to the second cache.
+   * The arena, which stores the spilled pages.
    */
-  private final PersistentFileCache mSecondCache;
+  private final SpillArena mSpillArena;
+
+  /**
+   * The memory budget of the pages, which are kept in memory, in bytes.
+   */
+  private final long mMemoryBudget;
+
+  /**
+   * The estimated size of the pages in memory in bytes.
+   */
+  private long mEstimatedSize;
+
+  /**
+   * Number of insertions since the pages in memory have been weighed.
+   */
+  private int mInsertionsSinceWeighing;
 
   /**
    * The log key.
@@ -46,39 +74,29 @@ public final class TransactionIntentLog implements AutoCloseable {
   private int mLogKey;
 
   /**
-   * Creates a new LRU cache.
+   * Creates a new transaction intent log with the standard memory budget.
    *
-   * @param secondCache the reference to the second {@link Cache} where the data is stored when it
-   *        gets removed from the first one.
+   * @param spillArena the arena where the pages are stored when they are spilled
    */
-  public TransactionIntentLog(final PersistentFileCache secondCache) {
+  public TransactionIntentLog(final SpillArena spillArena) {
+    this(spillArena, MEMORY_BUDGET);
+  }
+
+  /**
+   * Creates a new transaction intent log.
+   *
+   * @param spillArena the arena where the pages are stored when they are spilled
+   * @param memoryBudget the memory budget of the pages, which are kept in memory, in bytes
+   */
+  public TransactionIntentLog(final SpillArena spillArena, final @Nonnegative long memoryBudget) {
     // Assertion instead of checkNotNull(...).
-    assert secondCache != null;
+    assert spillArena != null;
+    checkArgument(memoryBudget > 0, "memoryBudget must be > 0!");
     mLogKey = 0;
-    mSecondCache = secondCache;
-    mMapToPersistentLogKey = HashBiMap.create();
-    mMap = new LinkedHashMap<>(CACHE_CAPACITY) {
-      private static final long serialVersionUID = 1;
-
-      @Override
-      protected boolean removeEldestEntry(
-          final @Nullable Map.Entry<PageReference, PageContainer> eldest) {
-        boolean returnVal = false;
-        if (size() > CACHE_CAPACITY) {
-          if (eldest != null) {
-            final PageReference key = eldest.getKey();
-            assert key.getLogKey() != Constants.NULL_ID_INT;
-            final PageContainer value = eldest.getValue();
-            if (key != null && value != null) {
-              mSecondCache.put(key, value);
-              mMapToPersistentLogKey.put(key.getLogKey(), key.getPersistentLogKey());
-            }
-          }
-          returnVal = true;
-        }
-        return returnVal;
-      }
-    };
+    mSpillArena = spillArena;
+    mMemoryBudget = memoryBudget;
+    mSpilledPages = new HashMap<>();
+    mMap = new LinkedHashMap<>();
   }
 
   /**
@@ -92,32 +110,112 @@ public final class TransactionIntentLog implements AutoCloseable {
   public PageContainer get(final PageReference key, final PageReadTrx pageRtx) {
     PageContainer value = mMap.get(key);
     if (value == null) {
-      if (key.getLogKey() != Constants.NULL_ID_INT) {
-        final Long persistentKey = mMapToPersistentLogKey.get(key.getLogKey());
-        if (persistentKey != null)
-          key.setPersistentLogKey(persistentKey);
-      }
-      value = mSecondCache.get(key, pageRtx);
-      if (value != null && !PageContainer.emptyInstance().equals(value)) {
-        key.setPersistentLogKey(Constants.NULL_ID_LONG);
-        put(key, value);
+      final SpillArena.Entry entry = key.getLogKey() == Constants.NULL_ID_INT
+          ? null
+          : mSpilledPages.remove(key.getLogKey());
+      if (entry == null) {
+        return PageContainer.emptyInstance();
       }
+      value = mSpillArena.get(entry, pageRtx);
+      put(key, value);
     }
     return value;
   }
 
+  /**
+   * Retrieves an entry from the cache, without reading spilled pages back into memory, for
+   * instance if the page is written once and not needed anymore afterwards.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @return the value associated to this key, or {@code null} if no value with this key exists in
+   *         the cache
+   */
+  public PageContainer peek(final PageReference key, final PageReadTrx pageRtx) {
+    final PageContainer value = mMap.get(key);
+    if (value != null || key.getLogKey() == Constants.NULL_ID_INT) {
+      return value;
+    }
+    final SpillArena.Entry entry = mSpilledPages.get(key.getLogKey());
+    return entry == null
+        ? PageContainer.emptyInstance()
+        : mSpillArena.get(entry, pageRtx);
+  }
+
   /**
    *
    * Adds an entry to this cache. If the cache is full, the LRU (least recently used) entry is
-   * dropped.
+   * dropped. If the key is already logged, it gets a new log key and its previous entry is
+   * replaced.
    *
    * @param key the key with which the specified value is to be associated
    * @param value a value to be associated with the specified key
    */
   public void put(final PageReference key, final PageContainer value) {
+    // The log key is part of the hash code of the key, thus the previous entry has to be removed
+    // before the key is modified.
+    final PageContainer previousValue = mMap.remove(key);
+    if (key.getLogKey() != Constants.NULL_ID_INT) {
+      mSpilledPages.remove(key.getLogKey());
+    }
     key.setKey(Constants.NULL_ID_LONG);
     key.setLogKey(mLogKey++);
     mMap.put(key, value);
+    if (previousValue != null) {
+      mEstimatedSize -= PageWeigher.weigh(previousValue);
+    }
+    mEstimatedSize += PageWeigher.weigh(value);
+
+    if (++mInsertionsSinceWeighing >= REWEIGH_INTERVAL || mEstimatedSize > mMemoryBudget) {
+      spill();
+    }
+  }
+
+  /**
+   * Weigh the pages in memory again and spill the least recently inserted pages, until the
+   * estimated size of the remaining pages is at most three quarters of the memory budget.
+   */
+  private void spill() {
+    mInsertionsSinceWeighing = 0;
+    mEstimatedSize = 0;
+    for (final PageContainer value : mMap.values()) {
+      mEstimatedSize += PageWeigher.weigh(value);
+    }
+
+    if (mEstimatedSize <= mMemoryBudget) {
+      return;
+    }
+
+    final long target = mMemoryBudget - (mMemoryBudget >> 2);
+    final Iterator<Map.Entry<PageReference, PageContainer>> iterator =
+        mMap.entrySet().iterator();
+    while (mEstimatedSize > target && iterator.hasNext()) {
+      final Map.Entry<PageReference, PageContainer> eldest = iterator.next();
+      final PageContainer value = eldest.getValue();
+
+      // Only record pages are spilled, as the other pages are small and referenced by the
+      // revision root page of the transaction. The most recently inserted page is about to be
+      // modified.
+      if (!(value.getModified() instanceof KeyValuePage) || !iterator.hasNext()) {
+        continue;
+      }
+
+      final PageReference key = eldest.getKey();
+      assert key.getLogKey() != Constants.NULL_ID_INT;
+      mEstimatedSize -= PageWeigher.weigh(value);
+      iterator.remove();
+      mSpilledPages.put(key.getLogKey(), mSpillArena.put(value));
+      // Release the page, it's read from the spill arena once it's needed again.
+      key.setPage(null);
+    }
+  }
+
+  /**
+   * Get the estimated size of the pages, which are kept in memory.
+   *
+   * @return the estimated size in bytes
+   */
+  public long getEstimatedSize() {
+    return mEstimatedSize;
   }
 
   /**
@@ -125,7 +223,11 @@ public final class TransactionIntentLog implements AutoCloseable {
    */
   public void clear() {
     mLogKey = 0;
+    mEstimatedSize = 0;
+    mInsertionsSinceWeighing = 0;
     mMap.clear();
+    mSpilledPages.clear();
+    mSpillArena.truncate();
   }
 
   /**
@@ -150,7 +252,7 @@ public final class TransactionIntentLog implements AutoCloseable {
   public String toString() {
     return MoreObjects.toStringHelper(this)
                       .add("First Cache", mMap)
-                      .add("Second Cache", mSecondCache)
+                      .add("Spilled Pages", mSpilledPages.size())
                       .toString();
   }
 
@@ -169,15 +271,18 @@ public final class TransactionIntentLog implements AutoCloseable {
    * @return this log instance
    */
   public TransactionIntentLog truncate() {
-    mSecondCache.close();
-    mMapToPersistentLogKey.clear();
+    mSpillArena.truncate();
+    mSpilledPages.clear();
     mMap.clear();
+    mEstimatedSize = 0;
+    mInsertionsSinceWeighing = 0;
     return this;
   }
 
   @Override
   public void close() {
     mMap.clear();
-    mSecondCache.close();
+    mSpilledPages.clear();
+    mSpillArena.close();
   }
 }
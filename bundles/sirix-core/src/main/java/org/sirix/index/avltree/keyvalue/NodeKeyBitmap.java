@@ -0,0 +1,652 @@
+package org.sirix.index.avltree.keyvalue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import javax.annotation.Nullable;
+
+/**
+ * A compressed bitmap of node keys in the style of Roaring bitmaps. The node keys are partitioned
+ * into chunks of {@code 2^16} keys by their upper 48 bits. The lower 16 bits of the keys of a chunk
+ * are stored in a container, which is a sorted array as long as the chunk is sparse and a bitmap of
+ * {@code 2^16} bits once it holds more than {@value #ARRAY_CONTAINER_MAX_SIZE} keys. The
+ * containers are sorted by the upper bits of their keys, such that node keys are iterated in
+ * ascending order and unions and intersections are computed by merging the containers.
+ *
+ * @author agent
+ *
+ */
+public final class NodeKeyBitmap {
+
+  /** Maximum number of keys of a container, which is stored as a sorted array. */
+  private static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+  /** Number of words of a bitmap container. */
+  private static final int BITMAP_CONTAINER_WORDS = (1 << 16) / Long.SIZE;
+
+  /** Number of bytes of the header of a serialized container (upper bits and cardinality). */
+  private static final int CONTAINER_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+  /** The upper 48 bits of the keys of each container, sorted ascending. */
+  private long[] mHighs;
+
+  /** The containers, in the order of {@code mHighs}. */
+  private Container[] mContainers;
+
+  /** Number of containers. */
+  private int mSize;
+
+  /**
+   * Constructor creating an empty bitmap.
+   */
+  public NodeKeyBitmap() {
+    this(4);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param capacity initial number of containers
+   */
+  private NodeKeyBitmap(final int capacity) {
+    mHighs = new long[capacity];
+    mContainers = new Container[capacity];
+  }
+
+  /**
+   * Add a node key.
+   *
+   * @param nodeKey the node key to add
+   * @return {@code true}, if the node key has been added, {@code false} if it was already present
+   */
+  public boolean add(final long nodeKey) {
+    final long high = nodeKey >>> 16;
+    int index = indexOf(high);
+    if (index < 0) {
+      index = -index - 1;
+      insertContainer(index, high, new Container(new char[4], 0));
+    }
+    return mContainers[index].add((char) nodeKey);
+  }
+
+  /**
+   * Remove a node key.
+   *
+   * @param nodeKey the node key to remove
+   * @return {@code true}, if the node key has been removed, {@code false} if it wasn't present
+   */
+  public boolean remove(final long nodeKey) {
+    final int index = indexOf(nodeKey >>> 16);
+    if (index < 0) {
+      return false;
+    }
+    final Container container = mContainers[index];
+    final boolean removed = container.remove((char) nodeKey);
+    if (container.mCardinality == 0) {
+      System.arraycopy(mHighs, index + 1, mHighs, index, mSize - index - 1);
+      System.arraycopy(mContainers, index + 1, mContainers, index, mSize - index - 1);
+      mContainers[--mSize] = null;
+    }
+    return removed;
+  }
+
+  /**
+   * Determines if a node key is present.
+   *
+   * @param nodeKey the node key
+   * @return {@code true}, if it is present, {@code false} otherwise
+   */
+  public boolean contains(final long nodeKey) {
+    final int index = indexOf(nodeKey >>> 16);
+    return index >= 0 && mContainers[index].contains((char) nodeKey);
+  }
+
+  /**
+   * Get the number of node keys.
+   *
+   * @return the number of node keys
+   */
+  public long getCardinality() {
+    long cardinality = 0;
+    for (int i = 0; i < mSize; i++) {
+      cardinality += mContainers[i].mCardinality;
+    }
+    return cardinality;
+  }
+
+  /**
+   * Determines if no node key is present.
+   *
+   * @return {@code true}, if no node key is present, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /**
+   * Get an iterator over the node keys in ascending order.
+   *
+   * @return the iterator
+   */
+  public PrimitiveIterator.OfLong iterator() {
+    return new NodeKeyIterator();
+  }
+
+  /**
+   * Compute the intersection of two bitmaps.
+   *
+   * @param first the first bitmap
+   * @param second the second bitmap
+   * @return a new bitmap with the node keys present in both bitmaps
+   */
+  public static NodeKeyBitmap and(final NodeKeyBitmap first, final NodeKeyBitmap second) {
+    checkNotNull(first);
+    checkNotNull(second);
+    final NodeKeyBitmap result = new NodeKeyBitmap(Math.max(1, Math.min(first.mSize, second.mSize)));
+    int i = 0;
+    int j = 0;
+    while (i < first.mSize && j < second.mSize) {
+      final int c = Long.compare(first.mHighs[i], second.mHighs[j]);
+      if (c < 0) {
+        i++;
+      } else if (c > 0) {
+        j++;
+      } else {
+        final Container container = first.mContainers[i].and(second.mContainers[j]);
+        if (container.mCardinality > 0) {
+          result.insertContainer(result.mSize, first.mHighs[i], container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compute the union of two bitmaps.
+   *
+   * @param first the first bitmap
+   * @param second the second bitmap
+   * @return a new bitmap with the node keys present in any of the bitmaps
+   */
+  public static NodeKeyBitmap or(final NodeKeyBitmap first, final NodeKeyBitmap second) {
+    checkNotNull(first);
+    checkNotNull(second);
+    final NodeKeyBitmap result = new NodeKeyBitmap(Math.max(1, first.mSize + second.mSize));
+    int i = 0;
+    int j = 0;
+    while (i < first.mSize || j < second.mSize) {
+      final int c = i == first.mSize
+          ? 1
+          : j == second.mSize
+              ? -1
+              : Long.compare(first.mHighs[i], second.mHighs[j]);
+      if (c < 0) {
+        result.insertContainer(result.mSize, first.mHighs[i], first.mContainers[i].copy());
+        i++;
+      } else if (c > 0) {
+        result.insertContainer(result.mSize, second.mHighs[j], second.mContainers[j].copy());
+        j++;
+      } else {
+        result.insertContainer(result.mSize, first.mHighs[i],
+            first.mContainers[i].or(second.mContainers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the number of bytes of the serialized bitmap.
+   *
+   * @return the number of bytes
+   */
+  public int getSerializedSize() {
+    int size = Integer.BYTES;
+    for (int i = 0; i < mSize; i++) {
+      size += CONTAINER_HEADER_SIZE + mContainers[i].getSerializedSize();
+    }
+    return size;
+  }
+
+  /**
+   * Serialize the bitmap.
+   *
+   * @param out the output
+   * @throws IOException if an I/O error occurs
+   */
+  public void serialize(final DataOutput out) throws IOException {
+    out.writeInt(mSize);
+    for (int i = 0; i < mSize; i++) {
+      final Container container = mContainers[i];
+      out.writeLong(mHighs[i]);
+      out.writeInt(container.mCardinality);
+      if (container.mBitmap == null) {
+        for (int j = 0; j < container.mCardinality; j++) {
+          out.writeChar(container.mArray[j]);
+        }
+      } else {
+        for (final long word : container.mBitmap) {
+          out.writeLong(word);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deserialize a bitmap, which has been serialized with {@link #serialize(DataOutput)}.
+   *
+   * @param in the serialized bitmap
+   * @return the bitmap
+   */
+  public static NodeKeyBitmap deserialize(final ByteBuffer in) {
+    final int size = in.getInt();
+    final NodeKeyBitmap bitmap = new NodeKeyBitmap(Math.max(1, size));
+    for (int i = 0; i < size; i++) {
+      final long high = in.getLong();
+      final int cardinality = in.getInt();
+      final Container container;
+      if (cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+        final char[] array = new char[cardinality];
+        in.asCharBuffer().get(array);
+        in.position(in.position() + cardinality * Character.BYTES);
+        container = new Container(array, cardinality);
+      } else {
+        final long[] words = new long[BITMAP_CONTAINER_WORDS];
+        in.asLongBuffer().get(words);
+        in.position(in.position() + BITMAP_CONTAINER_WORDS * Long.BYTES);
+        container = new Container(words, cardinality);
+      }
+      bitmap.insertContainer(i, high, container);
+    }
+    return bitmap;
+  }
+
+  /**
+   * Binary search for the container of the given upper bits.
+   *
+   * @param high the upper bits
+   * @return the index of the container, or {@code -(insertion point) - 1}, if there's no container
+   */
+  private int indexOf(final long high) {
+    // Node keys are mostly appended, thus check the last container first.
+    if (mSize > 0 && mHighs[mSize - 1] == high) {
+      return mSize - 1;
+    }
+    return Arrays.binarySearch(mHighs, 0, mSize, high);
+  }
+
+  /**
+   * Insert a container.
+   *
+   * @param index the index to insert the container at
+   * @param high the upper bits of its keys
+   * @param container the container
+   */
+  private void insertContainer(final int index, final long high, final Container container) {
+    if (mSize == mHighs.length) {
+      final int capacity = Math.max(4, mSize * 2);
+      mHighs = Arrays.copyOf(mHighs, capacity);
+      mContainers = Arrays.copyOf(mContainers, capacity);
+    }
+    System.arraycopy(mHighs, index, mHighs, index + 1, mSize - index);
+    System.arraycopy(mContainers, index, mContainers, index + 1, mSize - index);
+    mHighs[index] = high;
+    mContainers[index] = container;
+    mSize++;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (final PrimitiveIterator.OfLong iter = iterator(); iter.hasNext();) {
+      hash = 31 * hash + Long.hashCode(iter.nextLong());
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof NodeKeyBitmap)) {
+      return false;
+    }
+    final NodeKeyBitmap other = (NodeKeyBitmap) obj;
+    if (mSize != other.mSize) {
+      return false;
+    }
+    for (int i = 0; i < mSize; i++) {
+      if (mHighs[i] != other.mHighs[i] || !mContainers[i].equals(other.mContainers[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The lower 16 bits of the node keys of a chunk, either as a sorted array or as a bitmap.
+   */
+  private static final class Container {
+    /** Sorted lower bits or {@code null}, if the container is a bitmap. */
+    private @Nullable char[] mArray;
+
+    /** Bitmap of the lower bits or {@code null}, if the container is an array. */
+    private @Nullable long[] mBitmap;
+
+    /** Number of keys. */
+    private int mCardinality;
+
+    /**
+     * Constructor of an array container.
+     *
+     * @param array the sorted lower bits
+     * @param cardinality the number of keys
+     */
+    private Container(final char[] array, final int cardinality) {
+      mArray = array;
+      mCardinality = cardinality;
+    }
+
+    /**
+     * Constructor of a bitmap container.
+     *
+     * @param bitmap the bitmap of the lower bits
+     * @param cardinality the number of keys
+     */
+    private Container(final long[] bitmap, final int cardinality) {
+      mBitmap = bitmap;
+      mCardinality = cardinality;
+    }
+
+    private boolean contains(final char low) {
+      if (mBitmap != null) {
+        return (mBitmap[low >>> 6] & (1L << low)) != 0;
+      }
+      return Arrays.binarySearch(mArray, 0, mCardinality, low) >= 0;
+    }
+
+    private boolean add(final char low) {
+      if (mBitmap != null) {
+        final long word = mBitmap[low >>> 6];
+        final long newWord = word | (1L << low);
+        mBitmap[low >>> 6] = newWord;
+        if (word == newWord) {
+          return false;
+        }
+        mCardinality++;
+        return true;
+      }
+
+      // Node keys are mostly appended, thus check the last key first.
+      int index = mCardinality == 0 || mArray[mCardinality - 1] < low
+          ? -mCardinality - 1
+          : Arrays.binarySearch(mArray, 0, mCardinality, low);
+      if (index >= 0) {
+        return false;
+      }
+      if (mCardinality == ARRAY_CONTAINER_MAX_SIZE) {
+        toBitmap();
+        return add(low);
+      }
+      index = -index - 1;
+      if (mCardinality == mArray.length) {
+        mArray = Arrays.copyOf(mArray, Math.min(ARRAY_CONTAINER_MAX_SIZE, mCardinality * 2));
+      }
+      System.arraycopy(mArray, index, mArray, index + 1, mCardinality - index);
+      mArray[index] = low;
+      mCardinality++;
+      return true;
+    }
+
+    private boolean remove(final char low) {
+      if (mBitmap != null) {
+        final long word = mBitmap[low >>> 6];
+        final long newWord = word & ~(1L << low);
+        mBitmap[low >>> 6] = newWord;
+        if (word == newWord) {
+          return false;
+        }
+        if (--mCardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+          toArray();
+        }
+        return true;
+      }
+
+      final int index = Arrays.binarySearch(mArray, 0, mCardinality, low);
+      if (index < 0) {
+        return false;
+      }
+      System.arraycopy(mArray, index + 1, mArray, index, mCardinality - index - 1);
+      mCardinality--;
+      return true;
+    }
+
+    /**
+     * Convert an array container into a bitmap container.
+     */
+    private void toBitmap() {
+      final long[] bitmap = new long[BITMAP_CONTAINER_WORDS];
+      for (int i = 0; i < mCardinality; i++) {
+        bitmap[mArray[i] >>> 6] |= 1L << mArray[i];
+      }
+      mBitmap = bitmap;
+      mArray = null;
+    }
+
+    /**
+     * Convert a bitmap container into an array container.
+     */
+    private void toArray() {
+      final char[] array = new char[Math.max(4, mCardinality)];
+      int index = 0;
+      for (int i = 0; i < BITMAP_CONTAINER_WORDS; i++) {
+        for (long word = mBitmap[i]; word != 0; word &= word - 1) {
+          array[index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+        }
+      }
+      mArray = array;
+      mBitmap = null;
+    }
+
+    private Container copy() {
+      return mBitmap == null
+          ? new Container(Arrays.copyOf(mArray, Math.max(4, mCardinality)), mCardinality)
+          : new Container(mBitmap.clone(), mCardinality);
+    }
+
+    private Container and(final Container other) {
+      if (mBitmap != null && other.mBitmap != null) {
+        final long[] bitmap = new long[BITMAP_CONTAINER_WORDS];
+        int cardinality = 0;
+        for (int i = 0; i < BITMAP_CONTAINER_WORDS; i++) {
+          bitmap[i] = mBitmap[i] & other.mBitmap[i];
+          cardinality += Long.bitCount(bitmap[i]);
+        }
+        final Container container = new Container(bitmap, cardinality);
+        if (cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+          container.toArray();
+        }
+        return container;
+      }
+      if (mBitmap != null) {
+        return other.and(this);
+      }
+
+      // This container is an array, thus the result is an array, too.
+      final char[] array = new char[Math.max(4, mCardinality)];
+      int cardinality = 0;
+      if (other.mBitmap != null) {
+        for (int i = 0; i < mCardinality; i++) {
+          if (other.contains(mArray[i])) {
+            array[cardinality++] = mArray[i];
+          }
+        }
+      } else {
+        int i = 0;
+        int j = 0;
+        while (i < mCardinality && j < other.mCardinality) {
+          if (mArray[i] < other.mArray[j]) {
+            i++;
+          } else if (mArray[i] > other.mArray[j]) {
+            j++;
+          } else {
+            array[cardinality++] = mArray[i];
+            i++;
+            j++;
+          }
+        }
+      }
+      return new Container(array, cardinality);
+    }
+
+    private Container or(final Container other) {
+      if (mBitmap == null && other.mBitmap == null
+          && mCardinality + other.mCardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+        final char[] array = new char[Math.max(4, mCardinality + other.mCardinality)];
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < mCardinality || j < other.mCardinality) {
+          if (j == other.mCardinality || (i < mCardinality && mArray[i] < other.mArray[j])) {
+            array[cardinality++] = mArray[i++];
+          } else if (i == mCardinality || mArray[i] > other.mArray[j]) {
+            array[cardinality++] = other.mArray[j++];
+          } else {
+            array[cardinality++] = mArray[i];
+            i++;
+            j++;
+          }
+        }
+        return new Container(array, cardinality);
+      }
+
+      final Container container = mBitmap == null
+          ? other.copy()
+          : copy();
+      final Container toAdd = container.mBitmap == null || mBitmap == null
+          ? this
+          : other;
+      if (container.mBitmap == null) {
+        container.toBitmap();
+      }
+      if (toAdd.mBitmap != null) {
+        int cardinality = 0;
+        for (int i = 0; i < BITMAP_CONTAINER_WORDS; i++) {
+          container.mBitmap[i] |= toAdd.mBitmap[i];
+          cardinality += Long.bitCount(container.mBitmap[i]);
+        }
+        container.mCardinality = cardinality;
+      } else {
+        for (int i = 0; i < toAdd.mCardinality; i++) {
+          container.add(toAdd.mArray[i]);
+        }
+      }
+      // The union of two arrays with common keys might still fit into an array.
+      if (container.mCardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+        container.toArray();
+      }
+      return container;
+    }
+
+    private int getSerializedSize() {
+      return mBitmap == null
+          ? mCardinality * Character.BYTES
+          : BITMAP_CONTAINER_WORDS * Long.BYTES;
+    }
+
+    @Override
+    public int hashCode() {
+      return mCardinality;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+      if (!(obj instanceof Container)) {
+        return false;
+      }
+      final Container other = (Container) obj;
+      if (mCardinality != other.mCardinality) {
+        return false;
+      }
+      // Both containers have the same kind, as the kind only depends on the cardinality.
+      if (mBitmap != null) {
+        return Arrays.equals(mBitmap, other.mBitmap);
+      }
+      for (int i = 0; i < mCardinality; i++) {
+        if (mArray[i] != other.mArray[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Iterates over the node keys in ascending order.
+   */
+  private final class NodeKeyIterator implements PrimitiveIterator.OfLong {
+    /** Index of the current container. */
+    private int mContainerIndex;
+
+    /** Index in the current array container or index of the current word of a bitmap container. */
+    private int mIndex;
+
+    /** The remaining bits of the current word of a bitmap container. */
+    private long mWord;
+
+    /** Determines if the next key has been searched for and is stored in {@code mNext}. */
+    private boolean mHasNext;
+
+    /** The next key. */
+    private long mNext;
+
+    @Override
+    public boolean hasNext() {
+      if (mHasNext) {
+        return true;
+      }
+      while (mContainerIndex < mSize) {
+        final Container container = mContainers[mContainerIndex];
+        final long high = mHighs[mContainerIndex] << 16;
+        if (container.mBitmap == null) {
+          if (mIndex < container.mCardinality) {
+            mNext = high | container.mArray[mIndex++];
+            mHasNext = true;
+            return true;
+          }
+        } else {
+          while (mWord == 0 && mIndex < BITMAP_CONTAINER_WORDS) {
+            mWord = container.mBitmap[mIndex++];
+          }
+          if (mWord != 0) {
+            mNext = high | (((mIndex - 1) << 6) + Long.numberOfTrailingZeros(mWord));
+            mWord &= mWord - 1;
+            mHasNext = true;
+            return true;
+          }
+        }
+        mContainerIndex++;
+        mIndex = 0;
+        mWord = 0;
+      }
+      return false;
+    }
+
+    @Override
+    public long nextLong() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      mHasNext = false;
+      return mNext;
+    }
+  }
+}
@@ -1,29 +1,40 @@
 package org.sirix.index.avltree.keyvalue;
 
-import java.util.Collections;
-import java.util.HashSet;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 import org.sirix.index.avltree.interfaces.References;
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Objects;
 
 /**
- * Text node-ID references.
+ * Text node-ID references. The node keys are stored in a {@link NodeKeyBitmap}. Deserialized
+ * references keep the serialized bitmap and decode it on first access, such that AVL nodes, which
+ * are only visited during a search, never decode their references, and unmodified references are
+ * written back without encoding them again.
  *
  * @author Johannes Lichtenberger
  *
  */
 public final class NodeReferences implements References {
-  /** A {@link Set} of node-keys. */
-  private final Set<Long> mNodeKeys;
+  /** The node keys or {@code null}, if they are not decoded from {@code mBytes} yet. */
+  private volatile @Nullable NodeKeyBitmap mNodeKeys;
+
+  /** The serialized node keys or {@code null}, if they have been modified since deserialization. */
+  private volatile @Nullable byte[] mBytes;
 
   /**
    * Default constructor.
    */
   public NodeReferences() {
-    mNodeKeys = new HashSet<>();
+    mNodeKeys = new NodeKeyBitmap();
   }
 
   /**
@@ -32,40 +43,176 @@ public final class NodeReferences implements References {
    * @param nodeKeys node keys
    */
   public NodeReferences(final Set<Long> nodeKeys) {
-    mNodeKeys = nodeKeys;
+    final NodeKeyBitmap bitmap = new NodeKeyBitmap();
+    for (final long nodeKey : nodeKeys) {
+      bitmap.add(nodeKey);
+    }
+    mNodeKeys = bitmap;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param nodeKeys node keys
+   */
+  public NodeReferences(final NodeKeyBitmap nodeKeys) {
+    mNodeKeys = checkNotNull(nodeKeys);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param bytes the serialized node keys
+   */
+  private NodeReferences(final byte[] bytes) {
+    mBytes = bytes;
+  }
+
+  /**
+   * Deserialize references, which have been serialized with {@link #serialize(DataOutput)}. The
+   * node keys are decoded on first access.
+   *
+   * @param source the input
+   * @return the references
+   * @throws IOException if an I/O error occurs
+   */
+  public static NodeReferences deserialize(final DataInput source) throws IOException {
+    final byte[] bytes = new byte[source.readInt()];
+    source.readFully(bytes);
+    return new NodeReferences(bytes);
+  }
+
+  /**
+   * Serialize the references.
+   *
+   * @param sink the output
+   * @throws IOException if an I/O error occurs
+   */
+  public void serialize(final DataOutput sink) throws IOException {
+    final byte[] bytes = mBytes;
+    if (bytes != null) {
+      sink.writeInt(bytes.length);
+      sink.write(bytes);
+    } else {
+      final NodeKeyBitmap nodeKeys = mNodeKeys;
+      sink.writeInt(nodeKeys.getSerializedSize());
+      nodeKeys.serialize(sink);
+    }
+  }
+
+  /**
+   * Get the node keys, decoding them if needed.
+   *
+   * @return the node keys
+   */
+  private NodeKeyBitmap nodeKeys() {
+    NodeKeyBitmap nodeKeys = mNodeKeys;
+    if (nodeKeys == null) {
+      // Concurrent readers might decode the bytes twice, which is harmless.
+      nodeKeys = NodeKeyBitmap.deserialize(ByteBuffer.wrap(mBytes));
+      mNodeKeys = nodeKeys;
+    }
+    return nodeKeys;
+  }
+
+  /**
+   * Get the node keys for modification, thereby discarding the serialized node keys.
+   *
+   * @return the node keys
+   */
+  private NodeKeyBitmap nodeKeysForModification() {
+    final NodeKeyBitmap nodeKeys = nodeKeys();
+    mBytes = null;
+    return nodeKeys;
   }
 
   @Override
   public boolean isPresent(final @Nonnegative long nodeKey) {
-    return mNodeKeys.contains(nodeKey);
+    return nodeKeys().contains(nodeKey);
   }
 
   @Override
   public Set<Long> getNodeKeys() {
-    return Collections.unmodifiableSet(mNodeKeys);
+    final NodeKeyBitmap nodeKeys = nodeKeys();
+    return new AbstractSet<Long>() {
+      @Override
+      public Iterator<Long> iterator() {
+        return nodeKeys.iterator();
+      }
+
+      @Override
+      public int size() {
+        return (int) Math.min(nodeKeys.getCardinality(), Integer.MAX_VALUE);
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return o instanceof Long && nodeKeys.contains((Long) o);
+      }
+    };
+  }
+
+  /**
+   * Get an iterator over the node keys in ascending order, which doesn't box the node keys.
+   *
+   * @return the iterator
+   */
+  public PrimitiveIterator.OfLong getNodeKeyIterator() {
+    return nodeKeys().iterator();
+  }
+
+  /**
+   * Get the number of node keys.
+   *
+   * @return the number of node keys
+   */
+  public long getNodeKeyCount() {
+    return nodeKeys().getCardinality();
+  }
+
+  /**
+   * Intersect the references with other references, for instance to evaluate a conjunction of
+   * index predicates.
+   *
+   * @param other the other references
+   * @return new references with the node keys present in both references
+   */
+  public NodeReferences and(final NodeReferences other) {
+    return new NodeReferences(NodeKeyBitmap.and(nodeKeys(), other.nodeKeys()));
+  }
+
+  /**
+   * Unite the references with other references, for instance to evaluate a disjunction of index
+   * predicates.
+   *
+   * @param other the other references
+   * @return new references with the node keys present in any of the references
+   */
+  public NodeReferences or(final NodeReferences other) {
+    return new NodeReferences(NodeKeyBitmap.or(nodeKeys(), other.nodeKeys()));
   }
 
   @Override
   public NodeReferences addNodeKey(final @Nonnegative long nodeKey) {
-    mNodeKeys.add(nodeKey);
+    nodeKeysForModification().add(nodeKey);
     return this;
   }
 
   @Override
   public boolean removeNodeKey(@Nonnegative long nodeKey) {
-    return mNodeKeys.remove(nodeKey);
+    return nodeKeysForModification().remove(nodeKey);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mNodeKeys);
+    return nodeKeys().hashCode();
   }
 
   @Override
   public boolean equals(final @Nullable Object obj) {
     if (obj instanceof NodeReferences) {
       final NodeReferences refs = (NodeReferences) obj;
-      return mNodeKeys.equals(refs.mNodeKeys);
+      return nodeKeys().equals(refs.nodeKeys());
     }
     return false;
   }
@@ -73,19 +220,19 @@ public final class NodeReferences implements References {
   @Override
   public String toString() {
     final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
-    for (final long nodeKey : mNodeKeys) {
-      helper.add("referenced node key", nodeKey);
+    for (final PrimitiveIterator.OfLong iter = getNodeKeyIterator(); iter.hasNext();) {
+      helper.add("referenced node key", iter.nextLong());
     }
     return helper.toString();
   }
 
   @Override
   public boolean hasNodeKeys() {
-    return !mNodeKeys.isEmpty();
+    return !nodeKeys().isEmpty();
   }
 
   @Override
   public boolean contains(@Nonnegative long nodeKey) {
-    return mNodeKeys.contains(nodeKey);
+    return nodeKeys().contains(nodeKey);
   }
 }
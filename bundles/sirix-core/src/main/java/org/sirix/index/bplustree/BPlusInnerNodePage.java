@@ -145,6 +145,19 @@ public class BPlusInnerNodePage<K extends Comparable<? super K> & Record, V exte
     return mRecords.values();
   }
 
+  @Override
+  public Set<K> keySet() {
+    return mRecords.keySet();
+  }
+
+  @Override
+  public void copyEntry(final K key, final KeyValuePage<K, V> page) {
+    final V value = page.getValue(key);
+    if (value != null) {
+      mRecords.put(key, value);
+    }
+  }
+
   @Override
   public long getPageKey() {
     return mRecordPageKey;
@@ -212,4 +225,9 @@ public class BPlusInnerNodePage<K extends Comparable<? super K> & Record, V exte
     // TODO Auto-generated method stub
     return -1;
   }
+
+  @Override
+  public long[] getPreviousFragmentKeys() {
+    return new long[0];
+  }
 }
@@ -156,6 +156,19 @@ public class BPlusLeafNodePage<K extends Comparable<? super K> & Record, V exten
     return mRecords.values();
   }
 
+  @Override
+  public Set<K> keySet() {
+    return mRecords.keySet();
+  }
+
+  @Override
+  public void copyEntry(final K key, final KeyValuePage<K, V> page) {
+    final V value = page.getValue(key);
+    if (value != null) {
+      mRecords.put(key, value);
+    }
+  }
+
   @Override
   public long getPageKey() {
     return mRecordPageKey;
@@ -219,6 +232,11 @@ public class BPlusLeafNodePage<K extends Comparable<? super K> & Record, V exten
     return -1;
   }
 
+  @Override
+  public long[] getPreviousFragmentKeys() {
+    return new long[0];
+  }
+
   /*
    * (non-Javadoc)
    *
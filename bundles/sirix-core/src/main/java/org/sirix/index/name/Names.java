@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import javax.annotation.Nonnegative;
 import org.sirix.settings.Constants;
 import com.google.common.collect.HashBiMap;
 
@@ -77,13 +78,23 @@ public final class Names {
    * @param key the key to remove
    */
   public void removeName(final int key) {
+    removeName(key, 1);
+  }
+
+  /**
+   * Remove several occurences of a name at once.
+   *
+   * @param key the key to remove
+   * @param count the number of occurences to remove
+   */
+  public void removeName(final int key, final @Nonnegative int count) {
     final Integer prevValue = mCountNameMapping.get(key);
     if (prevValue != null) {
-      if (prevValue - 1 == 0) {
+      if (prevValue - count <= 0) {
         mNameMap.remove(key);
         mCountNameMapping.remove(key);
       } else {
-        mCountNameMapping.put(key, prevValue - 1);
+        mCountNameMapping.put(key, prevValue - count);
       }
     }
   }
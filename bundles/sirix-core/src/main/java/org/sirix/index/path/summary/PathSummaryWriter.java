@@ -1,6 +1,9 @@
 package org.sirix.index.path.summary;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnegative;
 import javax.xml.namespace.QName;
 import org.brackit.xquery.atomic.QNm;
@@ -684,6 +687,40 @@ public final class PathSummaryWriter extends AbstractForwardingXdmNodeReadTrx {
     }
   }
 
+  /**
+   * Decrements the reference-counters of several path nodes at once or removes the path nodes,
+   * which are not referenced anymore. Deeper path nodes are processed first, as if the nodes were
+   * removed one by one in postorder.
+   *
+   * @param references the number of removed references per path node key
+   * @throws SirixException if anything went wrong
+   */
+  public void remove(final Map<Long, Integer> references) throws SirixException {
+    checkNotNull(references);
+    final List<PathNode> pathNodes = new ArrayList<>(references.size());
+    for (final long pathNodeKey : references.keySet()) {
+      if (mPathSummaryReader.moveTo(pathNodeKey).hasMoved()) {
+        pathNodes.add(mPathSummaryReader.getPathNode());
+      }
+    }
+    pathNodes.sort((first, second) -> second.getLevel() - first.getLevel());
+
+    for (final PathNode node : pathNodes) {
+      // The path node might have been removed together with an ancestor.
+      if (mPathSummaryReader.moveTo(node.getNodeKey()).hasMoved()) {
+        final int removedReferences = references.get(node.getNodeKey());
+        final int remainingReferences = mPathSummaryReader.getReferences() - removedReferences;
+        if (remainingReferences <= 0) {
+          removePathSummaryNode(RemoveSubtreePath.YES);
+        } else {
+          final PathNode pathNode = (PathNode) mPageWriteTrx.prepareEntryForModification(
+              mPathSummaryReader.getNodeKey(), PageKind.PATHSUMMARYPAGE, 0);
+          pathNode.setReferenceCount(remainingReferences);
+        }
+      }
+    }
+  }
+
   @Override
   protected XdmNodeReadTrx delegate() {
     return mPathSummaryReader;
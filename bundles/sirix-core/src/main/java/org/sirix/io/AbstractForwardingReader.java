@@ -1,5 +1,7 @@
 package org.sirix.io;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nullable;
 import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
@@ -9,7 +11,8 @@ import org.sirix.page.interfaces.Page;
 import com.google.common.collect.ForwardingObject;
 
 /**
- * Forwards all methods to the delegate.
+ * Forwards all methods to the delegate. {@link #readAll(List, PageReadTrx)} isn't forwarded, such
+ * that the pages are read through {@link #readAsync(PageReference, PageReadTrx)} of subclasses.
  *
  * @author Johannes Lichtenberger, University of Konstanz
  *
@@ -25,6 +28,12 @@ public abstract class AbstractForwardingReader extends ForwardingObject implemen
     return delegate().read(reference, pageReadTrx);
   }
 
+  @Override
+  public CompletableFuture<Page> readAsync(PageReference reference,
+      @Nullable PageReadTrx pageReadTrx) {
+    return delegate().readAsync(reference, pageReadTrx);
+  }
+
   @Override
   public PageReference readUberPageReference() throws SirixIOException {
     return delegate().readUberPageReference();
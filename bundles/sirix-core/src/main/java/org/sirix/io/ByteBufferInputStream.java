@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2018, Sirix
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Exposes the remaining bytes of a {@link ByteBuffer} as an {@link InputStream}, such that the
+ * {@link org.sirix.io.bytepipe.ByteHandler} pipeline can consume buffer slices (for instance
+ * memory-mapped regions) without copying them into a byte array first.
+ *
+ * @author agent
+ *
+ */
+public final class ByteBufferInputStream extends InputStream {
+
+  /** The buffer to read from. */
+  private final ByteBuffer mBuffer;
+
+  /**
+   * Constructor.
+   *
+   * @param buffer the buffer to read from, reading starts at its current position
+   */
+  public ByteBufferInputStream(final ByteBuffer buffer) {
+    mBuffer = checkNotNull(buffer);
+  }
+
+  @Override
+  public int read() {
+    return mBuffer.hasRemaining()
+        ? mBuffer.get() & 0xFF
+        : -1;
+  }
+
+  @Override
+  public int read(final byte[] bytes, final int offset, final int length) {
+    if (length == 0) {
+      return 0;
+    }
+
+    if (!mBuffer.hasRemaining()) {
+      return -1;
+    }
+
+    final int bytesToRead = Math.min(length, mBuffer.remaining());
+    mBuffer.get(bytes, offset, bytesToRead);
+    return bytesToRead;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+
+    final int bytesToSkip = (int) Math.min(n, mBuffer.remaining());
+    mBuffer.position(mBuffer.position() + bytesToSkip);
+    return bytesToSkip;
+  }
+
+  @Override
+  public int available() {
+    return mBuffer.remaining();
+  }
+}
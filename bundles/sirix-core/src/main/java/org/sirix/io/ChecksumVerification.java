@@ -0,0 +1,46 @@
+package org.sirix.io;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines which pages are verified against their checksum, once they are read from the
+ * storage.
+ *
+ * @author agent
+ *
+ */
+public enum ChecksumVerification {
+  /** Verify every page. */
+  ALWAYS {
+    @Override
+    public boolean verify() {
+      return true;
+    }
+  },
+
+  /** Verify a random sample of one out of {@link #SAMPLING_RATE} pages. */
+  SAMPLING {
+    @Override
+    public boolean verify() {
+      return ThreadLocalRandom.current().nextInt(SAMPLING_RATE) == 0;
+    }
+  },
+
+  /** Never verify pages on read (offline verification is still possible). */
+  OFF {
+    @Override
+    public boolean verify() {
+      return false;
+    }
+  };
+
+  /** One out of this number of pages is verified in {@link #SAMPLING} mode. */
+  public static final int SAMPLING_RATE = 16;
+
+  /**
+   * Determines if the page, which is read next, has to be verified.
+   *
+   * @return {@code true}, if the page has to be verified, {@code false} otherwise
+   */
+  public abstract boolean verify();
+}
@@ -0,0 +1,28 @@
+package org.sirix.io;
+
+/**
+ * Determines when the pages, which are written during a commit, are forced to the storage device.
+ *
+ * @author agent
+ *
+ */
+public enum DurabilityMode {
+  /**
+   * Never force the pages to the storage device, but leave flushing to the operating system. A
+   * crash of the operating system might lose committed revisions.
+   */
+  NONE,
+
+  /**
+   * Force the pages to the storage device before and after the uber page beacon is written, such
+   * that a commit is durable, once it returns.
+   */
+  SYNC,
+
+  /**
+   * Force the pages to the storage device at most once per group commit window. A commit waits
+   * until the window, which it joined, is forced, such that it's durable once it returns. All
+   * commits of a window, for instance pipelined commits, share a single force.
+   */
+  GROUP
+}
@@ -0,0 +1,33 @@
+package org.sirix.io;
+
+import javax.annotation.Nonnegative;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * Storage, which stores serialized pages in an append-only data file. The serialized form of the
+ * pages can be read separately and the data file can be compacted.
+ *
+ * @author agent
+ *
+ */
+public interface FileBackedStorage extends Storage {
+
+  @Override
+  PageBytesWriter createWriter() throws SirixIOException;
+
+  @Override
+  PageBytesReader createReader() throws SirixIOException;
+
+  /**
+   * Compact the storage, that is copy all pages, which are reachable from the retained revisions,
+   * into new files, which atomically replace the current files. Revisions before the oldest
+   * retained revision can't be read afterwards. Readers, which have been created before, keep
+   * reading the previous files. Must not be invoked concurrently to a writer.
+   *
+   * @param oldestRetainedRevision the oldest revision to retain
+   * @param pageReadTrx used to deserialize the pages
+   * @throws SirixIOException if an I/O error occurs
+   */
+  void compact(@Nonnegative int oldestRetainedRevision, PageReadTrx pageReadTrx);
+}
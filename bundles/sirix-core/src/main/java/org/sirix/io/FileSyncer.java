@@ -0,0 +1,161 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnegative;
+import org.sirix.exception.SirixIOException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Forces the files of a {@link Writer} to the storage device according to a
+ * {@link DurabilityMode}. Writers call {@link #beforeCommit()} once all pages of a commit are
+ * written and {@link #afterCommit()} once the uber page beacon is written.
+ *
+ * <p>
+ * In {@link DurabilityMode#GROUP} mode {@link #afterCommit()} blocks until the files are forced
+ * once the group commit window of the first commit in the window elapsed, or until the writer is
+ * closed. All commits of a window share a single force and they all fail, if it fails.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class FileSyncer {
+
+  /** Scheduler of group commits, shared by all writers. */
+  private static final ScheduledExecutorService GROUP_COMMIT_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("sirix-group-commit-%d")
+                                    .setDaemon(true)
+                                    .build());
+
+  /** Forces the files to the storage device. */
+  private final Runnable mForce;
+
+  /** The durability mode. */
+  private final DurabilityMode mMode;
+
+  /** The group commit window in milliseconds. */
+  private final long mGroupCommitWindow;
+
+  /**
+   * The force of the current group commit window, which completes once the commits of the window
+   * are forced to the storage device, or {@code null}, if no commit is waiting.
+   */
+  private CompletableFuture<Void> mGroupCommit;
+
+  /**
+   * Constructor.
+   *
+   * @param mode the durability mode
+   * @param groupCommitWindow the group commit window in milliseconds (only used in
+   *        {@link DurabilityMode#GROUP} mode)
+   * @param force forces the files to the storage device
+   */
+  public FileSyncer(final DurabilityMode mode, final @Nonnegative long groupCommitWindow,
+      final Runnable force) {
+    checkArgument(groupCommitWindow >= 0, "groupCommitWindow must be >= 0!");
+    mMode = checkNotNull(mode);
+    mGroupCommitWindow = groupCommitWindow;
+    mForce = checkNotNull(force);
+  }
+
+  /**
+   * Called once all pages of a commit are written, but before the uber page beacon is written.
+   */
+  public void beforeCommit() {
+    if (mMode == DurabilityMode.SYNC) {
+      mForce.run();
+    }
+  }
+
+  /**
+   * Called once the uber page beacon is written. Returns once the commit is durable according to
+   * the durability mode.
+   *
+   * @throws SirixIOException if the files couldn't be forced to the storage device
+   */
+  public void afterCommit() {
+    switch (mMode) {
+      case SYNC:
+        mForce.run();
+        break;
+      case GROUP:
+        awaitGroupCommit(joinGroupCommit());
+        break;
+      case NONE:
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Join the group commit of the current window, starting a new window if needed.
+   *
+   * @return the force of the window
+   */
+  private synchronized CompletableFuture<Void> joinGroupCommit() {
+    if (mGroupCommit == null) {
+      mGroupCommit = new CompletableFuture<>();
+      GROUP_COMMIT_SCHEDULER.schedule(this::groupCommit, mGroupCommitWindow,
+          TimeUnit.MILLISECONDS);
+    }
+    return mGroupCommit;
+  }
+
+  private static void awaitGroupCommit(final CompletableFuture<Void> groupCommit) {
+    try {
+      groupCommit.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof SirixIOException) {
+        throw (SirixIOException) e.getCause();
+      }
+      throw new SirixIOException("Group commit failed!", e.getCause());
+    }
+  }
+
+  /**
+   * Force the commits of the current window to the storage device and complete their future.
+   */
+  private void groupCommit() {
+    final CompletableFuture<Void> groupCommit;
+    synchronized (this) {
+      groupCommit = mGroupCommit;
+      mGroupCommit = null;
+    }
+
+    // The window has already been forced on close.
+    if (groupCommit == null) {
+      return;
+    }
+
+    try {
+      mForce.run();
+      groupCommit.complete(null);
+    } catch (final RuntimeException e) {
+      groupCommit.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Forces the commits of the current group commit window to the storage device. Must be called
+   * before the files of the writer are closed.
+   *
+   * @throws SirixIOException if the files couldn't be forced to the storage device
+   */
+  public void close() {
+    final CompletableFuture<Void> groupCommit;
+    synchronized (this) {
+      groupCommit = mGroupCommit;
+    }
+    if (groupCommit != null) {
+      groupCommit();
+      awaitGroupCommit(groupCommit);
+    }
+  }
+}
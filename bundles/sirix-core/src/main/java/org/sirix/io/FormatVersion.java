@@ -0,0 +1,61 @@
+package org.sirix.io;
+
+import java.nio.ByteBuffer;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * The version of the format of the data file, which is stored in its header right after the key
+ * of the uber page. Data files, which have been written before the version has been introduced,
+ * have an unused header field, which is always {@code 0}.
+ *
+ * <p>
+ * Version {@code 1} introduced page checksums in the page headers, the record page layout with a
+ * directory of the records, bitmap encoded references of the indirect pages and indirect page trees
+ * of variable height.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class FormatVersion {
+
+  /** The version of the data files, which are written (and read). */
+  public static final int CURRENT = 1;
+
+  /** The position of the version in the data file. */
+  public static final long POSITION = Long.BYTES;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private FormatVersion() {
+    throw new AssertionError("May never be instantiated!");
+  }
+
+  /**
+   * Create the header of the data file, that is the key of the uber page followed by the version.
+   *
+   * @param uberPageKey the key of the uber page
+   * @return the header
+   */
+  public static ByteBuffer header(final long uberPageKey) {
+    final ByteBuffer header = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+    header.putLong(uberPageKey).putInt(CURRENT);
+    header.flip();
+    return header;
+  }
+
+  /**
+   * Verify that the version of a data file can be read.
+   *
+   * @param version the version stored in the data file
+   * @throws SirixIOException if the version is not the current version
+   */
+  public static void verify(final int version) {
+    if (version != CURRENT) {
+      throw new SirixIOException("The data file has been written in format version " + version
+          + ", but only format version " + CURRENT
+          + " is supported. The resource has to be imported again.");
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+import org.sirix.api.PageReadTrx;
+import org.sirix.cache.OffHeapPageCache;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+
+/**
+ * Decorates a {@link FileBackedStorage}, such that pages read from the data file are looked up in and added
+ * to an {@link OffHeapPageCache}, which is shared by all resources of a database. The cache is
+ * invalidated once the data file of the resource is truncated or compacted, as offsets are reused
+ * afterwards. Readers, which have been created before a compaction, keep reading the previous data
+ * file and bypass the cache from then on.
+ *
+ * @author agent
+ *
+ */
+public final class OffHeapCachingStorage implements FileBackedStorage {
+
+  /** The decorated storage. */
+  private final FileBackedStorage mStorage;
+
+  /** The off-heap cache. */
+  private final OffHeapPageCache mCache;
+
+  /** The ID of the resource. */
+  private final long mResourceID;
+
+  /** Incremented once the data file has been compacted. */
+  private volatile int mGeneration;
+
+  /**
+   * Constructor.
+   *
+   * @param storage the storage to decorate
+   * @param cache the off-heap cache, which is shared by all resources
+   * @param resourceID the ID of the resource
+   */
+  public OffHeapCachingStorage(final FileBackedStorage storage, final OffHeapPageCache cache,
+      final long resourceID) {
+    mStorage = checkNotNull(storage);
+    mCache = checkNotNull(cache);
+    mResourceID = resourceID;
+  }
+
+  @Override
+  public PageBytesWriter createWriter() throws SirixIOException {
+    return new CachingWriter(mStorage.createWriter());
+  }
+
+  @Override
+  public PageBytesReader createReader() throws SirixIOException {
+    return new CachingReader(mStorage.createReader());
+  }
+
+  @Override
+  public void close() throws SirixIOException {
+    mStorage.close();
+  }
+
+  @Override
+  public boolean exists() throws SirixIOException {
+    return mStorage.exists();
+  }
+
+  @Override
+  public ByteHandler getByteHandler() {
+    return mStorage.getByteHandler();
+  }
+
+  @Override
+  public RevisionTimestamps getRevisionTimestamps() {
+    return mStorage.getRevisionTimestamps();
+  }
+
+  @Override
+  public void compact(final int oldestRetainedRevision, final PageReadTrx pageReadTrx) {
+    try {
+      mStorage.compact(oldestRetainedRevision, pageReadTrx);
+    } finally {
+      mGeneration++;
+      mCache.invalidate(mResourceID);
+    }
+  }
+
+  /**
+   * Read a page through the cache.
+   *
+   * @param reader the reader, which reads the page on a cache miss
+   * @param generation the generation of the data file, which is read by the reader
+   * @param reference reference to the page
+   * @param pageReadTrx the page reading transaction
+   * @return the page
+   */
+  private Page read(final PageBytesReader reader, final int generation, final PageReference reference,
+      final @Nullable PageReadTrx pageReadTrx) {
+    final long offset = reference.getKey();
+
+    // Pages, which are read from the transaction intent log or from a data file, which has been
+    // replaced by a compaction, are not cached.
+    if (offset == Constants.NULL_ID_LONG || generation != mGeneration) {
+      return reader.read(reference, pageReadTrx);
+    }
+
+    byte[] page = mCache.get(mResourceID, offset);
+    if (page == null) {
+      page = reader.readPageBytes(reference);
+      mCache.put(mResourceID, offset, page);
+      if (generation != mGeneration) {
+        mCache.invalidate(mResourceID);
+      }
+    }
+    return reader.deserializePage(page, pageReadTrx);
+  }
+
+  /**
+   * Reader, which reads pages through the cache.
+   */
+  private final class CachingReader extends AbstractForwardingReader
+      implements PageBytesReader {
+
+    /** The decorated reader. */
+    private final PageBytesReader mReader;
+
+    /** The generation of the data file, which is read. */
+    private final int mReaderGeneration;
+
+    /**
+     * Constructor.
+     *
+     * @param reader the reader to decorate
+     */
+    CachingReader(final PageBytesReader reader) {
+      mReader = checkNotNull(reader);
+      mReaderGeneration = mGeneration;
+    }
+
+    @Override
+    public Page read(final PageReference reference, final @Nullable PageReadTrx pageReadTrx)
+        throws SirixIOException {
+      return OffHeapCachingStorage.this.read(mReader, mReaderGeneration, reference, pageReadTrx);
+    }
+
+    @Override
+    public CompletableFuture<Page> readAsync(final PageReference reference,
+        final @Nullable PageReadTrx pageReadTrx) {
+      return Readers.readAsync(() -> read(reference, pageReadTrx));
+    }
+
+    @Override
+    public byte[] readPageBytes(final PageReference reference) {
+      return mReader.readPageBytes(reference);
+    }
+
+    @Override
+    public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+      return mReader.deserializePage(pageBytes, pageReadTrx);
+    }
+
+    @Override
+    public void close() throws SirixIOException {
+      mReader.close();
+    }
+
+    @Override
+    protected Reader delegate() {
+      return mReader;
+    }
+  }
+
+  /**
+   * Writer, which reads pages through the cache and invalidates the cache, once the data file is
+   * truncated.
+   */
+  private final class CachingWriter extends AbstractForwardingReader
+      implements PageBytesWriter {
+
+    /** The decorated writer. */
+    private final PageBytesWriter mWriter;
+
+    /** The generation of the data file, which is written. */
+    private final int mWriterGeneration;
+
+    /**
+     * Constructor.
+     *
+     * @param writer the writer to decorate
+     */
+    CachingWriter(final PageBytesWriter writer) {
+      mWriter = checkNotNull(writer);
+      mWriterGeneration = mGeneration;
+    }
+
+    @Override
+    public Page read(final PageReference reference, final @Nullable PageReadTrx pageReadTrx)
+        throws SirixIOException {
+      return OffHeapCachingStorage.this.read(mWriter, mWriterGeneration, reference, pageReadTrx);
+    }
+
+    @Override
+    public CompletableFuture<Page> readAsync(final PageReference reference,
+        final @Nullable PageReadTrx pageReadTrx) {
+      return Readers.readAsync(() -> read(reference, pageReadTrx));
+    }
+
+    @Override
+    public Writer write(final PageReference pageReference) throws SirixIOException {
+      mWriter.write(pageReference);
+      return this;
+    }
+
+    @Override
+    public ByteBuffer serialize(final Page page) throws SirixIOException {
+      return mWriter.serialize(page);
+    }
+
+    @Override
+    public Writer write(final PageReference pageReference,
+        final @Nullable ByteBuffer serializedPage) throws SirixIOException {
+      mWriter.write(pageReference, serializedPage);
+      return this;
+    }
+
+    @Override
+    public Writer writeUberPageReference(final PageReference pageReference)
+        throws SirixIOException {
+      mWriter.writeUberPageReference(pageReference);
+      return this;
+    }
+
+    @Override
+    public Writer appendUberPageReference(final PageReference pageReference)
+        throws SirixIOException {
+      mWriter.appendUberPageReference(pageReference);
+      return this;
+    }
+
+    @Override
+    public Writer publishUberPageReference(final PageReference pageReference)
+        throws SirixIOException {
+      mWriter.publishUberPageReference(pageReference);
+      return this;
+    }
+
+    @Override
+    public Writer truncateTo(final int revision) {
+      mWriter.truncateTo(revision);
+      mCache.invalidate(mResourceID);
+      return this;
+    }
+
+    @Override
+    public Writer truncate() {
+      mWriter.truncate();
+      mCache.invalidate(mResourceID);
+      return this;
+    }
+
+    @Override
+    public byte[] readPageBytes(final PageReference reference) {
+      return mWriter.readPageBytes(reference);
+    }
+
+    @Override
+    public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+      return mWriter.deserializePage(pageBytes, pageReadTrx);
+    }
+
+    @Override
+    public void close() throws SirixIOException {
+      mWriter.close();
+    }
+
+    @Override
+    protected Reader delegate() {
+      return mWriter;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package org.sirix.io;
+
+import javax.annotation.Nullable;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Reader of a storage, which stores serialized pages, such that the serialized form of a page can
+ * be read (and for instance cached) separately from deserializing it.
+ *
+ * @author agent
+ *
+ */
+public interface PageBytesReader extends Reader {
+
+  /**
+   * Read the serialized form of a page, which has already been processed by the byte handler
+   * pipeline (that is decompressed and decrypted).
+   *
+   * @param key the reference for the page to be read
+   * @return the serialized page
+   * @throws SirixIOException if something bad happens during read
+   */
+  byte[] readPageBytes(PageReference key) throws SirixIOException;
+
+  /**
+   * Deserialize a page, which has been read by {@link #readPageBytes(PageReference)}.
+   *
+   * @param pageBytes the serialized page
+   * @param pageReadTrx {@link PageReadTrx} reference
+   * @return the page
+   * @throws SirixIOException if the page couldn't be deserialized
+   */
+  Page deserializePage(byte[] pageBytes, @Nullable PageReadTrx pageReadTrx)
+      throws SirixIOException;
+}
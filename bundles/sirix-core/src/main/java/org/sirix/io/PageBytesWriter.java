@@ -0,0 +1,11 @@
+package org.sirix.io;
+
+/**
+ * Writer of a storage, which stores serialized pages, such that the serialized form of a page can
+ * also be read through the writer.
+ *
+ * @author agent
+ *
+ */
+public interface PageBytesWriter extends Writer, PageBytesReader {
+}
@@ -0,0 +1,78 @@
+package org.sirix.io;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * Computes and verifies the CRC32C checksums, which are stored in the header of each page in the
+ * data file. The checksum is computed over the bytes of the page as they are stored, that is after
+ * compression and encryption, such that corrupted pages are detected before they are processed by
+ * the byte handler pipeline.
+ *
+ * @author agent
+ *
+ */
+public final class PageChecksums {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private PageChecksums() {
+    throw new AssertionError("May never be instantiated!");
+  }
+
+  /**
+   * Compute the checksum of a page.
+   *
+   * @param bytes the bytes of the page
+   * @param offset the offset of the page
+   * @param length the length of the page
+   * @return the checksum
+   */
+  public static int checksum(final byte[] bytes, final int offset, final int length) {
+    final CRC32C crc = new CRC32C();
+    crc.update(bytes, offset, length);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Compute the checksum of the remaining bytes of a buffer, without changing its position.
+   *
+   * @param bytes the bytes of the page
+   * @return the checksum
+   */
+  public static int checksum(final ByteBuffer bytes) {
+    final CRC32C crc = new CRC32C();
+    crc.update(bytes.duplicate());
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Verify a page against its stored checksum.
+   *
+   * @param bytes the bytes of the page
+   * @param checksum the stored checksum
+   * @param position the position of the page in the file (for error reporting)
+   * @throws SirixIOException if the checksum doesn't match
+   */
+  public static void verify(final byte[] bytes, final int checksum, final long position) {
+    if (checksum(bytes, 0, bytes.length) != checksum) {
+      throw new SirixIOException("Checksum mismatch of the page at position " + position + "!");
+    }
+  }
+
+  /**
+   * Verify a page against its stored checksum.
+   *
+   * @param bytes the bytes of the page
+   * @param checksum the stored checksum
+   * @param position the position of the page in the file (for error reporting)
+   * @throws SirixIOException if the checksum doesn't match
+   */
+  public static void verify(final ByteBuffer bytes, final int checksum, final long position) {
+    if (checksum(bytes) != checksum) {
+      throw new SirixIOException("Checksum mismatch of the page at position " + position + "!");
+    }
+  }
+}
@@ -21,6 +21,9 @@
 
 package org.sirix.io;
 
+import static java.util.stream.Collectors.toList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nullable;
 import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
@@ -56,6 +59,35 @@ public interface Reader extends AutoCloseable {
    */
   Page read(PageReference key, @Nullable PageReadTrx pageReadTrx) throws SirixIOException;
 
+  /**
+   * Getting a reference for the given pointer asynchronously.
+   *
+   * @param key the reference for the page to be determined
+   * @param pageReadTrx {@link PageReadTrx} reference
+   * @return the future of the page, which completes exceptionally with a {@link SirixIOException}
+   *         if something bad happens during read
+   */
+  CompletableFuture<Page> readAsync(PageReference key, @Nullable PageReadTrx pageReadTrx);
+
+  /**
+   * Getting the pages for the given pointers asynchronously. The pages are read concurrently, if
+   * the storage backend supports it.
+   *
+   * @param keys the references for the pages to be determined
+   * @param pageReadTrx {@link PageReadTrx} reference
+   * @return the future of the pages in the order of the given references
+   */
+  default CompletableFuture<List<Page>> readAll(final List<PageReference> keys,
+      final @Nullable PageReadTrx pageReadTrx) {
+    final List<CompletableFuture<Page>> pages =
+        keys.stream().map(key -> readAsync(key, pageReadTrx)).collect(toList());
+    return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[pages.size()]))
+                            .thenApply(
+                                ignored -> pages.stream()
+                                                .map(CompletableFuture::join)
+                                                .collect(toList()));
+  }
+
   /**
    * Closing the storage.
    *
@@ -0,0 +1,50 @@
+package org.sirix.io;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Utilities for {@link Reader} implementations, which read pages asynchronously.
+ *
+ * @author agent
+ *
+ */
+public final class Readers {
+
+  /** Pool to read pages asynchronously, shared by all readers. */
+  private static final ExecutorService READ_POOL =
+      Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2,
+          new ThreadFactoryBuilder().setNameFormat("sirix-page-reader-%d")
+                                    .setDaemon(true)
+                                    .build());
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private Readers() {
+    throw new AssertionError("May never be instantiated!");
+  }
+
+  /**
+   * Get the executor, which is used to read pages asynchronously.
+   *
+   * @return the executor
+   */
+  public static Executor readExecutor() {
+    return READ_POOL;
+  }
+
+  /**
+   * Read a page asynchronously using the shared read pool.
+   *
+   * @param read the synchronous read
+   * @return the future of the page
+   */
+  public static <T> CompletableFuture<T> readAsync(final Supplier<T> read) {
+    return CompletableFuture.supplyAsync(read, READ_POOL);
+  }
+}
@@ -0,0 +1,103 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.time.Instant;
+import java.util.function.IntToLongFunction;
+import javax.annotation.Nonnegative;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Determines which revisions of a resource are retained once the data file is compacted. The most
+ * recent revision is always retained. Pages, which are only reachable from revisions, which are not
+ * retained anymore, are discarded.
+ *
+ * @author agent
+ *
+ */
+public final class RetentionPolicy {
+
+  /** Number of most recent revisions to keep. */
+  private final int mRevisionCount;
+
+  /** Revisions committed at or after this point in time (in milliseconds) are kept. */
+  private final long mTimestamp;
+
+  /**
+   * Private constructor.
+   *
+   * @param revisionCount number of most recent revisions to keep
+   * @param timestamp revisions committed at or after this point in time are kept
+   */
+  private RetentionPolicy(final int revisionCount, final long timestamp) {
+    mRevisionCount = revisionCount;
+    mTimestamp = timestamp;
+  }
+
+  /**
+   * Keep all revisions, such that a compaction only discards pages, which have been written by
+   * aborted commits.
+   *
+   * @return the retention policy
+   */
+  public static RetentionPolicy keepAll() {
+    return new RetentionPolicy(Integer.MAX_VALUE, Long.MIN_VALUE);
+  }
+
+  /**
+   * Keep the given number of most recent revisions.
+   *
+   * @param revisionCount the number of revisions to keep
+   * @return the retention policy
+   * @throws IllegalArgumentException if {@code revisionCount < 1}
+   */
+  public static RetentionPolicy keepLastRevisions(final @Nonnegative int revisionCount) {
+    checkArgument(revisionCount > 0, "revisionCount must be > 0!");
+    return new RetentionPolicy(revisionCount, Long.MAX_VALUE);
+  }
+
+  /**
+   * Keep all revisions, which have been committed at or after the given point in time.
+   *
+   * @param pointInTime the point in time
+   * @return the retention policy
+   */
+  public static RetentionPolicy keepRevisionsNewerThan(final Instant pointInTime) {
+    return new RetentionPolicy(1, checkNotNull(pointInTime).toEpochMilli());
+  }
+
+  /**
+   * Get the oldest revision, which is retained. A revision is retained, if it's either amongst the
+   * most recent revisions to keep or has been committed at or after the point in time to keep.
+   *
+   * @param mostRecentRevision the most recent revision
+   * @param revisionTimestamps maps a revision to its commit timestamp
+   * @return the oldest retained revision
+   */
+  public int getOldestRetainedRevision(final @Nonnegative int mostRecentRevision,
+      final IntToLongFunction revisionTimestamps) {
+    checkNotNull(revisionTimestamps);
+    final int byCount = (int) Math.max(0, (long) mostRecentRevision - mRevisionCount + 1);
+
+    // Timestamps are ascending, thus search the first revision committed at or after the timestamp.
+    int low = 0;
+    int high = mostRecentRevision;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (revisionTimestamps.applyAsLong(mid) < mTimestamp)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+
+    return Math.min(byCount, low);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+                      .add("revisionCount", mRevisionCount)
+                      .add("timestamp", mTimestamp)
+                      .toString();
+  }
+}
@@ -0,0 +1,194 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.Nonnegative;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * Append-only array of the commit timestamps of all revisions of a resource, which is stored next
+ * to the revisions offset file. The entry of a revision is the timestamp in milliseconds since the
+ * epoch at the index of the revision, thus the file is sorted and a point in time is resolved to
+ * a revision by a binary search on the memory-mapped file instead of reading the revision root
+ * pages.
+ *
+ * <p>
+ * Entries are written by the writer of the resource, once a revision root page has been written,
+ * and are read concurrently. The file is only a derived index, thus it isn't forced to the storage
+ * device. Missing entries are filled in from the revision root pages once the resource is opened.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class RevisionTimestamps implements AutoCloseable {
+
+  /** Name of the file. */
+  public static final String FILENAME = "sirix.timestamps";
+
+  /** The file. */
+  private final Path mFile;
+
+  /** The file channel. */
+  private FileChannel mChannel;
+
+  /** Maps the whole file. */
+  private volatile MappedByteBuffer mTimestamps;
+
+  /** The number of revisions. */
+  private volatile int mRevisionCount;
+
+  /**
+   * Constructor, which opens or creates the file.
+   *
+   * @param file the file, which stores the timestamps
+   * @throws SirixIOException if an I/O error occurs
+   */
+  public RevisionTimestamps(final Path file) {
+    mFile = checkNotNull(file);
+    try {
+      mChannel = open(mFile);
+      remap((int) (mChannel.size() / Long.BYTES));
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  private static FileChannel open(final Path file) throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Reopen the file, once it has been replaced, for instance by a compaction of the data file.
+   * Concurrent readers keep reading the previous file until the new one is mapped.
+   *
+   * @throws SirixIOException if an I/O error occurs
+   */
+  public synchronized void reopen() {
+    try {
+      final FileChannel previousChannel = mChannel;
+      mChannel = open(mFile);
+      remap((int) (mChannel.size() / Long.BYTES));
+      previousChannel.close();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  // Map the first revisionCount entries.
+  private void remap(final int revisionCount) throws IOException {
+    mTimestamps = mChannel.map(FileChannel.MapMode.READ_ONLY, 0, (long) revisionCount * Long.BYTES);
+    mRevisionCount = revisionCount;
+  }
+
+  /**
+   * Get the number of revisions, which have a timestamp.
+   *
+   * @return the number of revisions
+   */
+  public int getRevisionCount() {
+    return mRevisionCount;
+  }
+
+  /**
+   * Get the commit timestamp of a revision.
+   *
+   * @param revision the revision number
+   * @return the timestamp in milliseconds since the epoch
+   * @throws IndexOutOfBoundsException if the revision has no timestamp
+   */
+  public long getTimestamp(final @Nonnegative int revision) {
+    return mTimestamps.getLong(revision * Long.BYTES);
+  }
+
+  /**
+   * Search for the revision, which has been committed at the given point in time, in the first
+   * {@code revisionCount} revisions.
+   *
+   * @param timestamp the point in time in milliseconds since the epoch
+   * @param revisionCount the number of revisions to search
+   * @return the revision number, if a revision has been committed exactly at the given point in
+   *         time, otherwise {@code (-(insertion point) - 1)}, where the insertion point is the first
+   *         revision, which has been committed after the point in time (as
+   *         {@link java.util.Arrays#binarySearch(long[], long)})
+   */
+  public int binarySearch(final long timestamp, final @Nonnegative int revisionCount) {
+    final ByteBuffer timestamps = mTimestamps;
+    int low = 0;
+    int high = Math.min(revisionCount, timestamps.capacity() / Long.BYTES) - 1;
+
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final long midVal = timestamps.getLong(mid * Long.BYTES);
+
+      if (midVal < timestamp)
+        low = mid + 1;
+      else if (midVal > timestamp)
+        high = mid - 1;
+      else
+        return mid; // key found
+    }
+
+    return -(low + 1); // key not found
+  }
+
+  /**
+   * Set the commit timestamp of a revision, which is either the next revision or replaces the
+   * timestamp of a revision, which has been written before but never committed.
+   *
+   * @param revision the revision number
+   * @param timestamp the timestamp in milliseconds since the epoch
+   * @throws UncheckedIOException if an I/O error occurs
+   */
+  public synchronized void set(final @Nonnegative int revision, final long timestamp) {
+    checkArgument(revision >= 0 && revision <= mRevisionCount,
+        "revision must be >= 0 and <= " + mRevisionCount + "!");
+    try {
+      final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, timestamp);
+      final long position = (long) revision * Long.BYTES;
+      while (buffer.hasRemaining()) {
+        mChannel.write(buffer, position + buffer.position());
+      }
+      if (revision == mRevisionCount) {
+        remap(revision + 1);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Remove the timestamps of all revisions starting with the given revision.
+   *
+   * @param revisionCount the number of revisions to keep
+   * @throws UncheckedIOException if an I/O error occurs
+   */
+  public synchronized void truncate(final @Nonnegative int revisionCount) {
+    if (revisionCount >= mRevisionCount) {
+      return;
+    }
+    try {
+      remap(revisionCount);
+      mChannel.truncate((long) revisionCount * Long.BYTES);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      mChannel.close();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -20,6 +20,7 @@
  */
 package org.sirix.io;
 
+import javax.annotation.Nullable;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.bytepipe.ByteHandler;
 
@@ -70,4 +71,14 @@ public interface Storage {
    * @return byte handler pipeline
    */
   ByteHandler getByteHandler();
+
+  /**
+   * Get the commit timestamps of the revisions, if the storage persists them.
+   *
+   * @return the commit timestamps or {@code null}, if they are not persisted
+   * @throws SirixIOException if the timestamps can't be opened
+   */
+  default @Nullable RevisionTimestamps getRevisionTimestamps() {
+    return null;
+  }
 }
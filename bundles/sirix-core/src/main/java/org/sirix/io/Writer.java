@@ -21,8 +21,11 @@
 
 package org.sirix.io;
 
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
 import org.sirix.exception.SirixIOException;
 import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
 
 /**
  * Interface to provide the abstract layer related to write access of the Sirix-backend.
@@ -40,6 +43,35 @@ public interface Writer extends Reader {
    */
   Writer write(PageReference pageReference) throws SirixIOException;
 
+  /**
+   * Serialize a page in advance, that is transform it into the bytes, which are appended to the
+   * storage once the page is written. The state of the writer isn't modified, such that distinct
+   * pages can be serialized concurrently.
+   *
+   * @param page the page to serialize
+   * @return the serialized page or {@code null}, if the writer serializes pages once they are
+   *         written
+   * @throws SirixIOException if an I/O error occurs
+   */
+  default @Nullable ByteBuffer serialize(Page page) throws SirixIOException {
+    return null;
+  }
+
+  /**
+   * Writing a page related to the reference, which has been serialized by {@link #serialize(Page)}
+   * before. The references of the page must not have been changed in-between.
+   *
+   * @param pageReference that points to a page
+   * @param serializedPage the serialized page or {@code null}, if the page hasn't been serialized
+   *        in advance
+   * @throws SirixIOException execption to be thrown if something bad happens
+   * @return this writer instance
+   */
+  default Writer write(PageReference pageReference, @Nullable ByteBuffer serializedPage)
+      throws SirixIOException {
+    return write(pageReference);
+  }
+
   /**
    * Write beacon for the first reference.
    *
@@ -49,6 +81,30 @@ public interface Writer extends Reader {
    */
   Writer writeUberPageReference(PageReference pageReference) throws SirixIOException;
 
+  /**
+   * Append the uber page, such that it and all pages written before are readable by other readers
+   * and writers of the storage, without making it the current uber page. Together with
+   * {@link #publishUberPageReference(PageReference)} it is equivalent to
+   * {@link #writeUberPageReference(PageReference)}, but forcing the files to the storage device is
+   * deferred until the uber page is published.
+   *
+   * @param pageReference that points to the uber page
+   * @return this writer instance
+   * @throws SirixIOException if an I/O error occured
+   */
+  Writer appendUberPageReference(PageReference pageReference) throws SirixIOException;
+
+  /**
+   * Make the uber page, which has been appended by {@link #appendUberPageReference(PageReference)}
+   * before, durable and the current uber page. Might be invoked by another thread than the one,
+   * which has appended the uber page, but not concurrently to other methods of this writer.
+   *
+   * @param pageReference that points to the uber page
+   * @return this writer instance
+   * @throws SirixIOException if an I/O error occured
+   */
+  Writer publishUberPageReference(PageReference pageReference) throws SirixIOException;
+
   /**
    * Truncate to a specific revision.
    *
@@ -0,0 +1,127 @@
+package org.sirix.io.bytepipe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import org.sirix.io.ByteBufferInputStream;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Skeletal implementation of block oriented byte handlers, which process whole pages at once on
+ * {@link ByteBuffer}s. The stream methods are implemented by buffering the whole block, such that
+ * both produce the same format. Note that the serialized block is only written to the underlying
+ * stream, once the stream is closed.
+ *
+ * @author agent
+ *
+ */
+abstract class AbstractBlockByteHandler implements ByteHandler {
+
+  /** Holds the input, if it isn't backed by an accessible array. */
+  private final ReusableBuffer mInput = new ReusableBuffer();
+
+  /** Holds the output. */
+  private final ReusableBuffer mOutput = new ReusableBuffer();
+
+  /** Constructor for use by subclasses. */
+  protected AbstractBlockByteHandler() {}
+
+  @Override
+  public OutputStream serialize(final OutputStream toSerialize) {
+    return new FilterOutputStream(new ByteArrayOutputStream()) {
+      @Override
+      public void write(final byte[] bytes, final int offset, final int length)
+          throws IOException {
+        out.write(bytes, offset, length);
+      }
+
+      @Override
+      public void close() throws IOException {
+        final ByteBuffer result =
+            serialize(ByteBuffer.wrap(((ByteArrayOutputStream) out).toByteArray()));
+        toSerialize.write(result.array(), result.arrayOffset() + result.position(),
+            result.remaining());
+        toSerialize.close();
+      }
+    };
+  }
+
+  @Override
+  public InputStream deserialize(final InputStream toDeserialize) {
+    try {
+      final ByteBuffer result = deserialize(ByteBuffer.wrap(ByteStreams.toByteArray(toDeserialize)));
+      // The result is backed by a reusable buffer.
+      final byte[] bytes = new byte[result.remaining()];
+      result.get(bytes);
+      return new ByteBufferInputStream(ByteBuffer.wrap(bytes));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public ByteBuffer serialize(final ByteBuffer toSerialize) {
+    final int length = toSerialize.remaining();
+    try {
+      return serialize(array(toSerialize), offset(toSerialize), length, mOutput);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public ByteBuffer deserialize(final ByteBuffer toDeserialize) {
+    final int length = toDeserialize.remaining();
+    try {
+      return deserialize(array(toDeserialize), offset(toDeserialize), length, mOutput);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Get the array, which backs the remaining bytes of the buffer.
+  private byte[] array(final ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return buffer.array();
+    }
+    final byte[] bytes = mInput.get(buffer.remaining());
+    buffer.duplicate().get(bytes, 0, buffer.remaining());
+    return bytes;
+  }
+
+  private static int offset(final ByteBuffer buffer) {
+    return buffer.hasArray()
+        ? buffer.arrayOffset() + buffer.position()
+        : 0;
+  }
+
+  /**
+   * Serialize a block.
+   *
+   * @param input the input
+   * @param offset the offset of the block in the input
+   * @param length the length of the block
+   * @param output reusable buffer, which should hold the result
+   * @return a buffer, which holds the serialized block between its position and its limit
+   * @throws IOException if the block can't be serialized
+   */
+  protected abstract ByteBuffer serialize(byte[] input, int offset, int length,
+      ReusableBuffer output) throws IOException;
+
+  /**
+   * Deserialize a block.
+   *
+   * @param input the input
+   * @param offset the offset of the block in the input
+   * @param length the length of the block
+   * @param output reusable buffer, which should hold the result
+   * @return a buffer, which holds the deserialized block between its position and its limit
+   * @throws IOException if the block is corrupt
+   */
+  protected abstract ByteBuffer deserialize(byte[] input, int offset, int length,
+      ReusableBuffer output) throws IOException;
+}
@@ -1,8 +1,13 @@
 package org.sirix.io.bytepipe;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import org.sirix.io.ByteBufferInputStream;
+import com.google.common.io.ByteStreams;
 
 /**
  * Interface for the decorator, representing any byte representation to be serialized or to
@@ -30,6 +35,54 @@ public interface ByteHandler {
    */
   InputStream deserialize(InputStream toDeserialize);
 
+  /**
+   * Serialize a whole block of bytes, for instance a page. Block oriented handlers override this
+   * method to avoid the allocation of streams. The returned buffer might be reused by the next
+   * invocation on the current thread, thus it must be consumed beforehand.
+   *
+   * @param toSerialize the remaining bytes of the buffer are serialized, its position isn't changed
+   * @return a buffer, which holds the result of the serialization between its position and its
+   *         limit
+   * @throws UncheckedIOException if a byte handling exception occurs
+   */
+  default ByteBuffer serialize(final ByteBuffer toSerialize) {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream(toSerialize.remaining());
+    try (final OutputStream pipeData = serialize(output)) {
+      final ByteBuffer source = toSerialize.duplicate();
+      if (source.hasArray()) {
+        pipeData.write(source.array(), source.arrayOffset() + source.position(),
+            source.remaining());
+      } else {
+        final byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+        pipeData.write(bytes);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return ByteBuffer.wrap(output.toByteArray());
+  }
+
+  /**
+   * Deserialize a whole block of bytes, for instance a page. Block oriented handlers override this
+   * method to avoid the allocation of streams. The returned buffer might be reused by the next
+   * invocation on the current thread, thus it must be consumed beforehand.
+   *
+   * @param toDeserialize the remaining bytes of the buffer are deserialized, its position isn't
+   *        changed
+   * @return a buffer, which holds the result of the deserialization between its position and its
+   *         limit
+   * @throws UncheckedIOException if a byte handling exception occurs
+   */
+  default ByteBuffer deserialize(final ByteBuffer toDeserialize) {
+    try (final InputStream pipeData =
+        deserialize(new ByteBufferInputStream(toDeserialize.duplicate()))) {
+      return ByteBuffer.wrap(ByteStreams.toByteArray(pipeData));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   /**
    * Method to retrieve a new instance.
    *
@@ -32,8 +32,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Deflater;
 import javax.annotation.Nonnull;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
@@ -66,6 +68,52 @@ public enum ByteHandlerKind {
     }
   },
 
+  SNAPPY_BLOCK_COMPRESSOR(SnappyBlockCompressor.class) {
+    @Override
+    public ByteHandler deserialize(JsonReader reader) {
+      return callDefaultConstructor(reader, SnappyBlockCompressor.class.getName());
+    }
+
+    @Override
+    public void serialize(ByteHandler byteHandler, JsonWriter writer) throws IOException {
+      serializeDefaultConstructor(byteHandler, writer);
+    }
+  },
+
+  DEFLATE_DICTIONARY_COMPRESSOR(DeflateDictionaryCompressor.class) {
+    @Override
+    public ByteHandler deserialize(JsonReader reader) throws IOException {
+      int level = Deflater.DEFAULT_COMPRESSION;
+      byte[] dictionary = new byte[0];
+      reader.beginObject();
+      while (reader.hasNext()) {
+        final String name = reader.nextName();
+        if (name.equals("level")) {
+          level = reader.nextInt();
+        } else if (name.equals("dictionary")) {
+          dictionary = Base64.getDecoder().decode(reader.nextString());
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      return new DeflateDictionaryCompressor(dictionary, level);
+    }
+
+    @Override
+    public void serialize(ByteHandler byteHandler, JsonWriter writer) throws IOException {
+      final DeflateDictionaryCompressor compressor = (DeflateDictionaryCompressor) byteHandler;
+      writer.beginObject();
+      writer.name(byteHandler.getClass().getName());
+      writer.beginObject();
+      writer.name("level").value(compressor.getLevel());
+      writer.name("dictionary")
+            .value(Base64.getEncoder().encodeToString(compressor.getDictionary()));
+      writer.endObject();
+      writer.endObject();
+    }
+  },
+
   ENCRYPTOR(Encryptor.class) {
     @Override
     public ByteHandler deserialize(JsonReader reader) {
@@ -0,0 +1,141 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression/decompression of whole pages with an optional preset dictionary, which is
+ * trained from sample record pages of a resource (see {@link DictionaryTrainer}). As record pages
+ * are small, most of their content is typically found in the dictionary, which improves the
+ * compression ratio considerably. The {@link Deflater} and {@link Inflater} instances as well as
+ * the output buffers are reused per thread.
+ *
+ * <p>
+ * A compressed page consists of its uncompressed length followed by the zlib stream. The
+ * dictionary is stored in the resource configuration and can't be changed once pages have been
+ * compressed with it.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class DeflateDictionaryCompressor extends AbstractBlockByteHandler {
+
+  /** The preset dictionary, might be empty. */
+  private final byte[] mDictionary;
+
+  /** The compression level. */
+  private final int mLevel;
+
+  /** Compressor of each thread. */
+  private final ThreadLocal<Deflater> mDeflater;
+
+  /** Decompressor of each thread. */
+  private final ThreadLocal<Inflater> mInflater;
+
+  /**
+   * Constructor without a dictionary, using the default compression level.
+   */
+  public DeflateDictionaryCompressor() {
+    this(new byte[0], Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param dictionary the preset dictionary, might be empty
+   * @param level the compression level ({@code -1} for the default level or {@code 0}-{@code 9})
+   */
+  public DeflateDictionaryCompressor(final byte[] dictionary, final int level) {
+    checkArgument(level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+        "level must be between -1 and 9!");
+    mDictionary = checkNotNull(dictionary).clone();
+    mLevel = level;
+    mDeflater = ThreadLocal.withInitial(() -> new Deflater(mLevel));
+    mInflater = ThreadLocal.withInitial(Inflater::new);
+  }
+
+  /**
+   * Get the preset dictionary.
+   *
+   * @return a copy of the dictionary
+   */
+  public byte[] getDictionary() {
+    return mDictionary.clone();
+  }
+
+  /**
+   * Get the compression level.
+   *
+   * @return the compression level
+   */
+  public int getLevel() {
+    return mLevel;
+  }
+
+  @Override
+  protected ByteBuffer serialize(final byte[] input, final int offset, final int length,
+      final ReusableBuffer output) {
+    final Deflater deflater = mDeflater.get();
+    deflater.reset();
+    if (mDictionary.length > 0) {
+      deflater.setDictionary(mDictionary);
+    }
+    deflater.setInput(input, offset, length);
+    deflater.finish();
+
+    // Upper bound of the deflate format plus the zlib header and the length.
+    byte[] compressed = output.get(length + (length >> 12) + (length >> 14) + 64);
+    ByteBuffer.wrap(compressed).putInt(length);
+    int compressedLength = Integer.BYTES;
+    while (!deflater.finished()) {
+      if (compressedLength == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      compressedLength +=
+          deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+    }
+    return ByteBuffer.wrap(compressed, 0, compressedLength);
+  }
+
+  @Override
+  protected ByteBuffer deserialize(final byte[] input, final int offset, final int length,
+      final ReusableBuffer output) throws IOException {
+    final int uncompressedLength = ByteBuffer.wrap(input, offset, length).getInt();
+    final byte[] uncompressed = output.get(uncompressedLength);
+    final Inflater inflater = mInflater.get();
+    inflater.reset();
+    inflater.setInput(input, offset + Integer.BYTES, length - Integer.BYTES);
+
+    try {
+      int inflated = 0;
+      while (inflated < uncompressedLength) {
+        final int count =
+            inflater.inflate(uncompressed, inflated, uncompressedLength - inflated);
+        if (count == 0) {
+          if (inflater.needsDictionary()) {
+            inflater.setDictionary(mDictionary);
+          } else if (inflater.finished() || inflater.needsInput()) {
+            throw new IOException("Truncated page!");
+          }
+        }
+        inflated += count;
+      }
+    } catch (final DataFormatException e) {
+      throw new IOException(e);
+    }
+
+    return ByteBuffer.wrap(uncompressed, 0, uncompressedLength);
+  }
+
+  @Override
+  public ByteHandler getInstance() {
+    return new DeflateDictionaryCompressor(mDictionary, mLevel);
+  }
+}
@@ -0,0 +1,131 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnegative;
+
+/**
+ * Trains a preset dictionary for the {@link DeflateDictionaryCompressor} from sample pages, for
+ * instance the serialized record pages of a resource.
+ *
+ * <p>
+ * Segments of the samples are scored by the number of distinct samples, which contain their
+ * {@code k}-grams. The best segments are concatenated, whereas the best segment is placed at the
+ * end of the dictionary, as Deflate encodes nearer matches with fewer bits.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class DictionaryTrainer {
+
+  /** Maximum size of a Deflate dictionary (the size of the sliding window). */
+  public static final int MAX_DICTIONARY_SIZE = 1 << 15;
+
+  /** Length of the segments, which are selected. */
+  private static final int SEGMENT_LENGTH = 64;
+
+  /** Length of the k-grams, which are counted. */
+  private static final int K = 8;
+
+  /**
+   * Private constructor.
+   */
+  private DictionaryTrainer() {
+    throw new AssertionError("May never be instantiated!");
+  }
+
+  /**
+   * Train a dictionary.
+   *
+   * @param samples the sample pages
+   * @param size the maximum size of the dictionary
+   * @return the dictionary, which is empty if the samples are too small
+   */
+  public static byte[] train(final List<byte[]> samples, final @Nonnegative int size) {
+    checkNotNull(samples);
+    checkArgument(size >= 0 && size <= MAX_DICTIONARY_SIZE,
+        "size must be between 0 and " + MAX_DICTIONARY_SIZE + "!");
+
+    // Count the number of samples, which contain a k-gram.
+    final Map<Long, Integer> frequencies = new HashMap<>();
+    for (final byte[] sample : samples) {
+      final Set<Long> kGrams = new HashSet<>();
+      for (int i = 0; i + K <= sample.length; i++) {
+        kGrams.add(kGram(sample, i));
+      }
+      for (final Long kGram : kGrams) {
+        frequencies.merge(kGram, 1, Integer::sum);
+      }
+    }
+
+    // Score the segments of all samples.
+    final List<Segment> segments = new ArrayList<>();
+    for (final byte[] sample : samples) {
+      for (int offset = 0; offset + SEGMENT_LENGTH <= sample.length; offset += SEGMENT_LENGTH) {
+        long score = 0;
+        for (int i = offset; i + K <= offset + SEGMENT_LENGTH; i++) {
+          // k-grams, which only occur in a single sample, don't help.
+          score += frequencies.getOrDefault(kGram(sample, i), 0) - 1;
+        }
+        if (score > 0) {
+          segments.add(new Segment(sample, offset, score));
+        }
+      }
+    }
+    segments.sort(Comparator.comparingLong((Segment segment) -> segment.mScore).reversed());
+
+    // Select the best segments, skipping duplicates and fill the dictionary from the end.
+    final int count = Math.min(segments.size(), size / SEGMENT_LENGTH);
+    final byte[] dictionary = new byte[count * SEGMENT_LENGTH];
+    final Set<String> selected = new HashSet<>();
+    int position = dictionary.length;
+    for (final Segment segment : segments) {
+      if (position == 0) {
+        break;
+      }
+      final String content = new String(segment.mSample, segment.mOffset, SEGMENT_LENGTH,
+          StandardCharsets.ISO_8859_1);
+      if (selected.add(content)) {
+        position -= SEGMENT_LENGTH;
+        System.arraycopy(segment.mSample, segment.mOffset, dictionary, position, SEGMENT_LENGTH);
+      }
+    }
+
+    final byte[] result = new byte[dictionary.length - position];
+    System.arraycopy(dictionary, position, result, 0, result.length);
+    return result;
+  }
+
+  // Get the k-gram, which starts at the given offset.
+  private static long kGram(final byte[] sample, final int offset) {
+    long kGram = 0;
+    for (int i = offset; i < offset + K; i++) {
+      kGram = (kGram << 8) | (sample[i] & 0xFF);
+    }
+    return kGram;
+  }
+
+  /** A scored segment of a sample. */
+  private static final class Segment {
+    private final byte[] mSample;
+
+    private final int mOffset;
+
+    private final long mScore;
+
+    Segment(final byte[] sample, final int offset, final long score) {
+      mSample = sample;
+      mOffset = offset;
+      mScore = score;
+    }
+  }
+}
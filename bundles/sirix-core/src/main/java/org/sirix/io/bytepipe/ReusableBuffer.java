@@ -0,0 +1,33 @@
+package org.sirix.io.bytepipe;
+
+/**
+ * A byte array per thread, which grows on demand and is reused by block oriented byte handlers, in
+ * order to avoid allocations per page.
+ *
+ * @author agent
+ *
+ */
+final class ReusableBuffer {
+
+  /** Initial length of the buffers. */
+  private static final int INITIAL_LENGTH = 1 << 16;
+
+  /** The buffer of each thread. */
+  private final ThreadLocal<byte[]> mBuffer =
+      ThreadLocal.withInitial(() -> new byte[INITIAL_LENGTH]);
+
+  /**
+   * Get the buffer of the current thread.
+   *
+   * @param minLength the minimum length of the buffer
+   * @return the buffer
+   */
+  byte[] get(final int minLength) {
+    byte[] buffer = mBuffer.get();
+    if (buffer.length < minLength) {
+      buffer = new byte[Math.max(minLength, buffer.length * 2)];
+      mBuffer.set(buffer);
+    }
+    return buffer;
+  }
+}
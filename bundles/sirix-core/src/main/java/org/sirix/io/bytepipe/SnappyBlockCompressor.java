@@ -0,0 +1,37 @@
+package org.sirix.io.bytepipe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy compression/decompression of whole pages in the raw block format, that is without the
+ * framing of the {@link SnappyCompressor} streams. Compressed pages are written to and
+ * decompressed into reusable buffers, thus no memory is allocated per page.
+ *
+ * @author agent
+ *
+ */
+public final class SnappyBlockCompressor extends AbstractBlockByteHandler {
+
+  @Override
+  protected ByteBuffer serialize(final byte[] input, final int offset, final int length,
+      final ReusableBuffer output) throws IOException {
+    final byte[] compressed = output.get(Snappy.maxCompressedLength(length));
+    final int compressedLength = Snappy.compress(input, offset, length, compressed, 0);
+    return ByteBuffer.wrap(compressed, 0, compressedLength);
+  }
+
+  @Override
+  protected ByteBuffer deserialize(final byte[] input, final int offset, final int length,
+      final ReusableBuffer output) throws IOException {
+    final byte[] uncompressed = output.get(Snappy.uncompressedLength(input, offset, length));
+    final int uncompressedLength = Snappy.uncompress(input, offset, length, uncompressed, 0);
+    return ByteBuffer.wrap(uncompressed, 0, uncompressedLength);
+  }
+
+  @Override
+  public ByteHandler getInstance() {
+    return new SnappyBlockCompressor();
+  }
+}
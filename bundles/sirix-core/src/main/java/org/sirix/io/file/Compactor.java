@@ -0,0 +1,398 @@
+package org.sirix.io.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnegative;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.Reader;
+import org.sirix.io.RevisionTimestamps;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.UberPage;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compacts the append-only data file of a resource. All pages, which are reachable from the
+ * retained revisions, are copied in page-tree order (children before their parents) into a new
+ * data file, whereas the references are rewritten to the new offsets. Pages, which are only
+ * reachable from revisions, which are not retained anymore, or which have been written by aborted
+ * commits, are discarded. The revision root pages of removed revisions are denoted by
+ * {@link Constants#NULL_ID_LONG} in the revisions offset file, such that revision numbers don't
+ * change.
+ *
+ * <p>
+ * Record pages, which are referenced by a retained revision, keep the previous fragments, which
+ * are needed to reconstruct them, that is up to the number of revisions to restore until a full
+ * fragment is found. Elder fragments are discarded and the copied previous fragments don't keep
+ * any previous fragments themselves, unless they are referenced by a retained revision as well.
+ * </p>
+ *
+ * <p>
+ * Once the compacted files have been written and forced to the storage device, a marker file is
+ * created and the compacted files replace the current files by atomic renames. Readers, which have
+ * opened the previous files keep reading them until they are closed. If the process crashes, the
+ * swap is either finished or the compacted files are discarded by {@link #recover(Path)}.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class Compactor {
+
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(Compactor.class));
+
+  /** Suffix of the compacted files, until they replace the current files. */
+  static final String COMPACTED_SUFFIX = ".compacted";
+
+  /** Name of the file, which denotes that the compacted files are complete. */
+  static final String MARKER_FILENAME = "sirix.compaction";
+
+  /** The files, which are replaced by a compaction. */
+  private static final String[] FILENAMES =
+      {FileStorage.REVISIONS_FILENAME, RevisionTimestamps.FILENAME, FileStorage.FILENAME};
+
+  /**
+   * Creates the writer of the compacted files.
+   */
+  @FunctionalInterface
+  public interface WriterFactory {
+    /**
+     * Create the writer.
+     *
+     * @param dataFile the compacted data file
+     * @param revisionsOffsetFile the compacted revisions offset file
+     * @param revisionTimestamps the compacted commit timestamps of the revisions
+     * @return the writer
+     * @throws IOException if the files can't be opened
+     */
+    Writer create(Path dataFile, Path revisionsOffsetFile, RevisionTimestamps revisionTimestamps)
+        throws IOException;
+  }
+
+  /** The directory, which contains the data file. */
+  private final Path mDirectory;
+
+  /** Reads the pages of the current data file. */
+  private final Reader mReader;
+
+  /** Used to deserialize the pages. */
+  private final PageReadTrx mPageReadTrx;
+
+  /** Maps the offsets of the copied pages in the current data file to their new offsets. */
+  private final Map<Long, Long> mRelocations;
+
+  /**
+   * Maps the offsets of record page fragments, which are only copied as previous fragments of
+   * other record pages and thus without their own previous fragments, to their new offsets.
+   */
+  private final Map<Long, Long> mFragmentRelocations;
+
+  /** The offsets of the copied record page fragments in the current data file, which are full. */
+  private final Set<Long> mFullFragments;
+
+  /** The maximum number of fragments, which are read to reconstruct a record page. */
+  private int mFragmentsToRead;
+
+  /** Writes the compacted data file. */
+  private Writer mWriter;
+
+  /** The oldest retained revision. */
+  private int mOldestRetainedRevision;
+
+  /**
+   * Constructor.
+   *
+   * @param directory the directory, which contains the data file
+   * @param reader reads the pages of the current data file
+   * @param pageReadTrx used to deserialize the pages
+   */
+  public Compactor(final Path directory, final Reader reader, final PageReadTrx pageReadTrx) {
+    mDirectory = checkNotNull(directory);
+    mReader = checkNotNull(reader);
+    mPageReadTrx = checkNotNull(pageReadTrx);
+    mRelocations = new HashMap<>();
+    mFragmentRelocations = new HashMap<>();
+    mFullFragments = new HashSet<>();
+  }
+
+  /**
+   * Compact the data file and replace the current files.
+   *
+   * @param oldestRetainedRevision the oldest revision to retain
+   * @param revisionTimestamps the current commit timestamps of the revisions
+   * @param writerFactory creates the writer of the compacted files
+   * @return the number of copied pages
+   * @throws SirixIOException if an I/O error occurs
+   */
+  public int compact(final @Nonnegative int oldestRetainedRevision,
+      final RevisionTimestamps revisionTimestamps, final WriterFactory writerFactory) {
+    checkArgument(oldestRetainedRevision >= 0, "oldestRetainedRevision must be >= 0!");
+    checkNotNull(revisionTimestamps);
+    checkNotNull(writerFactory);
+    mOldestRetainedRevision = oldestRetainedRevision;
+    mFragmentsToRead = fragmentsToRead();
+    mRelocations.clear();
+    mFragmentRelocations.clear();
+    mFullFragments.clear();
+
+    try {
+      // Discard the files of an interrupted compaction.
+      recover(mDirectory);
+
+      final Path dataFile = compacted(FileStorage.FILENAME);
+      final Path revisionsOffsetFile = compacted(FileStorage.REVISIONS_FILENAME);
+
+      // Removed revisions keep their timestamps, but have no revision root page anymore.
+      try (final FileChannel channel = FileChannel.open(revisionsOffsetFile,
+          StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        final ByteBuffer offsets = ByteBuffer.allocate(oldestRetainedRevision * Long.BYTES);
+        while (offsets.hasRemaining()) {
+          offsets.putLong(Constants.NULL_ID_LONG);
+        }
+        offsets.flip();
+        while (offsets.hasRemaining()) {
+          channel.write(offsets);
+        }
+      }
+
+      try (final RevisionTimestamps compactedTimestamps =
+          new RevisionTimestamps(compacted(RevisionTimestamps.FILENAME))) {
+        for (int revision = 0; revision < oldestRetainedRevision; revision++) {
+          compactedTimestamps.set(revision, revisionTimestamps.getTimestamp(revision));
+        }
+
+        try (final Writer writer =
+            writerFactory.create(dataFile, revisionsOffsetFile, compactedTimestamps)) {
+          mWriter = writer;
+
+          final UberPage uberPage = (UberPage) mReader.readUberPageReference().getPage();
+          final PageReference reference = uberPage.getIndirectPageReference();
+          reference.setKey(relocate(reference.getKey()));
+          // The previous uber pages are discarded, thus the data file can't be truncated to a
+          // revision before the compacted one.
+          uberPage.setPreviousUberPageKey(Constants.NULL_ID_LONG);
+
+          final PageReference uberPageReference = new PageReference();
+          uberPageReference.setPage(uberPage);
+          writer.writeUberPageReference(uberPageReference);
+        } finally {
+          mWriter = null;
+        }
+      }
+
+      for (final String filename : FILENAMES) {
+        force(compacted(filename));
+      }
+
+      // From now on the compaction is complete and the swap is finished by a recovery.
+      Files.createFile(mDirectory.resolve(MARKER_FILENAME));
+      recover(mDirectory);
+
+      final int pages = mRelocations.size() + mFragmentRelocations.size();
+      LOGWRAPPER.info("Compacted " + mDirectory + ": copied " + pages
+          + " pages, removed revisions before " + oldestRetainedRevision + ".");
+
+      return pages;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Get the maximum number of fragments, which are read to reconstruct a record page in the
+   * retained revisions and the revisions, which are committed on top of them.
+   *
+   * @return the maximum number of fragments including the most recent one
+   */
+  private int fragmentsToRead() {
+    final ResourceConfiguration config = mPageReadTrx.getResourceManager().getResourceConfig();
+    final int revsToRestore = config.numberOfRevisionsToRestore;
+    final int mostRecentRevision = mPageReadTrx.getRevisionNumber();
+    int fragmentsToRead = 1;
+    // The number of revisions to read is periodic or grows until it reaches revsToRestore.
+    for (int revision = mostRecentRevision; revision <= mostRecentRevision + revsToRestore;
+        revision++) {
+      fragmentsToRead = Math.max(fragmentsToRead,
+          config.revisioningType.getRevisionRoots(revision, revsToRestore).length);
+    }
+    return fragmentsToRead;
+  }
+
+  /**
+   * Copy the page with the given offset and all pages, which are reachable from it, if they
+   * haven't been copied before.
+   *
+   * @param key the offset of the page in the current data file
+   * @return the offset of the page in the compacted data file or {@link Constants#NULL_ID_LONG} if
+   *         the page isn't retained
+   */
+  private long relocate(final long key) {
+    if (key == Constants.NULL_ID_LONG) {
+      return key;
+    }
+
+    final Long relocatedKey = mRelocations.get(key);
+    if (relocatedKey != null) {
+      return relocatedKey;
+    }
+
+    final Page page = read(key);
+
+    final long newKey;
+    if (page instanceof RevisionRootPage
+        && ((RevisionRootPage) page).getRevision() < mOldestRetainedRevision) {
+      newKey = Constants.NULL_ID_LONG;
+    } else {
+      if (page instanceof UnorderedKeyValuePage) {
+        final UnorderedKeyValuePage recordPage = (UnorderedKeyValuePage) page;
+        recordPage.relocatePreviousFragments(
+            relocatePreviousFragments(recordPage), this::relocateFragment);
+        relocateOverflowPages(recordPage);
+      } else {
+        for (final PageReference reference : page.getReferences()) {
+          if (reference != null) {
+            reference.setKey(relocate(reference.getKey()));
+          }
+        }
+      }
+
+      newKey = write(page);
+    }
+
+    mRelocations.put(key, newKey);
+    return newKey;
+  }
+
+  /**
+   * Copy a previous fragment of a record page, if it hasn't been copied before. A fragment, which
+   * is only needed to reconstruct another record page, is copied without its previous fragments.
+   *
+   * @param key the offset of the fragment in the current data file
+   * @return the offset of the fragment in the compacted data file
+   */
+  private long relocateFragment(final long key) {
+    // A copy of a record page, which is referenced by a retained revision, serves as well.
+    final Long relocatedKey = mRelocations.get(key);
+    if (relocatedKey != null) {
+      return relocatedKey;
+    }
+    final Long relocatedFragmentKey = mFragmentRelocations.get(key);
+    if (relocatedFragmentKey != null) {
+      return relocatedFragmentKey;
+    }
+
+    final UnorderedKeyValuePage recordPage = (UnorderedKeyValuePage) read(key);
+    recordPage.relocatePreviousFragments(0, this::relocateFragment);
+    relocateOverflowPages(recordPage);
+
+    final long newKey = write(recordPage);
+    mFragmentRelocations.put(key, newKey);
+    return newKey;
+  }
+
+  /**
+   * Copy the previous fragments of a record page, which are needed to reconstruct it, that is up
+   * to the number of revisions to restore until a full fragment is found.
+   *
+   * @param recordPage the most recent fragment of the record page
+   * @return the number of copied previous fragments
+   */
+  private int relocatePreviousFragments(final UnorderedKeyValuePage recordPage) {
+    if (recordPage.size() == Constants.NDP_NODE_COUNT) {
+      return 0;
+    }
+
+    final long[] previousFragmentKeys = recordPage.getPreviousFragmentKeys();
+    final int numberOfFragments = Math.min(previousFragmentKeys.length, mFragmentsToRead - 1);
+    for (int index = 0; index < numberOfFragments; index++) {
+      relocateFragment(previousFragmentKeys[index]);
+      if (mFullFragments.contains(previousFragmentKeys[index])) {
+        return index + 1;
+      }
+    }
+    return numberOfFragments;
+  }
+
+  private void relocateOverflowPages(final UnorderedKeyValuePage recordPage) {
+    for (final Map.Entry<Long, PageReference> entry : recordPage.referenceEntrySet()) {
+      entry.getValue().setKey(relocate(entry.getValue().getKey()));
+    }
+  }
+
+  private Page read(final long key) {
+    final PageReference reference = new PageReference();
+    reference.setKey(key);
+    final Page page = mReader.read(reference, mPageReadTrx);
+    if (page instanceof UnorderedKeyValuePage
+        && ((UnorderedKeyValuePage) page).size() == Constants.NDP_NODE_COUNT) {
+      mFullFragments.add(key);
+    }
+    return page;
+  }
+
+  private long write(final Page page) {
+    final PageReference reference = new PageReference();
+    reference.setPage(page);
+    mWriter.write(reference);
+    return reference.getKey();
+  }
+
+  private Path compacted(final String filename) {
+    return mDirectory.resolve(filename + COMPACTED_SUFFIX);
+  }
+
+  private static void force(final Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Either finish the swap of a complete compaction or discard the files of an interrupted
+   * compaction. Must be invoked before the files of a resource are opened.
+   *
+   * @param directory the directory, which contains the data file
+   * @throws SirixIOException if an I/O error occurs
+   */
+  public static void recover(final Path directory) {
+    final Path marker = directory.resolve(MARKER_FILENAME);
+    try {
+      if (Files.exists(marker)) {
+        for (final String filename : FILENAMES) {
+          final Path compacted = directory.resolve(filename + COMPACTED_SUFFIX);
+          if (Files.exists(compacted)) {
+            Files.move(compacted, directory.resolve(filename), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+          }
+        }
+        Files.delete(marker);
+      } else {
+        for (final String filename : FILENAMES) {
+          Files.deleteIfExists(directory.resolve(filename + COMPACTED_SUFFIX));
+        }
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+}
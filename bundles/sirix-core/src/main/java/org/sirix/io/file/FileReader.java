@@ -24,13 +24,22 @@ package org.sirix.io.file;
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
-import org.sirix.io.Reader;
+import org.sirix.io.ByteBufferInputStream;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.FormatVersion;
+import org.sirix.io.PageBytesReader;
+import org.sirix.io.PageChecksums;
+import org.sirix.io.Readers;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersister;
 import org.sirix.page.PageReference;
@@ -38,30 +47,30 @@ import org.sirix.page.RevisionRootPage;
 import org.sirix.page.SerializationType;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
+import org.sirix.settings.Constants;
 
 /**
  * File Reader. Used for {@link PageReadTrx} to provide read only access on a RandomAccessFile.
+ * Pages are read by positional reads, thus a reader can be used by multiple threads concurrently.
  *
  * @author Marc Kramis, Seabix
  * @author Sebastian Graf, University of Konstanz
  * @author Johannes Lichtenberger
  *
  */
-public final class FileReader implements Reader {
+public final class FileReader implements PageBytesReader {
 
   /** Beacon of first references. */
   final static int FIRST_BEACON = 12;
 
-  /** Beacon of the other references. */
-  final static int OTHER_BEACON = 4;
+  /** Beacon of the other references, that is the length and the checksum of a page. */
+  final static int OTHER_BEACON = 8;
 
   /** Inflater to decompress. */
   final ByteHandler mByteHandler;
 
-  /** The hash function used to hash pages/page fragments. */
-  final HashFunction mHashFunction;
+  /** Determines which pages are verified against their checksum. */
+  private final ChecksumVerification mVerification;
 
   /** Data file. */
   private final RandomAccessFile mDataFile;
@@ -81,12 +90,15 @@ public final class FileReader implements Reader {
    * @param dataFile the data file
    * @param revisionsOffsetFile the file, which holds pointers to the revision root pages
    * @param handler {@link ByteHandler} instance
+   * @param type the serialization type (for the transaction log or the data file)
+   * @param pagePersistenter transforms byte-arrays into in-memory pages
+   * @param verification determines which pages are verified against their checksum
    * @throws SirixIOException if something bad happens
    */
   public FileReader(final RandomAccessFile dataFile, final RandomAccessFile revisionsOffsetFile,
       final ByteHandler handler, final SerializationType type,
-      final PagePersister pagePersistenter) {
-    mHashFunction = Hashing.sha256();
+      final PagePersister pagePersistenter, final ChecksumVerification verification) {
+    mVerification = checkNotNull(verification);
     mDataFile = checkNotNull(dataFile);
     mRevisionsOffsetFile = type == SerializationType.DATA
         ? checkNotNull(revisionsOffsetFile)
@@ -101,40 +113,138 @@ public final class FileReader implements Reader {
       final @Nullable PageReadTrx pageReadTrx) {
     try {
       // Read page from file.
-      switch (mType) {
-        case DATA:
-          mDataFile.seek(reference.getKey());
-          break;
-        case TRANSACTION_INTENT_LOG:
-          mDataFile.seek(reference.getPersistentLogKey());
-          break;
-        default:
-          // Must not happen.
-      }
+      final byte[] page = readPage(offset(reference));
+      reference.setLength(page.length + FileReader.OTHER_BEACON);
 
-      final int dataLength = mDataFile.readInt();
-      reference.setLength(dataLength + FileReader.OTHER_BEACON);
-      final byte[] page = new byte[dataLength];
-      mDataFile.read(page);
+      return deserialize(page, pageReadTrx);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public byte[] readPageBytes(final @Nonnull PageReference reference) {
+    try {
+      final byte[] page = readPage(offset(reference));
+      reference.setLength(page.length + FileReader.OTHER_BEACON);
 
       // Perform byte operations.
-      final DataInputStream input =
-          new DataInputStream(mByteHandler.deserialize(new ByteArrayInputStream(page)));
+      final ByteBuffer pageBytes = mByteHandler.deserialize(ByteBuffer.wrap(page));
+      final byte[] bytes = new byte[pageBytes.remaining()];
+      pageBytes.get(bytes);
+      return bytes;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
 
-      // Return reader required to instantiate and deserialize page.
-      return mPagePersiter.deserializePage(input, pageReadTrx, mType);
+  @Override
+  public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+    try {
+      return mPagePersiter.deserializePage(
+          new DataInputStream(new ByteArrayInputStream(pageBytes)), pageReadTrx, mType);
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
   }
 
+  /**
+   * Get the offset of a page in the file.
+   *
+   * @param reference reference to the page
+   * @return the offset
+   */
+  private long offset(final PageReference reference) {
+    switch (mType) {
+      case DATA:
+        return reference.getKey();
+      case TRANSACTION_INTENT_LOG:
+        return reference.getPersistentLogKey();
+      default:
+        // Must not happen.
+        throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Deserialize a page.
+   *
+   * @param page the serialized page
+   * @param pageReadTrx the page reading transaction
+   * @return the deserialized page
+   * @throws IOException if an I/O error occurs
+   */
+  private Page deserialize(final byte[] page, final @Nullable PageReadTrx pageReadTrx)
+      throws IOException {
+    // Perform byte operations.
+    final DataInputStream input = new DataInputStream(
+        new ByteBufferInputStream(mByteHandler.deserialize(ByteBuffer.wrap(page))));
+
+    // Return reader required to instantiate and deserialize page.
+    return mPagePersiter.deserializePage(input, pageReadTrx, mType);
+  }
+
+  /**
+   * Read the page, which is stored at the given position of the data file, and verify it against
+   * its checksum according to the verification policy.
+   *
+   * @param position the position of the page in the data file
+   * @return the page as it is stored, that is before the byte handler pipeline is applied
+   * @throws IOException if an I/O error occurs
+   * @throws SirixIOException if the checksum doesn't match
+   */
+  private byte[] readPage(final long position) throws IOException {
+    final ByteBuffer header = readFully(mDataFile.getChannel(), position, OTHER_BEACON);
+    final int dataLength = header.getInt();
+    final int checksum = header.getInt();
+    final byte[] page = readBytes(position + OTHER_BEACON, dataLength);
+
+    if (mVerification.verify()) {
+      PageChecksums.verify(page, checksum, position);
+    }
+
+    return page;
+  }
+
+  /**
+   * Read bytes at the given position of the data file. Uses positional reads, which don't change
+   * the file pointer, such that pages can be read concurrently.
+   *
+   * @param position the position in the data file
+   * @param length the number of bytes to read
+   * @return the bytes read
+   * @throws IOException if an I/O error occurs
+   */
+  private byte[] readBytes(final long position, final int length) throws IOException {
+    return readFully(mDataFile.getChannel(), position, length).array();
+  }
+
+  static ByteBuffer readFully(final FileChannel channel, final long position,
+      final int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException();
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  @Override
+  public CompletableFuture<Page> readAsync(final @Nonnull PageReference reference,
+      final @Nullable PageReadTrx pageReadTrx) {
+    return Readers.readAsync(() -> read(reference, pageReadTrx));
+  }
+
   @Override
   public PageReference readUberPageReference() {
     final PageReference uberPageReference = new PageReference();
     try {
       // Read primary beacon.
-      mDataFile.seek(0);
-      uberPageReference.setKey(mDataFile.readLong());
+      final ByteBuffer header = readFully(mDataFile.getChannel(), 0, FIRST_BEACON);
+      uberPageReference.setKey(header.getLong());
+      FormatVersion.verify(header.getInt());
 
       final UberPage page = (UberPage) read(uberPageReference, null);
       uberPageReference.setPage(page);
@@ -147,19 +257,15 @@ public final class FileReader implements Reader {
   @Override
   public RevisionRootPage readRevisionRootPage(final int revision, final PageReadTrx pageReadTrx) {
     try {
-      mRevisionsOffsetFile.seek(revision * 8);
-      mDataFile.seek(mRevisionsOffsetFile.readLong());
+      final long offset =
+          readFully(mRevisionsOffsetFile.getChannel(), revision * 8L, Long.BYTES).getLong();
 
-      final int dataLength = mDataFile.readInt();
-      final byte[] page = new byte[dataLength];
-      mDataFile.read(page);
-
-      // Perform byte operations.
-      final DataInputStream input =
-          new DataInputStream(mByteHandler.deserialize(new ByteArrayInputStream(page)));
+      if (offset == Constants.NULL_ID_LONG) {
+        throw new SirixIOException(
+            "Revision " + revision + " has been removed by the retention policy!");
+      }
 
-      // Return reader required to instantiate and deserialize page.
-      return (RevisionRootPage) mPagePersiter.deserializePage(input, pageReadTrx, mType);
+      return (RevisionRootPage) deserialize(readPage(offset), pageReadTrx);
     } catch (IOException e) {
       throw new SirixIOException(e);
     }
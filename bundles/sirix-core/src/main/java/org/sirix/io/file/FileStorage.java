@@ -26,10 +26,15 @@ import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.FileBackedStorage;
+import org.sirix.io.PageBytesReader;
+import org.sirix.io.PageBytesWriter;
 import org.sirix.io.Reader;
-import org.sirix.io.Storage;
-import org.sirix.io.Writer;
+import org.sirix.io.RevisionTimestamps;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersister;
@@ -41,13 +46,13 @@ import org.sirix.page.SerializationType;
  * @author Sebastian Graf, University of Konstanz.
  *
  */
-public final class FileStorage implements Storage {
+public final class FileStorage implements FileBackedStorage {
 
   /** Data file name. */
-  private static final String FILENAME = "sirix.data";
+  static final String FILENAME = "sirix.data";
 
   /** Revisions file name. */
-  private static final String REVISIONS_FILENAME = "sirix.revisions";
+  static final String REVISIONS_FILENAME = "sirix.revisions";
 
   /** Instance to storage. */
   private final Path mFile;
@@ -55,6 +60,18 @@ public final class FileStorage implements Storage {
   /** Byte handler pipeline. */
   private final ByteHandlePipeline mByteHandler;
 
+  /** Determines when the files are forced to the storage device. */
+  private final DurabilityMode mDurabilityMode;
+
+  /** The group commit window in milliseconds. */
+  private final long mGroupCommitWindow;
+
+  /** Determines which pages are verified against their checksum on read. */
+  private final ChecksumVerification mVerification;
+
+  /** The commit timestamps of the revisions, opened on demand. */
+  private RevisionTimestamps mRevisionTimestamps;
+
   /**
    * Constructor.
    *
@@ -65,17 +82,22 @@ public final class FileStorage implements Storage {
     assert resourceConfig != null : "resourceConfig must not be null!";
     mFile = resourceConfig.resourcePath;
     mByteHandler = resourceConfig.byteHandlePipeline;
+    mDurabilityMode = resourceConfig.durabilityMode;
+    mGroupCommitWindow = resourceConfig.groupCommitWindow;
+    mVerification = resourceConfig.checksumVerification;
+    Compactor.recover(getDataFilePath().getParent());
   }
 
   @Override
-  public Reader createReader() throws SirixIOException {
+  public PageBytesReader createReader() throws SirixIOException {
     try {
       final Path dataFilePath = createDirectoriesAndFile();
       final Path revisionsOffsetFilePath = getRevisionFilePath();
 
       return new FileReader(new RandomAccessFile(dataFilePath.toFile(), "r"),
           new RandomAccessFile(revisionsOffsetFilePath.toFile(), "r"),
-          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister());
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mVerification);
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
@@ -93,22 +115,26 @@ public final class FileStorage implements Storage {
   }
 
   @Override
-  public Writer createWriter() throws SirixIOException {
+  public PageBytesWriter createWriter() throws SirixIOException {
     try {
       final Path dataFilePath = createDirectoriesAndFile();
       final Path revisionsOffsetFilePath = getRevisionFilePath();
 
       return new FileWriter(new RandomAccessFile(dataFilePath.toFile(), "rw"),
           new RandomAccessFile(revisionsOffsetFilePath.toFile(), "rw"),
-          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister());
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mDurabilityMode, mGroupCommitWindow, mVerification, getRevisionTimestamps());
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
   }
 
   @Override
-  public void close() {
-    // not used over here
+  public synchronized void close() {
+    if (mRevisionTimestamps != null) {
+      mRevisionTimestamps.close();
+      mRevisionTimestamps = null;
+    }
   }
 
   /**
@@ -144,4 +170,40 @@ public final class FileStorage implements Storage {
   public ByteHandler getByteHandler() {
     return mByteHandler;
   }
+
+  @Override
+  public synchronized RevisionTimestamps getRevisionTimestamps() {
+    if (mRevisionTimestamps == null) {
+      try {
+        mRevisionTimestamps = new RevisionTimestamps(
+            createDirectoriesAndFile().resolveSibling(RevisionTimestamps.FILENAME));
+      } catch (final IOException e) {
+        throw new SirixIOException(e);
+      }
+    }
+    return mRevisionTimestamps;
+  }
+
+  @Override
+  public synchronized void compact(final int oldestRetainedRevision,
+      final PageReadTrx pageReadTrx) {
+    final RevisionTimestamps revisionTimestamps = getRevisionTimestamps();
+    try (final Reader reader = new FileReader(new RandomAccessFile(getDataFilePath().toFile(), "r"),
+          new RandomAccessFile(getRevisionFilePath().toFile(), "r"),
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mVerification)) {
+      new Compactor(getDataFilePath().getParent(), reader, pageReadTrx).compact(
+          oldestRetainedRevision, revisionTimestamps,
+          (dataFile, revisionsOffsetFile, compactedTimestamps) -> new FileWriter(
+            new RandomAccessFile(dataFile.toFile(), "rw"),
+            new RandomAccessFile(revisionsOffsetFile.toFile(), "rw"),
+            new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+            DurabilityMode.NONE, 0, mVerification, compactedTimestamps));
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    } finally {
+      // The shared timestamps are reopened instead of closed, as the file might have been replaced.
+      revisionTimestamps.reopen();
+    }
+  }
 }
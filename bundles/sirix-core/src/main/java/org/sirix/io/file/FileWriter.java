@@ -28,9 +28,21 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.FileSyncer;
+import org.sirix.io.FormatVersion;
+import org.sirix.io.PageBytesWriter;
+import org.sirix.io.PageChecksums;
 import org.sirix.io.Reader;
+import org.sirix.io.RevisionTimestamps;
 import org.sirix.io.Writer;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersister;
@@ -43,11 +55,20 @@ import org.sirix.page.interfaces.Page;
 /**
  * File Writer for providing read/write access for file as a Sirix backend.
  *
+ * <p>
+ * Pages are appended to a buffer, which is written to the end of the data file in large sequential
+ * writes, once it exceeds {@link #FLUSH_THRESHOLD} bytes, before the offset of a revision root page
+ * is written to the revisions offset file, once the uber page is written or before a page is read.
+ * </p>
+ *
  * @author Marc Kramis, Seabix
  * @author Sebastian Graf, University of Konstanz
  *
  */
-public final class FileWriter extends AbstractForwardingReader implements Writer {
+public final class FileWriter extends AbstractForwardingReader implements PageBytesWriter {
+
+  /** Number of buffered bytes, which triggers a write to the data file. */
+  static final int FLUSH_THRESHOLD = 1 << 22;
 
   /** Random access to work on. */
   private final RandomAccessFile mDataFile;
@@ -61,6 +82,27 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
 
   private final PagePersister mPagePersister;
 
+  /** The commit timestamps of the revisions, {@code null} for the transaction intent log. */
+  private final RevisionTimestamps mRevisionTimestamps;
+
+  /** Forces the files to the storage device according to the durability mode. */
+  private final FileSyncer mSyncer;
+
+  /** Buffered pages, which are not written to the data file yet. */
+  private byte[] mBuffer;
+
+  /** Number of buffered bytes. */
+  private int mBufferLength;
+
+  /** The offset in the data file of the first buffered byte. */
+  private long mBufferOffset;
+
+  /** The logical size of the data file, including the buffered pages. */
+  private long mDataFileSize;
+
+  /** The size of the revisions offset file. */
+  private long mRevisionsOffsetFileSize;
+
   /**
    * Constructor.
    *
@@ -69,30 +111,59 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
    * @param handler the byte handler
    * @param serializationType the serialization type (for the transaction log or the data file)
    * @param pagePersister transforms in-memory pages into byte-arrays and back
+   * @param durabilityMode determines when the files are forced to the storage device
+   * @param groupCommitWindow the group commit window in milliseconds
+   * @param verification determines which pages are verified against their checksum on read
+   * @param revisionTimestamps the commit timestamps of the revisions, which are updated once a
+   *        revision root page is written, or {@code null} for the transaction intent log
    */
   public FileWriter(final RandomAccessFile dataFile, final RandomAccessFile revisionsOffsetFile,
       final ByteHandler handler, final SerializationType serializationType,
-      final PagePersister pagePersister) {
+      final PagePersister pagePersister, final DurabilityMode durabilityMode,
+      final @Nonnegative long groupCommitWindow, final ChecksumVerification verification,
+      final @Nullable RevisionTimestamps revisionTimestamps) {
     mDataFile = checkNotNull(dataFile);
     mType = checkNotNull(serializationType);
     mRevisionsOffsetFile = mType == SerializationType.DATA
         ? checkNotNull(revisionsOffsetFile)
         : null;
     mPagePersister = checkNotNull(pagePersister);
+    mRevisionTimestamps = mType == SerializationType.DATA
+        ? checkNotNull(revisionTimestamps)
+        : null;
     mReader =
-        new FileReader(dataFile, revisionsOffsetFile, handler, serializationType, pagePersister);
+        new FileReader(dataFile, revisionsOffsetFile, handler, serializationType, pagePersister,
+            verification);
+    mSyncer = new FileSyncer(durabilityMode, groupCommitWindow, this::force);
+    mBuffer = new byte[0];
+
+    try {
+      mDataFileSize = mDataFile.length();
+      mRevisionsOffsetFileSize = mRevisionsOffsetFile == null
+          ? 0
+          : mRevisionsOffsetFile.length();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
   }
 
   @Override
   public Writer truncateTo(final int revision) {
+    flush();
+
     UberPage uberPage = (UberPage) mReader.readUberPageReference().getPage();
 
     while (uberPage.getRevisionNumber() != revision) {
       uberPage = (UberPage) mReader.read(
-          new PageReference().setKey(uberPage.getPreviousUberPageKey()), null);
+          new PageReference().setKey(previousUberPageKey(uberPage, revision)), null);
       if (uberPage.getRevisionNumber() == revision) {
+        final long dataFileSize = previousUberPageKey(uberPage, revision);
         try {
-          mDataFile.setLength(uberPage.getPreviousUberPageKey());
+          mDataFile.setLength(dataFileSize);
+          mDataFileSize = dataFileSize;
+          if (mRevisionTimestamps != null) {
+            mRevisionTimestamps.truncate(revision);
+          }
         } catch (final IOException e) {
           throw new UncheckedIOException(e);
         }
@@ -103,6 +174,26 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
     return this;
   }
 
+  /**
+   * Get the key of the previous uber page, which is needed to truncate the data file to the given
+   * revision.
+   *
+   * @param uberPage the uber page
+   * @param revision the revision to truncate to
+   * @return the key of the previous uber page
+   * @throws SirixIOException if the uber page doesn't have a previous uber page in the data file,
+   *         as it's the first one or the data file has been compacted
+   */
+  private static long previousUberPageKey(final UberPage uberPage, final int revision) {
+    final long previousUberPageKey = uberPage.getPreviousUberPageKey();
+    if (previousUberPageKey < 0) {
+      throw new SirixIOException("Can't truncate to revision " + revision
+          + ", as the uber pages before revision " + uberPage.getRevisionNumber()
+          + " are not stored in the data file (it might have been compacted).");
+    }
+    return previousUberPageKey;
+  }
+
   /**
    * Write page contained in page reference to storage.
    *
@@ -111,36 +202,69 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
    */
   @Override
   public FileWriter write(final PageReference pageReference) throws SirixIOException {
-    // Perform byte operations.
-    try {
-      // Serialize page.
-      final Page page = pageReference.getPage();
-      assert page != null;
+    return write(pageReference, null);
+  }
 
-      final byte[] serializedPage;
+  @Override
+  public ByteBuffer serialize(final Page page) throws SirixIOException {
+    try {
+      final byte[] uncompressedPage;
 
       try (final ByteArrayOutputStream output = new ByteArrayOutputStream();
-          final DataOutputStream dataOutput =
-              new DataOutputStream(mReader.mByteHandler.serialize(output))) {
+          final DataOutputStream dataOutput = new DataOutputStream(output)) {
         mPagePersister.serializePage(dataOutput, page, mType);
         dataOutput.flush();
-        serializedPage = output.toByteArray();
+        uncompressedPage = output.toByteArray();
       }
 
-      final byte[] writtenPage = new byte[serializedPage.length + FileReader.OTHER_BEACON];
-      final ByteBuffer buffer = ByteBuffer.allocate(writtenPage.length);
-      buffer.putInt(serializedPage.length);
+      // Perform byte operations on the whole page.
+      final ByteBuffer serializedPage =
+          mReader.mByteHandler.serialize(ByteBuffer.wrap(uncompressedPage));
+
+      // The byte handlers might return thread local buffers, thus the bytes are copied.
+      final ByteBuffer buffer =
+          ByteBuffer.allocate(serializedPage.remaining() + FileReader.OTHER_BEACON);
+      buffer.putInt(serializedPage.remaining());
+      buffer.putInt(PageChecksums.checksum(serializedPage));
       buffer.put(serializedPage);
-      buffer.position(0);
-      buffer.get(writtenPage, 0, writtenPage.length);
+      buffer.flip();
+      return buffer;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public FileWriter write(final PageReference pageReference,
+      final @Nullable ByteBuffer serializedPage) throws SirixIOException {
+    // Perform byte operations.
+    try {
+      final Page page = pageReference.getPage();
+      assert page != null;
+
+      // Serialize page.
+      final ByteBuffer buffer = serializedPage == null
+          ? serialize(page)
+          : serializedPage.duplicate();
+
+      final int length = buffer.remaining();
 
       // Getting actual offset and appending to the end of the current file.
-      final long fileSize = mDataFile.length();
-      final long offset = fileSize == 0
+      final long offset = mDataFileSize == 0
           ? FileReader.FIRST_BEACON
-          : fileSize;
-      mDataFile.seek(offset);
-      mDataFile.write(writtenPage);
+          : mDataFileSize;
+
+      if (mBufferLength == 0) {
+        mBufferOffset = offset;
+      }
+
+      if (mBufferLength + length > mBuffer.length) {
+        mBuffer = Arrays.copyOf(mBuffer, Math.max(mBufferLength + length, mBuffer.length * 2));
+      }
+
+      ByteBuffer.wrap(mBuffer, mBufferLength, length).put(buffer);
+      mBufferLength += length;
+      mDataFileSize = offset + length;
 
       // Remember page coordinates.
       switch (mType) {
@@ -154,12 +278,22 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
           // Must not happen.
       }
 
-      pageReference.setLength(writtenPage.length);
-      pageReference.setHash(mReader.mHashFunction.hashBytes(writtenPage).asBytes());
+      pageReference.setLength(length);
 
       if (mType == SerializationType.DATA && page instanceof RevisionRootPage) {
-        mRevisionsOffsetFile.seek(mRevisionsOffsetFile.length());
-        mRevisionsOffsetFile.writeLong(offset);
+        // The offset must never point to pages, which are not in the data file yet.
+        flush();
+        writeFully(mRevisionsOffsetFile.getChannel(),
+            ByteBuffer.allocate(Long.BYTES).putLong(0, offset), mRevisionsOffsetFileSize);
+        mRevisionsOffsetFileSize += Long.BYTES;
+
+        final RevisionRootPage revisionRootPage = (RevisionRootPage) page;
+        mRevisionTimestamps.set(
+            revisionRootPage.getRevision(), revisionRootPage.getRevisionTimestamp());
+      }
+
+      if (mBufferLength >= FLUSH_THRESHOLD) {
+        flush();
       }
 
       return this;
@@ -168,9 +302,54 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
     }
   }
 
+  /**
+   * Write the buffered pages to the data file.
+   *
+   * @throws SirixIOException if an I/O error occurs
+   */
+  private void flush() {
+    if (mBufferLength == 0) {
+      return;
+    }
+
+    try {
+      writeFully(mDataFile.getChannel(), ByteBuffer.wrap(mBuffer, 0, mBufferLength),
+          mBufferOffset);
+      mBufferLength = 0;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Force the data file and the revisions offset file to the storage device.
+   *
+   * @throws SirixIOException if an I/O error occurs
+   */
+  private void force() {
+    try {
+      mDataFile.getChannel().force(false);
+      if (mRevisionsOffsetFile != null) {
+        mRevisionsOffsetFile.getChannel().force(false);
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  private static void writeFully(final FileChannel channel, final ByteBuffer buffer,
+      final long position) throws IOException {
+    final int start = buffer.position();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, position + buffer.position() - start);
+    }
+  }
+
   @Override
   public void close() throws SirixIOException {
     try {
+      flush();
+      mSyncer.close();
       if (mDataFile != null) {
         mDataFile.close();
       }
@@ -187,10 +366,25 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
 
   @Override
   public Writer writeUberPageReference(final PageReference pageReference) throws SirixIOException {
+    appendUberPageReference(pageReference);
+    return publishUberPageReference(pageReference);
+  }
+
+  @Override
+  public Writer appendUberPageReference(final PageReference pageReference)
+      throws SirixIOException {
+    write(pageReference);
+    flush();
+    return this;
+  }
+
+  @Override
+  public Writer publishUberPageReference(final PageReference pageReference)
+      throws SirixIOException {
     try {
-      write(pageReference);
-      mDataFile.seek(0);
-      mDataFile.writeLong(pageReference.getKey());
+      mSyncer.beforeCommit();
+      writeFully(mDataFile.getChannel(), FormatVersion.header(pageReference.getKey()), 0);
+      mSyncer.afterCommit();
 
       return this;
     } catch (final IOException e) {
@@ -200,14 +394,34 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
 
   @Override
   protected Reader delegate() {
+    // Buffered pages must be readable.
+    flush();
     return mReader;
   }
 
+  @Override
+  public byte[] readPageBytes(final PageReference reference) {
+    // Buffered pages must be readable.
+    flush();
+    return mReader.readPageBytes(reference);
+  }
+
+  @Override
+  public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+    return mReader.deserializePage(pageBytes, pageReadTrx);
+  }
+
   @Override
   public Writer truncate() {
     try {
+      mBufferLength = 0;
       mDataFile.setLength(0);
-      mRevisionsOffsetFile.setLength(0);
+      mDataFileSize = 0;
+      if (mRevisionsOffsetFile != null) {
+        mRevisionsOffsetFile.setLength(0);
+        mRevisionTimestamps.truncate(0);
+      }
+      mRevisionsOffsetFileSize = 0;
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
@@ -0,0 +1,252 @@
+package org.sirix.io.file;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.FormatVersion;
+import org.sirix.io.PageChecksums;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Offline scrubber, which verifies all pages of all revisions of a resource against their
+ * checksums. As pages are only ever appended to the data file, the data file is scanned
+ * sequentially instead of traversing the page trees of each revision. Furthermore the uber page
+ * beacon and the offsets of the revision root pages are checked to point to the start of a page.
+ * Works for the {@link FileStorage} and the memory-mapped storage, which share the file layout.
+ * The resource must not be opened for writing while it is scrubbed.
+ *
+ * @author agent
+ *
+ */
+public final class Scrubber {
+
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(Scrubber.class));
+
+  /** The data file. */
+  private final Path mDataFile;
+
+  /** The file, which holds the offsets of the revision root pages. */
+  private final Path mRevisionsFile;
+
+  /**
+   * Constructor.
+   *
+   * @param resourcePath the path of the resource
+   */
+  public Scrubber(final Path resourcePath) {
+    final Path dataPath =
+        checkNotNull(resourcePath).resolve(ResourceConfiguration.ResourcePaths.DATA.getPath());
+    mDataFile = dataPath.resolve(FileStorage.FILENAME);
+    mRevisionsFile = dataPath.resolve(FileStorage.REVISIONS_FILENAME);
+  }
+
+  /**
+   * Verify all pages of the resource.
+   *
+   * @return the report
+   * @throws SirixIOException if an I/O error occurs or the data file has another format version
+   */
+  public Report scrub() {
+    try (final FileChannel dataFile = FileChannel.open(mDataFile, StandardOpenOption.READ)) {
+      final long size = dataFile.size();
+
+      // Positions, which must denote the start of a page (the uber page and the revision roots),
+      // revisions removed by a compaction have no offset.
+      final long[] revisionOffsets = readRevisionOffsets();
+      final long[] retainedOffsets = Arrays.stream(revisionOffsets)
+                                           .filter(offset -> offset != Constants.NULL_ID_LONG)
+                                           .toArray();
+      final long[] expectedOffsets;
+      if (size >= FileReader.FIRST_BEACON) {
+        final ByteBuffer header = FileReader.readFully(dataFile, 0, FileReader.FIRST_BEACON);
+        expectedOffsets = Arrays.copyOf(retainedOffsets, retainedOffsets.length + 1);
+        expectedOffsets[retainedOffsets.length] = header.getLong();
+
+        // The pages of other versions can't be located.
+        FormatVersion.verify(header.getInt());
+      } else {
+        expectedOffsets = retainedOffsets;
+      }
+      Arrays.sort(expectedOffsets);
+
+      final List<Long> corruptPages = new ArrayList<>();
+      final List<Long> danglingOffsets = new ArrayList<>();
+      long pageCount = 0;
+      int expected = 0;
+      long position = FileReader.FIRST_BEACON;
+
+      while (position + FileReader.OTHER_BEACON <= size) {
+        final ByteBuffer header = FileReader.readFully(dataFile, position, FileReader.OTHER_BEACON);
+        final int dataLength = header.getInt();
+        final int checksum = header.getInt();
+
+        // Unused space at the end of a memory-mapped data file.
+        if (dataLength == 0) {
+          break;
+        }
+
+        while (expected < expectedOffsets.length && expectedOffsets[expected] < position) {
+          danglingOffsets.add(expectedOffsets[expected++]);
+        }
+        while (expected < expectedOffsets.length && expectedOffsets[expected] == position) {
+          expected++;
+        }
+
+        pageCount++;
+
+        if (dataLength < 0 || position + FileReader.OTHER_BEACON + dataLength > size) {
+          // The length is corrupt, thus the following pages can't be located anymore.
+          corruptPages.add(position);
+          break;
+        }
+
+        final ByteBuffer page =
+            FileReader.readFully(dataFile, position + FileReader.OTHER_BEACON, dataLength);
+        if (PageChecksums.checksum(page) != checksum) {
+          corruptPages.add(position);
+        }
+
+        position += FileReader.OTHER_BEACON + dataLength;
+      }
+
+      while (expected < expectedOffsets.length) {
+        danglingOffsets.add(expectedOffsets[expected++]);
+      }
+
+      return new Report(pageCount, revisionOffsets.length, corruptPages, danglingOffsets);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  private long[] readRevisionOffsets() throws IOException {
+    if (!Files.exists(mRevisionsFile)) {
+      return new long[0];
+    }
+
+    try (final FileChannel revisionsFile =
+        FileChannel.open(mRevisionsFile, StandardOpenOption.READ)) {
+      final int revisions = (int) (revisionsFile.size() / Long.BYTES);
+      final ByteBuffer buffer = FileReader.readFully(revisionsFile, 0, revisions * Long.BYTES);
+      final long[] offsets = new long[revisions];
+      buffer.asLongBuffer().get(offsets);
+      return offsets;
+    }
+  }
+
+  /**
+   * Result of scrubbing a resource.
+   */
+  public static final class Report {
+
+    /** Number of verified pages. */
+    private final long mPageCount;
+
+    /** Number of revisions. */
+    private final int mRevisionCount;
+
+    /** Positions of the pages, which don't match their checksum. */
+    private final List<Long> mCorruptPages;
+
+    /** Offsets of the uber page and of revision root pages, which don't denote a page. */
+    private final List<Long> mDanglingOffsets;
+
+    private Report(final long pageCount, final int revisionCount, final List<Long> corruptPages,
+        final List<Long> danglingOffsets) {
+      mPageCount = pageCount;
+      mRevisionCount = revisionCount;
+      mCorruptPages = Collections.unmodifiableList(corruptPages);
+      mDanglingOffsets = Collections.unmodifiableList(danglingOffsets);
+    }
+
+    /**
+     * Get the number of verified pages.
+     *
+     * @return the number of pages
+     */
+    public long getPageCount() {
+      return mPageCount;
+    }
+
+    /**
+     * Get the number of revisions.
+     *
+     * @return the number of revisions
+     */
+    public int getRevisionCount() {
+      return mRevisionCount;
+    }
+
+    /**
+     * Get the positions in the data file of the pages, which don't match their checksum.
+     *
+     * @return the positions of corrupt pages
+     */
+    public List<Long> getCorruptPages() {
+      return mCorruptPages;
+    }
+
+    /**
+     * Get the offsets of the uber page and the revision root pages, which don't denote the start
+     * of a page.
+     *
+     * @return the dangling offsets
+     */
+    public List<Long> getDanglingOffsets() {
+      return mDanglingOffsets;
+    }
+
+    /**
+     * Determines if no corruption has been found.
+     *
+     * @return {@code true}, if all pages are valid, {@code false} otherwise
+     */
+    public boolean isValid() {
+      return mCorruptPages.isEmpty() && mDanglingOffsets.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+                        .add("pageCount", mPageCount)
+                        .add("revisionCount", mRevisionCount)
+                        .add("corruptPages", mCorruptPages)
+                        .add("danglingOffsets", mDanglingOffsets)
+                        .toString();
+    }
+  }
+
+  /**
+   * Scrub a resource.
+   *
+   * @param args the path of the resource
+   */
+  public static void main(final String... args) {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: Scrubber resource-path");
+    }
+
+    final Report report = new Scrubber(Paths.get(args[0])).scrub();
+    LOGWRAPPER.info(report.toString());
+
+    if (!report.isValid()) {
+      System.exit(1);
+    }
+  }
+}
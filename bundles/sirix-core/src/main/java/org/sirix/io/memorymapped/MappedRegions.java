@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2018, Sirix
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.io.memorymapped;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Maps a file as a sequence of {@link MappedByteBuffer} regions of at most {@link #REGION_SIZE}
+ * bytes each, as a single mapping is limited to 2 GB. Regions are mapped lazily and remapped once a
+ * request exceeds the currently mapped size of a region. In {@link FileChannel.MapMode#READ_WRITE}
+ * mode regions grow in chunks of the given growth size, which extends the underlying file.
+ *
+ * <p>
+ * Reads are thread safe, as regions are only accessed through absolute positions or duplicates and
+ * mapping is synchronized. Writes must be issued by a single thread.
+ * </p>
+ *
+ * @author agent
+ *
+ */
+public final class MappedRegions {
+
+  /** Maximum size of a single mapped region. */
+  static final long REGION_SIZE = 1L << 30;
+
+  /** The channel of the mapped file. */
+  private final FileChannel mChannel;
+
+  /** The mapping mode. */
+  private final FileChannel.MapMode mMapMode;
+
+  /** Number of bytes a region is grown by in read/write mode. */
+  private final long mGrowthSize;
+
+  /** The mapped regions, {@code null} entries are not mapped yet. */
+  private MappedByteBuffer[] mRegions;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the channel of the file to map
+   * @param mapMode the mapping mode (either read only or read/write)
+   * @param growthSize number of bytes a region is grown by in read/write mode
+   */
+  public MappedRegions(final FileChannel channel, final FileChannel.MapMode mapMode,
+      final long growthSize) {
+    mChannel = checkNotNull(channel);
+    mMapMode = checkNotNull(mapMode);
+    mGrowthSize = growthSize;
+    mRegions = new MappedByteBuffer[0];
+  }
+
+  /**
+   * Get a view of {@code length} bytes starting at {@code position}. The returned buffer shares
+   * its content with the mapped region, unless the bytes span two regions.
+   *
+   * @param position the position in the file
+   * @param length the number of bytes
+   * @return a buffer, which holds the requested bytes between its position and its limit
+   * @throws IOException if the bytes couldn't be mapped or read
+   */
+  public ByteBuffer slice(final long position, final int length) throws IOException {
+    final int index = (int) (position / REGION_SIZE);
+    final int offset = (int) (position % REGION_SIZE);
+
+    if (offset + (long) length > REGION_SIZE) {
+      // Spans two regions, thus fall back to a positional read.
+      final ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (mChannel.read(buffer, position + buffer.position()) == -1) {
+          throw new EOFException();
+        }
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    final ByteBuffer region = region(index, offset + length).duplicate();
+    region.limit(offset + length);
+    region.position(offset);
+    return region.slice();
+  }
+
+  /**
+   * Get the int value at the given position.
+   *
+   * @param position the position in the file
+   * @return the int value
+   * @throws IOException if the bytes couldn't be mapped or read
+   */
+  int getInt(final long position) throws IOException {
+    return slice(position, Integer.BYTES).getInt();
+  }
+
+  /**
+   * Get the long value at the given position.
+   *
+   * @param position the position in the file
+   * @return the long value
+   * @throws IOException if the bytes couldn't be mapped or read
+   */
+  long getLong(final long position) throws IOException {
+    return slice(position, Long.BYTES).getLong();
+  }
+
+  /**
+   * Put the remaining bytes of {@code source} at the given position. Only supported in
+   * read/write mode.
+   *
+   * @param position the position in the file
+   * @param source the bytes to write
+   * @throws IOException if the bytes couldn't be mapped or written
+   */
+  public void put(final long position, final ByteBuffer source) throws IOException {
+    assert mMapMode == FileChannel.MapMode.READ_WRITE;
+    final int length = source.remaining();
+    final int index = (int) (position / REGION_SIZE);
+    final int offset = (int) (position % REGION_SIZE);
+
+    if (offset + (long) length > REGION_SIZE) {
+      // Spans two regions, thus fall back to a positional write.
+      long currentPosition = position;
+      while (source.hasRemaining()) {
+        currentPosition += mChannel.write(source, currentPosition);
+      }
+      return;
+    }
+
+    final ByteBuffer region = region(index, offset + length).duplicate();
+    region.position(offset);
+    region.put(source);
+  }
+
+  /**
+   * Get the region with the given index, which is mapped at least up to {@code requiredSize}
+   * bytes.
+   *
+   * @param index the index of the region
+   * @param requiredSize the minimum number of mapped bytes
+   * @return the mapped region
+   * @throws IOException if the region couldn't be mapped
+   */
+  private synchronized MappedByteBuffer region(final int index, final int requiredSize)
+      throws IOException {
+    if (index >= mRegions.length) {
+      mRegions = Arrays.copyOf(mRegions, index + 1);
+    }
+
+    MappedByteBuffer region = mRegions[index];
+
+    if (region == null || region.capacity() < requiredSize) {
+      final long start = index * REGION_SIZE;
+      final long availableSize = Math.min(REGION_SIZE, Math.max(0, mChannel.size() - start));
+      final long size;
+
+      if (mMapMode == FileChannel.MapMode.READ_WRITE) {
+        final long grownSize = ((requiredSize + mGrowthSize - 1) / mGrowthSize) * mGrowthSize;
+        size = Math.max(availableSize, Math.min(REGION_SIZE, grownSize));
+      } else {
+        size = availableSize;
+      }
+
+      if (size < requiredSize) {
+        throw new EOFException("Position " + (start + requiredSize) + " is beyond the end of file.");
+      }
+
+      region = mChannel.map(mMapMode, start, size);
+      mRegions[index] = region;
+    }
+
+    return region;
+  }
+
+  /**
+   * Forces changes of all mapped regions to the storage device.
+   */
+  synchronized void force() {
+    if (mMapMode == FileChannel.MapMode.READ_WRITE) {
+      for (final MappedByteBuffer region : mRegions) {
+        if (region != null) {
+          region.force();
+        }
+      }
+    }
+  }
+
+  /**
+   * Drops all mapped regions, such that they are remapped on the next access. Must be called
+   * before the file is truncated.
+   */
+  synchronized void reset() {
+    mRegions = new MappedByteBuffer[0];
+  }
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2018, Sirix
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.io.memorymapped;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ByteBufferInputStream;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.FormatVersion;
+import org.sirix.io.PageBytesReader;
+import org.sirix.io.PageChecksums;
+import org.sirix.io.Readers;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.page.PagePersister;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.SerializationType;
+import org.sirix.page.UberPage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+
+/**
+ * Reader, which reads pages from the memory-mapped data file. Instead of seeking and copying each
+ * page into a byte array, the {@link ByteHandler} pipeline directly consumes a slice of the mapped
+ * region.
+ *
+ * @author agent
+ *
+ */
+public final class MemoryMappedFileReader implements PageBytesReader {
+
+  /** Beacon of first references. */
+  final static int FIRST_BEACON = 12;
+
+  /** Beacon of the other references, that is the length and the checksum of a page. */
+  final static int OTHER_BEACON = 8;
+
+  /** Inflater to decompress. */
+  final ByteHandler mByteHandler;
+
+  /** Determines which pages are verified against their checksum. */
+  private final ChecksumVerification mVerification;
+
+  /** Data file channel. */
+  private final FileChannel mDataFileChannel;
+
+  /** Revisions offset file channel. */
+  private final FileChannel mRevisionsOffsetFileChannel;
+
+  /** Mapped regions of the data file. */
+  private final MappedRegions mDataFileRegions;
+
+  /** Mapped regions of the revisions offset file. */
+  private final MappedRegions mRevisionsOffsetFileRegions;
+
+  /** The type of data to serialize. */
+  private final SerializationType mType;
+
+  /** Used to serialize/deserialze pages. */
+  private final PagePersister mPagePersiter;
+
+  /**
+   * Constructor.
+   *
+   * @param dataFileChannel the data file channel
+   * @param revisionsOffsetFileChannel the channel of the file, which holds pointers to the revision
+   *        root pages
+   * @param handler {@link ByteHandler} instance
+   * @param type the serialization type (for the transaction log or the data file)
+   * @param pagePersister transforms in-memory pages into byte-arrays and back
+   * @param verification determines which pages are verified against their checksum
+   */
+  public MemoryMappedFileReader(final FileChannel dataFileChannel,
+      final FileChannel revisionsOffsetFileChannel, final ByteHandler handler,
+      final SerializationType type, final PagePersister pagePersister,
+      final ChecksumVerification verification) {
+    this(dataFileChannel, revisionsOffsetFileChannel,
+        new MappedRegions(dataFileChannel, FileChannel.MapMode.READ_ONLY, 0),
+        type == SerializationType.DATA
+            ? new MappedRegions(revisionsOffsetFileChannel, FileChannel.MapMode.READ_ONLY, 0)
+            : null,
+        handler, type, pagePersister, verification);
+  }
+
+  /**
+   * Constructor, which shares the mapped regions with a {@link MemoryMappedFileWriter}.
+   *
+   * @param dataFileChannel the data file channel
+   * @param revisionsOffsetFileChannel the channel of the file, which holds pointers to the revision
+   *        root pages
+   * @param dataFileRegions the mapped regions of the data file
+   * @param revisionsOffsetFileRegions the mapped regions of the revisions offset file
+   * @param handler {@link ByteHandler} instance
+   * @param type the serialization type (for the transaction log or the data file)
+   * @param pagePersister transforms in-memory pages into byte-arrays and back
+   * @param verification determines which pages are verified against their checksum
+   */
+  MemoryMappedFileReader(final FileChannel dataFileChannel,
+      final FileChannel revisionsOffsetFileChannel, final MappedRegions dataFileRegions,
+      final MappedRegions revisionsOffsetFileRegions, final ByteHandler handler,
+      final SerializationType type, final PagePersister pagePersister,
+      final ChecksumVerification verification) {
+    mVerification = checkNotNull(verification);
+    mDataFileChannel = checkNotNull(dataFileChannel);
+    mDataFileRegions = checkNotNull(dataFileRegions);
+    mRevisionsOffsetFileChannel = type == SerializationType.DATA
+        ? checkNotNull(revisionsOffsetFileChannel)
+        : null;
+    mRevisionsOffsetFileRegions = type == SerializationType.DATA
+        ? checkNotNull(revisionsOffsetFileRegions)
+        : null;
+    mByteHandler = checkNotNull(handler);
+    mType = checkNotNull(type);
+    mPagePersiter = checkNotNull(pagePersister);
+  }
+
+  @Override
+  public Page read(final @Nonnull PageReference reference,
+      final @Nullable PageReadTrx pageReadTrx) {
+    try {
+      final ByteBuffer page = readPage(offset(reference));
+      reference.setLength(page.remaining() + OTHER_BEACON);
+
+      return deserialize(page, pageReadTrx);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public byte[] readPageBytes(final @Nonnull PageReference reference) {
+    try {
+      final ByteBuffer page = readPage(offset(reference));
+      reference.setLength(page.remaining() + OTHER_BEACON);
+
+      // Perform byte operations.
+      final ByteBuffer pageBytes = mByteHandler.deserialize(page);
+      final byte[] bytes = new byte[pageBytes.remaining()];
+      pageBytes.get(bytes);
+      return bytes;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+    try {
+      return mPagePersiter.deserializePage(
+          new DataInputStream(new ByteArrayInputStream(pageBytes)), pageReadTrx, mType);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Get the offset of a page in the data file.
+   *
+   * @param reference reference to the page
+   * @return the offset
+   */
+  private long offset(final PageReference reference) {
+    switch (mType) {
+      case DATA:
+        return reference.getKey();
+      case TRANSACTION_INTENT_LOG:
+        return reference.getPersistentLogKey();
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Get a slice of the page, which is stored at the given position of the data file, and verify it
+   * against its checksum according to the verification policy.
+   *
+   * @param position the position of the page in the data file
+   * @return the slice holding the page as it is stored, that is before the byte handler pipeline is
+   *         applied
+   * @throws IOException if an I/O error occurs
+   * @throws SirixIOException if the checksum doesn't match
+   */
+  private ByteBuffer readPage(final long position) throws IOException {
+    final ByteBuffer header = mDataFileRegions.slice(position, OTHER_BEACON);
+    final int dataLength = header.getInt();
+    final int checksum = header.getInt();
+    final ByteBuffer page = mDataFileRegions.slice(position + OTHER_BEACON, dataLength);
+
+    if (mVerification.verify()) {
+      PageChecksums.verify(page, checksum, position);
+    }
+
+    return page;
+  }
+
+  /**
+   * Deserialize a page from the given buffer slice.
+   *
+   * @param page the slice holding the serialized page
+   * @param pageReadTrx the page reading transaction
+   * @return the deserialized page
+   * @throws IOException if an I/O error occurs
+   */
+  private Page deserialize(final ByteBuffer page, final @Nullable PageReadTrx pageReadTrx)
+      throws IOException {
+    // Perform byte operations.
+    final DataInputStream input =
+        new DataInputStream(new ByteBufferInputStream(mByteHandler.deserialize(page)));
+
+    // Return reader required to instantiate and deserialize page.
+    return mPagePersiter.deserializePage(input, pageReadTrx, mType);
+  }
+
+  @Override
+  public CompletableFuture<Page> readAsync(final @Nonnull PageReference reference,
+      final @Nullable PageReadTrx pageReadTrx) {
+    return Readers.readAsync(() -> read(reference, pageReadTrx));
+  }
+
+  @Override
+  public PageReference readUberPageReference() {
+    final PageReference uberPageReference = new PageReference();
+    try {
+      // Read primary beacon.
+      uberPageReference.setKey(mDataFileRegions.getLong(0));
+      FormatVersion.verify(mDataFileRegions.getInt(FormatVersion.POSITION));
+
+      final UberPage page = (UberPage) read(uberPageReference, null);
+      uberPageReference.setPage(page);
+      return uberPageReference;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public RevisionRootPage readRevisionRootPage(final int revision, final PageReadTrx pageReadTrx) {
+    try {
+      final long offset = mRevisionsOffsetFileRegions.getLong(revision * 8L);
+
+      if (offset == Constants.NULL_ID_LONG) {
+        throw new SirixIOException(
+            "Revision " + revision + " has been removed by the retention policy!");
+      }
+
+      return (RevisionRootPage) deserialize(readPage(offset), pageReadTrx);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws SirixIOException {
+    try {
+      if (mRevisionsOffsetFileChannel != null) {
+        mRevisionsOffsetFileChannel.close();
+      }
+      mDataFileChannel.close();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+}
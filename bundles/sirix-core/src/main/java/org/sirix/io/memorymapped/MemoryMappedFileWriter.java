@@ -0,0 +1,390 @@
+/**
+ * Copyright (c) 2018, Sirix
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.io.memorymapped;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.AbstractForwardingReader;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.FileSyncer;
+import org.sirix.io.FormatVersion;
+import org.sirix.io.PageBytesWriter;
+import org.sirix.io.PageChecksums;
+import org.sirix.io.Reader;
+import org.sirix.io.RevisionTimestamps;
+import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.page.PagePersister;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.SerializationType;
+import org.sirix.page.UberPage;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Writer, which appends pages to the memory-mapped data file. The mapping is grown in chunks of
+ * {@link #GROWTH_SIZE} bytes, thus the file is truncated to its logical size once the writer is
+ * closed. As the revisions offset file only receives one entry per commit, it's appended to by
+ * positional writes, such that its size always denotes the number of stored revisions.
+ *
+ * @author agent
+ *
+ */
+public final class MemoryMappedFileWriter extends AbstractForwardingReader
+    implements PageBytesWriter {
+
+  /** Number of bytes the mapping of the data file is grown by. */
+  private static final long GROWTH_SIZE = 1L << 24;
+
+  /** Data file channel. */
+  private final FileChannel mDataFileChannel;
+
+  /** Revisions offset file channel. */
+  private final FileChannel mRevisionsOffsetFileChannel;
+
+  /** Mapped regions of the data file, shared with the reader. */
+  private final MappedRegions mDataFileRegions;
+
+  /** {@link MemoryMappedFileReader} reference for this writer. */
+  private final MemoryMappedFileReader mReader;
+
+  /** The serialization type. */
+  private final SerializationType mType;
+
+  /** Transforms in-memory pages into byte-arrays and back. */
+  private final PagePersister mPagePersister;
+
+  /** The commit timestamps of the revisions, {@code null} for the transaction intent log. */
+  private final RevisionTimestamps mRevisionTimestamps;
+
+  /** The logical size of the data file, which might be less than the mapped size. */
+  private long mDataFileSize;
+
+  /** The size of the revisions offset file. */
+  private long mRevisionsOffsetFileSize;
+
+  /** Forces the files to the storage device according to the durability mode. */
+  private final FileSyncer mSyncer;
+
+  /**
+   * Constructor.
+   *
+   * @param dataFileChannel the data file channel
+   * @param revisionsOffsetFileChannel the channel of the file, which holds pointers to the revision
+   *        root pages
+   * @param handler the byte handler
+   * @param serializationType the serialization type (for the transaction log or the data file)
+   * @param pagePersister transforms in-memory pages into byte-arrays and back
+   * @param durabilityMode determines when the files are forced to the storage device
+   * @param groupCommitWindow the group commit window in milliseconds
+   * @param verification determines which pages are verified against their checksum on read
+   * @param revisionTimestamps the commit timestamps of the revisions, which are updated once a
+   *        revision root page is written, or {@code null} for the transaction intent log
+   * @throws SirixIOException if the sizes of the files can't be determined
+   */
+  public MemoryMappedFileWriter(final FileChannel dataFileChannel,
+      final FileChannel revisionsOffsetFileChannel, final ByteHandler handler,
+      final SerializationType serializationType, final PagePersister pagePersister,
+      final DurabilityMode durabilityMode, final @Nonnegative long groupCommitWindow,
+      final ChecksumVerification verification,
+      final @Nullable RevisionTimestamps revisionTimestamps) {
+    mDataFileChannel = checkNotNull(dataFileChannel);
+    mType = checkNotNull(serializationType);
+    mRevisionsOffsetFileChannel = mType == SerializationType.DATA
+        ? checkNotNull(revisionsOffsetFileChannel)
+        : null;
+    mPagePersister = checkNotNull(pagePersister);
+    mRevisionTimestamps = mType == SerializationType.DATA
+        ? checkNotNull(revisionTimestamps)
+        : null;
+    mDataFileRegions =
+        new MappedRegions(dataFileChannel, FileChannel.MapMode.READ_WRITE, GROWTH_SIZE);
+    mReader = new MemoryMappedFileReader(dataFileChannel, revisionsOffsetFileChannel,
+        mDataFileRegions,
+        mType == SerializationType.DATA
+            ? new MappedRegions(revisionsOffsetFileChannel, FileChannel.MapMode.READ_ONLY, 0)
+            : null,
+        handler, serializationType, pagePersister, verification);
+    mSyncer = new FileSyncer(durabilityMode, groupCommitWindow, this::force);
+
+    try {
+      mDataFileSize = mDataFileChannel.size();
+      mRevisionsOffsetFileSize = mRevisionsOffsetFileChannel == null
+          ? 0
+          : mRevisionsOffsetFileChannel.size();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public Writer truncateTo(final int revision) {
+    UberPage uberPage = (UberPage) mReader.readUberPageReference().getPage();
+
+    while (uberPage.getRevisionNumber() != revision) {
+      uberPage = (UberPage) mReader.read(
+          new PageReference().setKey(previousUberPageKey(uberPage, revision)), null);
+      if (uberPage.getRevisionNumber() == revision) {
+        truncateDataFile(previousUberPageKey(uberPage, revision));
+        if (mRevisionTimestamps != null) {
+          mRevisionTimestamps.truncate(revision);
+        }
+        break;
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * Get the key of the previous uber page, which is needed to truncate the data file to the given
+   * revision.
+   *
+   * @param uberPage the uber page
+   * @param revision the revision to truncate to
+   * @return the key of the previous uber page
+   * @throws SirixIOException if the uber page doesn't have a previous uber page in the data file,
+   *         as it's the first one or the data file has been compacted
+   */
+  private static long previousUberPageKey(final UberPage uberPage, final int revision) {
+    final long previousUberPageKey = uberPage.getPreviousUberPageKey();
+    if (previousUberPageKey < 0) {
+      throw new SirixIOException("Can't truncate to revision " + revision
+          + ", as the uber pages before revision " + uberPage.getRevisionNumber()
+          + " are not stored in the data file (it might have been compacted).");
+    }
+    return previousUberPageKey;
+  }
+
+  /**
+   * Write page contained in page reference to storage.
+   *
+   * @param pageReference page reference to write
+   * @throws SirixIOException if errors during writing occur
+   */
+  @Override
+  public MemoryMappedFileWriter write(final PageReference pageReference)
+      throws SirixIOException {
+    return write(pageReference, null);
+  }
+
+  @Override
+  public ByteBuffer serialize(final Page page) throws SirixIOException {
+    try {
+      final byte[] uncompressedPage;
+
+      try (final ByteArrayOutputStream output = new ByteArrayOutputStream();
+          final DataOutputStream dataOutput = new DataOutputStream(output)) {
+        mPagePersister.serializePage(dataOutput, page, mType);
+        dataOutput.flush();
+        uncompressedPage = output.toByteArray();
+      }
+
+      // Perform byte operations on the whole page.
+      final ByteBuffer serializedPage =
+          mReader.mByteHandler.serialize(ByteBuffer.wrap(uncompressedPage));
+
+      final ByteBuffer buffer =
+          ByteBuffer.allocate(serializedPage.remaining() + MemoryMappedFileReader.OTHER_BEACON);
+      buffer.putInt(serializedPage.remaining());
+      buffer.putInt(PageChecksums.checksum(serializedPage));
+      buffer.put(serializedPage);
+      buffer.flip();
+      return buffer;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public MemoryMappedFileWriter write(final PageReference pageReference,
+      final @Nullable ByteBuffer serializedPage) throws SirixIOException {
+    // Perform byte operations.
+    try {
+      final Page page = pageReference.getPage();
+      assert page != null;
+
+      // Serialize page.
+      final ByteBuffer buffer = serializedPage == null
+          ? serialize(page)
+          : serializedPage.duplicate();
+
+      // Getting actual offset and appending to the end of the current file.
+      final long offset = mDataFileSize == 0
+          ? MemoryMappedFileReader.FIRST_BEACON
+          : mDataFileSize;
+      mDataFileRegions.put(offset, buffer);
+      mDataFileSize = offset + buffer.capacity();
+
+      // Remember page coordinates.
+      switch (mType) {
+        case DATA:
+          pageReference.setKey(offset);
+          break;
+        case TRANSACTION_INTENT_LOG:
+          pageReference.setPersistentLogKey(offset);
+          break;
+        default:
+          // Must not happen.
+      }
+
+      pageReference.setLength(buffer.capacity());
+
+      if (mType == SerializationType.DATA && page instanceof RevisionRootPage) {
+        final ByteBuffer revisionOffset = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+        while (revisionOffset.hasRemaining()) {
+          mRevisionsOffsetFileSize += mRevisionsOffsetFileChannel.write(
+              revisionOffset, mRevisionsOffsetFileSize);
+        }
+
+        final RevisionRootPage revisionRootPage = (RevisionRootPage) page;
+        mRevisionTimestamps.set(
+            revisionRootPage.getRevision(), revisionRootPage.getRevisionTimestamp());
+      }
+
+      return this;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws SirixIOException {
+    try {
+      mSyncer.close();
+      if (mDataFileChannel.isOpen()) {
+        mDataFileRegions.force();
+        mDataFileRegions.reset();
+        if (mDataFileChannel.size() > mDataFileSize) {
+          mDataFileChannel.truncate(mDataFileSize);
+        }
+      }
+      mReader.close();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public Writer writeUberPageReference(final PageReference pageReference) throws SirixIOException {
+    appendUberPageReference(pageReference);
+    return publishUberPageReference(pageReference);
+  }
+
+  @Override
+  public Writer appendUberPageReference(final PageReference pageReference)
+      throws SirixIOException {
+    write(pageReference);
+    return this;
+  }
+
+  @Override
+  public Writer publishUberPageReference(final PageReference pageReference)
+      throws SirixIOException {
+    try {
+      mSyncer.beforeCommit();
+      mDataFileRegions.put(0, FormatVersion.header(pageReference.getKey()));
+      mSyncer.afterCommit();
+
+      return this;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Force the mapped regions of the data file and the revisions offset file to the storage device.
+   *
+   * @throws SirixIOException if an I/O error occurs
+   */
+  private void force() {
+    try {
+      mDataFileRegions.force();
+      if (mRevisionsOffsetFileChannel != null) {
+        mRevisionsOffsetFileChannel.force(false);
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  protected Reader delegate() {
+    return mReader;
+  }
+
+  @Override
+  public byte[] readPageBytes(final PageReference reference) {
+    return mReader.readPageBytes(reference);
+  }
+
+  @Override
+  public Page deserializePage(final byte[] pageBytes, final @Nullable PageReadTrx pageReadTrx) {
+    return mReader.deserializePage(pageBytes, pageReadTrx);
+  }
+
+  @Override
+  public Writer truncate() {
+    truncateDataFile(0);
+
+    try {
+      mRevisionsOffsetFileChannel.truncate(0);
+      mRevisionsOffsetFileSize = 0;
+      mRevisionTimestamps.truncate(0);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+
+    return this;
+  }
+
+  /**
+   * Truncate the data file to the given size. Mapped regions are dropped beforehand, as they
+   * might reach beyond the new end of the file.
+   *
+   * @param size the new size of the data file
+   */
+  private void truncateDataFile(final long size) {
+    try {
+      mDataFileRegions.reset();
+      mDataFileChannel.truncate(size);
+      mDataFileSize = size;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2018, Sirix
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.io.memorymapped;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.FileBackedStorage;
+import org.sirix.io.PageBytesReader;
+import org.sirix.io.PageBytesWriter;
+import org.sirix.io.Reader;
+import org.sirix.io.RevisionTimestamps;
+import org.sirix.io.file.Compactor;
+import org.sirix.io.bytepipe.ByteHandlePipeline;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.page.PagePersister;
+import org.sirix.page.SerializationType;
+
+/**
+ * Factory to provide memory-mapped file access as a backend. Uses the same files and the same
+ * layout as the {@link org.sirix.io.file.FileStorage}.
+ *
+ * @author agent
+ *
+ */
+public final class MemoryMappedStorage implements FileBackedStorage {
+
+  /** Data file name. */
+  private static final String FILENAME = "sirix.data";
+
+  /** Revisions file name. */
+  private static final String REVISIONS_FILENAME = "sirix.revisions";
+
+  /** Instance to storage. */
+  private final Path mFile;
+
+  /** Byte handler pipeline. */
+  private final ByteHandlePipeline mByteHandler;
+
+  /** Determines when the files are forced to the storage device. */
+  private final DurabilityMode mDurabilityMode;
+
+  /** The group commit window in milliseconds. */
+  private final long mGroupCommitWindow;
+
+  /** Determines which pages are verified against their checksum on read. */
+  private final ChecksumVerification mVerification;
+
+  /** The commit timestamps of the revisions, opened on demand. */
+  private RevisionTimestamps mRevisionTimestamps;
+
+  /**
+   * Constructor.
+   *
+   * @param resourceConfig the resource configuration
+   */
+  public MemoryMappedStorage(final ResourceConfiguration resourceConfig) {
+    assert resourceConfig != null : "resourceConfig must not be null!";
+    mFile = resourceConfig.resourcePath;
+    mByteHandler = resourceConfig.byteHandlePipeline;
+    mDurabilityMode = resourceConfig.durabilityMode;
+    mGroupCommitWindow = resourceConfig.groupCommitWindow;
+    mVerification = resourceConfig.checksumVerification;
+    Compactor.recover(getDataFilePath().getParent());
+  }
+
+  @Override
+  public PageBytesReader createReader() throws SirixIOException {
+    try {
+      final Path dataFilePath = createDirectoriesAndFile(getDataFilePath());
+      final Path revisionsOffsetFilePath = createDirectoriesAndFile(getRevisionFilePath());
+
+      return new MemoryMappedFileReader(FileChannel.open(dataFilePath, StandardOpenOption.READ),
+          FileChannel.open(revisionsOffsetFilePath, StandardOpenOption.READ),
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mVerification);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public PageBytesWriter createWriter() throws SirixIOException {
+    try {
+      final Path dataFilePath = createDirectoriesAndFile(getDataFilePath());
+      final Path revisionsOffsetFilePath = createDirectoriesAndFile(getRevisionFilePath());
+
+      return new MemoryMappedFileWriter(
+          FileChannel.open(dataFilePath, StandardOpenOption.READ, StandardOpenOption.WRITE),
+          FileChannel.open(
+              revisionsOffsetFilePath, StandardOpenOption.READ, StandardOpenOption.WRITE),
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mDurabilityMode, mGroupCommitWindow, mVerification, getRevisionTimestamps());
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  private static Path createDirectoriesAndFile(final Path file) throws IOException {
+    if (!Files.exists(file)) {
+      Files.createDirectories(file.getParent());
+      Files.createFile(file);
+    }
+
+    return file;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (mRevisionTimestamps != null) {
+      mRevisionTimestamps.close();
+      mRevisionTimestamps = null;
+    }
+  }
+
+  /**
+   * Getting path for data file.
+   *
+   * @return the path for this data file
+   */
+  private Path getDataFilePath() {
+    return mFile.resolve(ResourceConfiguration.ResourcePaths.DATA.getPath()).resolve(FILENAME);
+  }
+
+  /**
+   * Getting concrete storage for this file.
+   *
+   * @return the concrete storage for this database
+   */
+  private Path getRevisionFilePath() {
+    return mFile.resolve(ResourceConfiguration.ResourcePaths.DATA.getPath())
+                .resolve(REVISIONS_FILENAME);
+  }
+
+  @Override
+  public boolean exists() throws SirixIOException {
+    final Path storage = getDataFilePath();
+    try {
+      return Files.exists(storage) && Files.size(storage) > 0;
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public ByteHandler getByteHandler() {
+    return mByteHandler;
+  }
+
+  @Override
+  public synchronized RevisionTimestamps getRevisionTimestamps() {
+    if (mRevisionTimestamps == null) {
+      try {
+        mRevisionTimestamps = new RevisionTimestamps(createDirectoriesAndFile(
+            mFile.resolve(ResourceConfiguration.ResourcePaths.DATA.getPath())
+                 .resolve(RevisionTimestamps.FILENAME)));
+      } catch (final IOException e) {
+        throw new SirixIOException(e);
+      }
+    }
+    return mRevisionTimestamps;
+  }
+
+  @Override
+  public synchronized void compact(final int oldestRetainedRevision,
+      final PageReadTrx pageReadTrx) {
+    final RevisionTimestamps revisionTimestamps = getRevisionTimestamps();
+    try (final Reader reader = new MemoryMappedFileReader(FileChannel.open(getDataFilePath(), StandardOpenOption.READ),
+          FileChannel.open(getRevisionFilePath(), StandardOpenOption.READ),
+          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+          mVerification)) {
+      new Compactor(getDataFilePath().getParent(), reader, pageReadTrx).compact(
+          oldestRetainedRevision, revisionTimestamps,
+          (dataFile, revisionsOffsetFile, compactedTimestamps) -> new MemoryMappedFileWriter(
+            FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE),
+            FileChannel.open(revisionsOffsetFile, StandardOpenOption.READ,
+                StandardOpenOption.WRITE),
+            new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister(),
+            DurabilityMode.NONE, 0, mVerification, compactedTimestamps));
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    } finally {
+      // The shared timestamps are reopened instead of closed, as the file might have been replaced.
+      revisionTimestamps.reopen();
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package org.sirix.io.ram;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
@@ -108,6 +111,21 @@ public final class RAMStorage implements Storage {
       return mResourceFileStorage.get(reference.getKey());
     }
 
+    @Override
+    public CompletableFuture<Page> readAsync(PageReference reference,
+        @Nullable PageReadTrx pageReadTrx) {
+      // Pages are in memory, thus there's no need to hand the read over to another thread.
+      return CompletableFuture.completedFuture(read(reference, pageReadTrx));
+    }
+
+    @Override
+    public CompletableFuture<List<Page>> readAll(List<PageReference> references,
+        @Nullable PageReadTrx pageReadTrx) {
+      return CompletableFuture.completedFuture(
+          references.stream().map(reference -> read(reference, pageReadTrx)).collect(
+              Collectors.toList()));
+    }
+
     @Override
     public PageReference readUberPageReference() {
       final Page page = mResourceFileStorage.get(mUberPageKey.get(-1));
@@ -128,10 +146,20 @@ public final class RAMStorage implements Storage {
     @Override
     public Writer writeUberPageReference(final PageReference pageReference)
         throws SirixIOException {
-      final Page page = pageReference.getPage();
-      pageReference.setKey(mPageKey);
-      mResourceFileStorage.put(mPageKey, page);
-      mUberPageKey.put(-1, mPageKey++);
+      appendUberPageReference(pageReference);
+      return publishUberPageReference(pageReference);
+    }
+
+    @Override
+    public Writer appendUberPageReference(final PageReference pageReference)
+        throws SirixIOException {
+      return write(pageReference);
+    }
+
+    @Override
+    public Writer publishUberPageReference(final PageReference pageReference)
+        throws SirixIOException {
+      mUberPageKey.put(-1, pageReference.getKey());
       return this;
     }
 
@@ -27,6 +27,7 @@ import java.util.Optional;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.brackit.xquery.atomic.QNm;
+import org.magicwerk.brownies.collections.primitive.LongGapList;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
 import org.sirix.node.delegates.NameNodeDelegate;
@@ -39,6 +40,7 @@ import org.sirix.utils.NamePageHash;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import com.google.common.collect.BiMap;
+import com.google.common.primitives.Longs;
 
 /**
  * <h1>ElementNode</h1>
@@ -54,14 +56,14 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
   /** Delegate for name node information. */
   private final NameNodeDelegate mNameDel;
 
-  /** Mapping names/keys. */
-  private final BiMap<Long, Long> mAttributes;
-
   /** Keys of attributes. */
-  private final List<Long> mAttributeKeys;
+  private final LongGapList mAttributeKeys;
+
+  /** Name keys (prefixKey+localNameKey) of the attributes, in the same order as their keys. */
+  private final LongGapList mAttributeNameKeys;
 
   /** Keys of namespace declarations. */
-  private final List<Long> mNamespaceKeys;
+  private final LongGapList mNamespaceKeys;
 
   /** {@link StructNodeDelegate} reference. */
   private final StructNodeDelegate mStructNodeDel;
@@ -77,25 +79,59 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
    * @param attributeKeys list of attribute keys
    * @param attributes attribute nameKey / nodeKey mapping in both directions
    * @param namespaceKeys keys of namespaces to be set
-   * @param
+   * @param qNm the qualified name
    */
   public ElementNode(final StructNodeDelegate structDel, final NameNodeDelegate nameDel,
       final List<Long> attributeKeys, final BiMap<Long, Long> attributes,
       final List<Long> namespaceKeys, final QNm qNm) {
+    this(structDel, nameDel, LongGapList.create(attributeKeys),
+        nameKeys(attributeKeys, attributes), LongGapList.create(namespaceKeys), qNm);
+  }
+
+  /**
+   * Constructor, which takes ownership of the given lists of primitive keys.
+   *
+   * @param structDel {@link StructNodeDelegate} to be set
+   * @param nameDel {@link NameNodeDelegate} to be set
+   * @param attributeKeys list of attribute keys
+   * @param attributeNameKeys list of the name keys of the attributes, in the same order as
+   *        {@code attributeKeys}
+   * @param namespaceKeys keys of namespaces to be set
+   * @param qNm the qualified name
+   */
+  public ElementNode(final StructNodeDelegate structDel, final NameNodeDelegate nameDel,
+      final LongGapList attributeKeys, final LongGapList attributeNameKeys,
+      final LongGapList namespaceKeys, final QNm qNm) {
     assert structDel != null;
     mStructNodeDel = structDel;
     assert nameDel != null;
     mNameDel = nameDel;
     assert attributeKeys != null;
     mAttributeKeys = attributeKeys;
-    assert attributes != null;
-    mAttributes = attributes;
+    assert attributeNameKeys != null && attributeNameKeys.size() == attributeKeys.size();
+    mAttributeNameKeys = attributeNameKeys;
     assert namespaceKeys != null;
     mNamespaceKeys = namespaceKeys;
     assert qNm != null;
     mQNm = qNm;
   }
 
+  /**
+   * Get the name keys of attributes from a nameKey / nodeKey mapping.
+   *
+   * @param attributeKeys list of attribute keys
+   * @param attributes attribute nameKey / nodeKey mapping in both directions
+   * @return the name keys in the same order as the attribute keys
+   */
+  private static LongGapList nameKeys(final List<Long> attributeKeys,
+      final BiMap<Long, Long> attributes) {
+    final LongGapList nameKeys = new LongGapList(attributeKeys.size());
+    for (final long attributeKey : attributeKeys) {
+      nameKeys.add(attributes.inverse().get(attributeKey));
+    }
+    return nameKeys;
+  }
+
   /**
    * Getting the count of attributes.
    *
@@ -129,7 +165,10 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
         ? NamePageHash.generateHashForString(name.getPrefix())
         : -1;
     final int localNameIndex = NamePageHash.generateHashForString(name.getLocalName());
-    return Optional.ofNullable(mAttributes.get((long) (prefixIndex + localNameIndex)));
+    final int index = mAttributeNameKeys.indexOf(prefixIndex + localNameIndex);
+    return index == -1
+        ? Optional.empty()
+        : Optional.of(mAttributeKeys.get(index));
   }
 
   /**
@@ -139,7 +178,20 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
    * @return optional name key
    */
   public Optional<Long> getAttributeNameKey(final @Nonnegative long key) {
-    return Optional.ofNullable(mAttributes.inverse().get(key));
+    final int index = mAttributeKeys.indexOf(key);
+    return index == -1
+        ? Optional.empty()
+        : Optional.of(mAttributeNameKeys.get(index));
+  }
+
+  /**
+   * Get name key (prefixKey+localNameKey) of the attribute with the given index.
+   *
+   * @param index index of the attribute
+   * @return the name key
+   */
+  public long getAttributeNameKeyByIndex(final @Nonnegative int index) {
+    return mAttributeNameKeys.get(index);
   }
 
   /**
@@ -150,7 +202,7 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
    */
   public void insertAttribute(final @Nonnegative long attrKey, final long nameIndex) {
     mAttributeKeys.add(attrKey);
-    mAttributes.put(nameIndex, attrKey);
+    mAttributeNameKeys.add(nameIndex);
   }
 
   /**
@@ -159,8 +211,11 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
    * @param attrKey the key of the attribute to be removed@Nonnegative@Nonnegative
    */
   public void removeAttribute(final @Nonnegative long attrKey) {
-    mAttributeKeys.remove(attrKey);
-    mAttributes.inverse().remove(attrKey);
+    final int index = mAttributeKeys.indexOf(attrKey);
+    if (index != -1) {
+      mAttributeKeys.remove(index);
+      mAttributeNameKeys.remove(index);
+    }
   }
 
   /**
@@ -200,7 +255,7 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
    * @param namespaceKey the key of the namespace to be removed
    */
   public void removeNamespace(final long namespaceKey) {
-    mNamespaceKeys.remove(namespaceKey);
+    mNamespaceKeys.removeElem(namespaceKey);
   }
 
   @Override
@@ -270,19 +325,19 @@ public final class ElementNode extends AbstractStructForwardingNode implements N
   /**
    * Get a {@link List} with all attribute keys.
    *
-   * @return unmodifiable view of {@link List} with all attribute keys
+   * @return unmodifiable {@link List} with all attribute keys
    */
   public List<Long> getAttributeKeys() {
-    return Collections.unmodifiableList(mAttributeKeys);
+    return Collections.unmodifiableList(Longs.asList(mAttributeKeys.toArray()));
   }
 
   /**
    * Get a {@link List} with all namespace keys.
    *
-   * @return unmodifiable view of {@link List} with all namespace keys
+   * @return unmodifiable {@link List} with all namespace keys
    */
   public List<Long> getNamespaceKeys() {
-    return Collections.unmodifiableList(mNamespaceKeys);
+    return Collections.unmodifiableList(Longs.asList(mNamespaceKeys.toArray()));
   }
 
   @Override
@@ -26,20 +26,16 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import javax.annotation.Nonnegative;
 import org.brackit.xquery.atomic.Atomic;
 import org.brackit.xquery.atomic.QNm;
 import org.brackit.xquery.module.Namespaces;
 import org.brackit.xquery.xdm.Type;
+import org.magicwerk.brownies.collections.primitive.LongGapList;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
 import org.sirix.index.AtomicUtil;
@@ -59,8 +55,6 @@ import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.service.xml.xpath.AtomicValue;
 import org.sirix.settings.Constants;
 import org.sirix.settings.Fixed;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 
 /**
  * Enumeration for different nodes. All nodes are determined by a unique id.
@@ -87,33 +81,24 @@ public enum Kind implements NodePersistenter {
 
       // Attributes.
       final int attrCount = source.readInt();
-      final List<Long> attrKeys = new ArrayList<>(attrCount);
-      final BiMap<Long, Long> attrs = HashBiMap.<Long, Long>create();
+      final LongGapList attrKeys = new LongGapList(attrCount);
+      final LongGapList attrNameKeys = new LongGapList(attrCount);
       for (int i = 0; i < attrCount; i++) {
-        final long nodeKey = source.readLong();
-        attrKeys.add(nodeKey);
-        attrs.put(source.readLong(), nodeKey);
+        attrKeys.add(source.readLong());
+        attrNameKeys.add(source.readLong());
       }
 
       // Namespaces.
       final int nsCount = source.readInt();
-      final List<Long> namespKeys = new ArrayList<>(nsCount);
+      final LongGapList namespKeys = new LongGapList(nsCount);
       for (int i = 0; i < nsCount; i++) {
         namespKeys.add(source.readLong());
       }
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ELEMENT);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ELEMENT);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ELEMENT);
 
-      return new ElementNode(structDel, nameDel, attrKeys, attrs, namespKeys,
-          new QNm(uri, prefix, localName));
+      return new ElementNode(structDel, nameDel, attrKeys, attrNameKeys, namespKeys, name);
     }
 
     @Override
@@ -125,9 +110,8 @@ public enum Kind implements NodePersistenter {
       serializeNameDelegate(node.getNameNodeDelegate(), sink);
       sink.writeInt(node.getAttributeCount());
       for (int i = 0, attCount = node.getAttributeCount(); i < attCount; i++) {
-        final long key = node.getAttributeKey(i);
-        sink.writeLong(key);
-        sink.writeLong(node.getAttributeNameKey(key).get());
+        sink.writeLong(node.getAttributeKey(i));
+        sink.writeLong(node.getAttributeNameKeyByIndex(i));
       }
       sink.writeInt(node.getNamespaceCount());
       for (int i = 0, nspCount = node.getNamespaceCount(); i < nspCount; i++) {
@@ -155,17 +139,8 @@ public enum Kind implements NodePersistenter {
       source.readFully(vals, 0, vals.length);
       final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals, isCompressed);
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ATTRIBUTE);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ATTRIBUTE);
-
-      final QNm name = new QNm(uri, prefix, localName);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ATTRIBUTE);
 
       // Returning an instance.
       return new AttributeNode(nodeDel, nameDel, valDel, name);
@@ -192,17 +167,8 @@ public enum Kind implements NodePersistenter {
       // Name delegate.
       final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ELEMENT);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ELEMENT);
-
-      final QNm name = new QNm(uri, prefix, localName);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ELEMENT);
 
       return new NamespaceNode(nodeDel, nameDel, name);
     }
@@ -571,16 +537,7 @@ public enum Kind implements NodePersistenter {
       final int typeSize = source.readInt();
       final byte[] type = new byte[typeSize];
       source.readFully(type, 0, typeSize);
-      final int keySize = source.readInt();
-      final Set<Long> nodeKeys = new HashSet<>(keySize);
-      long key = getVarLong(source);
-      nodeKeys.add(key);
-      for (int i = 1; i < keySize; i++) {
-        if (i + 1 < keySize) {
-          key += getVarLong(source);
-          nodeKeys.add(key);
-        }
-      }
+      final NodeReferences nodeReferences = NodeReferences.deserialize(source);
       final Type atomicType = resolveType(new String(type, Constants.DEFAULT_ENCODING));
 
       // Node delegate.
@@ -593,7 +550,7 @@ public enum Kind implements NodePersistenter {
       final Atomic atomic = AtomicUtil.fromBytes(value, atomicType);
       AVLNode<CASValue, NodeReferences> node;
       node = new AVLNode<CASValue, NodeReferences>(new CASValue(atomic, atomicType, pathNodeKey),
-          new NodeReferences(nodeKeys), nodeDel);
+          nodeReferences, nodeDel);
 
       node.setLeftChildKey(leftChild);
       node.setRightChildKey(rightChild);
@@ -613,20 +570,7 @@ public enum Kind implements NodePersistenter {
       final byte[] type = key.getType().toString().getBytes(Constants.DEFAULT_ENCODING);
       sink.writeInt(type.length);
       sink.write(type);
-      final NodeReferences value = node.getValue();
-      final Set<Long> nodeKeys = value.getNodeKeys();
-
-      // Store in a list and sort the list.
-      final List<Long> listNodeKeys = new ArrayList<>(nodeKeys);
-      Collections.sort(listNodeKeys);
-      sink.writeInt(listNodeKeys.size());
-      putVarLong(sink, listNodeKeys.get(0));
-      for (int i = 0; i < listNodeKeys.size(); i++) {
-        if (i + 1 < listNodeKeys.size()) {
-          final long diff = listNodeKeys.get(i + 1) - listNodeKeys.get(i);
-          putVarLong(sink, diff);
-        }
-      }
+      node.getValue().serialize(sink);
       serializeDelegate(node.getNodeDelegate(), sink);
       putVarLong(sink, node.getLeftChildKey());
       putVarLong(sink, node.getRightChildKey());
@@ -666,18 +610,14 @@ public enum Kind implements NodePersistenter {
     public Record deserialize(final DataInput source, final @Nonnegative long recordID,
         final Optional<SirixDeweyID> deweyID, final PageReadTrx pageReadTrx) throws IOException {
       final long key = getVarLong(source);
-      final int keySize = source.readInt();
-      final Set<Long> nodeKeys = new HashSet<>(keySize);
-      for (int i = 0; i < keySize; i++) {
-        nodeKeys.add(source.readLong());
-      }
+      final NodeReferences nodeReferences = NodeReferences.deserialize(source);
       // Node delegate.
       final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source, recordID, pageReadTrx);
       final long leftChild = getVarLong(source);
       final long rightChild = getVarLong(source);
       final boolean isChanged = source.readBoolean();
       final AVLNode<Long, NodeReferences> node =
-          new AVLNode<>(key, new NodeReferences(nodeKeys), nodeDel);
+          new AVLNode<>(key, nodeReferences, nodeDel);
       node.setLeftChildKey(leftChild);
       node.setRightChildKey(rightChild);
       node.setChanged(isChanged);
@@ -690,12 +630,7 @@ public enum Kind implements NodePersistenter {
       @SuppressWarnings("unchecked")
       final AVLNode<Long, NodeReferences> node = (AVLNode<Long, NodeReferences>) record;
       putVarLong(sink, node.getKey().longValue());
-      final NodeReferences value = node.getValue();
-      final Set<Long> nodeKeys = value.getNodeKeys();
-      sink.writeInt(nodeKeys.size());
-      for (final long nodeKey : nodeKeys) {
-        sink.writeLong(nodeKey);
-      }
+      node.getValue().serialize(sink);
       serializeDelegate(node.getNodeDelegate(), sink);
       putVarLong(sink, node.getLeftChildKey());
       putVarLong(sink, node.getRightChildKey());
@@ -731,18 +666,14 @@ public enum Kind implements NodePersistenter {
       final QNm name = new QNm(new String(nspBytes, Constants.DEFAULT_ENCODING),
           new String(prefixBytes, Constants.DEFAULT_ENCODING),
           new String(localNameBytes, Constants.DEFAULT_ENCODING));
-      final int keySize = source.readInt();
-      final Set<Long> nodeKeys = new HashSet<>(keySize);
-      for (int i = 0; i < keySize; i++) {
-        nodeKeys.add(source.readLong());
-      }
+      final NodeReferences nodeReferences = NodeReferences.deserialize(source);
       // Node delegate.
       final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source, recordID, pageReadTrx);
       final long leftChild = getVarLong(source);
       final long rightChild = getVarLong(source);
       final boolean isChanged = source.readBoolean();
       final AVLNode<QNm, NodeReferences> node =
-          new AVLNode<>(name, new NodeReferences(nodeKeys), nodeDel);
+          new AVLNode<>(name, nodeReferences, nodeDel);
       node.setLeftChildKey(leftChild);
       node.setRightChildKey(rightChild);
       node.setChanged(isChanged);
@@ -763,12 +694,7 @@ public enum Kind implements NodePersistenter {
       final byte[] localNameBytes = node.getKey().getLocalName().getBytes();
       sink.writeInt(localNameBytes.length);
       sink.write(localNameBytes);
-      final NodeReferences value = node.getValue();
-      final Set<Long> nodeKeys = value.getNodeKeys();
-      sink.writeInt(nodeKeys.size());
-      for (final long nodeKey : nodeKeys) {
-        sink.writeLong(nodeKey);
-      }
+      node.getValue().serialize(sink);
       serializeDelegate(node.getNodeDelegate(), sink);
       putVarLong(sink, node.getLeftChildKey());
       putVarLong(sink, node.getRightChildKey());
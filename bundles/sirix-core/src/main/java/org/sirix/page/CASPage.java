@@ -26,12 +26,16 @@ public final class CASPage extends AbstractForwardingPage {
   /** Maximum node keys. */
   private final Map<Integer, Long> mMaxNodeKeys;
 
+  /** Current heights of the indirect page trees. */
+  private final Map<Integer, Integer> mCurrentMaxLevelsOfIndirectPages;
+
   /**
    * Constructor.
    */
   public CASPage() {
     mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR);
     mMaxNodeKeys = new HashMap<>();
+    mCurrentMaxLevelsOfIndirectPages = new HashMap<>();
   }
 
   /**
@@ -56,6 +60,10 @@ public final class CASPage extends AbstractForwardingPage {
     for (int i = 0; i < size; i++) {
       mMaxNodeKeys.put(i, in.readLong());
     }
+    mCurrentMaxLevelsOfIndirectPages = new HashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      mCurrentMaxLevelsOfIndirectPages.put(i, in.readInt());
+    }
   }
 
   @Override
@@ -81,7 +89,8 @@ public final class CASPage extends AbstractForwardingPage {
     if (reference.getPage() == null && reference.getKey() == Constants.NULL_ID_LONG
         && reference.getLogKey() == Constants.NULL_ID_INT
         && reference.getPersistentLogKey() == Constants.NULL_ID_LONG) {
-      PageUtils.createTree(reference, PageKind.CASPAGE, index, pageReadTrx, log);
+      mCurrentMaxLevelsOfIndirectPages.put(index,
+          PageUtils.createTree(reference, PageKind.CASPAGE, index, pageReadTrx, log));
       if (mMaxNodeKeys.get(index) == null) {
         mMaxNodeKeys.put(index, 0l);
       } else {
@@ -98,6 +107,9 @@ public final class CASPage extends AbstractForwardingPage {
     for (int i = 0; i < size; i++) {
       out.writeLong(mMaxNodeKeys.get(i));
     }
+    for (int i = 0; i < size; i++) {
+      out.writeInt(mCurrentMaxLevelsOfIndirectPages.get(i));
+    }
   }
 
   /**
@@ -116,4 +128,27 @@ public final class CASPage extends AbstractForwardingPage {
     return newMaxNodeKey;
   }
 
+  /**
+   * Get the current height of the indirect page tree of the specified index.
+   *
+   * @param indexNo the index number
+   * @return the number of levels of indirect pages
+   */
+  public int getCurrentMaxLevelOfIndirectPages(final int indexNo) {
+    return mCurrentMaxLevelsOfIndirectPages.get(indexNo);
+  }
+
+  /**
+   * Increment the height of the indirect page tree of the specified index, once a new root level
+   * has been added.
+   *
+   * @param indexNo the index number
+   * @return the new number of levels of indirect pages
+   */
+  public int incrementAndGetCurrentMaxLevelOfIndirectPages(final int indexNo) {
+    final int newLevel = mCurrentMaxLevelsOfIndirectPages.get(indexNo) + 1;
+    mCurrentMaxLevelsOfIndirectPages.put(indexNo, newLevel);
+    return newLevel;
+  }
+
 }
@@ -24,9 +24,16 @@ package org.sirix.page;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.PageReadTrx;
 import org.sirix.cache.TransactionIntentLog;
 import org.sirix.index.name.Names;
@@ -40,7 +47,10 @@ import com.google.common.base.MoreObjects;
  * <h1>NamePage</h1>
  *
  * <p>
- * Name page holds all names and their keys for a revision.
+ * Name page holds all names and their keys for a revision. As name keys are hashes of the names, a
+ * name key always denotes the same name, thus the page also interns the qualified names built from
+ * its names. Read-only transactions on the same revision share the page through the buffer
+ * manager and therefore the canonical {@link QNm} instances, too.
  * </p>
  */
 public final class NamePage extends AbstractForwardingPage {
@@ -63,16 +73,24 @@ public final class NamePage extends AbstractForwardingPage {
   /** Maximum node keys. */
   private final Map<Integer, Long> mMaxNodeKeys;
 
+  /** Current heights of the indirect page trees. */
+  private final Map<Integer, Integer> mCurrentMaxLevelsOfIndirectPages;
+
+  /** Canonical qualified names per kind, keyed by the name keys they are built from. */
+  private final Map<Kind, ConcurrentMap<NameKeys, QNm>> mQNames;
+
   /**
    * Create name page.
    */
   public NamePage() {
     mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR);
     mMaxNodeKeys = new HashMap<>();
+    mCurrentMaxLevelsOfIndirectPages = new HashMap<>();
     mAttributes = Names.getInstance();
     mElements = Names.getInstance();
     mNamespaces = Names.getInstance();
     mPIs = Names.getInstance();
+    mQNames = createQNameCache();
   }
 
   /**
@@ -87,10 +105,129 @@ public final class NamePage extends AbstractForwardingPage {
     for (int i = 0; i < size; i++) {
       mMaxNodeKeys.put(i, in.readLong());
     }
+    mCurrentMaxLevelsOfIndirectPages = new HashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      mCurrentMaxLevelsOfIndirectPages.put(i, in.readInt());
+    }
     mElements = Names.clone(in);
     mNamespaces = Names.clone(in);
     mAttributes = Names.clone(in);
     mPIs = Names.clone(in);
+    mQNames = createQNameCache();
+  }
+
+  /**
+   * Create the cache of the canonical qualified names.
+   *
+   * @return the cache
+   */
+  private static Map<Kind, ConcurrentMap<NameKeys, QNm>> createQNameCache() {
+    final Map<Kind, ConcurrentMap<NameKeys, QNm>> qNames = new EnumMap<>(Kind.class);
+    qNames.put(Kind.ELEMENT, new ConcurrentHashMap<>());
+    qNames.put(Kind.ATTRIBUTE, new ConcurrentHashMap<>());
+    qNames.put(Kind.NAMESPACE, new ConcurrentHashMap<>());
+    qNames.put(Kind.PROCESSING_INSTRUCTION, new ConcurrentHashMap<>());
+    return qNames;
+  }
+
+  /**
+   * Get the canonical qualified name of the given name keys.
+   *
+   * @param uriKey the name key of the namespace URI
+   * @param prefixKey the name key of the prefix or {@code -1}, if there's no prefix
+   * @param localNameKey the name key of the local name or {@code -1}, if there's no local name
+   * @param nodeKind kind of node, which denotes the names the prefix and local name are looked up
+   *        in
+   * @return the qualified name or {@code null}, if one of the names isn't stored in this page
+   */
+  public @Nullable QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      @Nonnull final Kind nodeKind) {
+    final ConcurrentMap<NameKeys, QNm> qNames = mQNames.get(nodeKind);
+    if (qNames == null) {
+      throw new IllegalStateException("No other node types supported!");
+    }
+    final NameKeys key = new NameKeys(uriKey, prefixKey, localNameKey);
+    final QNm interned = qNames.get(key);
+    if (interned != null) {
+      return interned;
+    }
+
+    final String uri = getName(uriKey, Kind.NAMESPACE);
+    final String prefix = prefixKey == -1
+        ? ""
+        : getName(prefixKey, nodeKind);
+    final String localName = localNameKey == -1
+        ? ""
+        : getName(localNameKey, nodeKind);
+    if (uri == null || prefix == null || localName == null) {
+      return null;
+    }
+
+    final QNm name = new QNm(uri, prefix, localName);
+    final QNm previous = qNames.putIfAbsent(key, name);
+    return previous == null
+        ? name
+        : previous;
+  }
+
+  /**
+   * Evict the canonical qualified names, which are built from a name, that has been removed.
+   *
+   * @param key the name key of the removed name
+   * @param nodeKind kind of node the name has been removed from
+   */
+  private void evictQNames(final int key, final Kind nodeKind) {
+    mQNames.get(nodeKind)
+           .keySet()
+           .removeIf(nameKeys -> nameKeys.mPrefixKey == key || nameKeys.mLocalNameKey == key);
+    if (nodeKind == Kind.NAMESPACE) {
+      // Namespace URIs are part of the qualified names of all kinds.
+      for (final ConcurrentMap<NameKeys, QNm> qNames : mQNames.values()) {
+        qNames.keySet().removeIf(nameKeys -> nameKeys.mURIKey == key);
+      }
+    }
+  }
+
+  /**
+   * The name keys a qualified name is built from.
+   */
+  private static final class NameKeys {
+    /** The name key of the namespace URI. */
+    private final int mURIKey;
+
+    /** The name key of the prefix. */
+    private final int mPrefixKey;
+
+    /** The name key of the local name. */
+    private final int mLocalNameKey;
+
+    /**
+     * Constructor.
+     *
+     * @param uriKey the name key of the namespace URI
+     * @param prefixKey the name key of the prefix
+     * @param localNameKey the name key of the local name
+     */
+    private NameKeys(final int uriKey, final int prefixKey, final int localNameKey) {
+      mURIKey = uriKey;
+      mPrefixKey = prefixKey;
+      mLocalNameKey = localNameKey;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(mURIKey, mPrefixKey, mLocalNameKey);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+      if (!(obj instanceof NameKeys)) {
+        return false;
+      }
+      final NameKeys other = (NameKeys) obj;
+      return mURIKey == other.mURIKey && mPrefixKey == other.mPrefixKey
+          && mLocalNameKey == other.mLocalNameKey;
+    }
   }
 
   /**
@@ -213,6 +350,9 @@ public final class NamePage extends AbstractForwardingPage {
       final long keys = mMaxNodeKeys.get(i);
       out.writeLong(keys);
     }
+    for (int i = 0; i < size; i++) {
+      out.writeInt(mCurrentMaxLevelsOfIndirectPages.get(i));
+    }
     mElements.serialize(out);
     mNamespaces.serialize(out);
     mAttributes.serialize(out);
@@ -235,23 +375,38 @@ public final class NamePage extends AbstractForwardingPage {
    * @param key the key to remove
    */
   public void removeName(final int key, final Kind nodeKind) {
+    removeName(key, nodeKind, 1);
+  }
+
+  /**
+   * Remove several occurences of a name at once.
+   *
+   * @param key the key to remove
+   * @param nodeKind the kind of the nodes
+   * @param count the number of occurences to remove
+   */
+  public void removeName(final int key, final Kind nodeKind, final @Nonnegative int count) {
     switch (nodeKind) {
       case ELEMENT:
-        mElements.removeName(key);
+        mElements.removeName(key, count);
         break;
       case NAMESPACE:
-        mNamespaces.removeName(key);
+        mNamespaces.removeName(key, count);
         break;
       case ATTRIBUTE:
-        mAttributes.removeName(key);
+        mAttributes.removeName(key, count);
         break;
       case PROCESSING_INSTRUCTION:
-        mPIs.removeName(key);
+        mPIs.removeName(key, count);
         break;
       // $CASES-OMITTED$
       default:
         throw new IllegalStateException("No other node types supported!");
     }
+    if (getCount(key, nodeKind) == 0) {
+      // The key might be reused for another name afterwards.
+      evictQNames(key, nodeKind);
+    }
   }
 
   /**
@@ -267,7 +422,8 @@ public final class NamePage extends AbstractForwardingPage {
     if (reference.getPage() == null && reference.getKey() == Constants.NULL_ID_LONG
         && reference.getLogKey() == Constants.NULL_ID_INT
         && reference.getPersistentLogKey() == Constants.NULL_ID_LONG) {
-      PageUtils.createTree(reference, PageKind.NAMEPAGE, index, pageReadTrx, log);
+      mCurrentMaxLevelsOfIndirectPages.put(index,
+          PageUtils.createTree(reference, PageKind.NAMEPAGE, index, pageReadTrx, log));
       if (mMaxNodeKeys.get(index) == null) {
         mMaxNodeKeys.put(index, 0L);
       } else {
@@ -302,6 +458,29 @@ public final class NamePage extends AbstractForwardingPage {
     return newMaxNodeKey;
   }
 
+  /**
+   * Get the current height of the indirect page tree of the specified index.
+   *
+   * @param indexNo the index number
+   * @return the number of levels of indirect pages
+   */
+  public int getCurrentMaxLevelOfIndirectPages(final int indexNo) {
+    return mCurrentMaxLevelsOfIndirectPages.get(indexNo);
+  }
+
+  /**
+   * Increment the height of the indirect page tree of the specified index, once a new root level
+   * has been added.
+   *
+   * @param indexNo the index number
+   * @return the new number of levels of indirect pages
+   */
+  public int incrementAndGetCurrentMaxLevelOfIndirectPages(final int indexNo) {
+    final int newLevel = mCurrentMaxLevelsOfIndirectPages.get(indexNo) + 1;
+    mCurrentMaxLevelsOfIndirectPages.put(indexNo, newLevel);
+    return newLevel;
+  }
+
   @Override
   protected Page delegate() {
     return mDelegate;
@@ -55,8 +55,10 @@ public enum PageKind {
     public @Nonnull Page getInstance(final Page nodePage, final PageReadTrx pageReadTrx) {
       assert nodePage instanceof UnorderedKeyValuePage;
       final UnorderedKeyValuePage page = (UnorderedKeyValuePage) nodePage;
-      return new UnorderedKeyValuePage(page.getPageKey(), page.getPageKind(),
-          page.getPreviousReferenceKey(), pageReadTrx);
+      final UnorderedKeyValuePage newPage = new UnorderedKeyValuePage(page.getPageKey(),
+          page.getPageKind(), page.getPreviousReferenceKey(), pageReadTrx);
+      newPage.setPreviousFragmentKeys(page.getPreviousFragmentKeys());
+      return newPage;
     }
   },
 
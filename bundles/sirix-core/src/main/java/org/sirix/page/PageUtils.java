@@ -29,24 +29,20 @@ public final class PageUtils {
   }
 
   /**
-   * Create the initial tree structure.
+   * Create the initial tree structure, that is a single level of indirect pages, which is able to
+   * address {@code 2^INP_REFERENCE_COUNT_EXPONENT} record pages. Further levels are added on top of
+   * the tree once a record page key exceeds its capacity.
    *
    * @param reference reference from revision root
    * @param pageKind the page kind
+   * @return the height of the created tree, that is the number of levels of indirect pages
    */
-  public static void createTree(@Nonnull PageReference reference, final PageKind pageKind,
+  public static int createTree(@Nonnull PageReference reference, final PageKind pageKind,
       final int index, final PageReadTrx pageReadTrx, final TransactionIntentLog log) {
-    Page page = null;
-
-    // Level page count exponent from the configuration.
-    final int[] levelPageCountExp = pageReadTrx.getUberPage().getPageCountExp(pageKind);
-
-    // Remaining levels.
-    for (int i = 0, l = levelPageCountExp.length; i < l; i++) {
-      page = new IndirectPage();
-      log.put(reference, PageContainer.getInstance(page, page));
-      reference = page.getReference(0);
-    }
+    // Single level of indirect pages.
+    final Page page = new IndirectPage();
+    log.put(reference, PageContainer.getInstance(page, page));
+    reference = page.getReference(0);
 
     // Create new record page.
     final UnorderedKeyValuePage ndp = new UnorderedKeyValuePage(
@@ -65,5 +61,7 @@ public final class PageUtils {
         Fixed.NULL_NODE_KEY.getStandardProperty(), 0, 0);
     ndp.setEntry(0L, new DocumentRootNode(nodeDel, strucDel));
     log.put(reference, PageContainer.getInstance(ndp, ndp));
+
+    return 1;
   }
 }
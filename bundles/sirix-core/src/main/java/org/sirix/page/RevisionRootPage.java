@@ -69,6 +69,9 @@ public final class RevisionRootPage extends AbstractForwardingPage {
   /** Timestamp of revision. */
   private long mRevisionTimestamp;
 
+  /** Current height of the indirect page tree of the records. */
+  private int mCurrentMaxLevelOfIndirectPages;
+
   /** {@link PageDelegate} instance. */
   private final PageDelegate mDelegate;
 
@@ -101,6 +104,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     mRevision = in.readInt();
     mMaxNodeKey = in.readLong();
     mRevisionTimestamp = in.readLong();
+    mCurrentMaxLevelOfIndirectPages = in.readInt();
     if (in.readBoolean()) {
       final byte[] commitMessage = new byte[in.readInt()];
       in.readFully(commitMessage);
@@ -121,6 +125,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     mRevision = representRev;
     mMaxNodeKey = committedRevisionRootPage.mMaxNodeKey;
     mRevisionTimestamp = committedRevisionRootPage.mRevisionTimestamp;
+    mCurrentMaxLevelOfIndirectPages = committedRevisionRootPage.mCurrentMaxLevelOfIndirectPages;
   }
 
   /**
@@ -202,6 +207,25 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     mMaxNodeKey = maxNodeKey;
   }
 
+  /**
+   * Get the current height of the indirect page tree of the records.
+   *
+   * @return the number of levels of indirect pages
+   */
+  public int getCurrentMaxLevelOfIndirectPages() {
+    return mCurrentMaxLevelOfIndirectPages;
+  }
+
+  /**
+   * Increment the height of the indirect page tree of the records, once a new root level has been
+   * added.
+   *
+   * @return the new number of levels of indirect pages
+   */
+  public int incrementAndGetCurrentMaxLevelOfIndirectPages() {
+    return ++mCurrentMaxLevelOfIndirectPages;
+  }
+
   /**
    * Only commit whole subtree if it's the currently added revision.
    *
@@ -211,17 +235,18 @@ public final class RevisionRootPage extends AbstractForwardingPage {
   public <K extends Comparable<? super K>, V extends Record, S extends KeyValuePage<K, V>> void commit(
       @Nonnull final PageWriteTrx<K, V, S> pageWriteTrx) {
     if (mRevision == pageWriteTrx.getUberPage().getRevision()) {
+      mRevisionTimestamp = Instant.now().toEpochMilli();
       super.commit(pageWriteTrx);
     }
   }
 
   @Override
   public void serialize(final DataOutput out, final SerializationType type) throws IOException {
-    mRevisionTimestamp = Instant.now().toEpochMilli();
     mDelegate.serialize(checkNotNull(out), checkNotNull(type));
     out.writeInt(mRevision);
     out.writeLong(mMaxNodeKey);
     out.writeLong(mRevisionTimestamp);
+    out.writeInt(mCurrentMaxLevelOfIndirectPages);
     out.writeBoolean(mCommitMessage != null);
     if (mCommitMessage != null) {
       final byte[] commitMessage = mCommitMessage.getBytes(Constants.DEFAULT_ENCODING);
@@ -235,6 +260,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     return MoreObjects.toStringHelper(this)
                       .add("revisionTimestamp", mRevisionTimestamp)
                       .add("maxNodeKey", mMaxNodeKey)
+                      .add("currentMaxLevelOfIndirectPages", mCurrentMaxLevelOfIndirectPages)
                       .add("delegate", mDelegate)
                       .add("namePage", getReference(NAME_REFERENCE_OFFSET))
                       .add("pathSummaryPage", getReference(PATH_SUMMARY_REFERENCE_OFFSET))
@@ -260,7 +286,8 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     if (reference.getPage() == null && reference.getKey() == Constants.NULL_ID_LONG
         && reference.getLogKey() == Constants.NULL_ID_INT
         && reference.getPersistentLogKey() == Constants.NULL_ID_LONG) {
-      PageUtils.createTree(reference, PageKind.RECORDPAGE, -1, pageReadTrx, log);
+      mCurrentMaxLevelOfIndirectPages =
+          PageUtils.createTree(reference, PageKind.RECORDPAGE, -1, pageReadTrx, log);
       incrementAndGetMaxNodeKey();
     }
   }
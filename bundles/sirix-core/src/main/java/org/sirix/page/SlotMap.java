@@ -0,0 +1,352 @@
+package org.sirix.page;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import org.sirix.settings.Constants;
+
+/**
+ * Maps the keys of the records of a single record page to values. Keys in the key range of the
+ * page are stored in an array, which is indexed by the slot of the key ({@code key & 511}), such
+ * that neither keys are boxed nor entries are allocated. Keys out of the key range of the page
+ * are kept in a map, which is only allocated on demand.
+ *
+ * @author agent
+ *
+ * @param <V> the type of the values
+ */
+final class SlotMap<V> {
+
+  /** Key of the record page. */
+  private final long mRecordPageKey;
+
+  /** The values, indexed by slot ({@code null} if not allocated yet). */
+  private @Nullable Object[] mValues;
+
+  /** Number of values, which are stored in {@code mValues}. */
+  private int mSize;
+
+  /** Values of keys out of the key range of the page ({@code null} if not allocated yet). */
+  private @Nullable Map<Long, V> mOutOfRange;
+
+  /**
+   * Constructor.
+   *
+   * @param recordPageKey key of the record page
+   */
+  SlotMap(final @Nonnegative long recordPageKey) {
+    mRecordPageKey = recordPageKey;
+  }
+
+  /**
+   * Determines if a key is in the key range of the page.
+   *
+   * @param key the key
+   * @return {@code true}, if the key is in the key range of the page, {@code false} otherwise
+   */
+  private boolean inRange(final long key) {
+    return key >> Constants.NDP_NODE_COUNT_EXPONENT == mRecordPageKey;
+  }
+
+  /**
+   * Get the slot of a key in the key range of the page.
+   *
+   * @param key the key
+   * @return the slot
+   */
+  private static int slot(final long key) {
+    return (int) (key & (Constants.NDP_NODE_COUNT - 1));
+  }
+
+  /**
+   * Get the value of a key.
+   *
+   * @param key the key
+   * @return the value or {@code null}, if the key isn't mapped
+   */
+  @SuppressWarnings("unchecked")
+  @Nullable
+  V get(final long key) {
+    if (inRange(key)) {
+      return mValues == null
+          ? null
+          : (V) mValues[slot(key)];
+    }
+    return mOutOfRange == null
+        ? null
+        : mOutOfRange.get(key);
+  }
+
+  /**
+   * Determines if a key is mapped.
+   *
+   * @param key the key
+   * @return {@code true}, if the key is mapped, {@code false} otherwise
+   */
+  boolean containsKey(final long key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Map a key to a value.
+   *
+   * @param key the key
+   * @param value the value, which must not be {@code null}
+   */
+  void put(final long key, final V value) {
+    assert value != null : "value must not be null!";
+    if (inRange(key)) {
+      if (mValues == null) {
+        mValues = new Object[Constants.NDP_NODE_COUNT];
+      }
+      final int slot = slot(key);
+      if (mValues[slot] == null) {
+        mSize++;
+      }
+      mValues[slot] = value;
+    } else {
+      if (mOutOfRange == null) {
+        mOutOfRange = new HashMap<>();
+      }
+      mOutOfRange.put(key, value);
+    }
+  }
+
+  /**
+   * Remove the mapping of a key.
+   *
+   * @param key the key
+   */
+  void remove(final long key) {
+    if (inRange(key)) {
+      if (mValues != null && mValues[slot(key)] != null) {
+        mValues[slot(key)] = null;
+        mSize--;
+      }
+    } else if (mOutOfRange != null) {
+      mOutOfRange.remove(key);
+    }
+  }
+
+  /**
+   * Get the number of mappings.
+   *
+   * @return the number of mappings
+   */
+  int size() {
+    return mOutOfRange == null
+        ? mSize
+        : mSize + mOutOfRange.size();
+  }
+
+  /**
+   * Get an iterator over the keys, keys in the key range of the page in the order of their slots
+   * first.
+   *
+   * @return the iterator
+   */
+  Iterator<Long> keyIterator() {
+    return new SlotIterator<Long>() {
+      @Override
+      Long slotElement(final long key, final V value) {
+        return key;
+      }
+
+      @Override
+      Iterator<Long> outOfRangeIterator() {
+        return mOutOfRange.keySet().iterator();
+      }
+    };
+  }
+
+  /**
+   * Get an unmodifiable view of the mappings, keys in the key range of the page in the order of
+   * their slots first.
+   *
+   * @return the mappings
+   */
+  Set<Map.Entry<Long, V>> entrySet() {
+    return new AbstractSet<Map.Entry<Long, V>>() {
+      @Override
+      public Iterator<Map.Entry<Long, V>> iterator() {
+        return new SlotIterator<Map.Entry<Long, V>>() {
+          @Override
+          Map.Entry<Long, V> slotElement(final long key, final V value) {
+            return new AbstractMap.SimpleImmutableEntry<>(key, value);
+          }
+
+          @Override
+          Iterator<Map.Entry<Long, V>> outOfRangeIterator() {
+            return Collections.unmodifiableMap(mOutOfRange).entrySet().iterator();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return SlotMap.this.size();
+      }
+    };
+  }
+
+  /**
+   * Get the values, keys in the key range of the page in the order of their slots first.
+   *
+   * @return the values
+   */
+  List<V> values() {
+    final List<V> values = new ArrayList<>(size());
+    if (mValues != null && mSize > 0) {
+      for (final Object value : mValues) {
+        if (value != null) {
+          @SuppressWarnings("unchecked")
+          final V typedValue = (V) value;
+          values.add(typedValue);
+        }
+      }
+    }
+    if (mOutOfRange != null) {
+      values.addAll(mOutOfRange.values());
+    }
+    return values;
+  }
+
+  /**
+   * Get a map of all mappings, keys in the key range of the page in the order of their slots
+   * first.
+   *
+   * @return a new map of all mappings
+   */
+  Map<Long, V> toMap() {
+    final Map<Long, V> map = new LinkedHashMap<>(size());
+    if (mValues != null && mSize > 0) {
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        if (mValues[slot] != null) {
+          @SuppressWarnings("unchecked")
+          final V value = (V) mValues[slot];
+          map.put((mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + slot, value);
+        }
+      }
+    }
+    if (mOutOfRange != null) {
+      map.putAll(mOutOfRange);
+    }
+    return map;
+  }
+
+  @Override
+  public int hashCode() {
+    // Same as the hash code of a map with the same mappings.
+    int hash = 0;
+    if (mValues != null && mSize > 0) {
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        if (mValues[slot] != null) {
+          hash += Long.hashCode((mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + slot)
+              ^ mValues[slot].hashCode();
+        }
+      }
+    }
+    if (mOutOfRange != null) {
+      hash += mOutOfRange.hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object obj) {
+    if (!(obj instanceof SlotMap)) {
+      return false;
+    }
+    final SlotMap<?> other = (SlotMap<?>) obj;
+    if (mRecordPageKey != other.mRecordPageKey || mSize != other.mSize) {
+      return false;
+    }
+    if (mSize > 0) {
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        if (!Objects.equals(mValues[slot], other.mValues[slot])) {
+          return false;
+        }
+      }
+    }
+    final boolean hasOutOfRange = mOutOfRange != null && !mOutOfRange.isEmpty();
+    final boolean otherHasOutOfRange = other.mOutOfRange != null && !other.mOutOfRange.isEmpty();
+    return hasOutOfRange == otherHasOutOfRange
+        && (!hasOutOfRange || mOutOfRange.equals(other.mOutOfRange));
+  }
+
+  /**
+   * Iterates over the mappings of the slots in the order of the slots, followed by the mappings of
+   * the keys out of the key range of the page.
+   *
+   * @param <E> the type of the elements
+   */
+  private abstract class SlotIterator<E> implements Iterator<E> {
+    /** The next slot to check. */
+    private int mSlot;
+
+    /** Iterator over the keys out of the key range or {@code null}, if the slots are not done. */
+    private @Nullable Iterator<E> mOutOfRangeIterator;
+
+    /**
+     * Get the element of a slot.
+     *
+     * @param key the key of the slot
+     * @param value the value of the slot
+     * @return the element
+     */
+    abstract E slotElement(long key, V value);
+
+    /**
+     * Get the iterator over the elements of the keys out of the key range of the page, which is
+     * only called if such keys exist.
+     *
+     * @return the iterator
+     */
+    abstract Iterator<E> outOfRangeIterator();
+
+    @Override
+    public boolean hasNext() {
+      if (mOutOfRangeIterator == null) {
+        if (mValues != null) {
+          while (mSlot < Constants.NDP_NODE_COUNT && mValues[mSlot] == null) {
+            mSlot++;
+          }
+          if (mSlot < Constants.NDP_NODE_COUNT) {
+            return true;
+          }
+        }
+        mOutOfRangeIterator = mOutOfRange == null
+            ? Collections.emptyIterator()
+            : outOfRangeIterator();
+      }
+      return mOutOfRangeIterator.hasNext();
+    }
+
+    @Override
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (mOutOfRangeIterator != null) {
+        return mOutOfRangeIterator.next();
+      }
+      @SuppressWarnings("unchecked")
+      final V value = (V) mValues[mSlot];
+      final E element =
+          slotElement((mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + mSlot, value);
+      mSlot++;
+      return element;
+    }
+  }
+}
@@ -21,10 +21,13 @@
 
 package org.sirix.page;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
+import javax.annotation.Nonnegative;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
@@ -49,6 +52,14 @@ public final class UberPage extends AbstractForwardingPage {
   /** Offset of indirect page reference. */
   private static final int INDIRECT_REFERENCE_OFFSET = 0;
 
+  /** Page count exponents of the record, CAS, path and name trees by their height. */
+  private static final int[][] INP_LEVEL_PAGE_COUNT_EXPONENT_BY_HEIGHT =
+      byHeight(Constants.INP_LEVEL_PAGE_COUNT_EXPONENT);
+
+  /** Page count exponents of the path summary trees by their height. */
+  private static final int[][] PATHINP_LEVEL_PAGE_COUNT_EXPONENT_BY_HEIGHT =
+      byHeight(Constants.PATHINP_LEVEL_PAGE_COUNT_EXPONENT);
+
   /** Number of revisions. */
   private final int mRevisionCount;
 
@@ -128,6 +139,16 @@ public final class UberPage extends AbstractForwardingPage {
     return mPreviousUberPageKey;
   }
 
+  /**
+   * Set the key of the previous uber page, for instance once the history of uber pages has been
+   * discarded by a compaction of the data file.
+   *
+   * @param previousUberPageKey the key of the previous uber page
+   */
+  public void setPreviousUberPageKey(final long previousUberPageKey) {
+    mPreviousUberPageKey = previousUberPageKey;
+  }
+
   /**
    * Get indirect page reference.
    *
@@ -255,6 +276,48 @@ public final class UberPage extends AbstractForwardingPage {
     return inpLevelPageCountExp;
   }
 
+  /**
+   * Get the page count exponents of an indirect page tree with the given height, that is the
+   * exponents of the lowest {@code height} levels of a tree with the maximum height.
+   *
+   * @param pageKind page to lookup the exponent in the constant definition
+   * @param height the current height of the tree, that is the number of levels of indirect pages
+   * @return page count exponents
+   */
+  public int[] getPageCountExp(final PageKind pageKind, final @Nonnegative int height) {
+    final int[][] inpLevelPageCountExp;
+    switch (pageKind) {
+      case PATHSUMMARYPAGE:
+        inpLevelPageCountExp = PATHINP_LEVEL_PAGE_COUNT_EXPONENT_BY_HEIGHT;
+        break;
+      case PATHPAGE:
+      case CASPAGE:
+      case NAMEPAGE:
+      case RECORDPAGE:
+        inpLevelPageCountExp = INP_LEVEL_PAGE_COUNT_EXPONENT_BY_HEIGHT;
+        break;
+      case UBERPAGE:
+        checkArgument(height == Constants.UBPINP_LEVEL_PAGE_COUNT_EXPONENT.length,
+            "The revision tree has a fixed height!");
+        return Constants.UBPINP_LEVEL_PAGE_COUNT_EXPONENT;
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException("page kind not known!");
+    }
+    checkArgument(height > 0 && height < inpLevelPageCountExp.length, "height not supported!");
+    return inpLevelPageCountExp[height];
+  }
+
+  private static int[][] byHeight(final int[] inpLevelPageCountExp) {
+    final int maxHeight = inpLevelPageCountExp.length;
+    final int[][] byHeight = new int[maxHeight + 1][];
+    for (int height = 0; height <= maxHeight; height++) {
+      byHeight[height] =
+          Arrays.copyOfRange(inpLevelPageCountExp, maxHeight - height, maxHeight);
+    }
+    return byHeight;
+  }
+
   public int getPageReferenceCount(final PageKind pageKind) {
     int referenceCount;
     switch (pageKind) {
@@ -20,6 +20,7 @@
  */
 package org.sirix.page;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static org.sirix.node.Utils.getVarLong;
 import static org.sirix.node.Utils.putVarLong;
 import java.io.ByteArrayInputStream;
@@ -30,22 +31,32 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongUnaryOperator;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ByteBufferInputStream;
 import org.sirix.node.Kind;
 import org.sirix.node.SirixDeweyID;
 import org.sirix.node.interfaces.Node;
@@ -66,11 +77,27 @@ import com.google.common.collect.PeekingIterator;
  * An UnorderedKeyValuePage stores a set of records, commonly nodes in an unordered datastructure.
  * </p>
  * <p>
- * The page currently is not thread safe (might have to be for concurrent write-transactions)!
+ * Records read from the storage are kept in their serialized form in a single buffer together with
+ * a directory of the slot offsets. A record is deserialized on first access, such that a page only
+ * allocates the records which are actually needed. Deserializing records lazily, either from their
+ * slots or from overflow pages, is thread safe, whereas modifying the page is not (might have to be
+ * for concurrent write-transactions)!
  * </p>
  */
 public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
+  /** Estimated size of a page without its records and references in bytes. */
+  private static final int PAGE_SIZE = 256;
+
+  /** Estimated size of a deserialized record in bytes. */
+  private static final int RECORD_SIZE = 128;
+
+  /** Estimated size of a reference to an overflow page in bytes. */
+  private static final int REFERENCE_SIZE = 64;
+
+  /** Size of an entry of the slot directory in bytes. */
+  private static final int SLOT_DIRECTORY_ENTRY_SIZE = 32;
+
   private boolean mAddedReferences;
 
   /** References to overflow pages. */
@@ -79,15 +106,39 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   /** Key of record page. This is the base key of all contained nodes. */
   private final long mRecordPageKey;
 
-  /** Records (must be a {@link LinkedHashMap} to provide consistent iteration order). */
-  private final LinkedHashMap<Long, Record> mRecords;
+  /** Records, which have been added or modified, indexed by slot. */
+  private final SlotMap<Record> mRecords;
 
-  /** Slots which have to be serialized. */
-  private final Map<Long, byte[]> mSlots;
+  /** Serialized records, which have to be written, indexed by slot. */
+  private final SlotMap<byte[]> mSlots;
 
   /** Dewey IDs which have to be serialized. */
   private final Map<SirixDeweyID, Long> mDeweyIDs;
 
+  /**
+   * Buffers of the serialized records, which are deserialized on demand, indexed by slot
+   * ({@code null} if not allocated yet).
+   */
+  private ByteBuffer[] mSlotBuffers;
+
+  /** Offsets of the serialized records in their buffers, indexed by slot. */
+  private int[] mSlotOffsets;
+
+  /** Lengths of the serialized records, indexed by slot. */
+  private int[] mSlotLengths;
+
+  /** Dewey IDs of the serialized records, indexed by slot. */
+  private SirixDeweyID[] mSlotDeweyIDs;
+
+  /** Records, which have been deserialized from their slots, indexed by slot. */
+  private AtomicReferenceArray<Record> mDeserializedRecords;
+
+  /** Records, which have been deserialized from overflow pages. */
+  private final ConcurrentMap<Long, Record> mOverflowRecords;
+
+  /** Number of records, which are stored in slots. */
+  private int mSlotCount;
+
   /** Sirix {@link PageReadTrx}. */
   private final PageReadTrx mPageReadTrx;
 
@@ -100,6 +151,12 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   /** Reference key to the previous page if any. */
   private long mPreviousPageRefKey;
 
+  /**
+   * Reference keys to all previous fragments of the page, which are needed to reconstruct the page,
+   * from the most recent one to the oldest one.
+   */
+  private long[] mPreviousFragmentKeys;
+
   /** The resource configuration. */
   private final ResourceConfiguration mResourceConfig;
 
@@ -120,13 +177,17 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
     mReferences = new LinkedHashMap<>();
     mRecordPageKey = recordPageKey;
-    mRecords = new LinkedHashMap<>();
-    mSlots = new LinkedHashMap<>();
+    mRecords = new SlotMap<>(recordPageKey);
+    mSlots = new SlotMap<>(recordPageKey);
+    mOverflowRecords = new ConcurrentHashMap<>();
     mPageReadTrx = pageReadTrx;
     mPageKind = pageKind;
     mResourceConfig = pageReadTrx.getResourceManager().getResourceConfig();
     mRecordPersister = mResourceConfig.recordPersister;
     mPreviousPageRefKey = previousPageRefKey;
+    mPreviousFragmentKeys = previousPageRefKey == Constants.NULL_ID_LONG
+        ? new long[0]
+        : new long[] {previousPageRefKey};
 
     if (mPageReadTrx.getResourceManager().getResourceConfig().areDeweyIDsStored
         && mRecordPersister instanceof NodePersistenter) {
@@ -137,7 +198,10 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   }
 
   /**
-   * Constructor which reads the {@link UnorderedKeyValuePage} from the storage.
+   * Constructor which reads the {@link UnorderedKeyValuePage} from the storage. The records are
+   * not deserialized, but kept in a single buffer, from which they are deserialized on demand.
+   * Records with keys out of the key range of the page don't have a slot, thus they are
+   * deserialized right away.
    *
    * @param in input bytes to read page from
    * @param pageReadTrx {@link PageReadTrx} implementation
@@ -148,14 +212,16 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     mResourceConfig = pageReadTrx.getResourceManager().getResourceConfig();
     mRecordPersister = mResourceConfig.recordPersister;
     mPageReadTrx = pageReadTrx;
-    mSlots = new LinkedHashMap<>();
+    mRecords = new SlotMap<>(mRecordPageKey);
+    mSlots = new SlotMap<>(mRecordPageKey);
+    mOverflowRecords = new ConcurrentHashMap<>();
+    allocateSlotDirectory();
 
     if (mResourceConfig.areDeweyIDsStored && mRecordPersister instanceof NodePersistenter) {
       mDeweyIDs = new LinkedHashMap<>();
       final NodePersistenter persistenter = (NodePersistenter) mRecordPersister;
       final int deweyIDSize = in.readInt();
 
-      mRecords = new LinkedHashMap<>(deweyIDSize);
       Optional<SirixDeweyID> id = Optional.empty();
 
       for (int index = 0; index < deweyIDSize; index++) {
@@ -163,29 +229,61 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
         if (id.isPresent()) {
           final long key = getVarLong(in);
-          final int dataSize = in.readInt();
-          final byte[] data = new byte[dataSize];
-          in.readFully(data);
-          final Record record = mRecordPersister.deserialize(
-              new DataInputStream(new ByteArrayInputStream(data)), key, id, mPageReadTrx);
-          mRecords.put(key, record);
+          if (isInPage(key)) {
+            mSlotDeweyIDs[slot(key)] = id.get();
+          } else {
+            mDeweyIDs.put(id.get(), key);
+          }
         }
       }
     } else {
       mDeweyIDs = Collections.emptyMap();
-      mRecords = new LinkedHashMap<>();
     }
 
+    // Read the slot directory.
     final int normalEntrySize = in.readInt();
+    final long[] keys = new long[normalEntrySize];
+    final int[] offsets = new int[normalEntrySize];
+    final int[] lengths = new int[normalEntrySize];
+    int offset = 0;
     for (int index = 0; index < normalEntrySize; index++) {
-      final long key = getVarLong(in);
-      final int dataSize = in.readInt();
-      final byte[] data = new byte[dataSize];
-      in.readFully(data);
-      final Record record = mRecordPersister.deserialize(
-          new DataInputStream(new ByteArrayInputStream(data)), key, Optional.empty(), mPageReadTrx);
-      mRecords.put(key, record);
+      keys[index] = getVarLong(in);
+      offsets[index] = offset;
+      lengths[index] = in.readInt();
+      offset += lengths[index];
+    }
+
+    // Read all serialized records at once.
+    final byte[] data = new byte[offset];
+    in.readFully(data);
+    final ByteBuffer buffer = ByteBuffer.wrap(data);
+    Map<Long, SirixDeweyID> outOfPageDeweyIDs = null;
+    for (int index = 0; index < normalEntrySize; index++) {
+      final long key = keys[index];
+      if (isInPage(key)) {
+        final int slot = slot(key);
+        mSlotBuffers[slot] = buffer;
+        mSlotOffsets[slot] = offsets[index];
+        mSlotLengths[slot] = lengths[index];
+        mSlotCount++;
+      } else {
+        // Keep the serialized record, such that it's not serialized again.
+        final byte[] recordData =
+            Arrays.copyOfRange(data, offsets[index], offsets[index] + lengths[index]);
+        mSlots.put(key, recordData);
+        if (outOfPageDeweyIDs == null) {
+          outOfPageDeweyIDs = new HashMap<>();
+          for (final Entry<SirixDeweyID, Long> entry : mDeweyIDs.entrySet()) {
+            outOfPageDeweyIDs.put(entry.getValue(), entry.getKey());
+          }
+        }
+        mRecords.put(key,
+            mRecordPersister.deserialize(
+                new DataInputStream(new ByteArrayInputStream(recordData)), key,
+                Optional.ofNullable(outOfPageDeweyIDs.get(key)), pageReadTrx));
+      }
     }
+
     final int overlongEntrySize = in.readInt();
     mReferences = new LinkedHashMap<>(overlongEntrySize);
     for (int index = 0; index < overlongEntrySize; index++) {
@@ -195,15 +293,71 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
       mReferences.put(key, reference);
     }
     assert pageReadTrx != null : "pageReadTrx must not be null!";
-    final boolean hasPreviousReference = in.readBoolean();
-    if (hasPreviousReference) {
-      mPreviousPageRefKey = in.readLong();
-    } else {
-      mPreviousPageRefKey = Constants.NULL_ID_LONG;
+    final int previousFragmentsSize = in.readInt();
+    mPreviousFragmentKeys = new long[previousFragmentsSize];
+    for (int index = 0; index < previousFragmentsSize; index++) {
+      mPreviousFragmentKeys[index] = in.readLong();
     }
+    mPreviousPageRefKey = previousFragmentsSize == 0
+        ? Constants.NULL_ID_LONG
+        : mPreviousFragmentKeys[0];
     mPageKind = PageKind.getKind(in.readByte());
   }
 
+  // Allocate the directory of the serialized records.
+  private void allocateSlotDirectory() {
+    mSlotBuffers = new ByteBuffer[Constants.NDP_NODE_COUNT];
+    mSlotOffsets = new int[Constants.NDP_NODE_COUNT];
+    mSlotLengths = new int[Constants.NDP_NODE_COUNT];
+    mSlotDeweyIDs = new SirixDeweyID[Constants.NDP_NODE_COUNT];
+    mDeserializedRecords = new AtomicReferenceArray<>(Constants.NDP_NODE_COUNT);
+  }
+
+  /**
+   * Determines if a key is in the key range of the page, that is if a record with the key is
+   * stored in a slot or in a map like the {@link SlotMap} does.
+   *
+   * @param key the record key
+   * @return {@code true}, if the key is in the key range of the page, {@code false} otherwise
+   */
+  private boolean isInPage(final long key) {
+    return key >> Constants.NDP_NODE_COUNT_EXPONENT == mRecordPageKey;
+  }
+
+  /**
+   * Get the slot of a record in the page.
+   *
+   * @param key the record key, which must be in the key range of the page
+   * @return the slot
+   * @throws IllegalArgumentException if the key is not in the key range of the page
+   */
+  private int slot(final long key) {
+    checkArgument(isInPage(key), "Key %s is not in the key range of page %s.", key,
+        mRecordPageKey);
+    return (int) (key & (Constants.NDP_NODE_COUNT - 1));
+  }
+
+  /**
+   * Determines if the record with the given key is stored in a slot.
+   *
+   * @param key the record key
+   * @return {@code true}, if it's stored in a slot, {@code false} otherwise
+   */
+  private boolean hasSlot(final long key) {
+    return mSlotBuffers != null && isInPage(key) && mSlotBuffers[slot(key)] != null;
+  }
+
+  // Remove the serialized record, as it's replaced.
+  private void removeSlot(final long key) {
+    if (hasSlot(key)) {
+      final int slot = slot(key);
+      mSlotBuffers[slot] = null;
+      mSlotDeweyIDs[slot] = null;
+      mDeserializedRecords.set(slot, null);
+      mSlotCount--;
+    }
+  }
+
   @Override
   public long getPageKey() {
     return mRecordPageKey;
@@ -212,37 +366,157 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   @Override
   public Record getValue(final Long key) {
     assert key != null : "key must not be null!";
+    return getValue(key.longValue(), mPageReadTrx);
+  }
+
+  /**
+   * Get value with the specified key.
+   *
+   * @param key the key
+   * @return value with given key, or {@code null} if not present
+   */
+  public Record getValue(final long key) {
+    return getValue(key, mPageReadTrx);
+  }
+
+  /**
+   * Get value with the specified key. If the record isn't deserialized yet, it's deserialized
+   * using the given transaction, as the transaction which has read the page might already be
+   * closed, whereas the page is still cached.
+   *
+   * @param key the key
+   * @param pageReadTrx the transaction, which reads the record
+   * @return value with given key, or {@code null} if not present
+   */
+  public Record getValue(final long key, final PageReadTrx pageReadTrx) {
     Record record = mRecords.get(key);
+    if (record == null && hasSlot(key)) {
+      record = deserializeRecord(key, pageReadTrx);
+    }
     if (record == null) {
-      byte[] data = null;
-      try {
-        final PageReference reference = mReferences.get(key);
-        if (reference != null && reference.getKey() != Constants.NULL_ID_LONG) {
-          data = ((OverflowPage) mPageReadTrx.getReader().read(reference, mPageReadTrx)).getData();
-        } else {
-          return null;
-        }
-      } catch (final SirixIOException e) {
-        return null;
-      }
-      final InputStream in = new ByteArrayInputStream(data);
-      try {
-        record = mRecordPersister.deserialize(new DataInputStream(in), key, Optional.empty(), null);
-      } catch (final IOException e) {
+      record = mOverflowRecords.get(key);
+    }
+    if (record == null) {
+      record = deserializeOverflowRecord(key, pageReadTrx);
+    }
+    return record;
+  }
+
+  /**
+   * Deserialize a record from its overflow page on first access. Concurrent readers of the page
+   * always get the same record instance.
+   *
+   * @param key the record key
+   * @param pageReadTrx the transaction, which reads the record
+   * @return the deserialized record, or {@code null} if the record isn't stored in an overflow
+   *         page or can't be read
+   */
+  private Record deserializeOverflowRecord(final long key, final PageReadTrx pageReadTrx) {
+    byte[] data = null;
+    try {
+      final PageReference reference = mReferences.get(key);
+      if (reference != null && reference.getKey() != Constants.NULL_ID_LONG) {
+        data = ((OverflowPage) pageReadTrx.getReader().read(reference, pageReadTrx)).getData();
+      } else {
         return null;
       }
-      mRecords.put(key, record);
+    } catch (final SirixIOException e) {
+      return null;
+    }
+    final InputStream in = new ByteArrayInputStream(data);
+    final Record record;
+    try {
+      record = mRecordPersister.deserialize(new DataInputStream(in), key, Optional.empty(),
+          pageReadTrx);
+    } catch (final IOException e) {
+      return null;
+    }
+    final Record deserializedRecord = mOverflowRecords.putIfAbsent(key, record);
+    return deserializedRecord == null
+        ? record
+        : deserializedRecord;
+  }
+
+  /**
+   * Deserialize a record from its slot on first access. Concurrent readers of the page always get
+   * the same record instance.
+   *
+   * @param key the record key
+   * @param pageReadTrx the transaction, which reads the record
+   * @return the deserialized record
+   */
+  private Record deserializeRecord(final long key, final PageReadTrx pageReadTrx) {
+    final int slot = slot(key);
+    final Record deserializedRecord = mDeserializedRecords.get(slot);
+    if (deserializedRecord != null) {
+      return deserializedRecord;
+    }
+
+    final ByteBuffer data = mSlotBuffers[slot].duplicate();
+    data.position(mSlotOffsets[slot]);
+    data.limit(mSlotOffsets[slot] + mSlotLengths[slot]);
+
+    try {
+      final Record record = mRecordPersister.deserialize(
+          new DataInputStream(new ByteBufferInputStream(data)), key,
+          Optional.ofNullable(mSlotDeweyIDs[slot]), pageReadTrx);
+      return mDeserializedRecords.compareAndSet(slot, null, record)
+          ? record
+          : mDeserializedRecords.get(slot);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
     }
-    return record;
   }
 
   @Override
   public void setEntry(final Long key, final Record value) {
     assert value != null : "record must not be null!";
     mAddedReferences = false;
+    removeSlot(key);
+    mSlots.remove(key);
+    mOverflowRecords.remove(key);
     mRecords.put(key, value);
   }
 
+  @Override
+  public void copyEntry(final Long key, final KeyValuePage<Long, Record> page) {
+    assert key != null : "key must not be null!";
+    if (page instanceof UnorderedKeyValuePage) {
+      final UnorderedKeyValuePage other = (UnorderedKeyValuePage) page;
+      assert other.mRecordPageKey == mRecordPageKey;
+      if (!other.mRecords.containsKey(key) && other.hasSlot(key)) {
+        final int slot = other.slot(key);
+        final Record deserializedRecord = other.mDeserializedRecords.get(slot);
+        if (deserializedRecord != null) {
+          setEntry(key, deserializedRecord);
+        } else {
+          // Share the serialized record, such that it's only deserialized on demand.
+          mAddedReferences = false;
+          mRecords.remove(key);
+          mSlots.remove(key);
+          mOverflowRecords.remove(key);
+          if (mSlotBuffers == null) {
+            allocateSlotDirectory();
+          }
+          if (mSlotBuffers[slot] == null) {
+            mSlotCount++;
+          }
+          mSlotBuffers[slot] = other.mSlotBuffers[slot];
+          mSlotOffsets[slot] = other.mSlotOffsets[slot];
+          mSlotLengths[slot] = other.mSlotLengths[slot];
+          mSlotDeweyIDs[slot] = other.mSlotDeweyIDs[slot];
+          mDeserializedRecords.set(slot, null);
+        }
+        return;
+      }
+    }
+
+    final Record record = page.getValue(key);
+    if (record != null) {
+      setEntry(key, record);
+    }
+  }
+
   @Override
   public void serialize(final DataOutput out, final SerializationType type) throws IOException {
     if (!mAddedReferences) {
@@ -250,11 +524,29 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     }
     // Write page key.
     putVarLong(out, mRecordPageKey);
+    // Collect the serialized records, which are either stored in slots or have been serialized.
+    final Map<Long, SlotData> slots = new LinkedHashMap<>(mSlots.size() + mSlotCount);
+    for (final Entry<Long, byte[]> entry : mSlots.entrySet()) {
+      final byte[] data = entry.getValue();
+      slots.put(entry.getKey(), new SlotData(ByteBuffer.wrap(data), 0, data.length));
+    }
+    final Map<SirixDeweyID, Long> deweyIDs = new HashMap<>(mDeweyIDs);
+    if (mSlotBuffers != null) {
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        if (mSlotBuffers[slot] != null && mDeserializedRecords.get(slot) == null) {
+          final long key = (mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + slot;
+          slots.put(key, new SlotData(mSlotBuffers[slot], mSlotOffsets[slot], mSlotLengths[slot]));
+          if (mSlotDeweyIDs[slot] != null) {
+            deweyIDs.put(mSlotDeweyIDs[slot], key);
+          }
+        }
+      }
+    }
     // Write dewey IDs.
     if (mResourceConfig.areDeweyIDsStored && mRecordPersister instanceof NodePersistenter) {
       final NodePersistenter persistenter = (NodePersistenter) mRecordPersister;
-      out.writeInt(mDeweyIDs.size());
-      final List<SirixDeweyID> ids = new ArrayList<>(mDeweyIDs.keySet());
+      out.writeInt(deweyIDs.size());
+      final List<SirixDeweyID> ids = new ArrayList<>(deweyIDs.keySet());
       ids.sort(
           (SirixDeweyID first, SirixDeweyID second) -> Integer.valueOf(first.toBytes().length)
                                                               .compareTo(second.toBytes().length));
@@ -263,24 +555,33 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
       if (iter.hasNext()) {
         id = iter.next();
         persistenter.serializeDeweyID(out, Kind.ELEMENT, id, Optional.empty(), mResourceConfig);
-        serializeDeweyRecord(id, out);
+        putVarLong(out, deweyIDs.get(id));
       }
       while (iter.hasNext()) {
         final SirixDeweyID nextDeweyID = iter.next();
         persistenter.serializeDeweyID(
             out, Kind.ELEMENT, id, Optional.of(nextDeweyID), mResourceConfig);
-        serializeDeweyRecord(nextDeweyID, out);
+        putVarLong(out, deweyIDs.get(nextDeweyID));
         id = nextDeweyID;
       }
     }
-    // Write normal entries.
-    out.writeInt(mSlots.size());
-    for (final Entry<Long, byte[]> entry : mSlots.entrySet()) {
+    // Write the slot directory.
+    out.writeInt(slots.size());
+    for (final Entry<Long, SlotData> entry : slots.entrySet()) {
       putVarLong(out, entry.getKey());
-      final byte[] data = entry.getValue();
-      final int length = data.length;
-      out.writeInt(length);
-      out.write(data);
+      out.writeInt(entry.getValue().mLength);
+    }
+    // Write the serialized records.
+    for (final SlotData slot : slots.values()) {
+      if (slot.mBuffer.hasArray()) {
+        out.write(slot.mBuffer.array(), slot.mBuffer.arrayOffset() + slot.mOffset, slot.mLength);
+      } else {
+        final byte[] data = new byte[slot.mLength];
+        final ByteBuffer buffer = slot.mBuffer.duplicate();
+        buffer.position(slot.mOffset);
+        buffer.get(data);
+        out.write(data);
+      }
     }
     // Write overlong entries.
     out.writeInt(mReferences.size());
@@ -290,23 +591,32 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
       // Write key in persistent storage.
       out.writeLong(entry.getValue().getKey());
     }
-    // Write previous reference if it has any reference.
-    final boolean hasPreviousReference = mPreviousPageRefKey != Constants.NULL_ID_LONG;
-    out.writeBoolean(hasPreviousReference);
-    if (hasPreviousReference) {
-      out.writeLong(mPreviousPageRefKey);
+    // Write references to the previous fragments, the first one is the previous reference.
+    out.writeInt(mPreviousFragmentKeys.length);
+    for (final long previousFragmentKey : mPreviousFragmentKeys) {
+      out.writeLong(previousFragmentKey);
     }
     out.writeByte(mPageKind.getID());
   }
 
-  private void serializeDeweyRecord(SirixDeweyID id, DataOutput out) throws IOException {
-    final long recordKey = mDeweyIDs.get(id);
-    putVarLong(out, recordKey);
-    final byte[] data = mSlots.get(recordKey);
-    final int length = data.length;
-    out.writeInt(length);
-    out.write(data);
-    mSlots.remove(recordKey);
+  /**
+   * A serialized record, which is located in a buffer.
+   */
+  private static final class SlotData {
+    /** The buffer. */
+    private final ByteBuffer mBuffer;
+
+    /** The offset of the record in the buffer. */
+    private final int mOffset;
+
+    /** The length of the record. */
+    private final int mLength;
+
+    private SlotData(final ByteBuffer buffer, final int offset, final int length) {
+      mBuffer = buffer;
+      mOffset = offset;
+      mLength = length;
+    }
   }
 
   @Override
@@ -324,7 +634,80 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
   @Override
   public Set<Entry<Long, Record>> entrySet() {
-    return mRecords.entrySet();
+    if (mSlotCount == 0) {
+      return mRecords.entrySet();
+    }
+    return Collections.unmodifiableMap(deserializeRecords()).entrySet();
+  }
+
+  @Override
+  public Set<Long> keySet() {
+    return new AbstractSet<Long>() {
+      @Override
+      public boolean contains(final Object key) {
+        return key instanceof Long
+            && (mRecords.containsKey((Long) key) || hasSlot((Long) key));
+      }
+
+      @Override
+      public Iterator<Long> iterator() {
+        return Iterators.unmodifiableIterator(
+            Iterators.concat(mRecords.keyIterator(), slotKeyIterator()));
+      }
+
+      @Override
+      public int size() {
+        return mRecords.size() + mSlotCount;
+      }
+    };
+  }
+
+  // Iterator over the keys of the records, which are stored in slots.
+  private Iterator<Long> slotKeyIterator() {
+    if (mSlotBuffers == null) {
+      return Collections.emptyIterator();
+    }
+    return new Iterator<Long>() {
+      private int mSlot = nextSlot(0);
+
+      @Override
+      public boolean hasNext() {
+        return mSlot < Constants.NDP_NODE_COUNT;
+      }
+
+      @Override
+      public Long next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final long key = (mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + mSlot;
+        mSlot = nextSlot(mSlot + 1);
+        return key;
+      }
+
+      private int nextSlot(final int from) {
+        int slot = from;
+        while (slot < Constants.NDP_NODE_COUNT && mSlotBuffers[slot] == null) {
+          slot++;
+        }
+        return slot;
+      }
+    };
+  }
+
+  /**
+   * Get all records, whereas the records stored in slots are deserialized.
+   *
+   * @return all records
+   */
+  private Map<Long, Record> deserializeRecords() {
+    final Map<Long, Record> records = mRecords.toMap();
+    final Iterator<Long> keys = slotKeyIterator();
+    while (keys.hasNext()) {
+      final long key = keys.next();
+      records.put(key, deserializeRecord(key, mPageReadTrx));
+    }
+    return records;
   }
 
   @Override
@@ -336,7 +719,8 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   public boolean equals(final @Nullable Object obj) {
     if (obj instanceof UnorderedKeyValuePage) {
       final UnorderedKeyValuePage other = (UnorderedKeyValuePage) obj;
-      return mRecordPageKey == other.mRecordPageKey && Objects.equal(mRecords, other.mRecords)
+      return mRecordPageKey == other.mRecordPageKey
+          && Objects.equal(mRecords, other.mRecords)
           && Objects.equal(mReferences, other.mReferences);
     }
     return false;
@@ -371,11 +755,24 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     final boolean storeDeweyIDs =
         mPageReadTrx.getResourceManager().getResourceConfig().areDeweyIDsStored;
 
-    final List<Entry<Long, Record>> entries = sort();
-    final Iterator<Entry<Long, Record>> it = entries.iterator();
-    while (it.hasNext()) {
-      final Entry<Long, Record> entry = it.next();
-      final Record record = entry.getValue();
+    // Records which are still serialized in their slots don't have to be serialized again, but
+    // the deserialized ones might have been modified, just like the ones read from overflow pages.
+    final List<Record> records = mRecords.values();
+    if (mSlotBuffers != null) {
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        final Record record = mDeserializedRecords.get(slot);
+        if (record != null) {
+          records.add(record);
+        }
+      }
+    }
+    for (final Entry<Long, Record> entry : mOverflowRecords.entrySet()) {
+      if (!mRecords.containsKey(entry.getKey())) {
+        records.add(entry.getValue());
+      }
+    }
+
+    for (final Record record : records) {
       final long recordID = record.getNodeKey();
       if (mSlots.get(recordID) == null) {
         // Must be either a normal record or one which requires an
@@ -388,6 +785,11 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
           final PageReference reference = new PageReference();
           reference.setPage(new OverflowPage(data));
           mReferences.put(recordID, reference);
+          if (hasSlot(recordID)) {
+            // Record has grown, thus it's not stored in its slot anymore.
+            removeSlot(recordID);
+            mRecords.put(recordID, record);
+          }
         } else {
           if (storeDeweyIDs && mRecordPersister instanceof NodePersistenter && record instanceof Node
               && ((Node) record).getDeweyID().isPresent() && record.getNodeKey() != 0)
@@ -400,44 +802,12 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     mAddedReferences = true;
   }
 
-  private List<Entry<Long, Record>> sort() {
-    // Sort entries which have deweyIDs according to their byte-length.
-    final List<Map.Entry<Long, Record>> entries = new ArrayList<>(mRecords.entrySet());
-    final boolean storeDeweyIDs =
-        mPageReadTrx.getResourceManager().getResourceConfig().areDeweyIDsStored;
-    if (storeDeweyIDs && mRecordPersister instanceof NodePersistenter) {
-      entries.sort((a, b) -> {
-        if (a.getValue() instanceof Node && b.getValue() instanceof Node) {
-          final Optional<SirixDeweyID> first = ((Node) a.getValue()).getDeweyID();
-          final Optional<SirixDeweyID> second = ((Node) b.getValue()).getDeweyID();
-
-          // Document node has no DeweyID.
-          if (!first.isPresent() && second.isPresent())
-            return 1;
-
-          if (!second.isPresent() && first.isPresent())
-            return -1;
-
-          if (!first.isPresent() && !second.isPresent())
-            return 0;
-
-          return first.get().toBytes().length == second.get().toBytes().length
-              ? 0
-              : first.get().toBytes().length > second.get().toBytes().length
-                  ? 1
-                  : -1;
-        }
-
-        return -1;
-      });
-    }
-
-    return entries;
-  }
-
   @Override
   public Collection<Record> values() {
-    return mRecords.values();
+    if (mSlotCount == 0) {
+      return Collections.unmodifiableCollection(mRecords.values());
+    }
+    return Collections.unmodifiableCollection(deserializeRecords().values());
   }
 
   @Override
@@ -464,7 +834,30 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
   @Override
   public int size() {
-    return mRecords.size() + mReferences.size();
+    return mRecords.size() + mSlotCount + mReferences.size();
+  }
+
+  /**
+   * Get the estimated memory footprint of the page in bytes, which is used to weigh the page in the
+   * buffer manager. Records, which are not deserialized yet, are counted as if they were.
+   *
+   * @return the estimated size in bytes
+   */
+  public int getEstimatedSize() {
+    int size = PAGE_SIZE + mReferences.size() * REFERENCE_SIZE
+        + (mRecords.size() + mSlotCount) * RECORD_SIZE;
+    if (mSlotBuffers != null) {
+      size += Constants.NDP_NODE_COUNT * SLOT_DIRECTORY_ENTRY_SIZE;
+      for (int slot = 0; slot < Constants.NDP_NODE_COUNT; slot++) {
+        if (mSlotBuffers[slot] != null) {
+          size += mSlotLengths[slot];
+        }
+      }
+    }
+    for (final byte[] data : mSlots.values()) {
+      size += data.length;
+    }
+    return size;
   }
 
   @Override
@@ -489,4 +882,44 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     return mPreviousPageRefKey;
   }
 
+  @Override
+  public long[] getPreviousFragmentKeys() {
+    return mPreviousFragmentKeys;
+  }
+
+  /**
+   * Set the reference keys to all previous fragments of the page, from the most recent one to the
+   * oldest one. The first key must be the key of the previous reference.
+   *
+   * @param previousFragmentKeys the reference keys to the previous fragments
+   */
+  public void setPreviousFragmentKeys(final long[] previousFragmentKeys) {
+    assert previousFragmentKeys != null;
+    assert previousFragmentKeys.length == 0 && mPreviousPageRefKey == Constants.NULL_ID_LONG
+        || previousFragmentKeys.length > 0 && previousFragmentKeys[0] == mPreviousPageRefKey;
+    mPreviousFragmentKeys = previousFragmentKeys;
+  }
+
+  /**
+   * Replace the reference keys of the previous fragments, once the fragments have been moved to
+   * another position in the data file. Only the given number of the most recent fragments is kept,
+   * such that fragments, which aren't needed to reconstruct the page anymore, are dropped.
+   *
+   * @param numberOfFragments the maximum number of previous fragments to keep
+   * @param relocation maps the current key of a fragment to its new key
+   */
+  public void relocatePreviousFragments(final @Nonnegative int numberOfFragments,
+      final LongUnaryOperator relocation) {
+    assert numberOfFragments >= 0;
+    final long[] previousFragmentKeys =
+        new long[Math.min(numberOfFragments, mPreviousFragmentKeys.length)];
+    for (int index = 0; index < previousFragmentKeys.length; index++) {
+      previousFragmentKeys[index] = relocation.applyAsLong(mPreviousFragmentKeys[index]);
+    }
+    mPreviousFragmentKeys = previousFragmentKeys;
+    mPreviousPageRefKey = previousFragmentKeys.length == 0
+        ? Constants.NULL_ID_LONG
+        : previousFragmentKeys[0];
+  }
+
 }
@@ -32,6 +32,14 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
    */
   Collection<V> values();
 
+  /**
+   * Get the keys of all records in the page, which are not stored in overflow pages. In contrast
+   * to {@link #entrySet()} records which are stored in a serialized form are not deserialized.
+   *
+   * @return the keys of all records
+   */
+  Set<K> keySet();
+
   /**
    * Get the unique page record identifier.
    *
@@ -56,6 +64,16 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
    */
   void setEntry(K key, @Nonnull V value);
 
+  /**
+   * Store the entry of another page with the given key. In contrast to
+   * {@code setEntry(key, page.getValue(key))} the implementation may share the serialized form of
+   * the record, such that it's only deserialized once it's accessed.
+   *
+   * @param key key of the entry to store
+   * @param page the page to copy the entry from
+   */
+  void copyEntry(K key, @Nonnull KeyValuePage<K, V> page);
+
   Set<Entry<K, PageReference>> referenceEntrySet();
 
   /**
@@ -109,4 +127,14 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
    * @return optional {@link PageReference} pointing to the previous version of the page
    */
   long getPreviousReferenceKey();
+
+  /**
+   * Get the keys of all previous fragments of the page, which are needed to reconstruct the page,
+   * from the most recent one to the oldest one, such that the fragments can be fetched at once
+   * instead of following the chain of previous references.
+   *
+   * @return the keys of the previous fragments (the first one equals the previous reference key if
+   *         any)
+   */
+  long[] getPreviousFragmentKeys();
 }
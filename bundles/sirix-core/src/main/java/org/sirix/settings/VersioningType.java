@@ -68,9 +68,9 @@ public enum VersioningType {
           firstPage.<T>newInstance(
               recordPageKey, firstPage.getPageKind(), reference.getKey(), pageReadTrx));
 
-      for (final Map.Entry<K, V> entry : pages.get(0).entrySet()) {
-        returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
-        returnVal.get(1).setEntry(entry.getKey(), entry.getValue());
+      for (final K key : firstPage.keySet()) {
+        returnVal.get(0).copyEntry(key, firstPage);
+        returnVal.get(1).copyEntry(key, firstPage);
       }
 
       return PageContainer.getInstance(returnVal.get(0), returnVal.get(1));
@@ -105,8 +105,8 @@ public enum VersioningType {
       assert latest.getPageKey() == recordPageKey;
       assert fullDump.getPageKey() == recordPageKey;
 
-      for (final Map.Entry<K, V> entry : latest.entrySet()) {
-        returnVal.setEntry(entry.getKey(), entry.getValue());
+      for (final K key : latest.keySet()) {
+        returnVal.copyEntry(key, latest);
       }
       for (final Map.Entry<K, PageReference> entry : latest.referenceEntrySet()) {
         returnVal.setPageReference(entry.getKey(), entry.getValue());
@@ -114,9 +114,9 @@ public enum VersioningType {
 
       // Skip full dump if not needed (fulldump equals latest page).
       if (pages.size() == 2) {
-        for (final Entry<K, V> entry : fullDump.entrySet()) {
-          if (returnVal.getValue(entry.getKey()) == null) {
-            returnVal.setEntry(entry.getKey(), entry.getValue());
+        for (final K key : fullDump.keySet()) {
+          if (!containsEntry(returnVal, key)) {
+            returnVal.copyEntry(key, fullDump);
             if (returnVal.size() == Constants.NDP_NODE_COUNT) {
               break;
             }
@@ -157,9 +157,9 @@ public enum VersioningType {
       final boolean isFullDump = revision % revToRestore == 0;
 
       // Iterate through all nodes of the latest revision.
-      for (final Map.Entry<K, V> entry : latest.entrySet()) {
-        returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
-        returnVal.get(1).setEntry(entry.getKey(), entry.getValue());
+      for (final K key : latest.keySet()) {
+        returnVal.get(0).copyEntry(key, latest);
+        returnVal.get(1).copyEntry(key, latest);
       }
       // Iterate through all nodes of the latest revision.
       for (final Map.Entry<K, PageReference> entry : latest.referenceEntrySet()) {
@@ -170,13 +170,13 @@ public enum VersioningType {
       // If not all entries are filled.
       if (latest.size() != Constants.NDP_NODE_COUNT) {
         // Iterate through the full dump.
-        for (final Map.Entry<K, V> entry : fullDump.entrySet()) {
-          if (returnVal.get(0).getValue(entry.getKey()) == null) {
-            returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
+        for (final K key : fullDump.keySet()) {
+          if (!containsEntry(returnVal.get(0), key)) {
+            returnVal.get(0).copyEntry(key, fullDump);
           }
 
-          if (isFullDump && returnVal.get(1).getValue(entry.getKey()) == null) {
-            returnVal.get(1).setEntry(entry.getKey(), entry.getValue());
+          if (isFullDump && !containsEntry(returnVal.get(1), key)) {
+            returnVal.get(1).copyEntry(key, fullDump);
           }
 
           if (returnVal.get(0).size() == Constants.NDP_NODE_COUNT) {
@@ -241,10 +241,9 @@ public enum VersioningType {
         if (filledPage) {
           break;
         }
-        for (final Entry<K, V> entry : page.entrySet()) {
-          final K recordKey = entry.getKey();
-          if (returnVal.getValue(recordKey) == null) {
-            returnVal.setEntry(recordKey, entry.getValue());
+        for (final K recordKey : page.keySet()) {
+          if (!containsEntry(returnVal, recordKey)) {
+            returnVal.copyEntry(recordKey, page);
             if (returnVal.size() == Constants.NDP_NODE_COUNT) {
               filledPage = true;
               break;
@@ -290,15 +289,14 @@ public enum VersioningType {
           break;
         }
 
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final K key : page.keySet()) {
           // Caching the complete page.
-          final K key = entry.getKey();
           assert key != null;
-          if (entry != null && returnVal.get(0).getValue(key) == null) {
-            returnVal.get(0).setEntry(key, entry.getValue());
+          if (!containsEntry(returnVal.get(0), key)) {
+            returnVal.get(0).copyEntry(key, page);
 
-            if (returnVal.get(1).getValue(entry.getKey()) == null && isFullDump) {
-              returnVal.get(1).setEntry(key, entry.getValue());
+            if (isFullDump && !containsEntry(returnVal.get(1), key)) {
+              returnVal.get(1).copyEntry(key, page);
             }
 
             if (returnVal.get(0).size() == Constants.NDP_NODE_COUNT) {
@@ -331,6 +329,11 @@ public enum VersioningType {
       return PageContainer.getInstance(returnVal.get(0), returnVal.get(1));
     }
 
+    @Override
+    public boolean supportsAdaptiveFullDumps() {
+      return true;
+    }
+
     @Override
     public int[] getRevisionRoots(final @Nonnegative int previousRevision,
         final @Nonnegative int revsToRestore) {
@@ -375,10 +378,9 @@ public enum VersioningType {
         if (filledPage) {
           break;
         }
-        for (final Entry<K, V> entry : page.entrySet()) {
-          final K recordKey = entry.getKey();
-          if (returnVal.getValue(recordKey) == null) {
-            returnVal.setEntry(recordKey, entry.getValue());
+        for (final K recordKey : page.keySet()) {
+          if (!containsEntry(returnVal, recordKey)) {
+            returnVal.copyEntry(recordKey, page);
             if (returnVal.size() == Constants.NDP_NODE_COUNT) {
               filledPage = true;
               break;
@@ -426,20 +428,19 @@ public enum VersioningType {
 
         final boolean pageToSerialize = (i == pages.size() - 1 && revToRestore == pages.size());
 
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final K key : page.keySet()) {
           // Caching the complete page.
-          final K key = entry.getKey();
           assert key != null;
           if (!pageToSerialize) {
-            reconstructed.setEntry(key, entry.getValue());
+            reconstructed.copyEntry(key, page);
           }
 
-          if (returnVal.get(0).getValue(key) == null) {
-            returnVal.get(0).setEntry(key, entry.getValue());
+          if (!containsEntry(returnVal.get(0), key)) {
+            returnVal.get(0).copyEntry(key, page);
           }
 
-          if (pageToSerialize && reconstructed.getValue(key) == null) {
-            returnVal.get(1).setEntry(key, entry.getValue());
+          if (pageToSerialize && !containsEntry(reconstructed, key)) {
+            returnVal.get(1).copyEntry(key, page);
           }
 
           if (returnVal.get(0).size() == Constants.NDP_NODE_COUNT) {
@@ -476,6 +477,11 @@ public enum VersioningType {
       return PageContainer.getInstance(returnVal.get(0), returnVal.get(1));
     }
 
+    @Override
+    public boolean supportsAdaptiveFullDumps() {
+      return true;
+    }
+
     @Override
     public int[] getRevisionRoots(final @Nonnegative int previousRevision,
         final @Nonnegative int revsToRestore) {
@@ -499,6 +505,19 @@ public enum VersioningType {
     }
   };
 
+  /**
+   * Determines if a record with the given key is stored in the page, either directly or in an
+   * overflow page. In contrast to {@code page.getValue(key) != null} the record isn't deserialized.
+   *
+   * @param page the page
+   * @param key the record key
+   * @return {@code true}, if the page stores a record with the given key, {@code false} otherwise
+   */
+  private static <K extends Comparable<? super K>, V extends Record> boolean containsEntry(
+      final KeyValuePage<K, V> page, final K key) {
+    return page.keySet().contains(key) || page.getPageReference(key) != null;
+  }
+
   /**
    * Method to reconstruct a complete {@link KeyValuePage} with the help of partly filled pages plus
    * a revision-delta which determines the necessary steps back.
@@ -523,6 +542,43 @@ public enum VersioningType {
       final List<T> pages, final @Nonnegative int revsToRestore, final PageReadTrx pageReadTrx,
       final PageReference reference);
 
+  /**
+   * Determines if a full page may be written instead of a page fragment at any time, that is if
+   * pages are reconstructed from a chain of fragments, which may be cut off by a full page.
+   *
+   * @return {@code true}, if adaptive full dumps are supported, {@code false} otherwise
+   */
+  public boolean supportsAdaptiveFullDumps() {
+    return false;
+  }
+
+  /**
+   * Reconstruct a complete {@link KeyValuePage} for reading as well as a full {@link KeyValuePage}
+   * for serializing, which doesn't reference any previous fragments, such that the page is
+   * reconstructed from a single fragment afterwards.
+   *
+   * @param pages the base of the complete {@link KeyValuePage}
+   * @param revsToRestore the revisions needed to build the complete record page
+   * @param pageReadTrx the page reading transaction
+   * @return a {@link PageContainer} holding a complete {@link KeyValuePage} for reading and a full
+   *         one for writing
+   */
+  public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> PageContainer combineRecordPagesForFullDump(
+      final List<T> pages, final @Nonnegative int revsToRestore, final PageReadTrx pageReadTrx) {
+    final T completePage = combineRecordPages(pages, revsToRestore, pageReadTrx);
+    final T fullPage = completePage.newInstance(
+        completePage.getPageKey(), completePage.getPageKind(), Constants.NULL_ID_LONG, pageReadTrx);
+
+    for (final K key : completePage.keySet()) {
+      fullPage.copyEntry(key, completePage);
+    }
+    for (final Map.Entry<K, PageReference> entry : completePage.referenceEntrySet()) {
+      fullPage.setPageReference(entry.getKey(), entry.getValue());
+    }
+
+    return PageContainer.getInstance(completePage, fullPage);
+  }
+
   /**
    * Get all revision root page numbers which are needed to restore a {@link KeyValuePage}.
    *
@@ -34,9 +34,18 @@ import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.HashType;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
+import org.sirix.api.Axis;
+import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
+import org.sirix.axis.NonStructuralWrapperAxis;
 import org.sirix.exception.SirixException;
+import org.sirix.service.xml.serialize.StAXSerializer;
+import org.sirix.service.xml.shredder.Insert;
+import org.sirix.service.xml.shredder.XMLShredder;
 import org.sirix.settings.Fixed;
+import org.sirix.utils.DocumentCreator;
 
 public class HashTest {
 
@@ -84,6 +93,97 @@ public class HashTest {
     testSetter(wtx);
   }
 
+  @Test
+  public void testDeferredInsertRemove() throws SirixException {
+    final XdmNodeWriteTrx wtx = createDeferredWtx(PATHS.PATH1);
+    testHashTreeWithInsertAndRemove(wtx);
+  }
+
+  @Test
+  public void testDeferredDeep() throws SirixException {
+    final XdmNodeWriteTrx wtx = createDeferredWtx(PATHS.PATH1);
+    testDeepTree(wtx);
+  }
+
+  @Test
+  public void testDeferredSetter() throws SirixException {
+    final XdmNodeWriteTrx wtx = createDeferredWtx(PATHS.PATH1);
+    testSetter(wtx);
+  }
+
+  @Test
+  public void testDeferredEqualsRolling() throws SirixException {
+    final XdmNodeWriteTrx expectedWtx = createWtx(HashType.ROLLING);
+    final XdmNodeWriteTrx wtx = createDeferredWtx(PATHS.PATH2);
+    DocumentCreator.create(expectedWtx);
+    DocumentCreator.create(wtx);
+    wtx.moveTo(6);
+    wtx.setValue(NAME1);
+    wtx.moveTo(9);
+    wtx.remove();
+    expectedWtx.moveTo(6);
+    expectedWtx.setValue(NAME1);
+    expectedWtx.moveTo(9);
+    expectedWtx.remove();
+    expectedWtx.commit();
+    wtx.commit();
+
+    expectedWtx.moveToDocumentRoot();
+    wtx.moveToDocumentRoot();
+    final Axis expectedDescendants = new DescendantAxis(expectedWtx, IncludeSelf.YES);
+    final Axis descendants = new DescendantAxis(wtx, IncludeSelf.YES);
+    while (expectedDescendants.hasNext()) {
+      expectedDescendants.next();
+      descendants.next();
+      assertEquals(expectedWtx.getNodeKey(), wtx.getNodeKey());
+      assertEquals(expectedWtx.getHash(), wtx.getHash());
+      assertEquals(expectedWtx.getDescendantCount(), wtx.getDescendantCount());
+    }
+    assertFalse(descendants.hasNext());
+  }
+
+  @Test
+  public void testCopyEqualsSingleInserts() throws SirixException {
+    // A copy used to serialize the subtree and to shred it node by node.
+    final XdmNodeWriteTrx expectedWtx = createWtx(HashType.ROLLING);
+    DocumentCreator.create(expectedWtx);
+    expectedWtx.commit();
+    final XdmNodeReadTrx expectedRtx = expectedWtx.getResourceManager().beginNodeReadTrx();
+    expectedRtx.moveTo(1);
+    expectedWtx.moveTo(5);
+    new XMLShredder.Builder(expectedWtx, new StAXSerializer(expectedRtx), Insert.ASFIRSTCHILD)
+        .build().call();
+    expectedWtx.commit();
+    expectedRtx.close();
+
+    final XdmNodeWriteTrx wtx = createDeferredWtx(PATHS.PATH2);
+    DocumentCreator.create(wtx);
+    wtx.commit();
+    final XdmNodeReadTrx rtx = wtx.getResourceManager().beginNodeReadTrx();
+    rtx.moveTo(1);
+    wtx.moveTo(5);
+    wtx.copySubtreeAsFirstChild(rtx);
+    wtx.commit();
+    rtx.close();
+
+    expectedWtx.moveToDocumentRoot();
+    wtx.moveToDocumentRoot();
+    final Axis expectedDescendants =
+        new NonStructuralWrapperAxis(new DescendantAxis(expectedWtx, IncludeSelf.YES));
+    final Axis descendants = new NonStructuralWrapperAxis(new DescendantAxis(wtx, IncludeSelf.YES));
+    while (expectedDescendants.hasNext()) {
+      expectedDescendants.next();
+      descendants.next();
+      assertEquals(expectedWtx.getNodeKey(), wtx.getNodeKey());
+      assertEquals(expectedWtx.getKind(), wtx.getKind());
+      assertEquals(expectedWtx.getName(), wtx.getName());
+      assertEquals(expectedWtx.getValue(), wtx.getValue());
+      assertEquals(expectedWtx.getHash(), wtx.getHash());
+      assertEquals(expectedWtx.getDescendantCount(), wtx.getDescendantCount());
+    }
+    assertFalse(descendants.hasNext());
+  }
+
   /**
    * Inserting nodes and removing them.
    *
@@ -227,6 +327,15 @@ public class HashTest {
     return wTrx;
   }
 
+  private XdmNodeWriteTrx createDeferredWtx(final PATHS path) throws SirixException {
+    final Database database = TestHelper.getDatabase(path.getFile());
+    database.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, path.getConfig()).hashKind(
+            HashType.ROLLING).deferHashUpdates(true).build());
+    final ResourceManager manager = database.getResourceManager(TestHelper.RESOURCE);
+    return manager.beginNodeWriteTrx();
+  }
+
   @After
   public void tearDown() throws SirixException {
     TestHelper.closeEverything();
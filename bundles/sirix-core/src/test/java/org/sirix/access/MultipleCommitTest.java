@@ -22,6 +22,7 @@
 package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
+import java.util.concurrent.CompletableFuture;
 import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
@@ -30,6 +31,7 @@ import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.api.Axis;
 import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.axis.AbstractAxis;
 import org.sirix.axis.DescendantAxis;
 import org.sirix.axis.PostOrderAxis;
@@ -67,6 +69,36 @@ public class MultipleCommitTest {
     assertEquals(2L, holder.getXdmNodeWriteTrx().getRevisionNumber());
   }
 
+  @Test
+  public void testCommitAsync() throws SirixException {
+    final XdmNodeWriteTrx wtx = holder.getXdmNodeWriteTrx();
+    wtx.insertElementAsFirstChild(new QNm("foo"));
+    final CompletableFuture<Integer> first = wtx.commitAsync(null);
+
+    // The transaction continues on top of the pipelined commit.
+    assertEquals(2L, wtx.getRevisionNumber());
+    wtx.moveTo(1);
+    assertEquals(new QNm("foo"), wtx.getName());
+    wtx.insertElementAsFirstChild(new QNm("bar"));
+    final CompletableFuture<Integer> second = wtx.commitAsync("second");
+    assertEquals(3L, wtx.getRevisionNumber());
+
+    assertEquals(Integer.valueOf(1), first.join());
+    assertEquals(Integer.valueOf(2), second.join());
+    assertEquals(2, holder.getResourceManager().getMostRecentRevisionNumber());
+
+    try (final XdmNodeReadTrx rtx = holder.getResourceManager().beginNodeReadTrx()) {
+      rtx.moveTo(1);
+      assertEquals(new QNm("foo"), rtx.getName());
+      rtx.moveToFirstChild();
+      assertEquals(new QNm("bar"), rtx.getName());
+    }
+
+    // A synchronous commit follows the pipelined commits.
+    wtx.commit();
+    assertEquals(3, holder.getResourceManager().getMostRecentRevisionNumber());
+  }
+
   @Test
   public void testAutoCommit() throws SirixException {
     DocumentCreator.create(holder.getXdmNodeWriteTrx());
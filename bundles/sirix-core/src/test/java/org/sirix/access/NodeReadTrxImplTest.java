@@ -23,7 +23,9 @@ package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import java.nio.file.Files;
+import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -69,6 +71,22 @@ public final class NodeReadTrxImplTest {
     }
   }
 
+  @Test
+  public void testInternedNames() throws SirixException {
+    final XdmNodeReadTrx rtx = holder.getXdmNodeReadTrx();
+    rtx.moveTo(5L);
+    final QNm name = rtx.getName();
+    assertEquals(new QNm("b"), name);
+    rtx.moveTo(9L);
+    assertSame(name, rtx.getName());
+
+    try (final XdmNodeReadTrx otherRtx =
+        holder.getResourceManager().beginNodeReadTrx(rtx.getRevisionNumber())) {
+      otherRtx.moveTo(9L);
+      assertSame(name, otherRtx.getName());
+    }
+  }
+
   @Test
   public void testDocumentRoot() throws SirixException {
     assertEquals(true, holder.getXdmNodeReadTrx().moveToDocumentRoot().hasMoved());
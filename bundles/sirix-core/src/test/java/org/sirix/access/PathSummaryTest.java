@@ -169,6 +169,35 @@ public class PathSummaryTest {
     pathSummary.close();
   }
 
+  /**
+   * Test delete of the root element, which removes all path nodes and names.
+   */
+  @Test
+  public void testDeleteRootElement() {
+    wtx.commit();
+    wtx.moveTo(1);
+    wtx.remove();
+    testDeleteRootElementHelper();
+    wtx.commit();
+    testDeleteRootElementHelper();
+    wtx.close();
+    final PathSummaryReader pathSummary = holder.getResourceManager().openPathSummary();
+    pathSummary.moveToDocumentRoot();
+    assertNull(next(new DescendantAxis(pathSummary)));
+    pathSummary.close();
+  }
+
+  private void testDeleteRootElementHelper() {
+    final PathSummaryReader pathSummary = wtx.getPathSummary();
+    pathSummary.moveToDocumentRoot();
+    assertNull(next(new DescendantAxis(pathSummary)));
+    assertEquals(0, wtx.getNameCount("a", Kind.ELEMENT));
+    assertEquals(0, wtx.getNameCount("b", Kind.ELEMENT));
+    assertEquals(0, wtx.getNameCount("c", Kind.ELEMENT));
+    assertEquals(0, wtx.getNameCount("i", Kind.ATTRIBUTE));
+    assertEquals(0, wtx.getNameCount("x", Kind.ATTRIBUTE));
+  }
+
   private void testDeleteHelper(final PathSummaryReader summaryReader) {
     final Axis axis = new DescendantAxis(summaryReader);
     PathSummaryReader summary = next(axis);
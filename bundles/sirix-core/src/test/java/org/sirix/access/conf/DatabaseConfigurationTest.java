@@ -43,4 +43,14 @@ public class DatabaseConfigurationTest {
         DatabaseConfiguration.deserialize(TestHelper.PATHS.PATH1.getFile());
     assertEquals(conf.toString(), serializedConf.toString());
   }
+
+  @Test
+  public void testDeSerializeMaxBufferSize() throws SirixIOException {
+    DatabaseConfiguration conf =
+        new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile()).setMaxBufferSize(1L << 20);
+    assertTrue(Databases.createDatabase(conf));
+    DatabaseConfiguration serializedConf =
+        DatabaseConfiguration.deserialize(TestHelper.PATHS.PATH1.getFile());
+    assertEquals(1L << 20, serializedConf.getMaxBufferSize());
+  }
 }
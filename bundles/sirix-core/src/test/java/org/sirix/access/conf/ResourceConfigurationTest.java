@@ -1,5 +1,50 @@
 package org.sirix.access.conf;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.api.Database;
+import org.sirix.exception.SirixException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test case for de-/serialization of {@link ResourceConfiguration}s.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
 public class ResourceConfigurationTest {
 
+  @BeforeMethod
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @AfterMethod
+  public void tearDown() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @Test
+  public void testDeSerializeMaxBufferSize() throws SirixException {
+    final DatabaseConfiguration dbConf =
+        new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile()).setMaxBufferSize(1L << 20);
+    assertTrue(Databases.createDatabase(dbConf));
+
+    try (final Database database = Databases.openDatabase(TestHelper.PATHS.PATH1.getFile())) {
+      final ResourceConfiguration conf =
+          new ResourceConfiguration.Builder("small", dbConf).maxBufferSize(1L << 16).build();
+      assertTrue(database.createResource(conf));
+      final ResourceConfiguration defaultConf =
+          new ResourceConfiguration.Builder("default", dbConf).build();
+      assertTrue(database.createResource(defaultConf));
+
+      assertEquals(1L << 16, ResourceConfiguration.deserialize(conf.resourcePath).maxBufferSize);
+      assertEquals(
+          1L << 20, ResourceConfiguration.deserialize(defaultConf.resourcePath).maxBufferSize);
+    }
+  }
 }
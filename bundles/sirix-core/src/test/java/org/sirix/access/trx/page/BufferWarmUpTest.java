@@ -0,0 +1,86 @@
+package org.sirix.access.trx.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.cache.BufferManager;
+import org.sirix.cache.BufferManagerImpl;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the {@link BufferWarmUp}.
+ *
+ * @author agent
+ *
+ */
+public final class BufferWarmUpTest {
+
+  /** {@link Database} instance. */
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, PATHS.PATH1.getConfig()).build());
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testRunAndAdvance() throws SirixException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      commitRevisions(manager, 3);
+
+      final BufferManager bufferManager = new BufferManagerImpl(1L << 20);
+      final BufferWarmUp warmUp = new BufferWarmUp(manager, bufferManager, 2, 2);
+
+      final int pages = warmUp.run();
+      assertTrue(pages > 2);
+      assertEquals(Arrays.asList(2, 3), warmUp.getWarmedUpRevisions());
+      final int pinnedPages = bufferManager.getPinnedPageCount();
+      assertTrue(pinnedPages > 0);
+      assertTrue(bufferManager.getRevisionRootPageCache().get(3) != null);
+
+      // A second run doesn't pin anything.
+      assertEquals(0, warmUp.run());
+
+      commitRevisions(manager, 1);
+      assertTrue(warmUp.advance(4) > 0);
+      assertEquals(Arrays.asList(3, 4), warmUp.getWarmedUpRevisions());
+
+      commitRevisions(manager, 2);
+      warmUp.advance(6);
+      assertEquals(Arrays.asList(5, 6), warmUp.getWarmedUpRevisions());
+
+      // The pages of the revisions, which fell out of the window, have been unpinned.
+      final BufferManager otherBufferManager = new BufferManagerImpl(1L << 20);
+      new BufferWarmUp(manager, otherBufferManager, 2, 2).run();
+      assertEquals(otherBufferManager.getPinnedPageCount(), bufferManager.getPinnedPageCount());
+    }
+  }
+
+  private static void commitRevisions(final ResourceManager manager, final int revisions) {
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      for (int i = 0; i < revisions; i++) {
+        wtx.moveToDocumentRoot();
+        wtx.insertElementAsFirstChild(new QNm("foo"));
+        wtx.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package org.sirix.access.trx.page;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.trx.node.XdmResourceManager;
+import org.sirix.api.Database;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.cache.BufferManager;
+import org.sirix.cache.BufferManagerImpl;
+import org.sirix.exception.SirixException;
+import org.sirix.io.Storage;
+import org.sirix.io.StorageType;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the {@link PageReadTrxImpl}, that is reading ahead once record pages are loaded in
+ * sequential order.
+ *
+ * @author agent
+ *
+ */
+public final class PageReadTrxImplTest {
+
+  /** {@link Database} instance. */
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, PATHS.PATH1.getConfig()).build());
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testReadAhead() throws SirixException, InterruptedException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        wtx.insertElementAsFirstChild(new QNm("root"));
+        wtx.insertElementAsFirstChild(new QNm("e"));
+        for (int i = 1; i < 3 * Constants.NDP_NODE_COUNT; i++) {
+          wtx.insertElementAsRightSibling(new QNm("e"));
+        }
+        wtx.commit();
+      }
+
+      final XdmResourceManager resourceManager = (XdmResourceManager) manager;
+      final UberPage uberPage;
+      try (final PageReadTrx pageReadTrx = manager.beginPageReadTrx()) {
+        uberPage = pageReadTrx.getUberPage();
+      }
+
+      final BufferManager bufferManager = new BufferManagerImpl(1L << 26);
+      final Storage storage = StorageType.getStorage(resourceManager.getResourceConfig());
+      try (final PageReadTrxImpl pageReadTrx = new PageReadTrxImpl(1, resourceManager, uberPage,
+          1, storage.createReader(), null, null, bufferManager)) {
+        // A single page isn't a sequential read.
+        pageReadTrx.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+        assertNull(getCachedRecordPage(pageReadTrx, bufferManager, 1));
+
+        // The next page is, thus the page after it is read ahead.
+        pageReadTrx.getRecordPageContainer(1L, -1, PageKind.RECORDPAGE);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (getCachedRecordPage(pageReadTrx, bufferManager, 2) == null
+            && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+        assertNotNull(getCachedRecordPage(pageReadTrx, bufferManager, 2));
+
+        // Reading the prefetched page keeps reading ahead.
+        assertNotNull(
+            pageReadTrx.getRecordPageContainer(2L, -1, PageKind.RECORDPAGE).getComplete());
+        while (getCachedRecordPage(pageReadTrx, bufferManager, 3) == null
+            && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+        assertNotNull(getCachedRecordPage(pageReadTrx, bufferManager, 3));
+      } finally {
+        storage.close();
+      }
+
+      // Random reads don't read ahead.
+      final BufferManager otherBufferManager = new BufferManagerImpl(1L << 26);
+      final Storage otherStorage = StorageType.getStorage(resourceManager.getResourceConfig());
+      try (final PageReadTrxImpl pageReadTrx = new PageReadTrxImpl(1, resourceManager, uberPage,
+          1, otherStorage.createReader(), null, null, otherBufferManager)) {
+        pageReadTrx.getRecordPageContainer(2L, -1, PageKind.RECORDPAGE);
+        pageReadTrx.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+        assertNull(getCachedRecordPage(pageReadTrx, otherBufferManager, 1));
+        assertNull(getCachedRecordPage(pageReadTrx, otherBufferManager, 3));
+      } finally {
+        otherStorage.close();
+      }
+
+      // Closing the transaction waits for its prefetches, which read through its reader.
+      final CompletableFuture<Void> prefetch;
+      final Storage closingStorage = StorageType.getStorage(resourceManager.getResourceConfig());
+      try (final PageReadTrxImpl pageReadTrx = new PageReadTrxImpl(1, resourceManager, uberPage,
+          1, closingStorage.createReader(), null, null, new BufferManagerImpl(1L << 26))) {
+        prefetch = pageReadTrx.prefetchRecordPage(3, -1, PageKind.RECORDPAGE);
+      } finally {
+        closingStorage.close();
+      }
+      assertTrue(prefetch.isDone());
+      assertFalse(prefetch.isCompletedExceptionally());
+    }
+  }
+
+  private static Object getCachedRecordPage(final PageReadTrxImpl pageReadTrx,
+      final BufferManager bufferManager, final long recordPageKey) {
+    final PageReference reference =
+        pageReadTrx.getLeafPageReference(recordPageKey, -1, PageKind.RECORDPAGE).get();
+    return bufferManager.getRecordPageCache().get(reference);
+  }
+}
@@ -0,0 +1,121 @@
+package org.sirix.access.trx.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.page.PageConstants;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the {@link PageWriteTrxImpl}, that is committing several record pages, which are
+ * serialized in parallel, and record pages, which reference overflow pages.
+ *
+ * @author agent
+ *
+ */
+public final class PageWriteTrxImplTest {
+
+  /** Number of elements, such that they are stored in several record pages. */
+  private static final int ELEMENTS = 3 * Constants.NDP_NODE_COUNT;
+
+  /** {@link Database} instance. */
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    final ResourceConfiguration.Builder builder =
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, PATHS.PATH1.getConfig());
+    mDatabase.createResource(builder.useTextCompression(false).build());
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testCommitRecordPages() throws SirixException {
+    // The text is stored in an overflow page, as it exceeds the maximum record size.
+    final String text = randomText(PageConstants.MAX_RECORD_SIZE + 1);
+
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      final long rootKey;
+      final long textKey;
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        wtx.insertElementAsFirstChild(new QNm("root"));
+        rootKey = wtx.getNodeKey();
+        wtx.insertElementAsFirstChild(new QNm("e"));
+        for (int i = 1; i < ELEMENTS; i++) {
+          wtx.insertElementAsRightSibling(new QNm("e"));
+        }
+        wtx.insertTextAsFirstChild(text);
+        textKey = wtx.getNodeKey();
+        assertTrue(textKey >> Constants.NDP_NODE_COUNT_EXPONENT >= 3);
+        wtx.commit();
+
+        // Modify the text record, thereby rewriting its record page, which references an already
+        // written overflow page.
+        wtx.moveTo(rootKey);
+        wtx.insertElementAsFirstChild(new QNm("f"));
+        wtx.moveTo(textKey);
+        wtx.insertElementAsRightSibling(new QNm("g"));
+        wtx.commit();
+      }
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(1)) {
+        assertEquals(ELEMENTS, countChildren(rtx, rootKey, "e"));
+        assertTrue(rtx.moveTo(textKey).hasMoved());
+        assertEquals(text, rtx.getValue());
+        assertFalse(rtx.hasRightSibling());
+      }
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(2)) {
+        assertEquals(ELEMENTS, countChildren(rtx, rootKey, "e"));
+        assertTrue(rtx.moveTo(rootKey).hasMoved());
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(new QNm("f"), rtx.getName());
+        assertTrue(rtx.moveTo(textKey).hasMoved());
+        assertEquals(text, rtx.getValue());
+        assertTrue(rtx.moveToRightSibling().hasMoved());
+        assertEquals(new QNm("g"), rtx.getName());
+      }
+    }
+  }
+
+  private static int countChildren(final XdmNodeReadTrx rtx, final long parentKey,
+      final String name) {
+    int count = 0;
+    assertTrue(rtx.moveTo(parentKey).hasMoved());
+    assertTrue(rtx.moveToFirstChild().hasMoved());
+    do {
+      if (rtx.getName().equals(new QNm(name))) {
+        count++;
+      }
+    } while (rtx.moveToRightSibling().hasMoved());
+    return count;
+  }
+
+  private static String randomText(final int length) {
+    final Random random = new Random(42);
+    final StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + random.nextInt(26)));
+    }
+    return builder.toString();
+  }
+}
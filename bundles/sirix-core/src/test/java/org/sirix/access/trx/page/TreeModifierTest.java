@@ -0,0 +1,129 @@
+package org.sirix.access.trx.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.cache.PageContainer;
+import org.sirix.exception.SirixException;
+import org.sirix.node.interfaces.Record;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the {@link TreeModifierImpl}, that is the growth of the indirect page trees.
+ *
+ * @author agent
+ *
+ */
+public final class TreeModifierTest {
+
+  /**
+   * The key of a record page, which can't be addressed by a tree of height 1, as it has 512
+   * references.
+   */
+  private static final long RECORD_PAGE_KEY = 600;
+
+  /** {@link Database} instance. */
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, PATHS.PATH1.getConfig()).build());
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testGrowRecordPageTree() throws SirixException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      final long firstKey;
+      final long farKey;
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        wtx.insertElementAsFirstChild(new QNm("a"));
+        firstKey = wtx.getNodeKey();
+        wtx.commit();
+
+        final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWtx =
+            wtx.getPageTransaction();
+        final RevisionRootPage revisionRootPage = pageWtx.getActualRevisionRootPage();
+        assertEquals(1,
+            pageWtx.getCurrentMaxIndirectPageTreeLevel(PageKind.RECORDPAGE, -1, revisionRootPage));
+
+        // Skip the node keys of the first record pages instead of inserting several hundred
+        // thousand nodes, such that the next node is stored beyond the first indirect level.
+        revisionRootPage.setMaxNodeKey(RECORD_PAGE_KEY << Constants.NDP_NODE_COUNT_EXPONENT);
+        wtx.moveTo(firstKey);
+        wtx.insertElementAsFirstChild(new QNm("b"));
+        farKey = wtx.getNodeKey();
+        assertEquals(RECORD_PAGE_KEY, farKey >> Constants.NDP_NODE_COUNT_EXPONENT);
+        assertEquals(2,
+            pageWtx.getCurrentMaxIndirectPageTreeLevel(PageKind.RECORDPAGE, -1, revisionRootPage));
+
+        // The former root has been moved below the new root, without leaving its entry behind.
+        final Map<PageReference, PageContainer> log = pageWtx.getLog().getMap();
+        final Set<PageReference> references = Collections.newSetFromMap(new IdentityHashMap<>());
+        references.addAll(log.keySet());
+        assertEquals(log.size(), references.size());
+
+        wtx.commit();
+
+        // Modify the records on both sides of the grown tree.
+        wtx.moveTo(firstKey);
+        wtx.insertElementAsFirstChild(new QNm("c"));
+        wtx.moveTo(farKey);
+        wtx.insertElementAsFirstChild(new QNm("d"));
+        wtx.commit();
+      }
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(1)) {
+        assertTrue(rtx.moveTo(firstKey).hasMoved());
+        assertEquals(new QNm("a"), rtx.getName());
+        assertFalse(rtx.hasFirstChild());
+        assertFalse(rtx.moveTo(farKey).hasMoved());
+      }
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(2)) {
+        assertTrue(rtx.moveTo(firstKey).hasMoved());
+        assertEquals(new QNm("a"), rtx.getName());
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(farKey, rtx.getNodeKey());
+        assertEquals(new QNm("b"), rtx.getName());
+        assertFalse(rtx.hasFirstChild());
+      }
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(3)) {
+        assertTrue(rtx.moveTo(firstKey).hasMoved());
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(new QNm("c"), rtx.getName());
+        assertTrue(rtx.moveTo(farKey).hasMoved());
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(new QNm("d"), rtx.getName());
+      }
+    }
+  }
+}
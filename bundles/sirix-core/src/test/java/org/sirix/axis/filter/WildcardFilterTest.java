@@ -0,0 +1,50 @@
+package org.sirix.axis.filter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.axis.filter.WildcardFilter.EType;
+import org.sirix.exception.SirixException;
+
+public class WildcardFilterTest {
+
+  private Holder holder;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    TestHelper.createTestDocument();
+    holder = Holder.generateRtx();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    holder.close();
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testFilterConvetions() throws SirixException {
+    final XdmNodeReadTrx rtx = holder.getXdmNodeReadTrx();
+
+    rtx.moveTo(9L);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "b", EType.LOCALNAME), true);
+
+    rtx.moveTo(7L);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "b", EType.LOCALNAME), false);
+
+    rtx.moveTo(4L);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "b", EType.LOCALNAME), false);
+
+    rtx.moveTo(10L);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "x", EType.LOCALNAME), true);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "p", EType.PREFIX), true);
+
+    rtx.moveTo(3L);
+    FilterTest.testFilterConventions(new WildcardFilter(rtx, "p", EType.PREFIX), false);
+  }
+
+}
@@ -0,0 +1,98 @@
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import org.sirix.page.IndirectPage;
+import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Test the {@link BufferManagerImpl}.
+ *
+ * @author agent
+ *
+ */
+public final class BufferManagerTest {
+
+  @Test
+  public void testStatistics() {
+    final BufferManager bufferManager = new BufferManagerImpl(1L << 20);
+    final Cache<PageReference, Page> cache = bufferManager.getPageCache();
+
+    final PageReference reference = new PageReference();
+    reference.setKey(12L);
+    final Page page = new IndirectPage();
+    cache.put(reference, page);
+
+    final PageReference otherReference = new PageReference();
+    otherReference.setKey(24L);
+
+    assertSame(page, cache.get(reference));
+    assertNull(cache.get(otherReference));
+
+    final CacheStatistics statistics = bufferManager.getStatistics();
+    assertEquals(1, statistics.getHitCount());
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(1L << 20, statistics.getMaxSize());
+  }
+
+  @Test
+  public void testClear() {
+    final BufferManager bufferManager = new BufferManagerImpl(1L << 20);
+
+    final PageReference reference = new PageReference();
+    reference.setKey(12L);
+    final Page page = new IndirectPage();
+    bufferManager.getPageCache().put(reference, page);
+
+    assertNull(bufferManager.getRecordPageCache().get(reference));
+
+    bufferManager.getRevisionRootPageCache().clear();
+    assertSame(page, bufferManager.getPageCache().get(reference));
+
+    bufferManager.getPageCache().clear();
+    assertNull(bufferManager.getPageCache().get(reference));
+  }
+
+  @Test
+  public void testPinnedPagesAreNotEvicted() {
+    final BufferManager bufferManager = new BufferManagerImpl(1L << 16);
+
+    final PageReference pinnedReference = new PageReference();
+    pinnedReference.setKey(0L);
+    final Page pinnedPage = new IndirectPage();
+    bufferManager.pin(pinnedReference, pinnedPage);
+
+    // Exceed the maximum size of the buffer several times.
+    for (long key = 1; key < 10_000; key++) {
+      final PageReference reference = new PageReference();
+      reference.setKey(key);
+      bufferManager.getPageCache().put(reference, new IndirectPage());
+    }
+
+    final PageReference reference = new PageReference();
+    reference.setKey(0L);
+    assertSame(pinnedPage, bufferManager.getPageCache().get(reference));
+    assertEquals(1, bufferManager.getPinnedPageCount());
+  }
+
+  @Test
+  public void testUnpin() {
+    final BufferManager bufferManager = new BufferManagerImpl(1L << 16);
+
+    final PageReference pinnedReference = new PageReference();
+    pinnedReference.setKey(0L);
+    final Page pinnedPage = new IndirectPage();
+    bufferManager.pin(pinnedReference, pinnedPage);
+    assertEquals(0, bufferManager.getStatistics().getSize());
+
+    bufferManager.unpin(pinnedReference);
+    assertEquals(0, bufferManager.getPinnedPageCount());
+    assertSame(pinnedPage, bufferManager.getPageCache().get(pinnedReference));
+
+    // The page counts towards the size of the buffer again.
+    assertEquals(PageWeigher.weigh(pinnedPage), bufferManager.getStatistics().getSize());
+  }
+}
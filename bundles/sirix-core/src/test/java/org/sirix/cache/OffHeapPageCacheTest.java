@@ -0,0 +1,72 @@
+package org.sirix.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Test the {@link OffHeapPageCache}.
+ *
+ * @author agent
+ *
+ */
+public final class OffHeapPageCacheTest {
+
+  @Test
+  public void testPutGet() {
+    final OffHeapPageCache cache = new OffHeapPageCache(1L << 10);
+    final byte[] page = page(100, (byte) 1);
+    cache.put(1, 12L, page);
+
+    assertArrayEquals(page, cache.get(1, 12L));
+    assertNull(cache.get(2, 12L));
+    assertNull(cache.get(1, 24L));
+
+    final CacheStatistics statistics = cache.getStatistics();
+    assertEquals(1, statistics.getHitCount());
+    assertEquals(2, statistics.getMissCount());
+    assertEquals(100, statistics.getSize());
+  }
+
+  @Test
+  public void testEviction() {
+    final OffHeapPageCache cache = new OffHeapPageCache(64, 32);
+    final byte[] first = page(20, (byte) 1);
+    final byte[] second = page(20, (byte) 2);
+    final byte[] third = page(20, (byte) 3);
+    cache.put(1, 0L, first);
+    cache.put(1, 100L, second);
+    cache.put(1, 200L, third);
+
+    assertNull(cache.get(1, 0L));
+    assertArrayEquals(second, cache.get(1, 100L));
+    assertArrayEquals(third, cache.get(1, 200L));
+    assertEquals(1, cache.getStatistics().getEvictionCount());
+
+    // Pages, which are bigger than a slab, are not cached.
+    cache.put(1, 300L, page(33, (byte) 4));
+    assertNull(cache.get(1, 300L));
+  }
+
+  @Test
+  public void testInvalidate() {
+    final OffHeapPageCache cache = new OffHeapPageCache(1L << 10);
+    final byte[] page = page(100, (byte) 1);
+    cache.put(1, 12L, page);
+    cache.put(2, 12L, page);
+
+    cache.invalidate(1);
+
+    assertNull(cache.get(1, 12L));
+    assertArrayEquals(page, cache.get(2, 12L));
+    assertEquals(100, cache.getStatistics().getSize());
+  }
+
+  private static byte[] page(final int length, final byte value) {
+    final byte[] page = new byte[length];
+    Arrays.fill(page, value);
+    return page;
+  }
+}
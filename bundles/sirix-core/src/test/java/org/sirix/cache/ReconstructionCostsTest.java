@@ -0,0 +1,33 @@
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Test the {@link ReconstructionCosts}.
+ *
+ * @author agent
+ *
+ */
+public final class ReconstructionCostsTest {
+
+  @Test
+  public void testRecord() {
+    final ReconstructionCosts costs = new ReconstructionCosts(16);
+    assertEquals(0, costs.get(12L));
+
+    costs.record(12L, 2);
+    costs.record(12L, 2);
+    costs.record(24L, 0);
+
+    assertEquals(4, costs.get(12L));
+    assertEquals(0, costs.get(24L));
+  }
+
+  @Test
+  public void testSharedByBuffer() {
+    final BufferManager bufferManager = new BufferManagerImpl(1L << 20);
+    bufferManager.getReconstructionCosts().record(12L, 3);
+    assertEquals(3, bufferManager.getReconstructionCosts().get(12L));
+  }
+}
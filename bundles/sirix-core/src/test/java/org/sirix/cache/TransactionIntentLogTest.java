@@ -0,0 +1,143 @@
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.page.PageKind;
+import org.sirix.page.PagePersister;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the memory budget of the {@link TransactionIntentLog}.
+ *
+ * @author agent
+ *
+ */
+public final class TransactionIntentLogTest {
+
+  /** Memory budget of the log in bytes. */
+  private static final long MEMORY_BUDGET = 1 << 12;
+
+  private Holder mHolder;
+
+  private PageReadTrx mPageReadTrx;
+
+  private Path mLogFile;
+
+  private SpillArena mSpillArena;
+
+  private TransactionIntentLog mLog;
+
+  @Before
+  public void setUp() throws SirixException, IOException {
+    TestHelper.deleteEverything();
+    mHolder = Holder.openResourceManager();
+    mPageReadTrx = mHolder.getResourceManager().beginPageReadTrx();
+    mLogFile = Files.createTempFile("sirix", "intent-log");
+    mSpillArena = new SpillArena(FileChannel.open(mLogFile, StandardOpenOption.READ,
+        StandardOpenOption.WRITE), new PagePersister());
+    mLog = new TransactionIntentLog(mSpillArena, MEMORY_BUDGET);
+  }
+
+  @After
+  public void tearDown() throws SirixException, IOException {
+    mLog.close();
+    mPageReadTrx.close();
+    mHolder.close();
+    Files.deleteIfExists(mLogFile);
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testSpillRecordPages() {
+    final PageReference[] references = putRecordPages();
+
+    assertTrue(mLog.getEstimatedSize() <= MEMORY_BUDGET);
+    assertTrue(mLog.usedEntries() < references.length);
+
+    // The eldest page has been spilled, the most recently inserted page is still in memory.
+    assertNull(mLog.getMap().get(references[0]));
+    assertNotNull(mLog.getMap().get(references[references.length - 1]));
+
+    // Peeking doesn't read the spilled page back into memory.
+    final int usedEntries = mLog.usedEntries();
+    final PageContainer spilled = mLog.peek(references[0], mPageReadTrx);
+    assertEquals(0, ((UnorderedKeyValuePage) spilled.getComplete()).getPageKey());
+    assertEquals(usedEntries, mLog.usedEntries());
+
+    final PageContainer reread = mLog.get(references[0], mPageReadTrx);
+    assertEquals(0, ((UnorderedKeyValuePage) reread.getModified()).getPageKey());
+    assertSame(reread, mLog.getMap().get(references[0]));
+
+    // The page is spilled again once it's evicted again.
+    final long spilledSize = mSpillArena.getSize();
+    putRecordPages();
+    assertNull(mLog.getMap().get(references[0]));
+    assertEquals(0, ((UnorderedKeyValuePage) mLog.peek(references[0], mPageReadTrx)
+                                                 .getModified()).getPageKey());
+    assertTrue(mSpillArena.getSize() > spilledSize);
+  }
+
+  @Test
+  public void testSpillAfterTruncate() {
+    putRecordPages();
+    assertTrue(mSpillArena.getSize() > 0);
+
+    // The arena is reused after a commit, which truncates the log.
+    mLog.truncate();
+    assertEquals(0, mSpillArena.getSize());
+    assertEquals(0, mLog.usedEntries());
+
+    final PageReference[] references = putRecordPages();
+    assertNull(mLog.getMap().get(references[1]));
+    final PageContainer reread = mLog.get(references[1], mPageReadTrx);
+    assertEquals(1, ((UnorderedKeyValuePage) reread.getComplete()).getPageKey());
+  }
+
+  /**
+   * Put more record pages into the log than fit into its memory budget.
+   *
+   * @return the references of the record pages
+   */
+  private PageReference[] putRecordPages() {
+    final PageReference[] references = new PageReference[256];
+    for (int i = 0; i < references.length; i++) {
+      final UnorderedKeyValuePage page = new UnorderedKeyValuePage(i, PageKind.RECORDPAGE,
+          Constants.NULL_ID_LONG, mPageReadTrx);
+      references[i] = new PageReference();
+      mLog.put(references[i], PageContainer.getInstance(page, page));
+    }
+    return references;
+  }
+
+  @Test
+  public void testPutReplacesLoggedEntry() {
+    final UnorderedKeyValuePage page =
+        new UnorderedKeyValuePage(0, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    final UnorderedKeyValuePage otherPage =
+        new UnorderedKeyValuePage(1, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    final PageReference reference = new PageReference();
+    mLog.put(reference, PageContainer.getInstance(page, page));
+    final PageContainer container = PageContainer.getInstance(otherPage, otherPage);
+    mLog.put(reference, container);
+
+    assertEquals(1, mLog.usedEntries());
+    assertSame(container, mLog.get(reference, mPageReadTrx));
+  }
+}
@@ -0,0 +1,124 @@
+package org.sirix.index.avltree.keyvalue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+
+/**
+ * Test the {@link NodeKeyBitmap} and the {@link NodeReferences}, which are based on it.
+ *
+ * @author agent
+ *
+ */
+public final class NodeKeyBitmapTest {
+
+  /**
+   * Create random node keys, which are dense in some chunks (bitmap containers) and sparse in
+   * others (array containers).
+   *
+   * @param random the random number generator
+   * @param base the smallest node key
+   * @return the node keys
+   */
+  private static Set<Long> createNodeKeys(final Random random, final long base) {
+    final Set<Long> nodeKeys = new TreeSet<>();
+    for (int i = 0; i < 10_000; i++) {
+      nodeKeys.add(base + random.nextInt(1 << 16));
+    }
+    for (int i = 0; i < 100; i++) {
+      nodeKeys.add(base + (1 << 16) + random.nextInt(1 << 20));
+    }
+    return nodeKeys;
+  }
+
+  private static NodeKeyBitmap toBitmap(final Set<Long> nodeKeys) {
+    final NodeKeyBitmap bitmap = new NodeKeyBitmap();
+    for (final long nodeKey : nodeKeys) {
+      assertTrue(bitmap.add(nodeKey));
+    }
+    return bitmap;
+  }
+
+  private static void assertNodeKeys(final Set<Long> expected, final NodeKeyBitmap bitmap) {
+    assertEquals(expected.size(), bitmap.getCardinality());
+    final List<Long> nodeKeys = new ArrayList<>();
+    for (final PrimitiveIterator.OfLong iter = bitmap.iterator(); iter.hasNext();) {
+      nodeKeys.add(iter.nextLong());
+    }
+    assertEquals(new ArrayList<>(expected), nodeKeys);
+  }
+
+  @Test
+  public void testAddRemove() {
+    final Random random = new Random(42);
+    final Set<Long> expected = createNodeKeys(random, 1_000_000L);
+    final NodeKeyBitmap bitmap = toBitmap(expected);
+    assertNodeKeys(expected, bitmap);
+    assertFalse(bitmap.add(expected.iterator().next()));
+    assertFalse(bitmap.contains(0));
+
+    // Removing most of the keys turns bitmap containers into array containers again.
+    final List<Long> nodeKeys = new ArrayList<>(expected);
+    for (int i = 0; i < nodeKeys.size(); i += 1 + (i % 7 == 0 ? 0 : 1)) {
+      assertTrue(bitmap.remove(nodeKeys.get(i)));
+      expected.remove(nodeKeys.get(i));
+    }
+    assertFalse(bitmap.remove(0));
+    assertNodeKeys(expected, bitmap);
+    assertEquals(toBitmap(expected), bitmap);
+
+    for (final long nodeKey : nodeKeys) {
+      bitmap.remove(nodeKey);
+    }
+    assertTrue(bitmap.isEmpty());
+  }
+
+  @Test
+  public void testAndOr() {
+    final Random random = new Random(7);
+    final Set<Long> first = createNodeKeys(random, 0);
+    final Set<Long> second = createNodeKeys(random, 30_000);
+
+    final Set<Long> intersection = new TreeSet<>(first);
+    intersection.retainAll(second);
+    assertNodeKeys(intersection, NodeKeyBitmap.and(toBitmap(first), toBitmap(second)));
+
+    final Set<Long> union = new TreeSet<>(first);
+    union.addAll(second);
+    assertNodeKeys(union, NodeKeyBitmap.or(toBitmap(first), toBitmap(second)));
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    final Set<Long> expected = createNodeKeys(new Random(3), 5);
+    final NodeReferences references = new NodeReferences(expected);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    references.serialize(new DataOutputStream(out));
+    final NodeReferences deserialized = NodeReferences.deserialize(
+        new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    assertEquals(references, deserialized);
+    assertEquals(expected, deserialized.getNodeKeys());
+
+    // Unmodified references are written back as they have been read.
+    final ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+    deserialized.serialize(new DataOutputStream(rewritten));
+    assertEquals(out.size(), rewritten.size());
+
+    deserialized.addNodeKey(1L << 40);
+    expected.add(1L << 40);
+    assertEquals(expected, deserialized.getNodeKeys());
+  }
+}
@@ -0,0 +1,107 @@
+package org.sirix.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * Test the {@link FileSyncer}.
+ *
+ * @author agent
+ *
+ */
+public final class FileSyncerTest {
+
+  @Test
+  public void testSync() {
+    final AtomicInteger forces = new AtomicInteger();
+    final FileSyncer syncer = new FileSyncer(DurabilityMode.SYNC, 0, forces::incrementAndGet);
+    syncer.beforeCommit();
+    syncer.afterCommit();
+    assertEquals(2, forces.get());
+    syncer.close();
+    assertEquals(2, forces.get());
+  }
+
+  @Test
+  public void testGroupCommitForcedByTimer() {
+    final AtomicInteger forces = new AtomicInteger();
+    final FileSyncer syncer = new FileSyncer(DurabilityMode.GROUP, 10, forces::incrementAndGet);
+    syncer.beforeCommit();
+    assertEquals(0, forces.get());
+
+    // The commit returns once it's forced, without another commit or close.
+    syncer.afterCommit();
+    assertEquals(1, forces.get());
+    syncer.close();
+    assertEquals(1, forces.get());
+  }
+
+  @Test
+  public void testGroupCommitShared() throws Exception {
+    final AtomicInteger forces = new AtomicInteger();
+    final FileSyncer syncer = new FileSyncer(DurabilityMode.GROUP, 200, forces::incrementAndGet);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<?> first = executor.submit(syncer::afterCommit);
+      final Future<?> second = executor.submit(syncer::afterCommit);
+      first.get(10, TimeUnit.SECONDS);
+      second.get(10, TimeUnit.SECONDS);
+      assertEquals(1, forces.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testGroupCommitFailed() throws Exception {
+    final FileSyncer syncer = new FileSyncer(DurabilityMode.GROUP, 200, () -> {
+      throw new SirixIOException("force failed");
+    });
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<?> first = executor.submit(syncer::afterCommit);
+      final Future<?> second = executor.submit(syncer::afterCommit);
+      for (final Future<?> commit : Arrays.asList(first, second)) {
+        try {
+          commit.get(10, TimeUnit.SECONDS);
+          fail("The failed force must be reported to each commit of the window.");
+        } catch (final ExecutionException e) {
+          assertTrue(e.getCause() instanceof SirixIOException);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testGroupCommitForcedOnClose() throws Exception {
+    final AtomicInteger forces = new AtomicInteger();
+    final FileSyncer syncer =
+        new FileSyncer(DurabilityMode.GROUP, TimeUnit.HOURS.toMillis(1), forces::incrementAndGet);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<?> commit = executor.submit(syncer::afterCommit);
+      while (forces.get() == 0 && !commit.isDone()) {
+        syncer.close();
+        Thread.sleep(10);
+      }
+      commit.get(10, TimeUnit.SECONDS);
+      assertEquals(1, forces.get());
+      syncer.close();
+      assertEquals(1, forces.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
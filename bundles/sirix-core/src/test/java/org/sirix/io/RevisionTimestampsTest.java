@@ -0,0 +1,81 @@
+package org.sirix.io;
+
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link RevisionTimestamps}.
+ *
+ * @author agent
+ *
+ */
+public final class RevisionTimestampsTest {
+
+  private Path mDirectory;
+
+  private Path mFile;
+
+  @Before
+  public void setUp() throws IOException {
+    mDirectory = Files.createTempDirectory("sirix-timestamps");
+    mFile = mDirectory.resolve(RevisionTimestamps.FILENAME);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mFile);
+    Files.deleteIfExists(mDirectory);
+  }
+
+  @Test
+  public void testBinarySearch() {
+    try (final RevisionTimestamps timestamps = new RevisionTimestamps(mFile)) {
+      for (int revision = 0; revision < 10; revision++) {
+        timestamps.set(revision, 1000 + revision * 10);
+      }
+
+      assertEquals(10, timestamps.getRevisionCount());
+      assertEquals(1050, timestamps.getTimestamp(5));
+      assertEquals(5, timestamps.binarySearch(1050, 10));
+      assertEquals(-6, timestamps.binarySearch(1045, 10));
+      assertEquals(-1, timestamps.binarySearch(999, 10));
+      assertEquals(-11, timestamps.binarySearch(2000, 10));
+
+      // Only the given number of revisions is searched.
+      assertEquals(-6, timestamps.binarySearch(1070, 5));
+    }
+  }
+
+  @Test
+  public void testReplaceTruncateAndReopen() {
+    try (final RevisionTimestamps timestamps = new RevisionTimestamps(mFile)) {
+      timestamps.set(0, 100);
+      timestamps.set(1, 200);
+      timestamps.set(1, 250);
+      timestamps.set(2, 300);
+      timestamps.truncate(2);
+      assertEquals(2, timestamps.getRevisionCount());
+      assertEquals(250, timestamps.getTimestamp(1));
+    }
+
+    try (final RevisionTimestamps timestamps = new RevisionTimestamps(mFile)) {
+      assertEquals(2, timestamps.getRevisionCount());
+      assertEquals(100, timestamps.getTimestamp(0));
+      assertEquals(250, timestamps.getTimestamp(1));
+      timestamps.set(2, 400);
+      assertEquals(2, timestamps.binarySearch(400, 3));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGap() {
+    try (final RevisionTimestamps timestamps = new RevisionTimestamps(mFile)) {
+      timestamps.set(1, 100);
+    }
+  }
+}
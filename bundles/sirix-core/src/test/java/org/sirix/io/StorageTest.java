@@ -22,8 +22,13 @@
 package org.sirix.io;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.fail;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import org.sirix.TestHelper;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
@@ -31,9 +36,11 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.io.file.FileStorage;
+import org.sirix.io.memorymapped.MemoryMappedStorage;
 import org.sirix.io.ram.RAMStorage;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
+import org.sirix.page.interfaces.Page;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
@@ -117,6 +124,136 @@ public final class StorageTest {
     }
   }
 
+  /**
+   * Test method for {@link Reader#readAsync(PageReference, org.sirix.api.PageReadTrx)} and for
+   * {@link Reader#readAll(List, org.sirix.api.PageReadTrx)}.
+   *
+   * @throws SirixIOException
+   */
+  @Test(dataProvider = "instantiateStorages")
+  public void testAsyncRead(final Class<Storage> clazz, final Storage[] storages)
+      throws SirixException {
+    for (final Storage handler : storages) {
+      try {
+        final PageReference pageRef1 = new PageReference();
+        pageRef1.setPage(new UberPage());
+        final PageReference pageRef2 = new PageReference();
+        pageRef2.setPage(new UberPage());
+
+        try (final Writer writer = handler.createWriter()) {
+          writer.writeUberPageReference(pageRef1);
+          writer.writeUberPageReference(pageRef2);
+        }
+
+        try (final Reader reader = handler.createReader()) {
+          final String message = new StringBuilder("Check for ").append(handler.getClass())
+                                                                .append(" failed.")
+                                                                .toString();
+          final UberPage page = (UberPage) reader.readAsync(
+              new PageReference().setKey(pageRef1.getKey()), null).join();
+          assertEquals(message, ((UberPage) pageRef1.getPage()).getRevisionCount(),
+              page.getRevisionCount());
+
+          final List<Page> pages = reader.readAll(
+              Arrays.asList(new PageReference().setKey(pageRef1.getKey()),
+                  new PageReference().setKey(pageRef2.getKey())),
+              null).join();
+          assertEquals(message, 2, pages.size());
+          assertEquals(message, ((UberPage) pageRef1.getPage()).getRevisionCount(),
+              ((UberPage) pages.get(0)).getRevisionCount());
+          assertEquals(message, ((UberPage) pageRef2.getPage()).getRevisionCount(),
+              ((UberPage) pages.get(1)).getRevisionCount());
+        }
+      } finally {
+        handler.close();
+      }
+    }
+  }
+
+  /**
+   * Test that pages are written and read back with each {@link DurabilityMode}.
+   *
+   * @throws SirixIOException
+   */
+  @Test
+  public void testDurabilityModes() throws SirixException {
+    for (final DurabilityMode durabilityMode : DurabilityMode.values()) {
+      final ResourceConfiguration resourceConfig = new ResourceConfiguration.Builder("shredded",
+          new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile())).durabilityMode(
+              durabilityMode).groupCommitWindow(1).build();
+
+      for (final Storage handler : new Storage[] {new FileStorage(resourceConfig),
+          new MemoryMappedStorage(resourceConfig)}) {
+        try {
+          final String message = new StringBuilder("Check for ").append(handler.getClass())
+                                                                .append(" with ")
+                                                                .append(durabilityMode)
+                                                                .append(" failed.")
+                                                                .toString();
+          final PageReference pageRef1 = new PageReference();
+          pageRef1.setPage(new UberPage());
+          final PageReference pageRef2 = new PageReference();
+          pageRef2.setPage(new UberPage());
+
+          try (final Writer writer = handler.createWriter()) {
+            writer.truncate();
+            writer.writeUberPageReference(pageRef1);
+            writer.writeUberPageReference(pageRef2);
+            assertEquals(message, pageRef2.getKey(), writer.readUberPageReference().getKey());
+          }
+
+          try (final Reader reader = handler.createReader()) {
+            assertEquals(message, pageRef2.getKey(), reader.readUberPageReference().getKey());
+            final UberPage page =
+                (UberPage) reader.read(new PageReference().setKey(pageRef1.getKey()), null);
+            assertEquals(message, ((UberPage) pageRef1.getPage()).getRevisionCount(),
+                page.getRevisionCount());
+          }
+        } finally {
+          handler.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that data files of another format version are rejected.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Test
+  public void testOtherFormatVersion() throws SirixException, IOException {
+    for (final Storage handler : new Storage[] {new FileStorage(mResourceConfig),
+        new MemoryMappedStorage(mResourceConfig)}) {
+      try {
+        final PageReference pageRef = new PageReference();
+        pageRef.setPage(new UberPage());
+        try (final Writer writer = handler.createWriter()) {
+          writer.truncate();
+          writer.writeUberPageReference(pageRef);
+        }
+
+        // Data files, which have been written before the format version has been introduced.
+        final Path dataFilePath =
+            mResourceConfig.resourcePath.resolve(ResourceConfiguration.ResourcePaths.DATA.getPath())
+                                        .resolve("sirix.data");
+        try (final RandomAccessFile dataFile = new RandomAccessFile(dataFilePath.toFile(), "rw")) {
+          dataFile.seek(FormatVersion.POSITION);
+          dataFile.writeInt(0);
+        }
+
+        try (final Reader reader = handler.createReader()) {
+          reader.readUberPageReference();
+          fail("Data file of another format version must not be read by " + handler.getClass());
+        } catch (final SirixIOException e) {
+          // Expected.
+        }
+      } finally {
+        handler.close();
+      }
+    }
+  }
+
   /**
    * Providing different implementations of the {@link ByteHandler} as Dataprovider to the test
    * class.
@@ -127,7 +264,8 @@ public final class StorageTest {
   @DataProvider(name = "instantiateStorages")
   public Object[][] instantiateStorages() throws SirixIOException {
     Object[][] returnVal = {{Storage.class,
-        new Storage[] {new FileStorage(mResourceConfig), new RAMStorage(mResourceConfig)}}};
+        new Storage[] {new FileStorage(mResourceConfig), new MemoryMappedStorage(mResourceConfig),
+            new RAMStorage(mResourceConfig)}}};
     return returnVal;
   }
 
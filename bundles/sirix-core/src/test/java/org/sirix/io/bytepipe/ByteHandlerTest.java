@@ -7,9 +7,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.sirix.TestHelper;
 import org.sirix.exception.SirixIOException;
 import org.testng.annotations.DataProvider;
@@ -72,6 +76,64 @@ public final class ByteHandlerTest {
     }
   }
 
+  /**
+   * Test method for {@link ByteHandler#serialize(ByteBuffer)} and for
+   * {@link ByteHandler#deserialize(ByteBuffer)}, which must be compatible with the stream methods.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Test(dataProvider = "instantiateByteHandler")
+  public void testSerializeAndDeserializeBlocks(Class<ByteHandler> clazz, ByteHandler[] handlers)
+      throws IOException {
+    for (final ByteHandler handler : handlers) {
+      final byte[] bytes = TestHelper.generateRandomBytes(10000);
+
+      final ByteBuffer encoded = handler.serialize(ByteBuffer.wrap(bytes));
+      final byte[] encodedBytes = new byte[encoded.remaining()];
+      encoded.get(encodedBytes);
+
+      // Decode with the stream API.
+      final byte[] decodedStream =
+          ByteStreams.toByteArray(handler.deserialize(new ByteArrayInputStream(encodedBytes)));
+      assertTrue(
+          new StringBuilder("Check for ").append(handler.getClass()).append(" failed.").toString(),
+          Arrays.equals(bytes, decodedStream));
+
+      // Decode a direct buffer with the block API.
+      final ByteBuffer direct = ByteBuffer.allocateDirect(encodedBytes.length);
+      direct.put(encodedBytes).flip();
+      final ByteBuffer decoded = handler.deserialize(direct);
+      final byte[] decodedBytes = new byte[decoded.remaining()];
+      decoded.get(decodedBytes);
+      assertTrue(
+          new StringBuilder("Check for ").append(handler.getClass()).append(" failed.").toString(),
+          Arrays.equals(bytes, decodedBytes));
+    }
+  }
+
+  /**
+   * Test that a trained dictionary improves the compression of similar pages.
+   */
+  @Test
+  public void testDictionaryCompression() {
+    final List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      samples.add(("<page><node key=\"" + i + "\" name=\"article\"><title>Sirix</title>"
+          + "<author>Johannes</author></node><node key=\"" + (i + 1)
+          + "\" name=\"article\"><title>Sirix</title><author>Sebastian</author></node></page>")
+              .getBytes(StandardCharsets.UTF_8));
+    }
+    final byte[] dictionary = DictionaryTrainer.train(samples, 4096);
+    assertTrue(dictionary.length > 0);
+
+    final byte[] page = samples.get(7);
+    final int withDictionary =
+        new DeflateDictionaryCompressor(dictionary, 9).serialize(ByteBuffer.wrap(page)).remaining();
+    final int withoutDictionary =
+        new DeflateDictionaryCompressor().serialize(ByteBuffer.wrap(page)).remaining();
+    assertTrue(withDictionary < withoutDictionary);
+  }
+
   /**
    * Providing different implementations of the {@link ByteHandler} as Dataprovider to the test
    * class.
@@ -89,7 +151,12 @@ public final class ByteHandlerTest {
             new ByteHandlePipeline(new Encryptor(encryptionKeyPath), new DeflateCompressor()),
             new ByteHandlePipeline(new DeflateCompressor(), new Encryptor(encryptionKeyPath)),
             new ByteHandlePipeline(new Encryptor(encryptionKeyPath), new SnappyCompressor()),
-            new ByteHandlePipeline(new SnappyCompressor(), new Encryptor(encryptionKeyPath))}}};
+            new ByteHandlePipeline(new SnappyCompressor(), new Encryptor(encryptionKeyPath)),
+            new SnappyBlockCompressor(),
+            new DeflateDictionaryCompressor(TestHelper.generateRandomBytes(1024), 6),
+            new ByteHandlePipeline(new SnappyBlockCompressor(), new Encryptor(encryptionKeyPath)),
+            new ByteHandlePipeline(new Encryptor(encryptionKeyPath),
+                new DeflateDictionaryCompressor())}}};
     return returnVal;
   }
 
@@ -0,0 +1,285 @@
+package org.sirix.io.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.RetentionPolicy;
+import org.sirix.io.Storage;
+import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
+
+/**
+ * Test the compaction of the data file and the {@link RetentionPolicy}.
+ *
+ * @author agent
+ *
+ */
+public final class CompactorTest {
+
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    TestHelper.createTestDocument();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+
+    // Revisions 2 to 4 insert an element each.
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE);
+        final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      for (int i = 0; i < 3; i++) {
+        wtx.moveToDocumentRoot();
+        wtx.moveToFirstChild();
+        wtx.insertElementAsFirstChild(new QNm("rev" + (i + 2)));
+        wtx.commit();
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testKeepLastRevisions() throws SirixException, IOException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      final long sizeBefore = Files.size(getDataFile(manager));
+
+      manager.compact(RetentionPolicy.keepLastRevisions(2));
+
+      assertTrue(Files.size(getDataFile(manager)) < sizeBefore);
+      assertEquals(4, manager.getMostRecentRevisionNumber());
+      assertFalse(Files.exists(getDataFile(manager).resolveSibling(Compactor.MARKER_FILENAME)));
+
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(4)) {
+        rtx.moveToDocumentRoot();
+        rtx.moveToFirstChild();
+        rtx.moveToFirstChild();
+        assertEquals(new QNm("rev4"), rtx.getName());
+      }
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(3)) {
+        rtx.moveToDocumentRoot();
+        rtx.moveToFirstChild();
+        rtx.moveToFirstChild();
+        assertEquals(new QNm("rev3"), rtx.getName());
+      }
+
+      try {
+        manager.beginNodeReadTrx(2);
+        fail("Revision 2 must have been removed.");
+      } catch (final SirixIOException e) {
+        // Expected.
+      }
+
+      // Commit on top of the compacted data file.
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        wtx.moveToDocumentRoot();
+        wtx.moveToFirstChild();
+        wtx.insertElementAsFirstChild(new QNm("rev5"));
+        wtx.commit();
+      }
+    }
+
+    // Reopen the resource.
+    TestHelper.closeEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE);
+        final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      assertEquals(5, rtx.getRevisionNumber());
+      rtx.moveToDocumentRoot();
+      rtx.moveToFirstChild();
+      rtx.moveToFirstChild();
+      assertEquals(new QNm("rev5"), rtx.getName());
+    }
+  }
+
+  @Test
+  public void testTruncateAfterCompaction() throws SirixException, IOException {
+    final ResourceConfiguration resourceConfig;
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      resourceConfig = manager.getResourceConfig();
+      manager.compact(RetentionPolicy.keepLastRevisions(2));
+
+      // Revisions 5 and 6 are committed on top of the compacted data file.
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        for (int i = 5; i <= 6; i++) {
+          wtx.moveToDocumentRoot();
+          wtx.moveToFirstChild();
+          wtx.insertElementAsFirstChild(new QNm("rev" + i));
+          wtx.commit();
+        }
+      }
+
+      // The timestamps are still shared and point to the compacted file.
+      assertEquals(6, manager.getRevisionNumber(Instant.now()));
+    }
+    TestHelper.closeEverything();
+
+    final Path dataFile = resourceConfig.resourcePath.resolve(
+        ResourceConfiguration.ResourcePaths.DATA.getPath()).resolve(FileStorage.FILENAME);
+    final long sizeBefore = Files.size(dataFile);
+    final Storage storage = StorageType.getStorage(resourceConfig);
+    try (final Writer writer = storage.createWriter()) {
+      // The uber pages before the compacted revision aren't stored anymore.
+      for (int revision = 3; revision <= 4; revision++) {
+        try {
+          writer.truncateTo(revision);
+          fail("Revision " + revision + " is before the compaction boundary.");
+        } catch (final SirixIOException e) {
+          // Expected.
+        }
+      }
+      assertEquals(sizeBefore, Files.size(dataFile));
+
+      writer.truncateTo(5);
+      assertTrue(Files.size(dataFile) < sizeBefore);
+    } finally {
+      storage.close();
+    }
+  }
+
+  @Test
+  public void testDropFragmentsOfRemovedRevisions() throws SirixException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      // Revisions 5 to 10 modify the record page as well.
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        for (int i = 5; i <= 10; i++) {
+          wtx.moveToDocumentRoot();
+          wtx.moveToFirstChild();
+          wtx.insertElementAsFirstChild(new QNm("rev" + i));
+          wtx.commit();
+        }
+      }
+
+      // The fragments of revisions 9 and 10 and the previous fragments, which are needed to
+      // reconstruct the page of revision 9.
+      final int retainedFragments = 2 + manager.getResourceConfig().numberOfRevisionsToRestore - 1;
+      assertTrue(getFragments(manager).size() > retainedFragments);
+
+      manager.compact(RetentionPolicy.keepLastRevisions(2));
+
+      assertTrue(getFragments(manager).size() <= retainedFragments);
+
+      for (int revision = 9; revision <= 10; revision++) {
+        try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+          rtx.moveToDocumentRoot();
+          rtx.moveToFirstChild();
+          rtx.moveToFirstChild();
+          assertEquals(new QNm("rev" + revision), rtx.getName());
+          for (int i = revision - 1; i >= 2; i--) {
+            assertTrue(rtx.moveToRightSibling().hasMoved());
+            assertEquals(new QNm("rev" + i), rtx.getName());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testKeepAll() throws SirixException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE);
+        final XdmNodeReadTrx before = manager.beginNodeReadTrx(1)) {
+      manager.compact(RetentionPolicy.keepAll());
+
+      // Transactions started before the compaction keep reading the previous data file.
+      before.moveToDocumentRoot();
+      assertTrue(before.moveToFirstChild().hasMoved());
+
+      for (int revision = 1; revision <= 4; revision++) {
+        try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+          rtx.moveToDocumentRoot();
+          assertTrue(rtx.moveToFirstChild().hasMoved());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRecoverDiscardsIncompleteCompaction() throws IOException, SirixException {
+    final Path directory;
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      directory = getDataFile(manager).getParent();
+    }
+    final Path compacted = directory.resolve(FileStorage.FILENAME + Compactor.COMPACTED_SUFFIX);
+    Files.write(compacted, new byte[] {1, 2, 3});
+
+    Compactor.recover(directory);
+
+    assertFalse(Files.exists(compacted));
+    assertTrue(Files.size(directory.resolve(FileStorage.FILENAME)) > 3);
+  }
+
+  @Test
+  public void testOldestRetainedRevision() {
+    final long[] timestamps = {10, 20, 30, 40, 50};
+    assertEquals(0, RetentionPolicy.keepAll().getOldestRetainedRevision(4, r -> timestamps[r]));
+    assertEquals(3,
+        RetentionPolicy.keepLastRevisions(2).getOldestRetainedRevision(4, r -> timestamps[r]));
+    assertEquals(0,
+        RetentionPolicy.keepLastRevisions(10).getOldestRetainedRevision(4, r -> timestamps[r]));
+    assertEquals(2, RetentionPolicy.keepRevisionsNewerThan(Instant.ofEpochMilli(25))
+                                   .getOldestRetainedRevision(4, r -> timestamps[r]));
+    // The most recent revision is always retained.
+    assertEquals(4, RetentionPolicy.keepRevisionsNewerThan(Instant.ofEpochMilli(100))
+                                   .getOldestRetainedRevision(4, r -> timestamps[r]));
+  }
+
+  private static Path getDataFile(final ResourceManager manager) {
+    return manager.getResourceConfig().resourcePath.resolve(
+        ResourceConfiguration.ResourcePaths.DATA.getPath()).resolve(FileStorage.FILENAME);
+  }
+
+  /**
+   * Get the offsets of all fragments of the first record page of the most recent revision, which
+   * are reachable through the previous fragments of the fragments.
+   */
+  private static Set<Long> getFragments(final ResourceManager manager) {
+    try (final PageReadTrx pageReadTrx = manager.beginPageReadTrx()) {
+      final PageReference reference = pageReadTrx.getPageReferenceForPage(
+          pageReadTrx.getActualRevisionRootPage().getIndirectPageReference(), 0, -1,
+          PageKind.RECORDPAGE);
+      final Set<Long> fragments = new HashSet<>();
+      final Deque<Long> keys = new ArrayDeque<>();
+      keys.push(reference.getKey());
+      while (!keys.isEmpty()) {
+        final long key = keys.pop();
+        if (fragments.add(key)) {
+          final PageReference fragmentReference = new PageReference().setKey(key);
+          final UnorderedKeyValuePage fragment =
+              (UnorderedKeyValuePage) pageReadTrx.getReader().read(fragmentReference, pageReadTrx);
+          for (final long previousFragmentKey : fragment.getPreviousFragmentKeys()) {
+            keys.push(previousFragmentKey);
+          }
+        }
+      }
+      return fragments;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.sirix.io.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+
+/**
+ * Test the {@link Scrubber} and the verification of page checksums on read.
+ *
+ * @author agent
+ *
+ */
+public final class ScrubberTest {
+
+  private ResourceConfiguration mResourceConfig;
+
+  private Storage mStorage;
+
+  private PageReference mFirstReference;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mResourceConfig = new ResourceConfiguration.Builder("shredded",
+        new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile())).checksumVerification(
+            ChecksumVerification.ALWAYS).build();
+    mStorage = new FileStorage(mResourceConfig);
+
+    mFirstReference = new PageReference();
+    mFirstReference.setPage(new UberPage());
+    final PageReference secondReference = new PageReference();
+    secondReference.setPage(new UberPage());
+
+    try (final Writer writer = mStorage.createWriter()) {
+      writer.writeUberPageReference(mFirstReference);
+      writer.writeUberPageReference(secondReference);
+    }
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    mStorage.close();
+    TestHelper.deleteEverything();
+  }
+
+  @Test
+  public void testValid() {
+    final Scrubber.Report report = new Scrubber(mResourceConfig.resourcePath).scrub();
+    assertTrue(report.isValid());
+    assertEquals(2, report.getPageCount());
+  }
+
+  @Test
+  public void testCorruptPage() throws IOException {
+    // Flip a byte of the first page.
+    try (final RandomAccessFile dataFile = new RandomAccessFile(
+        mResourceConfig.resourcePath.resolve(ResourceConfiguration.ResourcePaths.DATA.getPath())
+                                    .resolve(FileStorage.FILENAME)
+                                    .toFile(),
+        "rw")) {
+      final long position = mFirstReference.getKey() + FileReader.OTHER_BEACON;
+      dataFile.seek(position);
+      final int value = dataFile.read();
+      dataFile.seek(position);
+      dataFile.write(~value);
+    }
+
+    final Scrubber.Report report = new Scrubber(mResourceConfig.resourcePath).scrub();
+    assertFalse(report.isValid());
+    assertEquals(2, report.getPageCount());
+    assertEquals(Collections.singletonList(mFirstReference.getKey()), report.getCorruptPages());
+
+    try (final Reader reader = mStorage.createReader()) {
+      reader.read(new PageReference().setKey(mFirstReference.getKey()), null);
+      fail("Corrupt page must not be read.");
+    } catch (final SirixIOException e) {
+      // Expected.
+    }
+  }
+}
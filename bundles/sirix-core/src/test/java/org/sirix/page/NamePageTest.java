@@ -0,0 +1,71 @@
+package org.sirix.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.Test;
+import org.sirix.node.Kind;
+
+/**
+ * Test the canonical qualified names of the {@link NamePage}.
+ *
+ * @author agent
+ *
+ */
+public final class NamePageTest {
+
+  /** Name key of the local name. */
+  private static final int LOCAL_NAME_KEY = 1;
+
+  /** Name key of the first namespace URI. */
+  private static final int FIRST_URI_KEY = 2;
+
+  /** Name key of the second namespace URI. */
+  private static final int SECOND_URI_KEY = 3;
+
+  @Test
+  public void testQNameWithDifferentURIs() {
+    final NamePage page = new NamePage();
+    page.setName(LOCAL_NAME_KEY, "a", Kind.ELEMENT);
+    page.setName(FIRST_URI_KEY, "ns1", Kind.NAMESPACE);
+    page.setName(SECOND_URI_KEY, "ns2", Kind.NAMESPACE);
+
+    final QNm first = page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT);
+    final QNm second = page.getQName(SECOND_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT);
+    assertEquals(new QNm("ns1", "", "a"), first);
+    assertEquals(new QNm("ns2", "", "a"), second);
+
+    // Both names are interned.
+    assertSame(first, page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+    assertSame(second, page.getQName(SECOND_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+  }
+
+  @Test
+  public void testQNameAfterRemoveName() {
+    final NamePage page = new NamePage();
+    page.setName(LOCAL_NAME_KEY, "a", Kind.ELEMENT);
+    page.setName(LOCAL_NAME_KEY, "a", Kind.ELEMENT);
+    page.setName(FIRST_URI_KEY, "ns1", Kind.NAMESPACE);
+    assertEquals(new QNm("ns1", "", "a"),
+        page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+
+    // The name is still in use.
+    page.removeName(LOCAL_NAME_KEY, Kind.ELEMENT);
+    assertEquals(new QNm("ns1", "", "a"),
+        page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+
+    // The key is reused for another name.
+    page.removeName(LOCAL_NAME_KEY, Kind.ELEMENT);
+    assertNull(page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+    page.setName(LOCAL_NAME_KEY, "b", Kind.ELEMENT);
+    assertEquals(new QNm("ns1", "", "b"),
+        page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+
+    // The namespace URI key is reused for another URI.
+    page.removeName(FIRST_URI_KEY, Kind.NAMESPACE);
+    page.setName(FIRST_URI_KEY, "ns2", Kind.NAMESPACE);
+    assertEquals(new QNm("ns2", "", "b"),
+        page.getQName(FIRST_URI_KEY, -1, LOCAL_NAME_KEY, Kind.ELEMENT));
+  }
+}
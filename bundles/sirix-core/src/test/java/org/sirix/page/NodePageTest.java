@@ -21,7 +21,10 @@
 
 package org.sirix.page;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
@@ -119,4 +122,84 @@ public final class NodePageTest {
     assertEquals(7, ((NameNode) page2.getValue(0l)).getLocalNameKey());
     assertEquals(NamePageHash.generateHashForString("xs:untyped"), element.getTypeKey());
   }
+
+  @Test
+  public void testSerializeDeserializePreviousFragmentKeys() throws IOException {
+    final UnorderedKeyValuePage page1 =
+        new UnorderedKeyValuePage(0L, PageKind.RECORDPAGE, 12L, mPageReadTrx);
+    assertArrayEquals(new long[] {12L}, page1.getPreviousFragmentKeys());
+    page1.setPreviousFragmentKeys(new long[] {12L, 8L, 4L});
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final PagePersister pagePersister = new PagePersister();
+    pagePersister.serializePage(new DataOutputStream(out), page1, SerializationType.DATA);
+    final UnorderedKeyValuePage page2 = (UnorderedKeyValuePage) pagePersister.deserializePage(
+        new DataInputStream(new ByteArrayInputStream(out.toByteArray())), mPageReadTrx,
+        SerializationType.DATA);
+    assertEquals(12L, page2.getPreviousReferenceKey());
+    assertArrayEquals(new long[] {12L, 8L, 4L}, page2.getPreviousFragmentKeys());
+  }
+
+  @Test
+  public void testCopySerializedEntry() throws IOException {
+    final UnorderedKeyValuePage page1 =
+        new UnorderedKeyValuePage(0L, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    final NodeDelegate del = new NodeDelegate(0, 1, 0, 0, Optional.of(SirixDeweyID.newRootID()));
+    final StructNodeDelegate strucDel = new StructNodeDelegate(del, 12l, 4l, 3l, 1l, 0l);
+    final NameNodeDelegate nameDel = new NameNodeDelegate(del, 5, 6, 7, 1);
+    final ElementNode node1 = new ElementNode(strucDel, nameDel, new ArrayList<Long>(),
+        HashBiMap.<Long, Long>create(), new ArrayList<Long>(), new QNm("a", "b", "c"));
+    page1.setEntry(node1.getNodeKey(), node1);
+
+    final PagePersister pagePersister = new PagePersister();
+    final UnorderedKeyValuePage page2 = serializeDeserialize(pagePersister, page1);
+    assertTrue(page2.keySet().contains(0L));
+
+    // Copy the serialized record without deserializing it.
+    final UnorderedKeyValuePage page3 =
+        new UnorderedKeyValuePage(0L, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    page3.copyEntry(0L, page2);
+    assertEquals(1, page3.size());
+
+    final UnorderedKeyValuePage page4 = serializeDeserialize(pagePersister, page3);
+    final ElementNode element = (ElementNode) page4.getValue(0L);
+    assertSame(element, page4.getValue(0L));
+    assertEquals(1L, element.getParentKey());
+    assertEquals(12L, element.getFirstChildKey());
+    assertEquals(7, element.getLocalNameKey());
+  }
+
+  @Test
+  public void testSerializeDeserializeKeyOutOfPage() throws IOException {
+    final UnorderedKeyValuePage page1 =
+        new UnorderedKeyValuePage(0L, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    final long key = Constants.NDP_NODE_COUNT + 1;
+    final NodeDelegate del = new NodeDelegate(key, 1, 0, 0, Optional.empty());
+    final StructNodeDelegate strucDel = new StructNodeDelegate(del, 12l, 4l, 3l, 1l, 0l);
+    final NameNodeDelegate nameDel = new NameNodeDelegate(del, 5, 6, 7, 1);
+    final ElementNode node1 = new ElementNode(strucDel, nameDel, new ArrayList<Long>(),
+        HashBiMap.<Long, Long>create(), new ArrayList<Long>(), new QNm("a", "b", "c"));
+    page1.setEntry(key, node1);
+
+    // The record isn't stored in a slot of the page, but has to survive several round trips.
+    final PagePersister pagePersister = new PagePersister();
+    final UnorderedKeyValuePage page2 =
+        serializeDeserialize(pagePersister, serializeDeserialize(pagePersister, page1));
+    assertTrue(page2.keySet().contains(key));
+    assertEquals(1, page2.size());
+    final ElementNode element = (ElementNode) page2.getValue(key);
+    assertEquals(key, element.getNodeKey());
+    assertEquals(1L, element.getParentKey());
+    assertEquals(12L, element.getFirstChildKey());
+    assertEquals(7, element.getLocalNameKey());
+  }
+
+  private UnorderedKeyValuePage serializeDeserialize(final PagePersister pagePersister,
+      final UnorderedKeyValuePage page) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pagePersister.serializePage(new DataOutputStream(out), page, SerializationType.DATA);
+    return (UnorderedKeyValuePage) pagePersister.deserializePage(
+        new DataInputStream(new ByteArrayInputStream(out.toByteArray())), mPageReadTrx,
+        SerializationType.DATA);
+  }
 }
@@ -0,0 +1,77 @@
+package org.sirix.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Test;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the {@link SlotMap}.
+ *
+ * @author agent
+ *
+ */
+public final class SlotMapTest {
+
+  /** Key of the record page. */
+  private static final long PAGE_KEY = 3;
+
+  /** First key in the key range of the page. */
+  private static final long FIRST_KEY = PAGE_KEY << Constants.NDP_NODE_COUNT_EXPONENT;
+
+  @Test
+  public void testPutGetRemove() {
+    final SlotMap<String> map = new SlotMap<>(PAGE_KEY);
+    assertNull(map.get(FIRST_KEY));
+    assertEquals(0, map.size());
+
+    map.put(FIRST_KEY + 5, "b");
+    map.put(FIRST_KEY, "a");
+    map.put(FIRST_KEY + 5, "c");
+    assertEquals(2, map.size());
+    assertEquals("a", map.get(FIRST_KEY));
+    assertEquals("c", map.get(FIRST_KEY + 5));
+    assertFalse(map.containsKey(FIRST_KEY + 1));
+
+    map.remove(FIRST_KEY);
+    map.remove(FIRST_KEY + 1);
+    assertEquals(1, map.size());
+    assertNull(map.get(FIRST_KEY));
+  }
+
+  @Test
+  public void testOutOfRange() {
+    final SlotMap<String> map = new SlotMap<>(PAGE_KEY);
+    final long outOfRangeKey = FIRST_KEY + Constants.NDP_NODE_COUNT;
+    map.put(outOfRangeKey, "z");
+    map.put(FIRST_KEY + 1, "a");
+    assertEquals(2, map.size());
+    assertEquals("z", map.get(outOfRangeKey));
+    assertTrue(map.containsKey(outOfRangeKey));
+
+    // Keys in the key range of the page come first.
+    assertEquals(Arrays.asList("a", "z"), map.values());
+    final Iterator<Long> keys = map.keyIterator();
+    assertEquals(FIRST_KEY + 1, (long) keys.next());
+    assertEquals(outOfRangeKey, (long) keys.next());
+    assertFalse(keys.hasNext());
+    assertEquals(map.values(), Arrays.asList(map.toMap().values().toArray()));
+    assertEquals(map.toMap().entrySet(), map.entrySet());
+
+    final SlotMap<String> other = new SlotMap<>(PAGE_KEY);
+    other.put(FIRST_KEY + 1, "a");
+    assertNotEquals(map, other);
+    other.put(outOfRangeKey, "z");
+    assertEquals(map, other);
+    assertEquals(map.hashCode(), other.hashCode());
+    assertEquals(map.toMap().hashCode(), map.hashCode());
+
+    map.remove(outOfRangeKey);
+    assertEquals(1, map.size());
+  }
+}
@@ -0,0 +1,41 @@
+package org.sirix.page;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the page count exponents of indirect page trees by their height.
+ *
+ * @author agent
+ *
+ */
+public final class UberPageTest {
+
+  @Test
+  public void testPageCountExpByHeight() {
+    final UberPage uberPage = new UberPage();
+
+    assertArrayEquals(new int[] {0}, uberPage.getPageCountExp(PageKind.RECORDPAGE, 1));
+    assertArrayEquals(new int[] {18, 9, 0}, uberPage.getPageCountExp(PageKind.CASPAGE, 3));
+    assertArrayEquals(Constants.INP_LEVEL_PAGE_COUNT_EXPONENT,
+        uberPage.getPageCountExp(PageKind.NAMEPAGE, Constants.INP_LEVEL_PAGE_COUNT_EXPONENT.length));
+    assertArrayEquals(new int[] {0}, uberPage.getPageCountExp(PageKind.PATHSUMMARYPAGE, 1));
+
+    // The exponents are shared, as they are looked up for each record page access.
+    assertSame(uberPage.getPageCountExp(PageKind.PATHPAGE, 2),
+        uberPage.getPageCountExp(PageKind.PATHPAGE, 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHeightExceedsMaximum() {
+    new UberPage().getPageCountExp(PageKind.PATHSUMMARYPAGE,
+        Constants.PATHINP_LEVEL_PAGE_COUNT_EXPONENT.length + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRevisionTreeHasFixedHeight() {
+    new UberPage().getPageCountExp(PageKind.UBERPAGE, 1);
+  }
+}
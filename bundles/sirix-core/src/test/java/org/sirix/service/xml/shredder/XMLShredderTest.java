@@ -53,6 +53,9 @@ public class XMLShredderTest extends XMLTestCase {
 
   public static final Path XML3 = Paths.get("src", "test", "resources", "test3.xml");
 
+  /** Resource, which is filled by the shredding bulk insert. */
+  private static final String SHREDDED_RESOURCE = "shredded";
+
   private Holder holder;
 
   @Override
@@ -153,6 +156,107 @@ public class XMLShredderTest extends XMLTestCase {
     }
   }
 
+  @Test
+  public void testBulkLoad() throws Exception {
+    // Setup expected. DeweyIDs aren't part of the hashes, but storing them makes the subtree being
+    // inserted by the shredding bulk insert instead of the bulk loader.
+    final Database database2 = TestHelper.getDatabase(PATHS.PATH2.getFile());
+    database2.createResource(
+        new ResourceConfiguration.Builder(SHREDDED_RESOURCE, PATHS.PATH2.getConfig()).useDeweyIDs(
+            true).build());
+    try (final ResourceManager manager = database2.getResourceManager(SHREDDED_RESOURCE);
+        final XdmNodeWriteTrx expectedTrx = manager.beginNodeWriteTrx();
+        final FileInputStream fis1 = new FileInputStream(XML.toFile());
+        final FileInputStream fis2 = new FileInputStream(XML.toFile())) {
+      expectedTrx.insertSubtreeAsFirstChild(XMLShredder.createFileReader(fis1));
+
+      // Load the same document bottom-up into the empty resource.
+      final XdmNodeWriteTrx wtx = holder.getXdmNodeWriteTrx();
+      wtx.insertSubtreeAsFirstChild(XMLShredder.createFileReader(fis2));
+      assertEquals(expectedTrx.getRevisionNumber(), wtx.getRevisionNumber());
+
+      // Verify.
+      try (final XdmNodeReadTrx rtx = holder.getResourceManager().beginNodeReadTrx()) {
+        expectedTrx.moveToDocumentRoot();
+        assertEquals(expectedTrx.getChildCount(), rtx.getChildCount());
+        assertEquals(expectedTrx.getDescendantCount(), rtx.getDescendantCount());
+        assertEquals(expectedTrx.getHash(), rtx.getHash());
+        final Iterator<Long> expectedDescendants = new DescendantAxis(expectedTrx);
+        final Iterator<Long> descendants = new DescendantAxis(rtx);
+
+        while (expectedDescendants.hasNext()) {
+          expectedDescendants.next();
+          assertTrue(descendants.hasNext());
+          descendants.next();
+          assertEquals(expectedTrx.getNodeKey(), rtx.getNodeKey());
+          assertEquals(expectedTrx.getParentKey(), rtx.getParentKey());
+          assertEquals(expectedTrx.getFirstChildKey(), rtx.getFirstChildKey());
+          assertEquals(expectedTrx.getLeftSiblingKey(), rtx.getLeftSiblingKey());
+          assertEquals(expectedTrx.getRightSiblingKey(), rtx.getRightSiblingKey());
+          assertEquals(expectedTrx.getChildCount(), rtx.getChildCount());
+          assertEquals(expectedTrx.getDescendantCount(), rtx.getDescendantCount());
+          assertEquals(expectedTrx.getHash(), rtx.getHash());
+          assertEquals(expectedTrx.getKind(), rtx.getKind());
+          assertEquals(expectedTrx.getName(), rtx.getName());
+          assertEquals(expectedTrx.getValue(), rtx.getValue());
+          if (expectedTrx.getKind() == Kind.ELEMENT) {
+            assertEquals(expectedTrx.getPathNodeKey(), rtx.getPathNodeKey());
+            assertEquals(expectedTrx.getNamespaceCount(), rtx.getNamespaceCount());
+            assertEquals(expectedTrx.getAttributeCount(), rtx.getAttributeCount());
+            for (int i = 0; i < expectedTrx.getAttributeCount(); i++) {
+              expectedTrx.moveToAttribute(i);
+              rtx.moveToAttribute(i);
+              assertEquals(expectedTrx.getNodeKey(), rtx.getNodeKey());
+              assertEquals(expectedTrx.getName(), rtx.getName());
+              assertEquals(expectedTrx.getValue(), rtx.getValue());
+              expectedTrx.moveToParent();
+              rtx.moveToParent();
+            }
+          }
+        }
+        assertFalse(descendants.hasNext());
+      }
+    }
+  }
+
+  @Test
+  public void testBulkLoadDocumentRoot() throws Exception {
+    // A comment and a processing instruction in front of the root element.
+    final String xml = "<!--comment--><?target data?><a><b/>text</a>";
+
+    final Database database2 = TestHelper.getDatabase(PATHS.PATH2.getFile());
+    database2.createResource(
+        new ResourceConfiguration.Builder(SHREDDED_RESOURCE, PATHS.PATH2.getConfig()).useDeweyIDs(
+            true).build());
+    try (final ResourceManager manager = database2.getResourceManager(SHREDDED_RESOURCE);
+        final XdmNodeWriteTrx expectedTrx = manager.beginNodeWriteTrx()) {
+      expectedTrx.insertSubtreeAsFirstChild(XMLShredder.createStringReader(xml));
+
+      final XdmNodeWriteTrx wtx = holder.getXdmNodeWriteTrx();
+      wtx.insertSubtreeAsFirstChild(XMLShredder.createStringReader(xml));
+
+      try (final XdmNodeReadTrx rtx = holder.getResourceManager().beginNodeReadTrx()) {
+        expectedTrx.moveToDocumentRoot();
+        assertEquals(3, rtx.getChildCount());
+        assertEquals(expectedTrx.getChildCount(), rtx.getChildCount());
+        assertEquals(5, rtx.getDescendantCount());
+        assertEquals(expectedTrx.getDescendantCount(), rtx.getDescendantCount());
+        assertEquals(expectedTrx.getHash(), rtx.getHash());
+
+        // Every top-level node is hashed.
+        expectedTrx.moveToFirstChild();
+        rtx.moveToFirstChild();
+        do {
+          assertEquals(expectedTrx.getKind(), rtx.getKind());
+          assertEquals(expectedTrx.getDescendantCount(), rtx.getDescendantCount());
+          assertEquals(expectedTrx.getHash(), rtx.getHash());
+          assertTrue(rtx.getHash() != 0);
+          rtx.moveToRightSibling();
+        } while (expectedTrx.moveToRightSibling().hasMoved());
+      }
+    }
+  }
+
   @Test
   public void testAttributesNSPrefix() throws Exception {
     // Setup expected.
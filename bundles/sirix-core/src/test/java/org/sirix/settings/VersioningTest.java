@@ -22,6 +22,7 @@
 package org.sirix.settings;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
@@ -33,10 +34,14 @@ import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.HashType;
 import org.sirix.api.Database;
+import org.sirix.api.PageReadTrx;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.exception.SirixException;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
 
 /** Test revisioning. */
 public class VersioningTest {
@@ -177,6 +182,30 @@ public class VersioningTest {
     test2();
   }
 
+  @Test
+  public void testIncrementalFullDump() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.INCREMENTAL)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(10)
+                                          .fullDumpThreshold(4)
+                                          .build());
+    testFullDump();
+  }
+
+  @Test
+  public void testSlidingSnapshotFullDump() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.SLIDING_SNAPSHOT)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(10)
+                                          .fullDumpThreshold(4)
+                                          .build());
+    testFullDump();
+  }
+
   /**
    * Test revisioning.
    *
@@ -294,6 +323,65 @@ public class VersioningTest {
     }
   }
 
+  /**
+   * Test adaptive full dumps. Each revision modifies the first record page, such that the number
+   * of previous fragments read to reconstruct it grows, until it reaches the threshold and a full
+   * page is written instead of another fragment.
+   *
+   * @throws SirixException if anything in Sirix fails
+   */
+  private void testFullDump() throws SirixException {
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      int fullDumpRevision = 0;
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        for (int revision = 1; revision < 10 && fullDumpRevision == 0; revision++) {
+          wtx.insertElementAsFirstChild(new QNm("rev" + revision));
+          wtx.commit();
+          if (getPreviousFragmentKeys(manager, revision).length == 0) {
+            fullDumpRevision = revision;
+          }
+        }
+
+        // A full page has been written, once the reconstruction costs reached the threshold.
+        assertTrue(fullDumpRevision > 1);
+
+        // The next fragment only needs the full page to be reconstructed.
+        wtx.insertElementAsFirstChild(new QNm("rev" + (fullDumpRevision + 1)));
+        wtx.commit();
+        assertEquals(1, getPreviousFragmentKeys(manager, fullDumpRevision + 1).length);
+      }
+
+      for (int revision = 1; revision <= fullDumpRevision + 1; revision++) {
+        try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+          for (int i = 1; i <= revision; i++) {
+            assertTrue(rtx.moveToFirstChild().hasMoved());
+            assertEquals(new QNm("rev" + i), rtx.getName());
+          }
+          assertFalse(rtx.hasFirstChild());
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the keys of the previous fragments of the most recent fragment of the first record page.
+   *
+   * @param manager the resource manager
+   * @param revision the revision to read
+   * @return the keys of the previous fragments
+   */
+  private static long[] getPreviousFragmentKeys(final ResourceManager manager,
+      final int revision) {
+    try (final PageReadTrx pageReadTrx = manager.beginPageReadTrx(revision)) {
+      final PageReference reference = pageReadTrx.getPageReferenceForPage(
+          pageReadTrx.getActualRevisionRootPage().getIndirectPageReference(), 0, -1,
+          PageKind.RECORDPAGE);
+      final UnorderedKeyValuePage page = (UnorderedKeyValuePage) pageReadTrx.getReader().read(
+          new PageReference().setKey(reference.getKey()), pageReadTrx);
+      return page.getPreviousFragmentKeys();
+    }
+  }
+
   /**
    * Set the second {@link QNm} in the first node page.
    *
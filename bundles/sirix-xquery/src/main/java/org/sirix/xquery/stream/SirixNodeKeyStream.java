@@ -2,7 +2,8 @@ package org.sirix.xquery.stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.PrimitiveIterator;
+import javax.annotation.Nullable;
 import org.brackit.xquery.xdm.DocumentException;
 import org.brackit.xquery.xdm.Stream;
 import org.sirix.api.XdmNodeReadTrx;
@@ -15,6 +16,7 @@ public final class SirixNodeKeyStream implements Stream<DBNode> {
   private final Iterator<NodeReferences> mIter;
   private final DBCollection mCollection;
   private final XdmNodeReadTrx mRtx;
+  private @Nullable PrimitiveIterator.OfLong mNodeKeys;
 
   public SirixNodeKeyStream(final Iterator<NodeReferences> iter, final DBCollection collection,
       final XdmNodeReadTrx rtx) {
@@ -25,13 +27,12 @@ public final class SirixNodeKeyStream implements Stream<DBNode> {
 
   @Override
   public DBNode next() throws DocumentException {
-    while (mIter.hasNext()) {
-      final NodeReferences nodeReferences = mIter.next();
-      final Set<Long> nodeKeys = nodeReferences.getNodeKeys();
-      for (final long nodeKey : nodeKeys) {
-        mRtx.moveTo(nodeKey);
-        return new DBNode(mRtx, mCollection);
-      }
+    while ((mNodeKeys == null || !mNodeKeys.hasNext()) && mIter.hasNext()) {
+      mNodeKeys = mIter.next().getNodeKeyIterator();
+    }
+    if (mNodeKeys != null && mNodeKeys.hasNext()) {
+      mRtx.moveTo(mNodeKeys.nextLong());
+      return new DBNode(mRtx, mCollection);
     }
     return null;
   }